@@ -0,0 +1,50 @@
+package com.getjobs.application.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 读写分离数据源
+ * 按当前线程的路由标记在写连接池（单连接）与只读连接池之间选择；未标记时一律走写池。
+ * 路由标记由 {@link ServiceRoutingPostProcessor} 在调用 *Service 方法时设置。
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        WRITE, READ
+    }
+
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 设置当前线程的路由，返回之前的路由（用于调用结束后恢复）
+     */
+    static Route swap(Route route) {
+        Route previous = CURRENT.get();
+        if (route == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(route);
+        }
+        return previous;
+    }
+
+    /**
+     * 当前线程显式设置的路由（未设置时为 null）
+     */
+    static Route peek() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 当前线程的路由（未设置时为写）
+     */
+    public static Route current() {
+        Route route = CURRENT.get();
+        return route == null ? Route.WRITE : route;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return current();
+    }
+}
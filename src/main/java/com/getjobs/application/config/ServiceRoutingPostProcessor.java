@@ -0,0 +1,68 @@
+package com.getjobs.application.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为 com.getjobs.application.service 下的 *Service 自动设置读写路由
+ * 只有显式标注 @Transactional(readOnly = true) 的方法走只读池，其余方法一律走写池：
+ * 按方法名前缀推断会把“查询时顺带补数据”的方法误判为只读，在只读连接上写入失败。
+ * 代理放在已有通知（如事务）之前，保证事务开启时取到的是正确连接池的连接。
+ */
+public class ServiceRoutingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private static final String SERVICE_PACKAGE = "com.getjobs.application.service.";
+
+    public ServiceRoutingPostProcessor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new RoutingInterceptor());
+        advisor.setPointcut(new StaticMethodMatcherPointcut() {
+            @Override
+            public ClassFilter getClassFilter() {
+                return clazz -> clazz.getName().startsWith(SERVICE_PACKAGE) && clazz.getSimpleName().endsWith("Service");
+            }
+
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return !method.getDeclaringClass().equals(Object.class);
+            }
+        });
+        this.advisor = advisor;
+        this.beforeExistingAdvisors = true;
+        setProxyTargetClass(true);
+    }
+
+    static boolean isReadMethod(Method method) {
+        Transactional tx = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        return tx != null && tx.readOnly();
+    }
+
+    private static class RoutingInterceptor implements MethodInterceptor {
+
+        // 方法 -> 是否只读（方法签名固定，结果可缓存）
+        private final Map<Method, Boolean> readMethods = new ConcurrentHashMap<>();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RoutingDataSource.Route previous = RoutingDataSource.peek();
+            // 外层已是写路由时保持写池，避免同一调用链混用两个连接池
+            boolean read = previous != RoutingDataSource.Route.WRITE
+                    && readMethods.computeIfAbsent(invocation.getMethod(), ServiceRoutingPostProcessor::isReadMethod);
+            RoutingDataSource.swap(read ? RoutingDataSource.Route.READ : RoutingDataSource.Route.WRITE);
+            try {
+                return invocation.proceed();
+            } finally {
+                RoutingDataSource.swap(previous);
+            }
+        }
+    }
+}
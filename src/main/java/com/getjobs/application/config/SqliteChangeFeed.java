@@ -0,0 +1,103 @@
+package com.getjobs.application.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sqlite.SQLiteCommitListener;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteUpdateListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * SQLite 行变更通知
+ * 在写连接上注册 update hook 与 commit hook：收集事务改动过的 (表, rowid)，提交时转入待发布集合，回滚则丢弃。
+ * commit hook 在提交真正完成前触发，此时其他连接还读不到这些改动，因此不在钩子里通知，
+ * 而是由提交方在提交返回后调用 {@link #publish()}（组提交写入器每批事务提交后调用一次）。
+ * 订阅方在发布线程上被调用，只应做轻量操作（如记录脏行）。
+ */
+@Slf4j
+public class SqliteChangeFeed {
+
+    /**
+     * 变更订阅方
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onCommit(String table, Set<Long> rowIds);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // 已提交、尚未发布的变更（表 -> rowid）
+    private final Map<String, Set<Long>> committed = new HashMap<>();
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 把已提交的变更通知订阅方，须在事务提交返回之后调用
+     */
+    public void publish() {
+        Map<String, Set<Long>> changes;
+        synchronized (committed) {
+            if (committed.isEmpty()) {
+                return;
+            }
+            changes = new HashMap<>(committed);
+            committed.clear();
+        }
+        for (Map.Entry<String, Set<Long>> en : changes.entrySet()) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onCommit(en.getKey(), en.getValue());
+                } catch (Exception e) {
+                    log.warn("行变更通知处理失败（{}）: {}", en.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 为新建的物理连接注册钩子
+     */
+    void attach(SQLiteConnection conn) {
+        Capture capture = new Capture();
+        conn.addUpdateListener(capture);
+        conn.addCommitListener(capture);
+    }
+
+    /**
+     * 单个连接上的变更收集（同一连接同一时刻只被一个线程使用）
+     */
+    private class Capture implements SQLiteUpdateListener, SQLiteCommitListener {
+
+        private final Map<String, Set<Long>> pending = new HashMap<>();
+
+        @Override
+        public void onUpdate(Type type, String database, String table, long rowId) {
+            pending.computeIfAbsent(table, k -> new HashSet<>()).add(rowId);
+        }
+
+        @Override
+        public void onCommit() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            synchronized (committed) {
+                pending.forEach((table, rowIds) ->
+                        committed.computeIfAbsent(table, k -> new HashSet<>()).addAll(rowIds));
+            }
+            pending.clear();
+        }
+
+        @Override
+        public void onRollback() {
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.getjobs.application.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * SQLite 数据源配置
+ * 1) 每个连接统一设置 WAL、synchronous=NORMAL、mmap_size、cache_size、busy_timeout
+ * 2) 写连接池只有一个连接（SQLite 同一时刻只允许一个写事务，多连接只会互相等待并触发 SQLITE_BUSY）
+ * 3) 只读连接池多个连接，WAL 模式下读取不阻塞写入，供看板/统计查询使用
+ * 4) 写连接注册行变更钩子（{@link SqliteChangeFeed}），供内存索引增量更新
+ * 读写路由见 {@link RoutingDataSource} 与 {@link ServiceRoutingPostProcessor}
+ */
+@Slf4j
+@Configuration
+public class SqliteDataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    // 只读连接池大小
+    @Value("${sqlite.read-pool-size:4}")
+    private int readPoolSize;
+
+    // 获取锁失败时的等待时间（毫秒）
+    @Value("${sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    // 每个连接的页缓存大小（KB）
+    @Value("${sqlite.cache-size-kb:16384}")
+    private int cacheSizeKb;
+
+    // 内存映射读取的大小（MB，0 表示关闭）
+    @Value("${sqlite.mmap-size-mb:256}")
+    private long mmapSizeMb;
+
+    @Bean
+    public SqliteChangeFeed sqliteChangeFeed() {
+        return new SqliteChangeFeed();
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteWriteDataSource(SqliteChangeFeed sqliteChangeFeed) {
+        SQLiteConfig config = baseConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+
+        // 每个新建的物理写连接（含连接池回收后重建的）都注册变更钩子
+        SQLiteDataSource writer = new SQLiteDataSource(config) {
+            @Override
+            public SQLiteConnection getConnection(String username, String password) throws SQLException {
+                SQLiteConnection conn = super.getConnection(username, password);
+                sqliteChangeFeed.attach(conn);
+                return conn;
+            }
+        };
+        writer.setUrl(url);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("sqlite-writer");
+        hikari.setDataSource(writer);
+        hikari.setMaximumPoolSize(1);
+        hikari.setMinimumIdle(1);
+        hikari.setConnectionInitSql(mmapPragma());
+        HikariDataSource ds = new HikariDataSource(hikari);
+        log.info("SQLite 写连接池已创建 - WAL, synchronous=NORMAL, busy_timeout={}ms", busyTimeoutMs);
+        return ds;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteReadDataSource(HikariDataSource sqliteWriteDataSource) {
+        // 依赖写池先创建：由写连接把数据库切换为 WAL（journal_mode 持久化在文件中），只读连接无法切换
+        SQLiteConfig config = baseConfig();
+        config.setReadOnly(true);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("sqlite-reader");
+        hikari.setDataSource(dataSource(config));
+        // 连接池默认只读标志需与驱动一致：sqlite-jdbc 不允许在建立连接后修改只读标志，Hikari 初始化连接时会按该值设置
+        hikari.setReadOnly(true);
+        hikari.setMaximumPoolSize(Math.max(1, readPoolSize));
+        hikari.setMinimumIdle(1);
+        hikari.setConnectionInitSql(mmapPragma());
+        HikariDataSource ds = new HikariDataSource(hikari);
+        log.info("SQLite 只读连接池已创建 - 连接数: {}", hikari.getMaximumPoolSize());
+        return ds;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource sqliteWriteDataSource, HikariDataSource sqliteReadDataSource) {
+        RoutingDataSource routing = new RoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                RoutingDataSource.Route.WRITE, sqliteWriteDataSource,
+                RoutingDataSource.Route.READ, sqliteReadDataSource));
+        routing.setDefaultTargetDataSource(sqliteWriteDataSource);
+        return routing;
+    }
+
+    @Bean
+    public static ServiceRoutingPostProcessor serviceRoutingPostProcessor() {
+        return new ServiceRoutingPostProcessor();
+    }
+
+    private SQLiteConfig baseConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(busyTimeoutMs);
+        // 负数表示以 KB 为单位
+        config.setCacheSize(-cacheSizeKb);
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        return config;
+    }
+
+    private DataSource dataSource(SQLiteConfig config) {
+        SQLiteDataSource ds = new SQLiteDataSource(config);
+        ds.setUrl(url);
+        return ds;
+    }
+
+    private String mmapPragma() {
+        return "PRAGMA mmap_size=" + Math.max(0, mmapSizeMb) * 1024 * 1024;
+    }
+}
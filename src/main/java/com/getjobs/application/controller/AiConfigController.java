@@ -100,6 +100,18 @@ public class AiConfigController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * AI 调用运行状态
+     * @return 调度器（并发、限流、熔断）状态与回复缓存命中统计
+     */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", aiService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * AI 文本生成测试接口（GET）
      * 示例：/api/ai/chat?content=你好，帮我写一句简洁的问候语
@@ -67,7 +67,8 @@ public class BossAnalyticsController {
             @RequestParam(value = "keyword", required = false) String keyword,
             @RequestParam(value = "filterHeadhunter", required = false) Boolean filterHeadhunter,
             @RequestParam(value = "page", required = false, defaultValue = "1") Integer page,
-            @RequestParam(value = "size", required = false, defaultValue = "20") Integer size
+            @RequestParam(value = "size", required = false, defaultValue = "20") Integer size,
+            @RequestParam(value = "cursor", required = false) Long cursor
     ) {
         List<String> statusList = null;
         if (statuses != null && !statuses.trim().isEmpty()) {
@@ -86,7 +87,8 @@ public class BossAnalyticsController {
                 keyword,
                 page,
                 size,
-                filterHeadhunter != null && filterHeadhunter
+                filterHeadhunter != null && filterHeadhunter,
+                cursor
         );
     }
 
@@ -501,7 +501,8 @@ public class JobController {
             @RequestParam(value = "maxK", required = false) Double maxK,
             @RequestParam(value = "keyword", required = false) String keyword,
             @RequestParam(value = "page", required = false, defaultValue = "1") Integer page,
-            @RequestParam(value = "size", required = false, defaultValue = "20") Integer size
+            @RequestParam(value = "size", required = false, defaultValue = "20") Integer size,
+            @RequestParam(value = "cursor", required = false) Long cursor
     ) {
         List<String> statusList = null;
         if (statuses != null && !statuses.trim().isEmpty()) {
@@ -510,7 +511,7 @@ public class JobController {
                     .filter(s -> !s.isEmpty())
                     .collect(Collectors.toList());
         }
-        return job51Service.listJob51(statusList, location, experience, degree, minK, maxK, keyword, page, size);
+        return job51Service.listJob51(statusList, location, experience, degree, minK, maxK, keyword, page, size, cursor);
     }
 
     /** 刷新 job51_data，返回总数 */
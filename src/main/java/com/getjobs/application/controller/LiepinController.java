@@ -249,7 +249,8 @@ public class LiepinController {
             @RequestParam(value = "maxK", required = false) Double maxK,
             @RequestParam(value = "keyword", required = false) String keyword,
             @RequestParam(value = "page", required = false, defaultValue = "1") Integer page,
-            @RequestParam(value = "size", required = false, defaultValue = "20") Integer size
+            @RequestParam(value = "size", required = false, defaultValue = "20") Integer size,
+            @RequestParam(value = "cursor", required = false) Long cursor
     ) {
         java.util.List<String> statusList = null;
         if (statuses != null && !statuses.trim().isEmpty()) {
@@ -258,7 +259,7 @@ public class LiepinController {
                     .filter(s -> !s.isEmpty())
                     .collect(java.util.stream.Collectors.toList());
         }
-        return liepinService.listLiepinJobs(statusList, location, experience, degree, minK, maxK, keyword, page, size);
+        return liepinService.listLiepinJobs(statusList, location, experience, degree, minK, maxK, keyword, page, size, cursor);
     }
 
     /**
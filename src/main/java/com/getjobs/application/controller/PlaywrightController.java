@@ -1,9 +1,16 @@
 package com.getjobs.application.controller;
 
+import com.getjobs.application.service.GroupCommitWriter;
+import com.getjobs.worker.manager.IngestQueue;
 import com.getjobs.worker.manager.PlaywrightManager;
+import com.getjobs.worker.manager.ResourceBlocker;
+import com.getjobs.worker.manager.RunProfile;
+import com.getjobs.worker.utils.PlaywrightUtil;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
@@ -18,9 +25,16 @@ import java.util.Map;
 public class PlaywrightController {
 
     private final PlaywrightManager playwrightManager;
+    private final ResourceBlocker resourceBlocker;
+    private final IngestQueue ingestQueue;
+    private final GroupCommitWriter groupCommitWriter;
 
-    public PlaywrightController(PlaywrightManager playwrightManager) {
+    public PlaywrightController(PlaywrightManager playwrightManager, ResourceBlocker resourceBlocker, IngestQueue ingestQueue,
+                                GroupCommitWriter groupCommitWriter) {
         this.playwrightManager = playwrightManager;
+        this.resourceBlocker = resourceBlocker;
+        this.ingestQueue = ingestQueue;
+        this.groupCommitWriter = groupCommitWriter;
     }
 
     /**
@@ -31,9 +45,21 @@ public class PlaywrightController {
         Map<String, Object> status = new HashMap<>();
         status.put("initialized", playwrightManager.isInitialized());
         status.put("cdpPort", playwrightManager.getCdpPort());
+        status.put("cdpPorts", playwrightManager.getCdpPorts());
         status.put("hasBossPage", playwrightManager.getBossPage() != null);
-        status.put("hasBrowser", playwrightManager.getBrowser() != null);
+        status.put("hasBrowser", playwrightManager.getSession("boss") != null
+                && playwrightManager.getSession("boss").getBrowser() != null);
         status.put("bossLoggedIn", playwrightManager.isLoggedIn("boss"));
+        // 各平台调度队列中等待执行的命令数
+        Map<String, Integer> pending = new HashMap<>();
+        playwrightManager.getCdpPorts().keySet().forEach(platform ->
+                pending.put(platform, playwrightManager.getDispatcher(platform).getPendingCount()));
+        status.put("dispatcherPending", pending);
+        status.put("profiles", playwrightManager.getProfiles());
+        status.put("networkBlocking", resourceBlocker.getStats());
+        status.put("conditionWaits", PlaywrightUtil.getWaitStats());
+        status.put("ingest", ingestQueue.getStats());
+        status.put("writer", groupCommitWriter.getStats());
 
         return ResponseEntity.ok(status);
     }
@@ -44,13 +70,15 @@ public class PlaywrightController {
     @GetMapping("/test-navigate")
     public ResponseEntity<Map<String, String>> testNavigate() {
         try {
-            playwrightManager.getBossPage().navigate("https://www.zhipin.com");
-            String title = playwrightManager.getBossPage().title();
-
-            Map<String, String> result = new HashMap<>();
-            result.put("success", "true");
-            result.put("title", title);
-            result.put("url", playwrightManager.getBossPage().url());
+            // 页面操作统一交给Boss调度线程执行
+            Map<String, String> result = playwrightManager.callOnPlatform("boss", () -> {
+                playwrightManager.getBossPage().navigate("https://www.zhipin.com");
+                Map<String, String> data = new HashMap<>();
+                data.put("success", "true");
+                data.put("title", playwrightManager.getBossPage().title());
+                data.put("url", playwrightManager.getBossPage().url());
+                return data;
+            });
 
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -60,4 +88,39 @@ public class PlaywrightController {
             return ResponseEntity.internalServerError().body(error);
         }
     }
+
+    /**
+     * 运行时切换浏览器运行模式（interactive：可视化登录；headless：无头高吞吐投递）
+     * 登录态会被保留，无需重启应用
+     *
+     * @param profile  目标模式
+     * @param platform 平台标识，为空时切换所有平台
+     */
+    @PostMapping("/profile")
+    public ResponseEntity<Map<String, Object>> switchProfile(@RequestParam String profile,
+                                                             @RequestParam(required = false) String platform) {
+        Map<String, Object> result = new HashMap<>();
+        RunProfile target = RunProfile.of(profile, null);
+        if (target == null) {
+            result.put("success", false);
+            result.put("message", "不支持的运行模式: " + profile);
+            return ResponseEntity.badRequest().body(result);
+        }
+        try {
+            Map<String, Boolean> switched = new HashMap<>();
+            for (String p : playwrightManager.getCdpPorts().keySet()) {
+                if (platform == null || platform.isBlank() || platform.equals(p)) {
+                    switched.put(p, playwrightManager.switchProfile(p, target));
+                }
+            }
+            result.put("success", true);
+            result.put("switched", switched);
+            result.put("profiles", playwrightManager.getProfiles());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.getjobs.application.controller;
+
+import com.getjobs.application.service.StatsRollup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 投递统计汇总维护控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final StatsRollup statsRollup;
+
+    /**
+     * 重建统计汇总表（回填历史数据或修复汇总偏差）
+     * @param platform 平台标识（boss、liepin、zhilian、51job），不传时重建全部平台
+     * @return 重建结果
+     */
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollup(
+            @RequestParam(value = "platform", required = false) String platform) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (platform == null || platform.isBlank()) {
+                statsRollup.rebuildAll().join();
+            } else {
+                statsRollup.rebuild(platform.trim()).join();
+            }
+            response.put("success", true);
+            response.put("message", "统计汇总重建完成");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("重建统计汇总失败: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "重建失败: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+}
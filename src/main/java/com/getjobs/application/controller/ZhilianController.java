@@ -248,7 +248,8 @@ public class ZhilianController {
             @RequestParam(value = "maxK", required = false) Double maxK,
             @RequestParam(value = "keyword", required = false) String keyword,
             @RequestParam(value = "page", required = false, defaultValue = "1") Integer page,
-            @RequestParam(value = "size", required = false, defaultValue = "20") Integer size
+            @RequestParam(value = "size", required = false, defaultValue = "20") Integer size,
+            @RequestParam(value = "cursor", required = false) Long cursor
     ) {
         java.util.List<String> statusList = null;
         if (statuses != null && !statuses.trim().isEmpty()) {
@@ -257,7 +258,7 @@ public class ZhilianController {
                     .filter(s -> !s.isEmpty())
                     .collect(java.util.stream.Collectors.toList());
         }
-        return zhilianService.listZhilianJobs(statusList, location, experience, degree, minK, maxK, keyword, page, size);
+        return zhilianService.listZhilianJobs(statusList, location, experience, degree, minK, maxK, keyword, page, size, cursor);
     }
 
     // ==================== 任务管理相关接口 ====================
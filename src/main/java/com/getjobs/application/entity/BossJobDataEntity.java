@@ -77,6 +77,22 @@ public class BossJobDataEntity {
     @TableField("company_scale")
     private String companyScale;
 
+    // 入库时解析的薪资字段（K/月），用于 SQL 薪资筛选
+    @TableField("min_k")
+    private Double minK;
+
+    @TableField("max_k")
+    private Double maxK;
+
+    @TableField("median_k")
+    private Double medianK;
+
+    @TableField("months")
+    private Integer months;
+
+    @TableField("annual_total")
+    private Long annualTotal;
+
     @TableField("created_at")
     private LocalDateTime createdAt;
 
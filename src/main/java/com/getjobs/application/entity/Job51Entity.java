@@ -33,6 +33,13 @@ public class Job51Entity {
     private String hrName;
     private String hrTitle;
 
+    // 薪资字段（入库时由 jobSalaryText 解析，K/月）
+    private Double minK;
+    private Double maxK;
+    private Double medianK;
+    private Integer months;
+    private Long annualTotal;
+
     // 状态与时间戳
     private Integer delivered; // 0=未投递 1=已投递
     private String createTime;
@@ -40,6 +40,13 @@ public class LiepinEntity {
     // 是否已投递：0 未投递（默认），1 已投递
     private Integer delivered;
 
+    // ========== 薪资字段（入库时由 jobSalaryText 解析，K/月） ==========
+    private Double minK;
+    private Double maxK;
+    private Double medianK;
+    private Integer months;
+    private Long annualTotal;
+
     // ========== 系统字段 ==========
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
@@ -44,6 +44,22 @@ public class ZhilianJobDataEntity {
     @TableField("delivery_status")
     private String deliveryStatus; // 未投递 / 已投递 / 已过滤 / 投递失败
 
+    // 入库时解析的薪资字段（K/月），用于 SQL 薪资筛选
+    @TableField("min_k")
+    private Double minK;
+
+    @TableField("max_k")
+    private Double maxK;
+
+    @TableField("median_k")
+    private Double medianK;
+
+    @TableField("months")
+    private Integer months;
+
+    @TableField("annual_total")
+    private Long annualTotal;
+
     @TableField("create_time")
     private LocalDateTime createTime;
 
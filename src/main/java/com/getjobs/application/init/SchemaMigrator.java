@@ -0,0 +1,417 @@
+package com.getjobs.application.init;
+
+import com.getjobs.application.service.AiResponseCache;
+import com.getjobs.application.service.BossService;
+import com.getjobs.application.service.FullTextIndex;
+import com.getjobs.application.service.Job51Service;
+import com.getjobs.application.service.LiepinService;
+import com.getjobs.application.service.SalaryColumns;
+import com.getjobs.application.service.StatsRollup;
+import com.getjobs.application.service.ZhilianService;
+import com.getjobs.worker.utils.Constant;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 数据库结构版本迁移
+ * 启动时执行一次：按版本号顺序应用尚未执行的迁移，每个版本的结构变更与 schema_version 记录在同一事务中提交。
+ * 任一版本失败即回滚该版本并中止启动，避免在不完整的表结构上运行；修复后重新启动会从失败的版本继续。
+ * 取代原先分散在各 Service 中、每次启动（甚至每次投递）都执行的建表/改表逻辑。
+ * 新增结构变更时只需在 {@link #MIGRATIONS} 末尾追加新版本，已发布的版本不要修改。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaMigrator {
+
+    /**
+     * 单个迁移步骤（在迁移事务内执行）
+     */
+    @FunctionalInterface
+    private interface Step {
+        void apply(Statement stmt) throws SQLException;
+    }
+
+    private record Migration(int version, String description, Step step) {
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "基础表结构", SchemaMigrator::baseline),
+            new Migration(2, "boss_data 列顺序调整（encrypt_id、encrypt_user_id 前置）", SchemaMigrator::reorderBossData),
+            new Migration(3, "岗位数据表查询索引", SchemaMigrator::dataIndexes),
+            new Migration(4, "物化薪资列与列表分页索引", SchemaMigrator::salaryColumns),
+            new Migration(5, "投递统计汇总表与维护触发器", StatsRollup::install),
+            new Migration(6, "岗位全文索引（FTS5 trigram）与同步触发器", FullTextIndex::install),
+            new Migration(7, "AI 回复缓存表", AiResponseCache::install),
+            new Migration(8, "boss_option 预置『不限』选项", SchemaMigrator::bossUnlimitedOptions),
+            new Migration(9, "ai 表预置默认配置", SchemaMigrator::aiDefaultConfig),
+            new Migration(10, "统计汇总触发器扣减时重算薪资档最大值", StatsRollup::install)
+    );
+
+    private final DataSource dataSource;
+
+    @PostConstruct
+    public void migrate() {
+        try (Connection conn = dataSource.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                        " version INTEGER PRIMARY KEY," +
+                        " description TEXT," +
+                        " applied_at TEXT" +
+                        ")");
+            }
+            Set<Integer> applied = loadAppliedVersions(conn);
+            int count = 0;
+            for (Migration m : MIGRATIONS) {
+                if (applied.contains(m.version())) {
+                    continue;
+                }
+                apply(conn, m);
+                count++;
+            }
+            if (count > 0) {
+                log.info("数据库迁移完成：本次执行 {} 个版本，当前版本 V{}", count, MIGRATIONS.get(MIGRATIONS.size() - 1).version());
+            } else {
+                log.info("数据库结构已是最新版本 V{}", MIGRATIONS.get(MIGRATIONS.size() - 1).version());
+            }
+        } catch (SQLException e) {
+            log.error("数据库迁移失败，停止启动: {}", e.getMessage(), e);
+            throw new IllegalStateException("数据库迁移失败: " + e.getMessage(), e);
+        }
+    }
+
+    private Set<Integer> loadAppliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private void apply(Connection conn, Migration m) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            m.step().apply(stmt);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+                ps.setInt(1, m.version());
+                ps.setString(2, m.description());
+                ps.setString(3, LocalDateTime.now().toString());
+                ps.executeUpdate();
+            }
+            conn.commit();
+            log.info("已应用数据库迁移 V{}：{}", m.version(), m.description());
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw new SQLException("迁移 V" + m.version() + " 失败: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // ==================== 迁移版本 ====================
+
+    /**
+     * V1：各平台数据表与选项表（已存在则跳过），并兼容旧库的列增删
+     */
+    private static void baseline(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS boss_data (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "encrypt_id TEXT, " +
+                "encrypt_user_id TEXT, " +
+                "company_name TEXT, " +
+                "job_name TEXT, " +
+                "salary TEXT, " +
+                "location TEXT, " +
+                "experience TEXT, " +
+                "degree TEXT, " +
+                "hr_name TEXT, " +
+                "hr_position TEXT, " +
+                "hr_active_status TEXT, " +
+                "delivery_status TEXT, " +
+                "job_description TEXT, " +
+                "job_url TEXT, " +
+                "recruitment_status TEXT, " +
+                "company_address TEXT, " +
+                "industry TEXT, " +
+                "introduce TEXT, " +
+                "financing_stage TEXT, " +
+                "company_scale TEXT, " +
+                "created_at TEXT, " +
+                "updated_at TEXT" +
+                ")");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS liepin_data (" +
+                " job_id            BIGINT PRIMARY KEY," +
+                " job_title         VARCHAR(200)," +
+                " job_link          VARCHAR(300)," +
+                " job_salary_text   VARCHAR(100)," +
+                " job_area          VARCHAR(100)," +
+                " job_edu_req       VARCHAR(50)," +
+                " job_exp_req       VARCHAR(50)," +
+                " job_publish_time  VARCHAR(50)," +
+                " comp_id           BIGINT," +
+                " comp_name         VARCHAR(200)," +
+                " comp_industry     VARCHAR(100)," +
+                " comp_scale        VARCHAR(50)," +
+                " hr_id             VARCHAR(64)," +
+                " hr_name           VARCHAR(50)," +
+                " hr_title          VARCHAR(100)," +
+                " hr_im_id          VARCHAR(64)," +
+                " delivered         INTEGER DEFAULT 0," +
+                " create_time       DATETIME," +
+                " update_time       DATETIME" +
+                ")");
+        // 兼容旧库：添加 delivered 列、移除无数据列（已处理或 SQLite 不支持时忽略）
+        tryExecute(stmt, "ALTER TABLE liepin_data ADD COLUMN delivered INTEGER DEFAULT 0");
+        tryExecute(stmt, "ALTER TABLE liepin_data DROP COLUMN job_function");
+        tryExecute(stmt, "ALTER TABLE liepin_data DROP COLUMN job_city");
+        tryExecute(stmt, "ALTER TABLE liepin_data DROP COLUMN comp_full_name");
+        tryExecute(stmt, "ALTER TABLE liepin_data DROP COLUMN comp_kind");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS zhilian_option (" +
+                " id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " type VARCHAR(50)," +
+                " name VARCHAR(100)," +
+                " code VARCHAR(100)," +
+                " sort_order INTEGER," +
+                " created_at DATETIME," +
+                " updated_at DATETIME" +
+                ")");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS zhilian_data (" +
+                " id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " job_id VARCHAR(64)," +
+                " job_title VARCHAR(200)," +
+                " job_link VARCHAR(300)," +
+                " salary VARCHAR(100)," +
+                " location VARCHAR(100)," +
+                " experience VARCHAR(100)," +
+                " degree VARCHAR(100)," +
+                " company_name VARCHAR(200)," +
+                " delivery_status VARCHAR(20) DEFAULT '未投递'," +
+                " create_time DATETIME," +
+                " update_time DATETIME" +
+                ")");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS job51_option (" +
+                " id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " type VARCHAR(50)," +
+                " name VARCHAR(100)," +
+                " code VARCHAR(100)," +
+                " sort_order INTEGER," +
+                " created_at DATETIME," +
+                " updated_at DATETIME" +
+                ")");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS job51_data (" +
+                " job_id            BIGINT PRIMARY KEY," +
+                " job_title         VARCHAR(200)," +
+                " job_link          VARCHAR(300)," +
+                " job_salary_text   VARCHAR(100)," +
+                " job_area          VARCHAR(100)," +
+                " job_edu_req       VARCHAR(50)," +
+                " job_exp_req       VARCHAR(50)," +
+                " job_publish_time  VARCHAR(50)," +
+                " comp_id           BIGINT," +
+                " comp_name         VARCHAR(200)," +
+                " comp_industry     VARCHAR(100)," +
+                " comp_scale        VARCHAR(50)," +
+                " hr_id             VARCHAR(64)," +
+                " hr_name           VARCHAR(50)," +
+                " hr_title          VARCHAR(100)," +
+                " delivered         INTEGER DEFAULT 0," +
+                " create_time       TEXT," +
+                " update_time       TEXT" +
+                ")");
+        // 兼容旧库：添加 delivered 列、移除 account_id（已处理或不支持时忽略）
+        tryExecute(stmt, "ALTER TABLE job51_data ADD COLUMN delivered INTEGER DEFAULT 0");
+        tryExecute(stmt, "ALTER TABLE job51_data DROP COLUMN account_id");
+    }
+
+    /**
+     * V2：旧库 boss_data 若未以 id、encrypt_id、encrypt_user_id 开头，则重建表并复制数据
+     */
+    private static void reorderBossData(Statement stmt) throws SQLException {
+        List<String> cols = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info('boss_data')")) {
+            while (rs.next()) {
+                cols.add(rs.getString("name") == null ? "" : rs.getString("name").toLowerCase());
+            }
+        }
+        if (cols.size() >= 3 && "id".equals(cols.get(0)) && "encrypt_id".equals(cols.get(1)) && "encrypt_user_id".equals(cols.get(2))) {
+            return;
+        }
+        if (cols.size() >= 2 && "encrypt_id".equals(cols.get(0)) && "encrypt_user_id".equals(cols.get(1))) {
+            return;
+        }
+        String columns = "id, encrypt_id, encrypt_user_id, company_name, job_name, salary, location, experience, degree, " +
+                "hr_name, hr_position, hr_active_status, delivery_status, job_description, job_url, recruitment_status, " +
+                "company_address, industry, introduce, financing_stage, company_scale, created_at, updated_at";
+        stmt.execute("CREATE TABLE boss_data_new (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "encrypt_id TEXT, " +
+                "encrypt_user_id TEXT, " +
+                "company_name TEXT, " +
+                "job_name TEXT, " +
+                "salary TEXT, " +
+                "location TEXT, " +
+                "experience TEXT, " +
+                "degree TEXT, " +
+                "hr_name TEXT, " +
+                "hr_position TEXT, " +
+                "hr_active_status TEXT, " +
+                "delivery_status TEXT, " +
+                "job_description TEXT, " +
+                "job_url TEXT, " +
+                "recruitment_status TEXT, " +
+                "company_address TEXT, " +
+                "industry TEXT, " +
+                "introduce TEXT, " +
+                "financing_stage TEXT, " +
+                "company_scale TEXT, " +
+                "created_at TEXT, " +
+                "updated_at TEXT" +
+                ")");
+        stmt.execute("INSERT INTO boss_data_new (" + columns + ") SELECT " + columns + " FROM boss_data");
+        stmt.execute("DROP TABLE boss_data");
+        stmt.execute("ALTER TABLE boss_data_new RENAME TO boss_data");
+        log.info("已调整 boss_data 表列顺序：将 encrypt_id、encrypt_user_id 前置");
+    }
+
+    /**
+     * V3：投递去重、状态统计与按时间排序所用的索引
+     * liepin_data/job51_data 的 job_id 为主键，已自带唯一索引，无需重复创建
+     */
+    private static void dataIndexes(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_boss_data_encrypt ON boss_data(encrypt_id, encrypt_user_id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_boss_data_delivery_status ON boss_data(delivery_status)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_boss_data_created_at ON boss_data(created_at)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_liepin_data_delivered ON liepin_data(delivered)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_zhilian_data_job_id ON zhilian_data(job_id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_zhilian_data_title_company ON zhilian_data(job_title, company_name)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_job51_data_delivered ON job51_data(delivered)");
+    }
+
+    /**
+     * V4：各平台数据表增加 min_k/max_k/median_k/months/annual_total 并回填历史数据，
+     * 建立薪资筛选索引与 (创建时间, 主键) 键集分页索引
+     */
+    private static void salaryColumns(Statement stmt) throws SQLException {
+        for (String table : List.of("boss_data", "liepin_data", "zhilian_data", "job51_data")) {
+            tryExecute(stmt, "ALTER TABLE " + table + " ADD COLUMN min_k REAL");
+            tryExecute(stmt, "ALTER TABLE " + table + " ADD COLUMN max_k REAL");
+            tryExecute(stmt, "ALTER TABLE " + table + " ADD COLUMN median_k REAL");
+            tryExecute(stmt, "ALTER TABLE " + table + " ADD COLUMN months INTEGER");
+            tryExecute(stmt, "ALTER TABLE " + table + " ADD COLUMN annual_total INTEGER");
+        }
+        Connection conn = stmt.getConnection();
+        backfillSalary(conn, "boss_data", "id", "salary", BossService::salaryColumns);
+        backfillSalary(conn, "liepin_data", "job_id", "job_salary_text", LiepinService::salaryColumns);
+        backfillSalary(conn, "zhilian_data", "id", "salary", ZhilianService::salaryColumns);
+        backfillSalary(conn, "job51_data", "job_id", "job_salary_text", Job51Service::salaryColumns);
+
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_boss_data_median_k ON boss_data(median_k)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_liepin_data_median_k ON liepin_data(median_k)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_zhilian_data_median_k ON zhilian_data(median_k)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_job51_data_median_k ON job51_data(median_k)");
+        // boss_data/zhilian_data 的 id 即 rowid，单列时间索引已隐含 (时间, id) 顺序
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_zhilian_data_create_time ON zhilian_data(create_time)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_liepin_data_create_time ON liepin_data(create_time, job_id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_job51_data_create_time ON job51_data(create_time, job_id)");
+    }
+
+    /**
+     * V8：boss_option 各类型预置『不限』选项（code=0，sort_order=0 置顶）
+     * 原先由 getOptionsByType 在查询时按需插入，查询走只读连接后改为迁移预置
+     */
+    private static void bossUnlimitedOptions(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS boss_option (" +
+                " id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " type TEXT NOT NULL," +
+                " name TEXT NOT NULL," +
+                " code TEXT NOT NULL," +
+                " created_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
+                " updated_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
+                " sort_order INTEGER" +
+                ")");
+        for (String type : List.of("city", "industry", "experience", "jobType", "salary", "degree", "scale", "stage")) {
+            stmt.executeUpdate("INSERT INTO boss_option (type, name, code, sort_order, created_at, updated_at) " +
+                    "SELECT '" + type + "', '不限', '" + Constant.UNLIMITED_CODE + "', 0, datetime('now', 'localtime'), datetime('now', 'localtime') " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM boss_option WHERE type = '" + type + "' AND code = '" + Constant.UNLIMITED_CODE + "')");
+        }
+    }
+
+    /**
+     * V9：ai 表为空时预置默认配置（原先由 getAiConfig 在查询时插入）
+     */
+    private static void aiDefaultConfig(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS ai (" +
+                " id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " introduce TEXT," +
+                " prompt TEXT," +
+                " created_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
+                " updated_at DATETIME DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        stmt.executeUpdate("INSERT INTO ai (introduce, prompt, created_at, updated_at) " +
+                "SELECT '请在此填写您的技能介绍', '请在此填写AI提示词模板', datetime('now', 'localtime'), datetime('now', 'localtime') " +
+                "WHERE NOT EXISTS (SELECT 1 FROM ai)");
+    }
+
+    private static void backfillSalary(Connection conn, String table, String idColumn, String textColumn,
+                                       Function<String, SalaryColumns> parser) throws SQLException {
+        int updated = 0;
+        try (Statement select = conn.createStatement();
+             ResultSet rs = select.executeQuery("SELECT " + idColumn + ", " + textColumn + " FROM " + table
+                     + " WHERE " + textColumn + " IS NOT NULL AND median_k IS NULL");
+             PreparedStatement ps = conn.prepareStatement("UPDATE " + table
+                     + " SET min_k=?, max_k=?, median_k=?, months=?, annual_total=? WHERE " + idColumn + "=?")) {
+            while (rs.next()) {
+                SalaryColumns c = parser.apply(rs.getString(2));
+                if (c.medianK() == null) {
+                    continue;
+                }
+                ps.setObject(1, c.minK());
+                ps.setObject(2, c.maxK());
+                ps.setObject(3, c.medianK());
+                ps.setObject(4, c.months());
+                ps.setObject(5, c.annualTotal());
+                ps.setObject(6, rs.getObject(1));
+                ps.addBatch();
+                updated++;
+            }
+            if (updated > 0) {
+                ps.executeBatch();
+            }
+        }
+        if (updated > 0) {
+            log.info("已回填 {} 薪资列 {} 条", table, updated);
+        }
+    }
+
+    private static void tryExecute(Statement stmt, String sql) {
+        try {
+            stmt.execute(sql);
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -1,9 +1,31 @@
 package com.getjobs.application.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.getjobs.application.entity.ZhilianJobDataEntity;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 @Mapper
 public interface ZhilianJobDataMapper extends BaseMapper<ZhilianJobDataEntity> {
-}
\ No newline at end of file
+
+    /**
+     * 全文检索命中的岗位（可按 fts_rank 排序，值越小越相关），其余条件与分页由 wrapper 提供
+     *
+     * @param match FTS5 MATCH 表达式（见 FullTextIndex#matchQuery）
+     */
+    @Select("SELECT d.* FROM zhilian_data d JOIN (SELECT rowid AS fts_rowid, rank AS fts_rank FROM zhilian_data_fts"
+            + " WHERE zhilian_data_fts MATCH #{match}) f ON f.fts_rowid = d.id ${ew.customSqlSegment}")
+    List<ZhilianJobDataEntity> selectByKeyword(@Param("match") String match, @Param(Constants.WRAPPER) Wrapper<ZhilianJobDataEntity> wrapper);
+
+    /**
+     * 全文检索命中的岗位数
+     */
+    @Select("SELECT COUNT(*) FROM zhilian_data d JOIN (SELECT rowid AS fts_rowid FROM zhilian_data_fts"
+            + " WHERE zhilian_data_fts MATCH #{match}) f ON f.fts_rowid = d.id ${ew.customSqlSegment}")
+    Long countByKeyword(@Param("match") String match, @Param(Constants.WRAPPER) Wrapper<ZhilianJobDataEntity> wrapper);
+}
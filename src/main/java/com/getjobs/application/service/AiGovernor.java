@@ -0,0 +1,403 @@
+package com.getjobs.application.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AI 调用调度器
+ * 所有 AI 请求都经过这里：
+ * 1. 并发上限：同时进行的请求数不超过 max-in-flight；
+ * 2. 令牌桶限流：每分钟请求数与每分钟 token 数（按提示词长度预估，收到 usage 后按实际用量修正）；
+ * 3. 重试：429、5xx、建连超时与网络错误按指数退避（带抖动）重试，服务端返回 Retry-After 时按其等待；
+ *    响应超时与总时限超时已耗尽单次调用的时间预算，只计入熔断、不再重试；
+ * 4. 熔断：连续失败达到阈值后在冷却期内直接拒绝，调用方立即改用模板打招呼语；冷却期后放行一次试探请求，成功即恢复。
+ * 排队等待（并发名额、令牌）超过 acquire-timeout-ms 时同样直接拒绝，不让投递流程长时间阻塞在 AI 上。
+ */
+@Slf4j
+@Component
+public class AiGovernor {
+
+    /**
+     * 调度器拒绝执行（熔断中或排队超时），调用方应直接使用兜底内容
+     */
+    public static class RejectedException extends RuntimeException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 服务端返回可重试的状态码（429、5xx）
+     */
+    @Getter
+    public static class ProviderException extends RuntimeException {
+        private final int statusCode;
+        private final Duration retryAfter;
+
+        public ProviderException(int statusCode, Duration retryAfter, String message) {
+            super(message);
+            this.statusCode = statusCode;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // 预估回复占用的 token 数
+    private static final int COMPLETION_TOKENS_ESTIMATE = 256;
+
+    @Value("${ai.governor.max-in-flight:4}")
+    private int maxInFlight;
+
+    // 每分钟请求数上限（<=0 不限制）
+    @Value("${ai.governor.requests-per-minute:60}")
+    private int requestsPerMinute;
+
+    // 每分钟 token 数上限（<=0 不限制）
+    @Value("${ai.governor.tokens-per-minute:90000}")
+    private int tokensPerMinute;
+
+    // 等待并发名额与令牌的最长时间
+    @Value("${ai.governor.acquire-timeout-ms:20000}")
+    private long acquireTimeoutMs;
+
+    @Value("${ai.governor.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${ai.governor.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+
+    // 单次退避上限；Retry-After 超过该值时不再重试
+    @Value("${ai.governor.backoff-max-ms:30000}")
+    private long backoffMaxMs;
+
+    // 连续失败多少次后熔断
+    @Value("${ai.governor.failure-threshold:5}")
+    private int failureThreshold;
+
+    // 熔断冷却时间
+    @Value("${ai.governor.open-ms:60000}")
+    private long openMs;
+
+    private Semaphore permits;
+    private TokenBucket requestBucket;
+    private TokenBucket tokenBucket;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openUntil = 0;
+    private boolean probeInFlight = false;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(Math.max(1, maxInFlight), true);
+        requestBucket = requestsPerMinute > 0 ? new TokenBucket(requestsPerMinute) : null;
+        tokenBucket = tokensPerMinute > 0 ? new TokenBucket(tokensPerMinute) : null;
+    }
+
+    /**
+     * 在调度器控制下执行一次 AI 调用（含重试）
+     *
+     * @param content 提示词（用于预估 token 数）
+     * @param attempt 单次请求
+     * @return 请求结果
+     * @throws RejectedException 熔断中或排队超时
+     */
+    public <T> T call(String content, Callable<T> attempt) {
+        calls.increment();
+        if (!allowRequest()) {
+            shortCircuited.increment();
+            throw new RejectedException("AI 服务暂不可用（熔断中），" + Math.max(0, (openUntil - System.currentTimeMillis() + 999) / 1000) + " 秒后重试");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(remaining(deadline), TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                throw reject("等待 AI 并发名额超时");
+            }
+            for (int n = 0; ; n++) {
+                awaitTokens(estimateTokens(content), deadline);
+                try {
+                    T result = attempt.call();
+                    onSuccess();
+                    succeeded.increment();
+                    return result;
+                } catch (Exception e) {
+                    if (isTimeout(e)) {
+                        // 单次调用已等满响应超时或总时限，再重试会让投递流程成倍阻塞
+                        onFailure();
+                        failed.increment();
+                        throw asRuntime(e);
+                    }
+                    if (!isRetryable(e)) {
+                        // 参数、鉴权等错误与服务健康无关，不计入熔断
+                        onNeutral();
+                        failed.increment();
+                        throw asRuntime(e);
+                    }
+                    boolean open = onFailure();
+                    long backoff = backoffMs(n, e);
+                    if (open || n >= maxRetries || backoff < 0) {
+                        failed.increment();
+                        throw asRuntime(e);
+                    }
+                    retries.increment();
+                    log.warn("AI 请求失败，{}ms 后第 {} 次重试: {}", backoff, n + 1, e.getMessage());
+                    Thread.sleep(backoff);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            onNeutral();
+            throw new RejectedException("AI 请求被中断");
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * 按实际用量修正 token 桶（预估与实际之差）
+     */
+    public void recordUsage(String content, int totalTokens) {
+        if (tokenBucket != null && totalTokens > 0) {
+            tokenBucket.adjust(totalTokens - estimateTokens(content));
+        }
+    }
+
+    /**
+     * 调度器状态
+     *
+     * @return state、inFlight、本分钟剩余请求数与 token 数、连续失败数、熔断剩余时间与各项计数
+     */
+    public synchronized Map<String, Object> getState() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("state", currentState().name());
+        s.put("inFlight", Math.max(1, maxInFlight) - permits.availablePermits());
+        s.put("maxInFlight", maxInFlight);
+        s.put("queued", permits.getQueueLength());
+        s.put("requestsAvailable", requestBucket != null ? (long) requestBucket.available() : null);
+        s.put("tokensAvailable", tokenBucket != null ? (long) tokenBucket.available() : null);
+        s.put("consecutiveFailures", consecutiveFailures);
+        s.put("openRemainingMs", state == State.OPEN ? Math.max(0, openUntil - System.currentTimeMillis()) : 0);
+        s.put("calls", calls.sum());
+        s.put("succeeded", succeeded.sum());
+        s.put("failed", failed.sum());
+        s.put("retries", retries.sum());
+        s.put("rejected", rejected.sum());
+        s.put("shortCircuited", shortCircuited.sum());
+        return s;
+    }
+
+    // ================= 熔断状态 =================
+
+    private synchronized State currentState() {
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        return state;
+    }
+
+    private synchronized boolean allowRequest() {
+        State s = currentState();
+        if (s == State.CLOSED) {
+            return true;
+        }
+        if (s == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            log.info("AI 熔断冷却结束，放行试探请求");
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("AI 服务已恢复，关闭熔断");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    // 未得出健康结论：试探名额交还，状态不变
+    private synchronized void onNeutral() {
+        probeInFlight = false;
+    }
+
+    /**
+     * 记录一次失败
+     *
+     * @return 是否已处于熔断
+     */
+    private synchronized boolean onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= Math.max(1, failureThreshold)) {
+            if (state != State.OPEN) {
+                log.warn("AI 服务连续失败 {} 次，熔断 {}ms，期间直接使用模板打招呼语", consecutiveFailures, openMs);
+            }
+            state = State.OPEN;
+            openUntil = System.currentTimeMillis() + openMs;
+            probeInFlight = false;
+            return true;
+        }
+        return false;
+    }
+
+    // ================= 限流与重试 =================
+
+    private void awaitTokens(int tokens, long deadline) throws InterruptedException {
+        long wait = 0;
+        if (requestBucket != null) {
+            long w = requestBucket.reserve(1, remaining(deadline));
+            if (w < 0) {
+                throw reject("超过每分钟请求数限制");
+            }
+            wait = w;
+        }
+        if (tokenBucket != null) {
+            long w = tokenBucket.reserve(tokens, remaining(deadline) - wait);
+            if (w < 0) {
+                if (requestBucket != null) {
+                    requestBucket.adjust(-1);
+                }
+                throw reject("超过每分钟 token 数限制");
+            }
+            wait = Math.max(wait, w);
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * 第 n 次重试前的退避时间；Retry-After 超过上限时返回 -1（不再重试）
+     */
+    private long backoffMs(int n, Exception e) {
+        if (e instanceof ProviderException pe && pe.getRetryAfter() != null) {
+            long ms = pe.getRetryAfter().toMillis();
+            return ms > backoffMaxMs ? -1 : ms;
+        }
+        long exp = Math.min(backoffMaxMs, backoffBaseMs << Math.min(n, 20));
+        // 全抖动：在 [exp/2, exp] 内随机，避免多个请求同时重试
+        return exp / 2 + ThreadLocalRandom.current().nextLong(exp / 2 + 1);
+    }
+
+    /**
+     * 响应超时或总时限超时（建连超时除外，建连失败很快且多为瞬时问题，仍可重试）
+     */
+    private static boolean isTimeout(Exception e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof HttpTimeoutException && !(t instanceof HttpConnectTimeoutException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof ProviderException) {
+            return true;
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RejectedException reject(String message) {
+        rejected.increment();
+        onNeutral();
+        return new RejectedException(message);
+    }
+
+    private static RuntimeException asRuntime(Exception e) {
+        return e instanceof RuntimeException re ? re : new RuntimeException(e);
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * 预估 token 数：提示词按字符计（中文约一字一 token），加上回复预估
+     */
+    static int estimateTokens(String content) {
+        return (content != null ? content.length() : 0) + COMPLETION_TOKENS_ESTIMATE;
+    }
+
+    /**
+     * 每分钟补满的令牌桶（容量即每分钟配额，按纳秒连续补充）
+     */
+    static class TokenBucket {
+        private final double capacity;
+        private final double perNano;
+        private double tokens;
+        private long last = System.nanoTime();
+
+        TokenBucket(int perMinute) {
+            this.capacity = perMinute;
+            this.perNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.tokens = perMinute;
+        }
+
+        /**
+         * 预订 n 个令牌
+         *
+         * @return 需要等待的纳秒数；超过 maxWait 时不预订并返回 -1
+         */
+        synchronized long reserve(int n, long maxWait) {
+            refill();
+            double need = Math.min(n, capacity);
+            long wait = tokens >= need ? 0 : (long) Math.ceil((need - tokens) / perNano);
+            if (wait > maxWait) {
+                return -1;
+            }
+            tokens -= need;
+            return wait;
+        }
+
+        synchronized void adjust(double delta) {
+            refill();
+            tokens = Math.min(capacity, tokens - delta);
+        }
+
+        synchronized double available() {
+            refill();
+            return tokens;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - last) * perNano);
+            last = now;
+        }
+    }
+}
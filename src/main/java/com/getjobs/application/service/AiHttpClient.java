@@ -0,0 +1,223 @@
+package com.getjobs.application.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * AI 接口 HTTP 客户端池
+ * 每个 AI 服务地址（scheme://host:port）共用一个长期存活的 HttpClient：优先协商 HTTP/2，
+ * 同一连接上多路复用并发请求，连接保持复用，后续请求不再重复 TCP/TLS 握手。
+ * 超时分三段：建连超时、响应超时（发出请求到收到响应头）、总时限（含读取响应体）。
+ * 响应体按流解析为 JSON，不先整体读成字符串。
+ * 启动完成后向已配置的 BASE_URL 预先建立连接，第一次打招呼不再承担握手耗时。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiHttpClient {
+
+    /**
+     * 一次 AI 接口调用的结果
+     *
+     * @param statusCode HTTP 状态码
+     * @param json       状态码为 200 时的响应 JSON，否则为 null
+     * @param errorBody  状态码非 200 时的原始响应体，否则为 null
+     * @param retryAfter 响应头 Retry-After 要求的等待时间，未提供时为 null
+     */
+    public record Response(int statusCode, JSONObject json, String errorBody, Duration retryAfter) {
+    }
+
+    private final ConfigService configService;
+
+    // 建立连接（含 TLS 握手）的超时
+    @Value("${ai.http.connect-timeout-ms:10000}")
+    private long connectTimeoutMs;
+
+    // 发出请求后等待响应头的超时（推理模型首包较慢，需留足时间）
+    @Value("${ai.http.response-timeout-ms:60000}")
+    private long responseTimeoutMs;
+
+    // 单次调用的总时限（含读取响应体）
+    @Value("${ai.http.deadline-ms:90000}")
+    private long deadlineMs;
+
+    // 服务地址 -> 客户端
+    private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+
+    // 总时限到期时关闭仍在读取的响应流
+    private final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ai-http-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * 启动完成后预热：向已配置的 AI 服务发一个 HEAD 请求，提前完成握手并保留连接
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        String baseUrl = configService.getConfigValue("BASE_URL");
+        if (baseUrl == null || baseUrl.isBlank()) {
+            return;
+        }
+        try {
+            URI uri = URI.create(baseUrl.trim());
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .timeout(Duration.ofMillis(responseTimeoutMs))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            long start = System.currentTimeMillis();
+            clientFor(uri).sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resp, e) -> {
+                        if (e != null) {
+                            log.warn("AI 服务连接预热失败: {} - {}", origin(uri), e.getMessage());
+                        } else {
+                            log.info("AI 服务连接预热完成: {}，协议 {}，耗时 {}ms",
+                                    origin(uri), resp.version(), System.currentTimeMillis() - start);
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("AI 服务连接预热跳过，BASE_URL 无效: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * POST 一个 JSON 请求体，按流解析响应
+     *
+     * @param endpoint 完整接口地址
+     * @param apiKey   API Key（同时以 Authorization 与 api-key 头发送，兼容 Azure OpenAI）
+     * @param body     请求体
+     */
+    public Response postJson(String endpoint, String apiKey, JSONObject body) throws IOException, InterruptedException {
+        URI uri = URI.create(endpoint);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(Duration.ofMillis(responseTimeoutMs))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .header("api-key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toString().getBytes(StandardCharsets.UTF_8)))
+                .build();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        CompletableFuture<HttpResponse<InputStream>> future =
+                clientFor(uri).sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        HttpResponse<InputStream> response;
+        try {
+            response = future.get(deadlineMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HttpTimeoutException("AI 请求超过总时限 " + deadlineMs + "ms: " + endpoint);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(cause);
+        }
+
+        // 读取响应体期间到达总时限则关闭流，读取方随即抛出异常
+        long remaining = Math.max(0, deadline - System.nanoTime());
+        InputStream in = response.body();
+        ScheduledFuture<?> guard = deadlines.schedule(() -> closeQuietly(in), remaining, TimeUnit.NANOSECONDS);
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            if (response.statusCode() == 200) {
+                return new Response(200, new JSONObject(new JSONTokener(reader)), null, null);
+            }
+            return new Response(response.statusCode(), null, new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                    parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null)));
+        } catch (IOException | JSONException e) {
+            // JSONTokener 会把流被关闭的 IOException 包装为 JSONException
+            if (guard.isDone()) {
+                throw new HttpTimeoutException("AI 响应读取超过总时限 " + deadlineMs + "ms: " + endpoint);
+            }
+            throw e;
+        } finally {
+            guard.cancel(false);
+        }
+    }
+
+    private HttpClient clientFor(URI uri) {
+        return clients.computeIfAbsent(origin(uri), key -> {
+            log.info("创建 AI 服务 HTTP 客户端: {}", key);
+            return HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        });
+    }
+
+    /**
+     * 解析 Retry-After：秒数或 HTTP 日期，无法解析返回 null
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException ignore) {
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration d = Duration.between(ZonedDateTime.now(at.getZone()), at);
+            return d.isNegative() ? Duration.ZERO : d;
+        } catch (DateTimeParseException ignore) {
+            return null;
+        }
+    }
+
+    private static String origin(URI uri) {
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        return uri.getScheme() + "://" + uri.getHost() + ":" + port;
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deadlines.shutdownNow();
+        clients.values().forEach(HttpClient::close);
+        clients.clear();
+    }
+}
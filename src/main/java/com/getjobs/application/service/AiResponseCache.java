@@ -0,0 +1,254 @@
+package com.getjobs.application.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * AI 回复缓存（按内容寻址）
+ * 以（模型、个人介绍、提示词模板、关键词、岗位名称、归一化后的 JD 等）的 SHA-256 作为键缓存 AI 回复：
+ * 同一 JD 在不同城市、关键词下重复出现，或公司复用 JD 模板时直接返回已生成的回复，不再调用模型。
+ * 修改个人介绍、提示词或模型后键随之变化，旧回复自然失效，无需主动清理。
+ * 两级存储：ai_response_cache 表持久化（经组提交写入器写入），内存中保留最近使用的少量条目；
+ * 超过有效期的条目视为未命中，表中条目数超过上限时按最近使用时间淘汰。
+ */
+@Slf4j
+@Component
+public class AiResponseCache {
+
+    public static final String TABLE = "ai_response_cache";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // 每写入多少条执行一次过期与超量淘汰
+    private static final int EVICT_EVERY = 32;
+
+    private final DataSource readDataSource;
+    private final GroupCommitWriter groupCommitWriter;
+
+    @Value("${ai.cache.enabled:true}")
+    private boolean enabled;
+
+    // 有效期（天）
+    @Value("${ai.cache.ttl-days:30}")
+    private int ttlDays;
+
+    // 表中最多保留的条目数
+    @Value("${ai.cache.max-entries:5000}")
+    private int maxEntries;
+
+    // 内存中保留的条目数
+    @Value("${ai.cache.memory-entries:256}")
+    private int memoryEntries;
+
+    private record Entry(String response, long createdAt) {
+    }
+
+    // 内存 LRU（访问顺序）
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > Math.max(1, memoryEntries);
+        }
+    };
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final AtomicInteger putsSinceEvict = new AtomicInteger();
+
+    public AiResponseCache(@Qualifier("sqliteReadDataSource") DataSource readDataSource,
+                           GroupCommitWriter groupCommitWriter) {
+        this.readDataSource = readDataSource;
+        this.groupCommitWriter = groupCommitWriter;
+    }
+
+    /**
+     * 创建缓存表（供数据库迁移调用）
+     */
+    public static void install(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                " cache_key    TEXT PRIMARY KEY," +
+                " model        TEXT," +
+                " response     TEXT NOT NULL," +
+                " created_at   INTEGER NOT NULL," +
+                " last_used_at INTEGER NOT NULL," +
+                " hits         INTEGER NOT NULL DEFAULT 0" +
+                ")");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + TABLE + "_last_used ON " + TABLE + " (last_used_at)");
+    }
+
+    /**
+     * 计算缓存键：模型与各组成部分归一化（去首尾空白、连续空白合并为一个空格）后取 SHA-256
+     */
+    public static String key(String model, String... parts) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(normalize(model).getBytes(StandardCharsets.UTF_8));
+            for (String part : parts) {
+                md.update((byte) 0);
+                md.update(normalize(part).getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : WHITESPACE.matcher(text.trim()).replaceAll(" ");
+    }
+
+    /**
+     * 查找缓存的回复，未命中或已过期返回 null
+     */
+    public String get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+        if (entry != null && !isExpired(entry, now)) {
+            memoryHits.increment();
+            touch(key, now);
+            return entry.response();
+        }
+        entry = load(key);
+        if (entry != null && !isExpired(entry, now)) {
+            synchronized (memory) {
+                memory.put(key, entry);
+            }
+            diskHits.increment();
+            touch(key, now);
+            return entry.response();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 写入回复（异步持久化）
+     */
+    public void put(String key, String model, String response) {
+        if (!enabled || response == null || response.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            memory.put(key, new Entry(response, now));
+        }
+        puts.increment();
+        boolean evict = putsSinceEvict.incrementAndGet() % EVICT_EVERY == 0;
+        groupCommitWriter.submit("ai", "ai-cache:" + key, conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO " + TABLE + " (cache_key, model, response, created_at, last_used_at, hits) VALUES (?, ?, ?, ?, ?, 0) " +
+                            "ON CONFLICT(cache_key) DO UPDATE SET model = excluded.model, response = excluded.response, " +
+                            "created_at = excluded.created_at, last_used_at = excluded.last_used_at")) {
+                ps.setString(1, key);
+                ps.setString(2, model);
+                ps.setString(3, response);
+                ps.setLong(4, now);
+                ps.setLong(5, now);
+                ps.executeUpdate();
+            }
+            if (evict) {
+                evict(conn, now);
+            }
+        }).exceptionally(e -> {
+            log.warn("AI 回复缓存写入失败: {}", e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @return enabled、memoryHits、diskHits、misses、hitRate、puts、memorySize
+     */
+    public Map<String, Object> getStats() {
+        long hits = memoryHits.sum() + diskHits.sum();
+        long total = hits + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("memoryHits", memoryHits.sum());
+        stats.put("diskHits", diskHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("hitRate", total > 0 ? (double) hits / total : 0.0);
+        stats.put("puts", puts.sum());
+        synchronized (memory) {
+            stats.put("memorySize", memory.size());
+        }
+        return stats;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlDays > 0 && now - entry.createdAt() > TimeUnit.DAYS.toMillis(ttlDays);
+    }
+
+    private Entry load(String key) {
+        try (Connection conn = readDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT response, created_at FROM " + TABLE + " WHERE cache_key = ?")) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new Entry(rs.getString(1), rs.getLong(2)) : null;
+            }
+        } catch (SQLException e) {
+            log.warn("读取 AI 回复缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // 记录最近使用时间与命中次数（同一批内同一条目只写一次）
+    private void touch(String key, long now) {
+        groupCommitWriter.submit("ai", "ai-cache-touch:" + key, conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE " + TABLE + " SET last_used_at = ?, hits = hits + 1 WHERE cache_key = ?")) {
+                ps.setLong(1, now);
+                ps.setString(2, key);
+                ps.executeUpdate();
+            }
+        });
+    }
+
+    private void evict(Connection conn, long now) throws SQLException {
+        int expired = 0;
+        if (ttlDays > 0) {
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + TABLE + " WHERE created_at < ?")) {
+                ps.setLong(1, now - TimeUnit.DAYS.toMillis(ttlDays));
+                expired = ps.executeUpdate();
+            }
+        }
+        int overflow;
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + TABLE + " WHERE cache_key IN (" +
+                "SELECT cache_key FROM " + TABLE + " ORDER BY last_used_at DESC LIMIT -1 OFFSET ?)")) {
+            ps.setInt(1, Math.max(1, maxEntries));
+            overflow = ps.executeUpdate();
+        }
+        if (expired + overflow > 0) {
+            log.info("AI 回复缓存淘汰：过期 {} 条，超量 {} 条", expired, overflow);
+        }
+    }
+}
@@ -9,11 +9,6 @@ import org.json.JSONObject;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -29,13 +24,40 @@ import java.time.format.DateTimeFormatter;
 public class AiService {
     private final ConfigService configService;
     private final AiMapper aiMapper;
+    private final AiHttpClient aiHttpClient;
+    private final AiResponseCache aiResponseCache;
+    private final AiGovernor aiGovernor;
+
+    // ai 表快照（按 id 升序），配置保存提交后重新加载
+    private final SnapshotCache<java.util.List<AiEntity>> aiConfigs = new SnapshotCache<>("ai", this::loadAiConfigs);
 
     /**
      * 发送 AI 请求（非流式）并返回回复内容。
+     * 经 {@link AiGovernor} 限流、重试与熔断；熔断或排队超时时抛出 {@link AiGovernor.RejectedException}。
      * @param content 用户消息内容
      * @return AI 回复文本
      */
     public String sendRequest(String content) {
+        return request(content).text();
+    }
+
+    /**
+     * 一次 AI 回复
+     *
+     * @param text      回复文本
+     * @param extracted 是否从响应中解析出了回复正文（false 表示 text 为兜底返回的原始响应体）
+     */
+    private record Reply(String text, boolean extracted) {
+    }
+
+    private Reply request(String content) {
+        return aiGovernor.call(content, () -> sendOnce(content));
+    }
+
+    /**
+     * 发送一次 AI 请求（不重试）
+     */
+    private Reply sendOnce(String content) {
         // 读取并校验配置
         var cfg = configService.getAiConfigs();
         String baseUrl = cfg.get("BASE_URL");
@@ -46,12 +68,6 @@ public class AiService {
                 ? buildResponsesEndpoint(baseUrl)
                 : buildChatCompletionsEndpoint(baseUrl);
 
-        int timeoutInSeconds = 60;
-
-        HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(timeoutInSeconds))
-                .build();
-
         // 构建 JSON 请求体
         JSONObject requestData = new JSONObject();
         requestData.put("model", model);
@@ -73,26 +89,17 @@ public class AiService {
             requestData.put("messages", messages);
         }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(endpoint))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .header("Authorization", "Bearer " + apiKey)
-                // 某些服务（例如 Azure OpenAI）需要 api-key 头，额外加一层兼容
-                .header("api-key", apiKey)
-                .POST(HttpRequest.BodyPublishers.ofString(requestData.toString()))
-                .build();
-
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            AiHttpClient.Response response = aiHttpClient.postJson(endpoint, apiKey, requestData);
             if (response.statusCode() == 200) {
-                JSONObject responseObject = new JSONObject(response.body());
+                JSONObject responseObject = response.json();
 
                 String requestId = responseObject.optString("id");
                 long created = responseObject.optLong("created", 0);
                 String usedModel = responseObject.optString("model");
 
                 String responseContent;
+                boolean extracted = true;
                 if (endpoint.endsWith("/responses")) {
                     // Responses API：优先读取 output_text
                     responseContent = responseObject.optString("output_text", null);
@@ -104,7 +111,8 @@ public class AiService {
                                     .getJSONObject("message");
                             responseContent = messageObject.getString("content");
                         } catch (Exception ignore) {
-                            responseContent = response.body(); // 最后兜底：返回原始文本，避免空值
+                            responseContent = responseObject.toString(); // 最后兜底：返回原始文本，避免空值
+                            extracted = false;
                         }
                     }
                 } else {
@@ -127,18 +135,23 @@ public class AiService {
 
                 log.info("AI响应: id={}, time={}, model={}, promptTokens={}, completionTokens={}, totalTokens={}",
                         requestId, createdTime.format(formatter), usedModel, promptTokens, completionTokens, totalTokens);
+                aiGovernor.recordUsage(content, totalTokens);
 
-                return responseContent;
+                return new Reply(responseContent, extracted);
             } else {
                 // 更详细的错误日志，便于定位 400 问题
-                log.error("AI请求失败: status={}, endpoint={}, body={}", response.statusCode(), endpoint, response.body());
+                log.error("AI请求失败: status={}, endpoint={}, body={}", response.statusCode(), endpoint, response.errorBody());
                 // 针对 Responses-only 模型误用 Chat Completions 的常见错误做一次自动重试
-                if (!endpoint.endsWith("/responses") && containsReasoningParamError(response.body())) {
+                if (!endpoint.endsWith("/responses") && containsReasoningParamError(response.errorBody())) {
                     String fallbackEndpoint = buildResponsesEndpoint(baseUrl);
                     log.warn("检测到 reasoning 相关参数错误，自动切换到 Responses API 重试: {}", fallbackEndpoint);
                     return sendRequestViaResponses(content, apiKey, model, fallbackEndpoint);
                 }
-                throw new RuntimeException("AI请求失败，状态码: " + response.statusCode() + ", 详情: " + response.body());
+                if (isRetryableStatus(response.statusCode())) {
+                    throw new AiGovernor.ProviderException(response.statusCode(), response.retryAfter(),
+                            "AI请求失败，状态码: " + response.statusCode() + ", 详情: " + response.errorBody());
+                }
+                throw new RuntimeException("AI请求失败，状态码: " + response.statusCode() + ", 详情: " + response.errorBody());
             }
         } catch (Exception e) {
             log.error("调用AI服务异常", e);
@@ -146,6 +159,38 @@ public class AiService {
         }
     }
 
+    /**
+     * 发送 AI 请求，优先返回缓存的回复。
+     * @param content  用户消息内容
+     * @param keyParts 决定回复内容的输入（个人介绍、提示词模板、关键词、岗位名称、JD 等），与模型一起组成缓存键
+     * @return AI 回复文本
+     */
+    public String sendCachedRequest(String content, String... keyParts) {
+        String model = configService.getAiConfigs().get("MODEL");
+        String key = AiResponseCache.key(model, keyParts);
+        String cached = aiResponseCache.get(key);
+        if (cached != null) {
+            log.debug("AI回复缓存命中: {}", key);
+            return cached;
+        }
+        Reply reply = request(content);
+        // 只缓存成功解析出的非空回复；兜底返回的原始响应体不缓存，下次仍请求模型
+        if (reply.extracted() && reply.text() != null && !reply.text().isBlank()) {
+            aiResponseCache.put(key, model, reply.text());
+        }
+        return reply.text();
+    }
+
+    /**
+     * AI 调用运行状态（调度器并发、限流与熔断状态，回复缓存命中统计）
+     */
+    public java.util.Map<String, Object> getStatus() {
+        java.util.Map<String, Object> status = new java.util.LinkedHashMap<>();
+        status.put("governor", aiGovernor.getState());
+        status.put("cache", aiResponseCache.getStats());
+        return status;
+    }
+
     private String normalizeBaseUrl(String baseUrl) {
         if (baseUrl == null) return "";
         String trimmed = baseUrl.trim();
@@ -186,6 +231,13 @@ public class AiService {
                 || m.contains("4o-mini") || m.contains("gpt-4o-mini");
     }
 
+    /**
+     * 限流与服务端错误可重试，其余（参数、鉴权等）重试无意义
+     */
+    private boolean isRetryableStatus(int status) {
+        return status == 429 || status >= 500;
+    }
+
     /**
      * 检查错误响应中是否包含 reasoning 相关参数错误（如 reasoning.summary unsupported_value）
      */
@@ -199,47 +251,37 @@ public class AiService {
     /**
      * 使用 Responses API 发送一次请求（用于自动降级/重试）
      */
-    private String sendRequestViaResponses(String content, String apiKey, String model, String endpoint) {
-        int timeoutInSeconds = 60;
-        HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(timeoutInSeconds))
-                .build();
-
+    private Reply sendRequestViaResponses(String content, String apiKey, String model, String endpoint) {
         JSONObject requestData = new JSONObject();
         requestData.put("model", model);
         requestData.put("temperature", 0.5);
         requestData.put("input", content);
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(endpoint))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .header("Authorization", "Bearer " + apiKey)
-                .header("api-key", apiKey)
-                .POST(HttpRequest.BodyPublishers.ofString(requestData.toString()))
-                .build();
-
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            AiHttpClient.Response response = aiHttpClient.postJson(endpoint, apiKey, requestData);
             if (response.statusCode() == 200) {
-                JSONObject resp = new JSONObject(response.body());
+                JSONObject resp = response.json();
                 String outputText = resp.optString("output_text", null);
                 if (outputText != null && !outputText.isEmpty()) {
-                    return outputText;
+                    return new Reply(outputText, true);
                 }
                 // 兜底解析：部分兼容层可能返回 choices/message 结构
                 try {
                     JSONObject messageObject = resp.getJSONArray("choices")
                             .getJSONObject(0)
                             .getJSONObject("message");
-                    return messageObject.getString("content");
+                    return new Reply(messageObject.getString("content"), true);
                 } catch (Exception ignore) {
                 }
                 // 无法解析则直接返回原始体，避免空值中断流程
-                return response.body();
+                return new Reply(resp.toString(), false);
+            }
+            log.error("Responses API 调用失败: status={}, endpoint={}, body={}", response.statusCode(), endpoint, response.errorBody());
+            if (isRetryableStatus(response.statusCode())) {
+                throw new AiGovernor.ProviderException(response.statusCode(), response.retryAfter(),
+                        "AI请求失败，状态码: " + response.statusCode() + ", 详情: " + response.errorBody());
             }
-            log.error("Responses API 调用失败: status={}, endpoint={}, body={}", response.statusCode(), endpoint, response.body());
-            throw new RuntimeException("AI请求失败，状态码: " + response.statusCode() + ", 详情: " + response.body());
+            throw new RuntimeException("AI请求失败，状态码: " + response.statusCode() + ", 详情: " + response.errorBody());
         } catch (Exception e) {
             log.error("Responses API 调用异常", e);
             throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
@@ -249,24 +291,22 @@ public class AiService {
     // ================= 合并的 AI 配置管理方法 =================
 
     /**
-     * 获取AI配置（获取最新一条，如果不存在则创建默认配置）
+     * 获取AI配置（最新一条；默认配置由数据库迁移 V9 预置，表被清空时返回 null）
      */
-    @Transactional(readOnly = true)
     public AiEntity getAiConfig() {
-        var list = aiMapper.selectList(null);
-        AiEntity aiEntity = (list == null || list.isEmpty()) ? null : list.get(list.size() - 1);
-        if (aiEntity == null) {
-            aiEntity = createDefaultConfig();
-        }
-        return aiEntity;
+        var list = aiConfigs.get();
+        return list.isEmpty() ? null : list.get(list.size() - 1);
     }
 
     /**
      * 获取所有AI配置
      */
-    @Transactional(readOnly = true)
     public java.util.List<AiEntity> getAllAiConfigs() {
-        return aiMapper.selectList(null);
+        return aiConfigs.get();
+    }
+
+    private java.util.List<AiEntity> loadAiConfigs() {
+        return java.util.List.copyOf(aiMapper.selectList(null));
     }
 
     /**
@@ -301,6 +341,7 @@ public class AiService {
             log.info("更新AI配置，ID: {}", aiEntity.getId());
         }
 
+        aiConfigs.reload();
         return aiEntity;
     }
 
@@ -312,23 +353,9 @@ public class AiService {
         int result = aiMapper.deleteById(id);
         if (result > 0) {
             log.info("删除AI配置成功，ID: {}", id);
+            aiConfigs.reload();
             return true;
         }
         return false;
     }
-
-    /**
-     * 创建默认配置
-     */
-    @Transactional
-    protected AiEntity createDefaultConfig() {
-        AiEntity aiEntity = new AiEntity();
-        aiEntity.setIntroduce("请在此填写您的技能介绍");
-        aiEntity.setPrompt("请在此填写AI提示词模板");
-        aiEntity.setCreatedAt(java.time.LocalDateTime.now());
-        aiEntity.setUpdatedAt(java.time.LocalDateTime.now());
-        aiMapper.insert(aiEntity);
-        log.info("创建默认AI配置，ID: {}", aiEntity.getId());
-        return aiEntity;
-    }
 }
\ No newline at end of file
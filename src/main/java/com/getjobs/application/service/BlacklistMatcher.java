@@ -0,0 +1,172 @@
+package com.getjobs.application.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 黑名单多模式匹配器（Aho–Corasick 自动机）
+ * 由一组黑名单词条编译而成，不可变、可在多线程间共享；对文本只扫描一遍即可判断是否命中并返回命中的词条，
+ * 耗时与文本长度成正比，与词条数量无关。
+ * 匹配前对词条和文本做相同的归一化：全角字符转半角、英文字母转小写，因此“ＪＡＶＡ”能命中“java”。
+ */
+public final class BlacklistMatcher {
+
+    public static final BlacklistMatcher EMPTY = of(List.of());
+
+    // 原始词条（命中时返回）
+    private final String[] terms;
+    // 每个状态的出边：按字符升序排列，二分查找
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    // 失配指针
+    private final int[] fail;
+    // 到达该状态时命中的词条下标（含经失配链可达的较短词条），-1 表示无
+    private final int[] output;
+
+    private BlacklistMatcher(String[] terms, char[][] edgeChars, int[][] edgeTargets, int[] fail, int[] output) {
+        this.terms = terms;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.output = output;
+    }
+
+    /**
+     * 编译词条（空白词条忽略，首尾空白去除）
+     */
+    public static BlacklistMatcher of(Collection<String> values) {
+        List<String> termList = new ArrayList<>();
+        List<Map<Character, Integer>> edges = new ArrayList<>();
+        List<Integer> own = new ArrayList<>();
+        edges.add(new TreeMap<>());
+        own.add(-1);
+
+        if (values != null) {
+            for (String value : values) {
+                if (value == null || value.isBlank()) {
+                    continue;
+                }
+                String term = value.trim();
+                int state = 0;
+                for (int i = 0; i < term.length(); i++) {
+                    char c = normalize(term.charAt(i));
+                    Integer next = edges.get(state).get(c);
+                    if (next == null) {
+                        next = edges.size();
+                        edges.get(state).put(c, next);
+                        edges.add(new TreeMap<>());
+                        own.add(-1);
+                    }
+                    state = next;
+                }
+                if (own.get(state) < 0) {
+                    own.set(state, termList.size());
+                    termList.add(term);
+                }
+            }
+        }
+
+        int n = edges.size();
+        char[][] edgeChars = new char[n][];
+        int[][] edgeTargets = new int[n][];
+        for (int s = 0; s < n; s++) {
+            Map<Character, Integer> m = edges.get(s);
+            edgeChars[s] = new char[m.size()];
+            edgeTargets[s] = new int[m.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> en : m.entrySet()) {
+                edgeChars[s][k] = en.getKey();
+                edgeTargets[s][k] = en.getValue();
+                k++;
+            }
+        }
+
+        // 按层序（BFS）计算失配指针与输出
+        int[] fail = new int[n];
+        int[] output = new int[n];
+        output[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            fail[target] = 0;
+            output[target] = own.get(target);
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int k = 0; k < edgeChars[s].length; k++) {
+                char c = edgeChars[s][k];
+                int target = edgeTargets[s][k];
+                int f = fail[s];
+                int next;
+                while ((next = step(edgeChars, edgeTargets, f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[target] = next < 0 ? 0 : next;
+                output[target] = own.get(target) >= 0 ? own.get(target) : output[fail[target]];
+                queue.add(target);
+            }
+        }
+        return new BlacklistMatcher(termList.toArray(new String[0]), edgeChars, edgeTargets, fail, output);
+    }
+
+    /**
+     * 返回文本中最先命中的词条，未命中返回 null
+     */
+    public String find(String text) {
+        if (text == null || terms.length == 0) {
+            return null;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            int next;
+            while ((next = step(edgeChars, edgeTargets, state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = next < 0 ? 0 : next;
+            if (output[state] >= 0) {
+                return terms[output[state]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 文本是否命中任一词条
+     */
+    public boolean matches(String text) {
+        return find(text) != null;
+    }
+
+    public boolean isEmpty() {
+        return terms.length == 0;
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    private static int step(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+        int k = Arrays.binarySearch(edgeChars[state], c);
+        return k >= 0 ? edgeTargets[state][k] : -1;
+    }
+
+    /**
+     * 全角转半角（含全角空格），英文转小写
+     */
+    static char normalize(char c) {
+        if (c == '　') {
+            return ' ';
+        }
+        if (c >= '！' && c <= '～') {
+            c = (char) (c - 0xFEE0);
+        }
+        return Character.toLowerCase(c);
+    }
+}
@@ -17,6 +17,7 @@ import com.getjobs.worker.boss.BossConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -24,10 +25,10 @@ import java.sql.Statement;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.regex.Matcher;
@@ -48,31 +49,28 @@ public class BossService {
     private final BlacklistMapper blacklistMapper;
     private final BossJobDataMapper bossJobDataMapper;
     private final javax.sql.DataSource dataSource;
+    private final GroupCommitWriter groupCommitWriter;
+    private final JobAnalytics jobAnalytics;
+    private final JobIndex jobIndex;
+    private final StatsRollup statsRollup;
+    private final SeenJobIndex seenJobIndex;
+
+    // 黑名单匹配器快照（类型 -> 匹配器），黑名单变化后整体重建并原子替换，读取方无需加锁
+    private final SnapshotCache<Map<String, BlacklistMatcher>> blacklistMatchers =
+            new SnapshotCache<>("黑名单匹配器", this::loadBlacklistMatchers);
+
+    // 选项字典快照（boss_option），选项写入后重新加载
+    private final SnapshotCache<OptionDictionary<BossOptionEntity>> options =
+            new SnapshotCache<>("boss_option", this::loadOptions);
 
     // ==================== Option相关方法 ====================
 
     /**
      * 根据类型获取选项列表
      */
+    @Transactional(readOnly = true)
     public List<BossOptionEntity> getOptionsByType(String type) {
-        // 确保数据库存在『不限』选项（code=0），并置顶显示
-        // city 与 industry 都需要此默认项
-        QueryWrapper<BossOptionEntity> checkWrapper = new QueryWrapper<>();
-        checkWrapper.eq("type", type);
-        checkWrapper.eq("code", com.getjobs.worker.utils.Constant.UNLIMITED_CODE);
-        Long count = bossOptionMapper.selectCount(checkWrapper);
-        if (count == null || count == 0) {
-            BossOptionEntity unlimited = new BossOptionEntity();
-            unlimited.setType(type);
-            unlimited.setName("不限");
-            unlimited.setCode(com.getjobs.worker.utils.Constant.UNLIMITED_CODE);
-            // 置顶显示
-            unlimited.setSortOrder(0);
-            unlimited.setCreatedAt(java.time.LocalDateTime.now());
-            unlimited.setUpdatedAt(java.time.LocalDateTime.now());
-            bossOptionMapper.insert(unlimited);
-        }
-
+        // 『不限』选项（code=0）由数据库迁移 V8 预置，sort_order=0 置顶显示
         // 排序：city/industry 按 sort_order 优先，其次 id；其他类型维持原有 id 升序
         QueryWrapper<BossOptionEntity> wrapper = new QueryWrapper<>();
         wrapper.eq("type", type);
@@ -88,18 +86,24 @@ public class BossService {
     /**
      * 获取所有选项
      */
+    @Transactional(readOnly = true)
     public List<BossOptionEntity> getAllOptions() {
         return bossOptionMapper.selectList(null);
     }
 
+    /**
+     * 从选项表加载字典快照
+     */
+    private OptionDictionary<BossOptionEntity> loadOptions() {
+        return OptionDictionary.of(bossOptionMapper.selectList(new QueryWrapper<BossOptionEntity>().orderByAsc("id")),
+                BossOptionEntity::getType, BossOptionEntity::getCode, BossOptionEntity::getName);
+    }
+
     /**
      * 根据类型和代码获取选项
      */
     public BossOptionEntity getOptionByTypeAndCode(String type, String code) {
-        QueryWrapper<BossOptionEntity> wrapper = new QueryWrapper<>();
-        wrapper.eq("type", type);
-        wrapper.eq("code", code);
-        return bossOptionMapper.selectOne(wrapper);
+        return options.get().byCode(type, code);
     }
 
     /**
@@ -107,10 +111,7 @@ public class BossService {
      * 如果找不到，返回默认值 "0"
      */
     public String getCodeByTypeAndName(String type, String name) {
-        QueryWrapper<BossOptionEntity> wrapper = new QueryWrapper<>();
-        wrapper.eq("type", type);
-        wrapper.eq("name", name);
-        BossOptionEntity entity = bossOptionMapper.selectOne(wrapper);
+        BossOptionEntity entity = options.get().byName(type, name);
         return entity != null ? entity.getCode() : "0";
     }
 
@@ -121,11 +122,7 @@ public class BossService {
      * 如果找不到，返回默认值 "0"
      */
     public String getCityCodeByName(String name) {
-        QueryWrapper<BossOptionEntity> wrapper = new QueryWrapper<>();
-        wrapper.eq("type", "city");
-        wrapper.eq("name", name);
-        BossOptionEntity entity = bossOptionMapper.selectOne(wrapper);
-        return entity != null ? entity.getCode() : "0";
+        return getCodeByTypeAndName("city", name);
     }
 
     // ==================== Industry相关方法 ====================
@@ -133,6 +130,7 @@ public class BossService {
     /**
      * 获取所有行业
      */
+    @Transactional(readOnly = true)
     public List<BossIndustryEntity> getAllIndustries() {
         return bossIndustryMapper.selectList(null);
     }
@@ -140,6 +138,7 @@ public class BossService {
     /**
      * 根据代码获取行业
      */
+    @Transactional(readOnly = true)
     public BossIndustryEntity getIndustryByCode(Integer code) {
         return bossIndustryMapper.selectById(code);
     }
@@ -148,6 +147,7 @@ public class BossService {
      * 根据行业名称获取代码
      * 如果找不到，返回默认值 "0"
      */
+    @Transactional(readOnly = true)
     public String getIndustryCodeByName(String name) {
         QueryWrapper<BossIndustryEntity> wrapper = new QueryWrapper<>();
         wrapper.eq("name", name);
@@ -160,6 +160,7 @@ public class BossService {
     /**
      * 获取所有配置
      */
+    @Transactional(readOnly = true)
     public List<BossConfigEntity> getAllConfigs() {
         return bossConfigMapper.selectList(null);
     }
@@ -167,6 +168,7 @@ public class BossService {
     /**
      * 根据ID获取配置
      */
+    @Transactional(readOnly = true)
     public BossConfigEntity getConfigById(Long id) {
         return bossConfigMapper.selectById(id);
     }
@@ -174,6 +176,7 @@ public class BossService {
     /**
      * 获取第一条配置（通常只有一条）
      */
+    @Transactional(readOnly = true)
     public BossConfigEntity getFirstConfig() {
         QueryWrapper<BossConfigEntity> wrapper = new QueryWrapper<>();
         wrapper.last("LIMIT 1");
@@ -402,6 +405,7 @@ public class BossService {
      * @param type 类型 (company/recruiter/job)
      * @return 黑名单值集合
      */
+    @Transactional(readOnly = true)
     public Set<String> getBlacklistByType(String type) {
         LambdaQueryWrapper<BlacklistEntity> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(BlacklistEntity::getType, type);
@@ -411,6 +415,39 @@ public class BossService {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * 获取某类黑名单的匹配器（各平台过滤共用）
+     *
+     * @param type 类型 (company/recruiter/job)
+     */
+    public BlacklistMatcher getBlacklistMatcher(String type) {
+        return blacklistMatchers.get().getOrDefault(type, BlacklistMatcher.EMPTY);
+    }
+
+    /**
+     * 依次按公司、职位、招聘者黑名单匹配，返回命中说明（如“公司黑名单命中：外包”），未命中返回 null
+     */
+    public String findBlacklistHit(String companyName, String jobName, String recruiterTitle) {
+        String term = getBlacklistMatcher("company").find(companyName);
+        if (term != null) return "公司黑名单命中：" + term;
+        term = getBlacklistMatcher("job").find(jobName);
+        if (term != null) return "职位黑名单命中：" + term;
+        term = getBlacklistMatcher("recruiter").find(recruiterTitle);
+        if (term != null) return "招聘者黑名单命中：" + term;
+        return null;
+    }
+
+    /**
+     * 从数据库编译各类黑名单匹配器
+     */
+    private Map<String, BlacklistMatcher> loadBlacklistMatchers() {
+        Map<String, BlacklistMatcher> snapshot = new HashMap<>();
+        for (String type : List.of("company", "recruiter", "job")) {
+            snapshot.put(type, BlacklistMatcher.of(getBlacklistByType(type)));
+        }
+        return Map.copyOf(snapshot);
+    }
+
     /**
      * 获取所有公司黑名单
      */
@@ -453,7 +490,11 @@ public class BossService {
         entity.setValue(value);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setUpdatedAt(LocalDateTime.now());
-        return blacklistMapper.insert(entity) > 0;
+        boolean inserted = blacklistMapper.insert(entity) > 0;
+        if (inserted) {
+            blacklistMatchers.reload();
+        }
+        return inserted;
     }
 
     /**
@@ -477,7 +518,11 @@ public class BossService {
         LambdaQueryWrapper<BlacklistEntity> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(BlacklistEntity::getType, type)
                 .eq(BlacklistEntity::getValue, value);
-        return blacklistMapper.delete(wrapper) > 0;
+        boolean deleted = blacklistMapper.delete(wrapper) > 0;
+        if (deleted) {
+            blacklistMatchers.reload();
+        }
+        return deleted;
     }
 
     /**
@@ -491,92 +536,10 @@ public class BossService {
 
     // ==================== boss_data（岗位数据）相关方法 ====================
 
-    /**
-     * 确保 boss_data 表的列顺序以 encrypt_id、encrypt_user_id 开头。
-     * 若不满足，则进行一次在线迁移：创建新表、复制数据、替换旧表。
-     */
-    public void ensureBossDataColumnOrder() {
-        java.sql.Connection conn = null;
-        try {
-            conn = dataSource.getConnection();
-            try (java.sql.Statement stmt = conn.createStatement()) {
-                java.util.List<String> cols = new java.util.ArrayList<>();
-                try (java.sql.ResultSet rs = stmt.executeQuery("PRAGMA table_info('boss_data')")) {
-                    while (rs.next()) {
-                        cols.add(rs.getString("name"));
-                    }
-                }
-                if (cols.isEmpty()) return; // 表不存在或无列
-                boolean needMigrate = true;
-                if (cols.size() >= 3) {
-                    String c0 = cols.get(0) == null ? "" : cols.get(0).toLowerCase();
-                    String c1 = cols.get(1) == null ? "" : cols.get(1).toLowerCase();
-                    String c2 = cols.get(2) == null ? "" : cols.get(2).toLowerCase();
-                    // 允许第一列是 id 或 encrypt_id，但要求前两列满足 encrypt_id、encrypt_user_id 顺序
-                    if ("id".equals(c0) && "encrypt_id".equals(c1) && "encrypt_user_id".equals(c2)) {
-                        needMigrate = false;
-                    } else if ("encrypt_id".equals(c0) && "encrypt_user_id".equals(c1)) {
-                        needMigrate = false;
-                    }
-                }
-                if (!needMigrate) return;
-
-                stmt.execute("BEGIN TRANSACTION");
-                // 新表：将 encrypt_id、encrypt_user_id 移到最前（紧随 id）
-                String createSql = "CREATE TABLE boss_data_new (" +
-                        "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                        "encrypt_id TEXT, " +
-                        "encrypt_user_id TEXT, " +
-                        "company_name TEXT, " +
-                        "job_name TEXT, " +
-                        "salary TEXT, " +
-                        "location TEXT, " +
-                        "experience TEXT, " +
-                        "degree TEXT, " +
-                        "hr_name TEXT, " +
-                        "hr_position TEXT, " +
-                        "hr_active_status TEXT, " +
-                        "delivery_status TEXT, " +
-                        "job_description TEXT, " +
-                        "job_url TEXT, " +
-                        "recruitment_status TEXT, " +
-                        "company_address TEXT, " +
-                        "industry TEXT, " +
-                        "introduce TEXT, " +
-                        "financing_stage TEXT, " +
-                        "company_scale TEXT, " +
-                        "created_at TEXT, " +
-                        "updated_at TEXT" +
-                        ")";
-                stmt.execute(createSql);
-
-                String copySql = "INSERT INTO boss_data_new (" +
-                        "id, encrypt_id, encrypt_user_id, company_name, job_name, salary, location, experience, degree, " +
-                        "hr_name, hr_position, hr_active_status, delivery_status, job_description, job_url, recruitment_status, " +
-                        "company_address, industry, introduce, financing_stage, company_scale, created_at, updated_at" +
-                        ") SELECT " +
-                        "id, encrypt_id, encrypt_user_id, company_name, job_name, salary, location, experience, degree, " +
-                        "hr_name, hr_position, hr_active_status, delivery_status, job_description, job_url, recruitment_status, " +
-                        "company_address, industry, introduce, financing_stage, company_scale, created_at, updated_at " +
-                        "FROM boss_data";
-                stmt.execute(copySql);
-
-                stmt.execute("DROP TABLE boss_data");
-                stmt.execute("ALTER TABLE boss_data_new RENAME TO boss_data");
-                stmt.execute("COMMIT");
-                log.info("已调整 boss_data 表列顺序：将 encrypt_id、encrypt_user_id 前置");
-            }
-        } catch (Exception e) {
-            log.warn("调整 boss_data 列顺序失败：{}", e.getMessage());
-            try { if (conn != null) conn.createStatement().execute("ROLLBACK"); } catch (Exception ignore) {}
-        } finally {
-            try { if (conn != null) conn.close(); } catch (Exception ignore) {}
-        }
-    }
-
     /**
      * 判断岗位是否已存在（相同 encrypt_id AND encrypt_user_id）
      */
+    @Transactional(readOnly = true)
     public boolean existsBossJob(String encryptId, String encryptUserId) {
         if (encryptId == null || encryptUserId == null) return false;
         QueryWrapper<BossJobDataEntity> wrapper = new QueryWrapper<>();
@@ -590,6 +553,7 @@ public class BossService {
     /**
      * 仅根据 encrypt_id 判断是否存在（当 encrypt_user_id 缺失时的降级策略）
      */
+    @Transactional(readOnly = true)
     public boolean existsBossJobByEncryptId(String encryptId) {
         if (encryptId == null) return false;
         QueryWrapper<BossJobDataEntity> wrapper = new QueryWrapper<>();
@@ -601,20 +565,66 @@ public class BossService {
 
     /**
      * 插入新岗位数据（默认 delivery_status 为 未投递，或外部传入值）
+     * 由组提交写入器异步写入，需要立即读取时 join 返回的 future
      */
-    public void insertBossJob(BossJobDataEntity entity) {
-        if (entity == null) return;
+    public CompletableFuture<Void> insertBossJob(BossJobDataEntity entity) {
+        if (entity == null) return CompletableFuture.completedFuture(null);
         LocalDateTime now = LocalDateTime.now();
         entity.setCreatedAt(now);
         entity.setUpdatedAt(now);
-        bossJobDataMapper.insert(entity);
+        applySalary(entity);
+        return groupCommitWriter.submit("boss", null, conn -> bossJobDataMapper.insert(entity))
+                .thenRun(() -> {
+                    if (SeenJobIndex.isSettledStatus(entity.getDeliveryStatus())) {
+                        seenJobIndex.markSettled(SeenJobIndex.BOSS, entity.getEncryptId());
+                    } else {
+                        seenJobIndex.markStored(SeenJobIndex.BOSS, entity.getEncryptId());
+                    }
+                });
+    }
+
+    /**
+     * 岗位不存在时插入：去重查询在写操作内执行，与插入处于同一事务，避免“先查已提交数据、再排队写入”之间的重复入库
+     * 以 encrypt_id + encrypt_user_id 去重；encrypt_user_id 缺失时仅以 encrypt_id 去重
+     *
+     * @return 是否实际插入
+     */
+    public CompletableFuture<Boolean> insertBossJobIfAbsent(BossJobDataEntity entity) {
+        if (entity == null || entity.getEncryptId() == null) return CompletableFuture.completedFuture(false);
+        LocalDateTime now = LocalDateTime.now();
+        entity.setCreatedAt(now);
+        entity.setUpdatedAt(now);
+        applySalary(entity);
+        java.util.concurrent.atomic.AtomicBoolean inserted = new java.util.concurrent.atomic.AtomicBoolean();
+        return groupCommitWriter.submit("boss", null, conn -> {
+                    QueryWrapper<BossJobDataEntity> wrapper = new QueryWrapper<>();
+                    wrapper.eq("encrypt_id", entity.getEncryptId());
+                    if (StringUtils.isNotBlank(entity.getEncryptUserId())) {
+                        wrapper.eq("encrypt_user_id", entity.getEncryptUserId());
+                    }
+                    Long count = bossJobDataMapper.selectCount(wrapper.last("LIMIT 1"));
+                    if (count == null || count == 0) {
+                        bossJobDataMapper.insert(entity);
+                        inserted.set(true);
+                    }
+                })
+                .thenApply(v -> {
+                    if (inserted.get()) {
+                        if (SeenJobIndex.isSettledStatus(entity.getDeliveryStatus())) {
+                            seenJobIndex.markSettled(SeenJobIndex.BOSS, entity.getEncryptId());
+                        } else {
+                            seenJobIndex.markStored(SeenJobIndex.BOSS, entity.getEncryptId());
+                        }
+                    }
+                    return inserted.get();
+                });
     }
 
     /**
      * 更新投递状态（WHERE encrypt_id = ? AND encrypt_user_id = ?）
      */
-    public void updateDeliveryStatus(String encryptId, String encryptUserId, String status) {
-        if (encryptId == null || status == null) return;
+    public CompletableFuture<Void> updateDeliveryStatus(String encryptId, String encryptUserId, String status) {
+        if (encryptId == null || status == null) return CompletableFuture.completedFuture(null);
         BossJobDataEntity update = new BossJobDataEntity();
         update.setDeliveryStatus(status);
         update.setUpdatedAt(LocalDateTime.now());
@@ -624,7 +634,14 @@ public class BossService {
         if (encryptUserId != null) {
             uw.eq("encrypt_user_id", encryptUserId);
         }
-        bossJobDataMapper.update(update, uw);
+        // 同一岗位批内多次更新只保留最后一次
+        return groupCommitWriter.submit("boss", "status:" + encryptId + ":" + encryptUserId,
+                conn -> bossJobDataMapper.update(update, uw))
+                .thenRun(() -> {
+                    if (SeenJobIndex.isSettledStatus(status)) {
+                        seenJobIndex.markSettled(SeenJobIndex.BOSS, encryptId);
+                    }
+                });
     }
 
     // ==================== 投递分析（Dashboard）相关方法 ====================
@@ -698,6 +715,26 @@ public class BossService {
         return info;
     }
 
+    /**
+     * 将薪资文本换算为物化薪资列
+     */
+    public static SalaryColumns salaryColumns(String salary) {
+        SalaryInfo info = parseSalary(salary);
+        return info == null ? SalaryColumns.EMPTY : SalaryColumns.of(info.minK, info.maxK, info.months);
+    }
+
+    /**
+     * 入库前填充物化薪资列
+     */
+    static void applySalary(BossJobDataEntity entity) {
+        SalaryColumns c = salaryColumns(entity.getSalary());
+        entity.setMinK(c.minK());
+        entity.setMaxK(c.maxK());
+        entity.setMedianK(c.medianK());
+        entity.setMonths(c.months());
+        entity.setAnnualTotal(c.annualTotal());
+    }
+
     /** KPI 指标 */
     public static class Kpi {
         public long total;
@@ -749,128 +786,32 @@ public class BossService {
         public long total;
         public int page;
         public int size;
+        public Long nextCursor; // 下一页游标（本页最后一条的 id），没有更多数据时为 null
     }
 
+    /** 排除猎头岗位（hr_position 为空或不包含“猎头”） */
+    private static final String NOT_HEADHUNTER = "hr_position IS NULL OR hr_position NOT LIKE '%猎头%'";
+
+    /** Boss 统计列映射 */
+    public static final JobAnalytics.Mapping STATS_MAPPING = new JobAnalytics.Mapping(
+            "boss", "boss_data", "delivery_status", "delivery_status", s -> s,
+            "location", "industry", "company_name", "experience", "degree", "created_at",
+            "hr_name", "hr_active_status IS NOT NULL AND TRIM(hr_active_status) <> ''",
+            List.of("company_name", "job_name", "hr_name", "job_description"), false,
+            List.of(NOT_HEADHUNTER));
+
     /**
      * 获取投递分析统计与图表数据
      */
+    @Transactional(readOnly = true)
     public StatsResponse getBossStats() {
-        StatsResponse resp = new StatsResponse();
-        resp.kpi = new Kpi();
-        Charts charts = new Charts();
-        charts.byStatus = new ArrayList<>();
-        charts.byCity = new ArrayList<>();
-        charts.byIndustry = new ArrayList<>();
-        charts.byCompany = new ArrayList<>();
-        charts.byExperience = new ArrayList<>();
-        charts.byDegree = new ArrayList<>();
-        charts.salaryBuckets = new ArrayList<>();
-        charts.dailyTrend = new ArrayList<>();
-        charts.hrActivity = new ArrayList<>();
-
-        try (Connection conn = dataSource.getConnection()) {
-            // KPI 基本计数
-            resp.kpi.total = scalarCount(conn, "SELECT COUNT(*) FROM boss_data");
-            resp.kpi.delivered = scalarCount(conn, "SELECT COUNT(*) FROM boss_data WHERE delivery_status='已投递'");
-            resp.kpi.pending = scalarCount(conn, "SELECT COUNT(*) FROM boss_data WHERE delivery_status='未投递'");
-            resp.kpi.filtered = scalarCount(conn, "SELECT COUNT(*) FROM boss_data WHERE delivery_status='已过滤'");
-            resp.kpi.failed = scalarCount(conn, "SELECT COUNT(*) FROM boss_data WHERE delivery_status='投递失败'");
-
-            // 平均中位数K（忽略面议）
-            double sumMedian = 0.0; long countMedian = 0;
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT salary FROM boss_data WHERE salary IS NOT NULL")) {
-                while (rs.next()) {
-                    String s = rs.getString(1);
-                    SalaryInfo info = parseSalary(s);
-                    if (info != null && info.medianK != null) {
-                        sumMedian += info.medianK;
-                        countMedian++;
-                    }
-                }
-            }
-            resp.kpi.avgMonthlyK = countMedian > 0 ? Math.round((sumMedian / countMedian) * 100.0) / 100.0 : null;
-
-            // byStatus
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT delivery_status, COUNT(*) AS cnt FROM boss_data GROUP BY delivery_status")) {
-                while (rs.next()) charts.byStatus.add(new NameValue(nullSafe(rs.getString(1)), rs.getLong(2)));
-            }
-
-            // byCity TOP10（保留）
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT location, COUNT(*) AS cnt FROM boss_data GROUP BY location ORDER BY cnt DESC LIMIT 10")) {
-                while (rs.next()) charts.byCity.add(new NameValue(nullSafe(rs.getString(1)), rs.getLong(2)));
-            }
-
-            // byIndustry TOP10（新增）
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT industry, COUNT(*) AS cnt FROM boss_data GROUP BY industry ORDER BY cnt DESC LIMIT 10")) {
-                while (rs.next()) charts.byIndustry.add(new NameValue(nullSafe(rs.getString(1)), rs.getLong(2)));
-            }
-
-            // byCompany TOP10
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT company_name, COUNT(*) AS cnt FROM boss_data GROUP BY company_name ORDER BY cnt DESC LIMIT 10")) {
-                while (rs.next()) charts.byCompany.add(new NameValue(nullSafe(rs.getString(1)), rs.getLong(2)));
-            }
-
-            // byExperience
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT experience, COUNT(*) AS cnt FROM boss_data GROUP BY experience")) {
-                while (rs.next()) charts.byExperience.add(new NameValue(nullSafe(rs.getString(1)), rs.getLong(2)));
-            }
-
-            // byDegree
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT degree, COUNT(*) AS cnt FROM boss_data GROUP BY degree")) {
-                while (rs.next()) charts.byDegree.add(new NameValue(nullSafe(rs.getString(1)), rs.getLong(2)));
-            }
-
-            // dailyTrend（按日期聚合）
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT substr(created_at,1,10) AS d, COUNT(*) AS cnt FROM boss_data GROUP BY d ORDER BY d")) {
-                while (rs.next()) charts.dailyTrend.add(new NameValue(nullSafe(rs.getString(1)), rs.getLong(2)));
-            }
-
-            // hrActivity（仅统计活跃状态非空的 hr_name 计数）
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT hr_name, COUNT(*) AS cnt FROM boss_data WHERE hr_active_status IS NOT NULL AND TRIM(hr_active_status) <> '' GROUP BY hr_name")) {
-                while (rs.next()) charts.hrActivity.add(new NameValue(nullSafe(rs.getString(1)), rs.getLong(2)));
-            }
-
-            // salaryBuckets（基于中位数K按档统计，动态上限）
-            long b0_10=0,b10_15=0,b15_20=0,b20_top=0,b_ge_top=0;
-            double maxMedian = 0.0;
-            List<Double> medians = new ArrayList<>();
-            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT salary FROM boss_data WHERE salary IS NOT NULL")) {
-                while (rs.next()) {
-                    SalaryInfo info = parseSalary(rs.getString(1));
-                    if (info == null || info.medianK == null) continue;
-                    double m = info.medianK;
-                    medians.add(m);
-                    if (m > maxMedian) maxMedian = m;
-                }
-            }
-            int topEdge = (int) Math.ceil(maxMedian / 5.0) * 5; // 向上取整到5的倍数
-            if (topEdge <= 20) topEdge = 25; // 避免区间过窄
-            for (double m : medians) {
-                if (m < 10) b0_10++;
-                else if (m < 15) b10_15++;
-                else if (m < 20) b15_20++;
-                else if (m < topEdge) b20_top++;
-                else b_ge_top++;
-            }
-            charts.salaryBuckets.add(new BucketValue("0-10K", b0_10));
-            charts.salaryBuckets.add(new BucketValue("10-15K", b10_15));
-            charts.salaryBuckets.add(new BucketValue("15-20K", b15_20));
-            charts.salaryBuckets.add(new BucketValue("20-" + topEdge + "K", b20_top));
-            charts.salaryBuckets.add(new BucketValue(">=" + topEdge + "K", b_ge_top));
-
-            resp.charts = charts;
-            return resp;
-        } catch (Exception e) {
-            log.error("获取Boss统计失败: {}", e.getMessage(), e);
-            // 失败时返回空集合，避免前端崩溃
-            resp.charts = charts;
-            return resp;
-        }
+        return toStatsResponse(jobAnalytics.aggregate(STATS_MAPPING, JobAnalytics.Filter.NONE));
     }
 
     /**
      * 获取投递分析统计与图表数据（按筛选条件）
      */
+    @Transactional(readOnly = true)
     public StatsResponse getBossStats(
             List<String> statuses,
             String location,
@@ -881,156 +822,37 @@ public class BossService {
             String keyword,
             boolean filterHeadhunter
     ) {
+        JobAnalytics.Filter filter = new JobAnalytics.Filter(statuses, location, experience, degree, minK, maxK, keyword,
+                filterHeadhunter ? NOT_HEADHUNTER : null);
+        return toStatsResponse(jobAnalytics.aggregate(STATS_MAPPING, filter));
+    }
+
+    private static StatsResponse toStatsResponse(JobAnalytics.Result r) {
         StatsResponse resp = new StatsResponse();
         resp.kpi = new Kpi();
-        Charts charts = new Charts();
-        charts.byStatus = new ArrayList<>();
-        charts.byCity = new ArrayList<>();
-        charts.byIndustry = new ArrayList<>();
-        charts.byCompany = new ArrayList<>();
-        charts.byExperience = new ArrayList<>();
-        charts.byDegree = new ArrayList<>();
-        charts.salaryBuckets = new ArrayList<>();
-        charts.dailyTrend = new ArrayList<>();
-        charts.hrActivity = new ArrayList<>();
+        resp.kpi.total = r.total();
+        resp.kpi.delivered = r.delivered();
+        resp.kpi.pending = r.pending();
+        resp.kpi.filtered = r.filtered();
+        resp.kpi.failed = r.failed();
+        resp.kpi.avgMonthlyK = r.avgMonthlyK();
 
-        try {
-            // 构造与列表相同的筛选条件
-            QueryWrapper<BossJobDataEntity> wrapper = new QueryWrapper<>();
-            if (statuses != null && !statuses.isEmpty()) {
-                wrapper.in("delivery_status", statuses);
-            }
-            if (StringUtils.isNotBlank(location)) wrapper.eq("location", location);
-            if (StringUtils.isNotBlank(experience)) wrapper.eq("experience", experience);
-            if (StringUtils.isNotBlank(degree)) wrapper.eq("degree", degree);
-
-            if (StringUtils.isNotBlank(keyword)) {
-                wrapper.and(w -> w.like("company_name", keyword)
-                        .or().like("job_name", keyword)
-                        .or().like("hr_name", keyword));
-            }
-            if (filterHeadhunter) {
-                wrapper.and(w -> w.isNull("hr_position").or().notLike("hr_position", "猎头"));
-            }
-            wrapper.orderByDesc("created_at");
-
-            List<BossJobDataEntity> all = bossJobDataMapper.selectList(wrapper);
-
-            // 内存进行薪资区间过滤（按中位数K）
-            List<BossJobDataEntity> filtered = new ArrayList<>();
-            double sumMedian = 0.0; long countMedian = 0;
-            for (BossJobDataEntity e : all) {
-                SalaryInfo info = parseSalary(e.getSalary());
-                boolean passSalary;
-                if (minK == null && maxK == null) {
-                    passSalary = true;
-                } else {
-                    if (info == null || info.medianK == null) passSalary = false; // 面议或不可解析
-                    else {
-                        boolean ok = true;
-                        if (minK != null) ok = ok && (info.medianK >= minK);
-                        if (maxK != null) ok = ok && (info.medianK <= maxK);
-                        passSalary = ok;
-                    }
-                }
-                if (passSalary) {
-                    filtered.add(e);
-                    if (info != null && info.medianK != null) { sumMedian += info.medianK; countMedian++; }
-                }
-            }
+        Charts charts = new Charts();
+        charts.byStatus = toNameValues(r.byStatus());
+        charts.byCity = toNameValues(r.byCity());
+        charts.byIndustry = toNameValues(r.byIndustry());
+        charts.byCompany = toNameValues(r.byCompany());
+        charts.byExperience = toNameValues(r.byExperience());
+        charts.byDegree = toNameValues(r.byDegree());
+        charts.salaryBuckets = r.salaryBuckets().stream().map(c -> new BucketValue(c.name(), c.value())).collect(Collectors.toList());
+        charts.dailyTrend = toNameValues(r.dailyTrend());
+        charts.hrActivity = toNameValues(r.hrActivity());
+        resp.charts = charts;
+        return resp;
+    }
 
-            // KPI
-            resp.kpi.total = filtered.size();
-            resp.kpi.delivered = filtered.stream().filter(e -> "已投递".equals(e.getDeliveryStatus())).count();
-            resp.kpi.pending = filtered.stream().filter(e -> "未投递".equals(e.getDeliveryStatus())).count();
-            resp.kpi.filtered = filtered.stream().filter(e -> "已过滤".equals(e.getDeliveryStatus())).count();
-            resp.kpi.failed = filtered.stream().filter(e -> "投递失败".equals(e.getDeliveryStatus())).count();
-            resp.kpi.avgMonthlyK = countMedian > 0 ? Math.round((sumMedian / countMedian) * 100.0) / 100.0 : null;
-
-            // Charts - 分组聚合（在内存中统计）
-            Map<String, Long> byStatus = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getDeliveryStatus()), Collectors.counting()));
-            byStatus.forEach((k, v) -> charts.byStatus.add(new NameValue(k, v)));
-
-            Map<String, Long> byCity = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getLocation()), Collectors.counting()));
-            byCity.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .limit(10)
-                    .forEach(en -> charts.byCity.add(new NameValue(en.getKey(), en.getValue())));
-
-            // byIndustry TOP10
-            Map<String, Long> byIndustry = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getIndustry()), Collectors.counting()));
-            byIndustry.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .limit(10)
-                    .forEach(en -> charts.byIndustry.add(new NameValue(en.getKey(), en.getValue())));
-
-            Map<String, Long> byCompany = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getCompanyName()), Collectors.counting()));
-            byCompany.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .limit(10)
-                    .forEach(en -> charts.byCompany.add(new NameValue(en.getKey(), en.getValue())));
-
-            Map<String, Long> byExp = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getExperience()), Collectors.counting()));
-            byExp.forEach((k, v) -> charts.byExperience.add(new NameValue(k, v)));
-
-            Map<String, Long> byDeg = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getDegree()), Collectors.counting()));
-            byDeg.forEach((k, v) -> charts.byDegree.add(new NameValue(k, v)));
-
-            // dailyTrend（created_at 到天）
-            Map<String, Long> byDay = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> {
-                        LocalDateTime t = e.getCreatedAt();
-                        return t == null ? "未知" : String.format("%04d-%02d-%02d", t.getYear(), t.getMonthValue(), t.getDayOfMonth());
-                    }, Collectors.counting()));
-            byDay.entrySet().stream()
-                    .sorted(Map.Entry.comparingByKey())
-                    .forEach(en -> charts.dailyTrend.add(new NameValue(en.getKey(), en.getValue())));
-
-            // hrActivity（活跃状态非空的 hr_name 计数）
-            Map<String, Long> hrAct = filtered.stream()
-                    .filter(e -> e.getHrActiveStatus() != null && !e.getHrActiveStatus().trim().isEmpty())
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getHrName()), Collectors.counting()));
-            hrAct.forEach((k, v) -> charts.hrActivity.add(new NameValue(k, v)));
-
-            // salaryBuckets（动态上限）
-            long b0_10=0,b10_15=0,b15_20=0,b20_top=0,b_ge_top=0;
-            double maxMedian = 0.0;
-            List<Double> medians = new ArrayList<>();
-            for (BossJobDataEntity e : filtered) {
-                SalaryInfo info = parseSalary(e.getSalary());
-                if (info == null || info.medianK == null) continue;
-                double m = info.medianK;
-                medians.add(m);
-                if (m > maxMedian) maxMedian = m;
-            }
-            int topEdge = (int) Math.ceil(maxMedian / 5.0) * 5;
-            if (topEdge <= 20) topEdge = 25;
-            for (double m : medians) {
-                if (m < 10) b0_10++;
-                else if (m < 15) b10_15++;
-                else if (m < 20) b15_20++;
-                else if (m < topEdge) b20_top++;
-                else b_ge_top++;
-            }
-            charts.salaryBuckets.add(new BucketValue("0-10K", b0_10));
-            charts.salaryBuckets.add(new BucketValue("10-15K", b10_15));
-            charts.salaryBuckets.add(new BucketValue("15-20K", b15_20));
-            charts.salaryBuckets.add(new BucketValue("20-" + topEdge + "K", b20_top));
-            charts.salaryBuckets.add(new BucketValue(">=" + topEdge + "K", b_ge_top));
-
-            resp.charts = charts;
-            return resp;
-        } catch (Exception e) {
-            log.error("获取Boss筛选统计失败: {}", e.getMessage(), e);
-            resp.charts = charts;
-            return resp;
-        }
+    private static List<NameValue> toNameValues(List<JobAnalytics.Count> counts) {
+        return counts.stream().map(c -> new NameValue(c.name(), c.value())).collect(Collectors.toList());
     }
 
     private long scalarCount(Connection conn, String sql) throws Exception {
@@ -1039,11 +861,10 @@ public class BossService {
         }
     }
 
-    private String nullSafe(String s) { return s == null || s.isEmpty() ? "未知" : s; }
-
     /**
      * 列表查询（分页 + 筛选 + 关键词 + 薪资区间基于中位数K）
      */
+    @Transactional(readOnly = true)
     public PagedResult listBossJobs(
             List<String> statuses,
             String location,
@@ -1055,6 +876,30 @@ public class BossService {
             int page,
             int size,
             boolean filterHeadhunter
+    ) {
+        return listBossJobs(statuses, location, experience, degree, minK, maxK, keyword, page, size, filterHeadhunter, null);
+    }
+
+    /**
+     * 列表查询：筛选与薪资区间均在 SQL 中完成
+     * 传入 cursor（上一页返回的 nextCursor）时按 (created_at, id) 做键集分页，不受页码深度影响；
+     * 未传时按 page 定位（兼容页码跳转）。
+     * 关键词不少于 3 个字符时经全文索引检索（含职位描述），结果按相关度排序并按页码分页（忽略 cursor）；
+     * 更短的关键词按 LIKE 匹配。
+     */
+    @Transactional(readOnly = true)
+    public PagedResult listBossJobs(
+            List<String> statuses,
+            String location,
+            String experience,
+            String degree,
+            Double minK,
+            Double maxK,
+            String keyword,
+            int page,
+            int size,
+            boolean filterHeadhunter,
+            Long cursor
     ) {
         if (page <= 0) page = 1;
         if (size <= 0) size = 20;
@@ -1067,10 +912,12 @@ public class BossService {
         if (StringUtils.isNotBlank(experience)) wrapper.eq("experience", experience);
         if (StringUtils.isNotBlank(degree)) wrapper.eq("degree", degree);
 
-        if (StringUtils.isNotBlank(keyword)) {
+        String match = FullTextIndex.matchQuery(keyword);
+        if (match == null && StringUtils.isNotBlank(keyword)) {
             wrapper.and(w -> w.like("company_name", keyword)
                     .or().like("job_name", keyword)
-                    .or().like("hr_name", keyword));
+                    .or().like("hr_name", keyword)
+                    .or().like("job_description", keyword));
         }
 
         // 查询阶段过滤猎头：hr_position 不包含“猎头”或为空
@@ -1078,51 +925,53 @@ public class BossService {
             wrapper.and(w -> w.isNull("hr_position").or().notLike("hr_position", "猎头"));
         }
 
-        wrapper.orderByDesc("created_at");
-
-        // 取符合条件的记录（猎头已在查询阶段过滤），随后在内存进行薪资区间过滤与分页
-        List<BossJobDataEntity> all = bossJobDataMapper.selectList(wrapper);
-
-        List<BossJobDataEntity> filtered = new ArrayList<>();
-        for (BossJobDataEntity e : all) {
-            if (minK == null && maxK == null) {
-                filtered.add(e);
-            } else {
-                SalaryInfo info = parseSalary(e.getSalary());
-                if (info == null || info.medianK == null) continue; // 面议或不可解析
-                boolean ok = true;
-                if (minK != null) ok = ok && (info.medianK >= minK);
-                if (maxK != null) ok = ok && (info.medianK <= maxK);
-                if (ok) filtered.add(e);
-            }
+        // 薪资区间（中位数K，面议/不可解析的 median_k 为 NULL，自然被排除）
+        if (minK != null) wrapper.ge("median_k", minK);
+        if (maxK != null) wrapper.le("median_k", maxK);
+
+        if (match != null) {
+            Long total = bossJobDataMapper.countByKeyword(match, wrapper);
+            wrapper.orderByAsc("fts_rank").orderByDesc("created_at").orderByDesc("id");
+            wrapper.last("LIMIT " + size + " OFFSET " + (long) (page - 1) * size);
+            PagedResult result = new PagedResult();
+            result.items = bossJobDataMapper.selectByKeyword(match, wrapper);
+            result.total = total != null ? total : 0;
+            result.page = page;
+            result.size = size;
+            return result;
         }
 
-        int total = filtered.size();
-        int from = Math.max(0, (page - 1) * size);
-        int to = Math.min(total, from + size);
-        List<BossJobDataEntity> pageItems = from >= to ? Collections.emptyList() : filtered.subList(from, to);
+        Long total = bossJobDataMapper.selectCount(wrapper);
+
+        if (cursor != null) {
+            wrapper.apply("(created_at < (SELECT created_at FROM boss_data WHERE id = {0})"
+                    + " OR (created_at = (SELECT created_at FROM boss_data WHERE id = {0}) AND id < {0}))", cursor);
+        }
+        wrapper.orderByDesc("created_at").orderByDesc("id");
+        wrapper.last(cursor != null ? "LIMIT " + size : "LIMIT " + size + " OFFSET " + (long) (page - 1) * size);
+        List<BossJobDataEntity> pageItems = bossJobDataMapper.selectList(wrapper);
 
         PagedResult result = new PagedResult();
         result.items = pageItems;
-        result.total = total;
+        result.total = total != null ? total : 0;
         result.page = page;
         result.size = size;
+        result.nextCursor = pageItems.size() < size ? null : pageItems.get(pageItems.size() - 1).getId();
         return result;
     }
 
     /**
-     * 刷新数据：执行列顺序检查，并执行 VACUUM 以优化数据库；返回当前总数
+     * 刷新数据：重建统计汇总，执行 WAL 检查点与 VACUUM 以优化数据库；返回当前总数
      */
     public Map<String, Object> reloadBossData() {
         Map<String, Object> resp = new HashMap<>();
         Connection conn = null;
         try {
-            ensureBossDataColumnOrder();
+            // 先于取连接执行：重建由写线程完成，需要用到唯一的写连接
+            statsRollup.rebuild("boss").join();
             conn = dataSource.getConnection();
-            try (Statement st = conn.createStatement()) {
-                try { st.execute("PRAGMA wal_checkpoint(TRUNCATE)"); } catch (Exception ignore) {}
-                try { st.execute("VACUUM"); } catch (Exception ignore) {}
-            }
+            // VACUUM 会重新编号无整数主键别名的表的 rowid，由索引统一执行并重建
+            jobIndex.vacuum(conn);
             long total = scalarCount(conn, "SELECT COUNT(*) FROM boss_data");
             resp.put("success", true);
             resp.put("message", "刷新完成");
@@ -18,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,25 +36,31 @@ public class ConfigService {
     private final ZhilianService zhilianService;
     private final Job51Service job51Service;
 
+    // config 表快照（config_key -> config_value），配置写入提交后重新加载
+    private final SnapshotCache<Map<String, String>> configValues = new SnapshotCache<>("config", this::loadConfigValues);
+
     /**
      * 获取所有配置（以Map形式返回）
      * @return 配置Map，key为config_key，value为config_value
      */
     public Map<String, String> getAllConfigsAsMap() {
-        List<ConfigEntity> configs = configMapper.selectList(null);
-        Map<String, String> configMap = new HashMap<>();
+        return new HashMap<>(configValues.get());
+    }
 
-        for (ConfigEntity config : configs) {
+    private Map<String, String> loadConfigValues() {
+        Map<String, String> configMap = new HashMap<>();
+        for (ConfigEntity config : configMapper.selectList(null)) {
             configMap.put(config.getConfigKey(), config.getConfigValue());
         }
-
-        return configMap;
+        // 值可能为 null，不能使用 Map.copyOf
+        return Collections.unmodifiableMap(configMap);
     }
 
     /**
      * 获取所有配置
      * @return 配置列表
      */
+    @Transactional(readOnly = true)
     public List<ConfigEntity> getAllConfigs() {
         return configMapper.selectList(null);
     }
@@ -63,6 +70,7 @@ public class ConfigService {
      * @param configKey 配置键
      * @return 配置实体
      */
+    @Transactional(readOnly = true)
     public ConfigEntity getConfigByKey(String configKey) {
         LambdaQueryWrapper<ConfigEntity> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(ConfigEntity::getConfigKey, configKey);
@@ -74,6 +82,7 @@ public class ConfigService {
      * @param category 分类
      * @return 配置列表
      */
+    @Transactional(readOnly = true)
     public List<ConfigEntity> getConfigsByCategory(String category) {
         LambdaQueryWrapper<ConfigEntity> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(ConfigEntity::getCategory, category);
@@ -86,8 +95,7 @@ public class ConfigService {
      * @return 配置值或null
      */
     public String getConfigValue(String configKey) {
-        ConfigEntity entity = getConfigByKey(configKey);
-        return entity != null ? entity.getConfigValue() : null;
+        return configValues.get().get(configKey);
     }
 
     /**
@@ -145,6 +153,9 @@ public class ConfigService {
             }
         }
 
+        if (updateCount > 0) {
+            configValues.reload();
+        }
         return updateCount;
     }
 
@@ -165,6 +176,7 @@ public class ConfigService {
 
             if (result > 0) {
                 log.info("更新配置成功: {} = {}", configKey, configValue);
+                configValues.reload();
                 return true;
             }
         } else {
@@ -188,6 +200,7 @@ public class ConfigService {
 
         if (result > 0) {
             log.info("创建配置成功: {} = {}", config.getConfigKey(), config.getConfigValue());
+            configValues.reload();
             return true;
         }
 
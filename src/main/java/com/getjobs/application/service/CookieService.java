@@ -6,6 +6,7 @@ import com.getjobs.application.mapper.CookieMapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +25,7 @@ public class CookieService {
      * @param platform 平台名称（boss/zhilian/job51/liepin）
      * @return Cookie实体
      */
+    @Transactional(readOnly = true)
     public CookieEntity getCookieByPlatform(String platform) {
         LambdaQueryWrapper<CookieEntity> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(CookieEntity::getPlatform, platform)
@@ -90,6 +92,7 @@ public class CookieService {
      * 获取所有Cookie
      * @return Cookie列表
      */
+    @Transactional(readOnly = true)
     public List<CookieEntity> getAllCookies() {
         return cookieMapper.selectList(null);
     }
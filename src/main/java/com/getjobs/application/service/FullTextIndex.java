@@ -0,0 +1,115 @@
+package com.getjobs.application.service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 岗位全文索引（SQLite FTS5）
+ * 每个平台一张外部内容（external content）FTS5 表 “表名_fts”，只存倒排索引不重复存正文；
+ * 使用 trigram 分词器，中文无需分词即可按任意连续子串匹配。索引由数据表上的触发器在同一事务内维护。
+ * trigram 只能匹配至少 3 个字符的关键词，更短的关键词仍走 LIKE 扫描。
+ */
+public final class FullTextIndex {
+
+    /**
+     * 单个平台的全文索引定义
+     *
+     * @param table    数据表
+     * @param idColumn 主键列（即 FTS 表的 rowid）
+     * @param columns  参与检索的文本列
+     */
+    public record Spec(String table, String idColumn, List<String> columns) {
+
+        public String ftsTable() {
+            return table + "_fts";
+        }
+
+        /**
+         * 关键词命中条件（一个 ? 参数，传 {@link #matchQuery} 的结果）
+         */
+        public String matchCondition() {
+            return idColumn + " IN (SELECT rowid FROM " + ftsTable() + " WHERE " + ftsTable() + " MATCH ?)";
+        }
+    }
+
+    public static final Spec BOSS = new Spec("boss_data", "id",
+            List.of("company_name", "job_name", "hr_name", "job_description"));
+    public static final Spec LIEPIN = new Spec("liepin_data", "job_id",
+            List.of("comp_name", "job_title", "hr_name"));
+    public static final Spec ZHILIAN = new Spec("zhilian_data", "id",
+            List.of("company_name", "job_title"));
+    public static final Spec JOB51 = new Spec("job51_data", "job_id",
+            List.of("comp_name", "job_title", "hr_name"));
+
+    private static final List<Spec> SPECS = List.of(BOSS, LIEPIN, ZHILIAN, JOB51);
+
+    /**
+     * trigram 分词器可匹配的最短关键词长度（按字符计）
+     */
+    private static final int MIN_MATCH_LENGTH = 3;
+
+    private FullTextIndex() {
+    }
+
+    /**
+     * 按表名查找全文索引定义，未建立索引的表返回 null
+     */
+    public static Spec forTable(String table) {
+        return SPECS.stream().filter(s -> s.table().equals(table)).findFirst().orElse(null);
+    }
+
+    /**
+     * 将用户输入的关键词转换为 FTS5 MATCH 表达式（整体作为短语匹配，转义双引号）
+     *
+     * @return 关键词为空或短于 3 个字符时返回 null，调用方应退回 LIKE 匹配
+     */
+    public static String matchQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String kw = keyword.trim();
+        if (kw.codePointCount(0, kw.length()) < MIN_MATCH_LENGTH) {
+            return null;
+        }
+        return "\"" + kw.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * 创建各平台 FTS5 表与同步触发器，并由现有数据建立索引（供数据库迁移调用）
+     */
+    public static void install(Statement stmt) throws SQLException {
+        for (Spec s : SPECS) {
+            String fts = s.ftsTable();
+            String cols = String.join(", ", s.columns());
+            String newValues = s.columns().stream().map(c -> "NEW." + c).collect(Collectors.joining(", "));
+            String oldValues = s.columns().stream().map(c -> "OLD." + c).collect(Collectors.joining(", "));
+            String insert = "INSERT INTO " + fts + " (rowid, " + cols + ") VALUES (NEW." + s.idColumn() + ", " + newValues + ")";
+            // 外部内容表删除索引项需提供旧值
+            String delete = "INSERT INTO " + fts + " (" + fts + ", rowid, " + cols + ") VALUES ('delete', OLD."
+                    + s.idColumn() + ", " + oldValues + ")";
+
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS " + fts + " USING fts5(" + cols
+                    + ", content='" + s.table() + "', content_rowid='" + s.idColumn() + "', tokenize='trigram')");
+            stmt.execute("DROP TRIGGER IF EXISTS trg_" + fts + "_insert");
+            stmt.execute("DROP TRIGGER IF EXISTS trg_" + fts + "_update");
+            stmt.execute("DROP TRIGGER IF EXISTS trg_" + fts + "_delete");
+            stmt.execute("CREATE TRIGGER trg_" + fts + "_insert AFTER INSERT ON " + s.table()
+                    + " BEGIN " + insert + "; END");
+            // 只有检索列或主键变化时才重建该行索引（投递状态等更新不触发）
+            stmt.execute("CREATE TRIGGER trg_" + fts + "_update AFTER UPDATE OF " + s.idColumn() + ", " + cols
+                    + " ON " + s.table() + " BEGIN " + delete + "; " + insert + "; END");
+            stmt.execute("CREATE TRIGGER trg_" + fts + "_delete AFTER DELETE ON " + s.table()
+                    + " BEGIN " + delete + "; END");
+            rebuild(stmt, s);
+        }
+    }
+
+    /**
+     * 由数据表全量重建索引（触发器之外的数据变更后使用）
+     */
+    public static void rebuild(Statement stmt, Spec s) throws SQLException {
+        stmt.execute("INSERT INTO " + s.ftsTable() + " (" + s.ftsTable() + ") VALUES ('rebuild')");
+    }
+}
@@ -0,0 +1,308 @@
+package com.getjobs.application.service;
+
+import com.getjobs.application.config.SqliteChangeFeed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 组提交写入器
+ * 四个平台的插入、状态更新统一交给一个写线程：攒够一批（条数或等待时间达到上限）后在同一事务中提交，
+ * 相同 key 的写操作（如同一岗位的多次状态更新）在批内合并，只保留最后一次。
+ * 调用方拿到 CompletableFuture，需要“写后即读”时 join 即可。
+ * 写操作内通过 Mapper 或传入的连接访问数据库，二者共用同一事务连接。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GroupCommitWriter {
+
+    /**
+     * 写操作（在组提交事务内执行）
+     */
+    @FunctionalInterface
+    public interface WriteOp {
+        void apply(Connection conn) throws Exception;
+    }
+
+    record Pending(String source, String key, WriteOp op, CompletableFuture<Void> future) {
+    }
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final SqliteChangeFeed changeFeed;
+
+    // 队列容量，满时提交方阻塞等待（背压）
+    @Value("${group-commit.capacity:4096}")
+    private int capacity;
+
+    // 单次提交最多包含的写操作数
+    @Value("${group-commit.batch-size:200}")
+    private int batchSize;
+
+    // 收到第一条写操作后最多等待的毫秒数
+    @Value("${group-commit.max-delay-ms:50}")
+    private long maxDelayMs;
+
+    private BlockingQueue<Pending> queue;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    // 来源 -> 统计
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder committedOps = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        running = true;
+        writer = new Thread(this::loop, "db-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("组提交写入器已启动 - 批大小: {}, 最长等待: {}ms", batchSize, maxDelayMs);
+    }
+
+    /**
+     * 提交一个写操作
+     *
+     * @param source 来源标识（boss、liepin、51job、zhilian）
+     * @param key    合并键，格式为“操作类型:实体标识”：同一批内相同 key 只执行最后一次（中间夹有同一实体的其它写操作时不合并）；为 null 时不合并
+     * @param op     写操作
+     * @return 写操作提交（或失败）后完成的 future
+     */
+    public CompletableFuture<Void> submit(String source, String key, WriteOp op) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        // 写线程内再次提交（写操作嵌套调用）时直接执行，避免等待自身
+        if (Thread.currentThread() == writer) {
+            try {
+                op.apply(DataSourceUtils.getConnection(dataSource));
+                future.complete(null);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("写入器已关闭"));
+            return future;
+        }
+        stats(source).submitted.increment();
+        try {
+            queue.put(new Pending(source, key, op, future));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 获取写入器统计
+     *
+     * @return depth、commits、avgBatchSize 与各来源的 submitted/coalesced/failed
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long commitCount = commits.sum();
+        result.put("depth", queue != null ? queue.size() : 0);
+        result.put("commits", commitCount);
+        result.put("avgBatchSize", commitCount == 0 ? 0 : Math.round(committedOps.sum() * 10.0 / commitCount) / 10.0);
+        Map<String, Object> sources = new LinkedHashMap<>();
+        stats.forEach((source, s) -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("submitted", s.submitted.sum());
+            item.put("coalesced", s.coalesced.sum());
+            item.put("failed", s.failed.sum());
+            sources.put(source, item);
+        });
+        result.put("sources", sources);
+        return result;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 关闭前提交剩余写操作
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            commit(rest);
+        }
+    }
+
+    private void loop() {
+        List<Pending> batch = new ArrayList<>();
+        while (running) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // 已取出但未提交的写操作交给 stop() 之前处理完
+                    if (!batch.isEmpty()) {
+                        commit(batch);
+                    }
+                    break;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 合并相同 key 的写操作后在一个事务中执行；单个写操作失败只回滚到它自己的保存点
+     * 合并后的写操作移到较新一次的位置执行，为不改变同一实体上写操作的先后顺序，
+     * 只有两次之间没有同一实体的其它写操作（也没有无 key 写操作，其涉及的实体未知）时才合并。
+     */
+    void commit(List<Pending> batch) {
+        // 执行顺序，被合并掉的位置置为 null
+        List<Pending> ordered = new ArrayList<>(batch.size());
+        Map<String, Integer> positionOfKey = new HashMap<>();
+        Map<String, Integer> lastOfEntity = new HashMap<>();
+        int lastKeyless = -1;
+        Map<Pending, List<CompletableFuture<Void>>> futures = new IdentityHashMap<>();
+        for (Pending p : batch) {
+            int position = ordered.size();
+            List<CompletableFuture<Void>> waiting = new ArrayList<>();
+            if (p.key() == null) {
+                lastKeyless = position;
+            } else {
+                String key = p.source() + ":" + p.key();
+                String entity = p.source() + ":" + entityOf(p.key());
+                Integer previous = positionOfKey.get(key);
+                if (previous != null && previous > lastKeyless && previous.equals(lastOfEntity.get(entity))) {
+                    Pending replaced = ordered.set(previous, null);
+                    waiting.addAll(futures.remove(replaced));
+                    stats(p.source()).coalesced.increment();
+                }
+                positionOfKey.put(key, position);
+                lastOfEntity.put(entity, position);
+            }
+            waiting.add(p.future());
+            ordered.add(p);
+            futures.put(p, waiting);
+        }
+        List<Pending> merged = ordered.stream().filter(Objects::nonNull).toList();
+
+        Map<Pending, Exception> failed = new IdentityHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Connection conn = DataSourceUtils.getConnection(dataSource);
+                for (Pending p : merged) {
+                    apply(status, conn, p, failed);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("组提交失败（{} 条写操作）: {}", merged.size(), e.getMessage());
+            for (Pending p : merged) {
+                failed.putIfAbsent(p, e);
+            }
+        }
+
+        // 事务已提交（或回滚），此时发布的变更其他连接都能读到
+        changeFeed.publish();
+
+        commits.increment();
+        committedOps.add(merged.size() - failed.size());
+        futures.forEach((p, waiting) -> {
+            Exception error = failed.get(p);
+            for (CompletableFuture<Void> f : waiting) {
+                if (error == null) {
+                    f.complete(null);
+                } else {
+                    f.completeExceptionally(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * key 约定为“操作类型:实体标识”（如 delivered:123），冒号后的部分视为实体；没有冒号时整个 key 即实体
+     */
+    private static String entityOf(String key) {
+        int i = key.indexOf(':');
+        return i < 0 ? key : key.substring(i + 1);
+    }
+
+    private void apply(TransactionStatus status, Connection conn, Pending p, Map<Pending, Exception> failed) {
+        Object savepoint = status.createSavepoint();
+        try {
+            p.op().apply(conn);
+            status.releaseSavepoint(savepoint);
+        } catch (Exception e) {
+            status.rollbackToSavepoint(savepoint);
+            stats(p.source()).failed.increment();
+            failed.put(p, e);
+            log.warn("{} 写操作失败{}: {}", p.source(), p.key() == null ? "" : "（" + p.key() + "）", e.getMessage());
+        }
+    }
+
+    private Stats stats(String source) {
+        return stats.computeIfAbsent(source == null ? "unknown" : source, k -> new Stats());
+    }
+
+    /**
+     * 单个来源的统计
+     */
+    private static class Stats {
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+    }
+}
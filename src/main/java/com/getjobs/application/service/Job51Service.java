@@ -8,17 +8,17 @@ import com.getjobs.application.mapper.Job51ConfigMapper;
 import com.getjobs.application.mapper.Job51Mapper;
 import com.getjobs.application.mapper.Job51OptionMapper;
 import com.getjobs.worker.job51.Job51Config;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,10 +27,19 @@ import java.util.stream.Collectors;
 public class Job51Service {
     private final Job51ConfigMapper job51ConfigMapper;
     private final Job51OptionMapper job51OptionMapper;
+
+    // 选项字典快照（job51_option）
+    private final SnapshotCache<OptionDictionary<Job51OptionEntity>> options =
+            new SnapshotCache<>("job51_option", this::loadOptions);
     private final Job51Mapper job51Mapper;
     private final DataSource dataSource;
+    private final GroupCommitWriter groupCommitWriter;
+    private final JobAnalytics jobAnalytics;
+    private final StatsRollup statsRollup;
+    private final JobIndex jobIndex;
 
     /** 获取第一条配置（通常只有一条） */
+    @Transactional(readOnly = true)
     public Job51ConfigEntity getFirstConfig() {
         QueryWrapper<Job51ConfigEntity> wrapper = new QueryWrapper<>();
         wrapper.last("LIMIT 1");
@@ -135,6 +144,7 @@ public class Job51Service {
     // ==================== 选项相关 ====================
 
     /** 根据类型获取选项列表 */
+    @Transactional(readOnly = true)
     public List<Job51OptionEntity> getOptionsByType(String type) {
         QueryWrapper<Job51OptionEntity> wrapper = new QueryWrapper<>();
         wrapper.eq("type", type);
@@ -142,19 +152,21 @@ public class Job51Service {
         return job51OptionMapper.selectList(wrapper);
     }
 
+    private OptionDictionary<Job51OptionEntity> loadOptions() {
+        return OptionDictionary.of(job51OptionMapper.selectList(new QueryWrapper<Job51OptionEntity>().orderByAsc("id")),
+                Job51OptionEntity::getType, Job51OptionEntity::getCode, Job51OptionEntity::getName);
+    }
+
     /** 按类型和输入（代码或名称）归一化为代码 */
     public String normalizeOptionCode(String type, String input) {
         if (input == null || input.trim().isEmpty()) return "";
         String v = input.trim();
+        OptionDictionary<Job51OptionEntity> dict = options.get();
         // 先按code匹配
-        QueryWrapper<Job51OptionEntity> byCode = new QueryWrapper<>();
-        byCode.eq("type", type).eq("code", v);
-        Job51OptionEntity c = job51OptionMapper.selectOne(byCode);
+        Job51OptionEntity c = dict.byCode(type, v);
         if (c != null) return c.getCode();
         // 再按name匹配
-        QueryWrapper<Job51OptionEntity> byName = new QueryWrapper<>();
-        byName.eq("type", type).eq("name", v);
-        Job51OptionEntity n = job51OptionMapper.selectOne(byName);
+        Job51OptionEntity n = dict.byName(type, v);
         if (n != null) return n.getCode();
         // 不再使用枚举兜底，保留原值（可能已是代码）
         return v;
@@ -162,30 +174,6 @@ public class Job51Service {
 
     // ==================== 表初始化与数据导入 ====================
 
-    @PostConstruct
-    public void ensureJob51OptionTableAndData() {
-        // 仅确保表存在；城市选项完全由数据库维护
-        ensureJob51OptionTable();
-        ensureJob51DataTable();
-    }
-
-    private void ensureJob51OptionTable() {
-        String createSql = "CREATE TABLE IF NOT EXISTS job51_option (" +
-                " id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                " type VARCHAR(50)," +
-                " name VARCHAR(100)," +
-                " code VARCHAR(100)," +
-                " sort_order INTEGER," +
-                " created_at DATETIME," +
-                " updated_at DATETIME" +
-                ")";
-        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
-            stmt.execute(createSql);
-        } catch (Exception e) {
-            log.warn("创建 job51_option 表失败: {}", e.getMessage());
-        }
-    }
-
     // 初始化逻辑移除：数据由外部迁移并在数据库维护，无需自动填充
 
     private void insertOption(String type, String name, String code, int sortOrder, LocalDateTime now) {
@@ -198,6 +186,7 @@ public class Job51Service {
             e.setCreatedAt(now);
             e.setUpdatedAt(now);
             job51OptionMapper.insert(e);
+            options.reload();
         } catch (Exception ex) {
             log.warn("写入选项失败 type={} name={} code={}: {}", type, name, code, ex.getMessage());
         }
@@ -248,43 +237,13 @@ public class Job51Service {
 
     // ==================== 51job 岗位数据表与持久化 ====================
 
-    /** 创建 job51_data 表（如不存在） */
-    private void ensureJob51DataTable() {
-        String createSql = "CREATE TABLE IF NOT EXISTS job51_data (" +
-                " job_id            BIGINT PRIMARY KEY," +
-                " job_title         VARCHAR(200)," +
-                " job_link          VARCHAR(300)," +
-                " job_salary_text   VARCHAR(100)," +
-                " job_area          VARCHAR(100)," +
-                " job_edu_req       VARCHAR(50)," +
-                " job_exp_req       VARCHAR(50)," +
-                " job_publish_time  VARCHAR(50)," +
-                " comp_id           BIGINT," +
-                " comp_name         VARCHAR(200)," +
-                " comp_industry     VARCHAR(100)," +
-                " comp_scale        VARCHAR(50)," +
-                " hr_id             VARCHAR(64)," +
-                " hr_name           VARCHAR(50)," +
-                " hr_title          VARCHAR(100)," +
-                " delivered         INTEGER DEFAULT 0," +
-                " create_time       TEXT," +
-                " update_time       TEXT" +
-                ")";
-        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
-            stmt.execute(createSql);
-            // 兼容旧库：添加 delivered 列（已存在则忽略）
-            try { stmt.execute("ALTER TABLE job51_data ADD COLUMN delivered INTEGER DEFAULT 0"); } catch (Exception ignored) {}
-            // 兼容旧库：尝试移除 account_id（已不存在或不支持则忽略）
-            try { stmt.execute("ALTER TABLE job51_data DROP COLUMN account_id"); } catch (Exception ignored) {}
-            log.info("确保 job51_data 表已存在");
-        } catch (Exception e) {
-            log.warn("创建 job51_data 表失败: {}", e.getMessage());
-        }
+    /** 批量插入（仅不存在时），默认 delivered=0；存在性检查在写线程内执行 */
+    public CompletableFuture<Void> batchInsertIfNotExists(List<Job51Entity> entities) {
+        if (entities == null || entities.isEmpty()) return CompletableFuture.completedFuture(null);
+        return groupCommitWriter.submit("51job", null, conn -> insertIfNotExists(conn, entities));
     }
 
-    /** 批量插入（仅不存在时），默认 delivered=0 */
-    public void batchInsertIfNotExists(List<Job51Entity> entities) {
-        if (entities == null || entities.isEmpty()) return;
+    private void insertIfNotExists(Connection conn, List<Job51Entity> entities) throws Exception {
 
         java.util.Set<Long> ids = new java.util.HashSet<>();
         for (Job51Entity e : entities) {
@@ -312,6 +271,12 @@ public class Job51Service {
             if (e.getCreateTime() == null) e.setCreateTime(nowIso);
             e.setUpdateTime(nowIso);
             if (e.getDelivered() == null) e.setDelivered(0);
+            SalaryColumns c = salaryColumns(e.getJobSalaryText());
+            e.setMinK(c.minK());
+            e.setMaxK(c.maxK());
+            e.setMedianK(c.medianK());
+            e.setMonths(c.months());
+            e.setAnnualTotal(c.annualTotal());
             toInsert.add(e);
         }
         if (toInsert.isEmpty()) return;
@@ -319,10 +284,10 @@ public class Job51Service {
         String sql = "INSERT INTO job51_data (" +
                 "job_id, job_title, job_link, job_salary_text, job_area, job_edu_req, job_exp_req, job_publish_time, " +
                 "comp_id, comp_name, comp_industry, comp_scale, " +
-                "hr_id, hr_name, hr_title, delivered, create_time, update_time" +
-                ") VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
-        try (Connection conn = dataSource.getConnection(); java.sql.PreparedStatement ps = conn.prepareStatement(sql)) {
-            conn.setAutoCommit(false);
+                "hr_id, hr_name, hr_title, delivered, create_time, update_time, " +
+                "min_k, max_k, median_k, months, annual_total" +
+                ") VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+        try (java.sql.PreparedStatement ps = conn.prepareStatement(sql)) {
             for (Job51Entity e : toInsert) {
                 if (e.getJobId() == null) ps.setNull(1, java.sql.Types.BIGINT); else ps.setLong(1, e.getJobId());
                 if (e.getJobTitle() == null) ps.setNull(2, java.sql.Types.VARCHAR); else ps.setString(2, e.getJobTitle());
@@ -342,12 +307,14 @@ public class Job51Service {
                 if (e.getDelivered() == null) ps.setNull(16, java.sql.Types.INTEGER); else ps.setInt(16, e.getDelivered());
                 if (e.getCreateTime() == null) ps.setNull(17, java.sql.Types.VARCHAR); else ps.setString(17, e.getCreateTime());
                 if (e.getUpdateTime() == null) ps.setNull(18, java.sql.Types.VARCHAR); else ps.setString(18, e.getUpdateTime());
+                if (e.getMinK() == null) ps.setNull(19, java.sql.Types.REAL); else ps.setDouble(19, e.getMinK());
+                if (e.getMaxK() == null) ps.setNull(20, java.sql.Types.REAL); else ps.setDouble(20, e.getMaxK());
+                if (e.getMedianK() == null) ps.setNull(21, java.sql.Types.REAL); else ps.setDouble(21, e.getMedianK());
+                if (e.getMonths() == null) ps.setNull(22, java.sql.Types.INTEGER); else ps.setInt(22, e.getMonths());
+                if (e.getAnnualTotal() == null) ps.setNull(23, java.sql.Types.BIGINT); else ps.setLong(23, e.getAnnualTotal());
                 ps.addBatch();
             }
             ps.executeBatch();
-            conn.commit();
-        } catch (Exception e) {
-            log.warn("批量插入 51job 岗位快照失败: {}", e.getMessage());
         }
     }
 
@@ -448,49 +415,43 @@ public class Job51Service {
     // ==================== 投递状态写回 ====================
 
     /** 将指定 jobId 标记为已投递 */
-    public void markDelivered(Long jobId) {
-        if (jobId == null) return;
-        try (Connection conn = dataSource.getConnection();
-             java.sql.PreparedStatement ps = conn.prepareStatement(
-                     "UPDATE job51_data SET delivered=1, update_time=? WHERE job_id=?")) {
-            java.time.LocalDateTime now = java.time.LocalDateTime.now();
-            ps.setString(1, now.toString());
-            ps.setLong(2, jobId);
-            ps.executeUpdate();
-        } catch (Exception e) {
-            log.warn("标记 51job 已投递失败 job_id={}: {}", jobId, e.getMessage());
-        }
+    public CompletableFuture<Void> markDelivered(Long jobId) {
+        if (jobId == null) return CompletableFuture.completedFuture(null);
+        return groupCommitWriter.submit("51job", "delivered:" + jobId, conn -> {
+            try (java.sql.PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE job51_data SET delivered=1, update_time=? WHERE job_id=?")) {
+                ps.setString(1, java.time.LocalDateTime.now().toString());
+                ps.setLong(2, jobId);
+                ps.executeUpdate();
+            }
+        });
     }
 
     /** 批量标记为已投递 */
-    public void markDeliveredBatch(java.util.Collection<Long> jobIds) {
-        if (jobIds == null || jobIds.isEmpty()) return;
-        try (Connection conn = dataSource.getConnection();
-             java.sql.PreparedStatement ps = conn.prepareStatement(
-                     "UPDATE job51_data SET delivered=1, update_time=? WHERE job_id=?")) {
-            conn.setAutoCommit(false);
-            java.time.LocalDateTime now = java.time.LocalDateTime.now();
-            for (Long id : jobIds) {
-                if (id == null) continue;
-                ps.setString(1, now.toString());
-                ps.setLong(2, id);
-                ps.addBatch();
-            }
-            int[] counts = ps.executeBatch();
-            conn.commit();
-            try {
+    public CompletableFuture<Void> markDeliveredBatch(java.util.Collection<Long> jobIds) {
+        if (jobIds == null || jobIds.isEmpty()) return CompletableFuture.completedFuture(null);
+        List<Long> ids = new java.util.ArrayList<>(jobIds);
+        return groupCommitWriter.submit("51job", null, conn -> {
+            try (java.sql.PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE job51_data SET delivered=1, update_time=? WHERE job_id=?")) {
+                java.time.LocalDateTime now = java.time.LocalDateTime.now();
+                for (Long id : ids) {
+                    if (id == null) continue;
+                    ps.setString(1, now.toString());
+                    ps.setLong(2, id);
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
                 int updated = 0;
                 if (counts != null) {
                     for (int c : counts) {
                         if (c > 0) updated += c;
                     }
                 }
-                String sample = jobIds.stream().filter(java.util.Objects::nonNull).limit(5).map(String::valueOf).collect(java.util.stream.Collectors.joining(", "));
-                log.info("[51job] 批量标记已投递完成，入参 {} 条，成功更新 {} 条，示例ID: {}", jobIds.size(), updated, sample);
-            } catch (Exception ignored) {}
-        } catch (Exception e) {
-            log.warn("批量标记 51job 已投递失败: {}", e.getMessage());
-        }
+                String sample = ids.stream().filter(java.util.Objects::nonNull).limit(5).map(String::valueOf).collect(java.util.stream.Collectors.joining(", "));
+                log.info("[51job] 批量标记已投递完成，入参 {} 条，成功更新 {} 条，示例ID: {}", ids.size(), updated, sample);
+            }
+        });
     }
 
     // ==================== 投递分析与列表 ====================
@@ -531,9 +492,19 @@ public class Job51Service {
         public long total;
         public int page;
         public int size;
+        public Long nextCursor; // 下一页游标（本页最后一条的 job_id），没有更多数据时为 null
     }
 
+    /** 51job 统计列映射 */
+    public static final JobAnalytics.Mapping STATS_MAPPING = new JobAnalytics.Mapping(
+            "51job", "job51_data", JobAnalytics.DELIVERED_LABEL, "delivered", JobAnalytics.DELIVERED_FLAG,
+            "job_area", "comp_industry", "comp_name", "job_exp_req", "job_edu_req", "create_time",
+            null, null,
+            java.util.List.of("comp_name", "job_title", "hr_name"), false,
+            java.util.List.of());
+
     /** 获取 51job 投递分析统计与图表数据（按筛选条件） */
+    @Transactional(readOnly = true)
     public StatsResponse getJob51Stats(
             java.util.List<String> statuses,
             String location,
@@ -543,128 +514,37 @@ public class Job51Service {
             Double maxK,
             String keyword
     ) {
+        JobAnalytics.Result r = jobAnalytics.aggregate(STATS_MAPPING,
+                new JobAnalytics.Filter(statuses, location, experience, degree, minK, maxK, keyword, null));
+
         StatsResponse resp = new StatsResponse();
         resp.kpi = new Kpi();
-        Charts charts = new Charts();
-        charts.byStatus = new java.util.ArrayList<>();
-        charts.byCity = new java.util.ArrayList<>();
-        charts.byIndustry = new java.util.ArrayList<>();
-        charts.byCompany = new java.util.ArrayList<>();
-        charts.byExperience = new java.util.ArrayList<>();
-        charts.byDegree = new java.util.ArrayList<>();
-        charts.salaryBuckets = new java.util.ArrayList<>();
-        charts.dailyTrend = new java.util.ArrayList<>();
+        resp.kpi.total = r.total();
+        resp.kpi.delivered = r.delivered();
+        resp.kpi.pending = r.pending();
+        resp.kpi.filtered = 0; // 51 无明确“已过滤”
+        resp.kpi.failed = 0;   // 51 无明确“投递失败”
+        resp.kpi.avgMonthlyK = r.avgMonthlyK();
 
-        try {
-            com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<Job51Entity> wrapper = new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<>();
-            if (statuses != null && !statuses.isEmpty()) {
-                java.util.List<Integer> deliveredVals = new java.util.ArrayList<>();
-                if (statuses.contains("已投递")) deliveredVals.add(1);
-                if (statuses.contains("未投递")) deliveredVals.add(0);
-                if (!deliveredVals.isEmpty()) wrapper.in("delivered", deliveredVals);
-            }
-            if (location != null && !location.trim().isEmpty()) wrapper.eq("job_area", location.trim());
-            if (experience != null && !experience.trim().isEmpty()) wrapper.eq("job_exp_req", experience.trim());
-            if (degree != null && !degree.trim().isEmpty()) wrapper.eq("job_edu_req", degree.trim());
-            if (keyword != null && !keyword.trim().isEmpty()) {
-                String kw = keyword.trim();
-                wrapper.and(w -> w.like("comp_name", kw).or().like("job_title", kw).or().like("hr_name", kw));
-            }
-            wrapper.orderByDesc("update_time");
-
-            java.util.List<Job51Entity> all = job51Mapper.selectList(wrapper);
-
-            // 薪资区间过滤与中位数计算
-            java.util.List<Job51Entity> filtered = new java.util.ArrayList<>();
-            double sumMedian = 0.0; long countMedian = 0;
-            java.util.List<Double> medians = new java.util.ArrayList<>();
-            for (Job51Entity e : all) {
-                SalaryInfo info = parse51Salary(e.getJobSalaryText());
-                boolean passSalary;
-                if (minK == null && maxK == null) passSalary = true;
-                else {
-                    if (info == null || info.medianK == null) passSalary = false;
-                    else {
-                        boolean ok = true;
-                        if (minK != null) ok &= (info.medianK >= minK);
-                        if (maxK != null) ok &= (info.medianK <= maxK);
-                        passSalary = ok;
-                    }
-                }
-                if (passSalary) {
-                    filtered.add(e);
-                    if (info != null && info.medianK != null) { sumMedian += info.medianK; countMedian++; medians.add(info.medianK); }
-                }
-            }
+        Charts charts = new Charts();
+        charts.byStatus = toNameValues(r.byStatus());
+        charts.byCity = toNameValues(r.byCity());
+        charts.byIndustry = toNameValues(r.byIndustry());
+        charts.byCompany = toNameValues(r.byCompany());
+        charts.byExperience = toNameValues(r.byExperience());
+        charts.byDegree = toNameValues(r.byDegree());
+        charts.salaryBuckets = r.salaryBuckets().stream().map(c -> new BucketValue(c.name(), c.value())).collect(java.util.stream.Collectors.toList());
+        charts.dailyTrend = toNameValues(r.dailyTrend());
+        resp.charts = charts;
+        return resp;
+    }
 
-            // KPI
-            resp.kpi.total = filtered.size();
-            resp.kpi.delivered = filtered.stream().filter(e -> e.getDelivered() != null && e.getDelivered() == 1).count();
-            resp.kpi.pending = filtered.stream().filter(e -> e.getDelivered() == null || e.getDelivered() == 0).count();
-            resp.kpi.filtered = 0; // 51 无明确“已过滤”
-            resp.kpi.failed = 0;   // 51 无明确“投递失败”
-            resp.kpi.avgMonthlyK = countMedian > 0 ? Math.round((sumMedian / countMedian) * 100.0) / 100.0 : null;
-
-            // Charts
-            java.util.Map<String, Long> byStatus = filtered.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> (e.getDelivered()!=null && e.getDelivered()==1) ? "已投递" : "未投递", java.util.stream.Collectors.counting()));
-            byStatus.forEach((k,v) -> charts.byStatus.add(new NameValue(nullSafe(k), v)));
-
-            java.util.Map<String, Long> byCity = filtered.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> nullSafe(e.getJobArea()), java.util.stream.Collectors.counting()));
-            byCity.entrySet().stream().sorted((a,b)->Long.compare(b.getValue(), a.getValue())).limit(10).forEach(en -> charts.byCity.add(new NameValue(en.getKey(), en.getValue())));
-
-            java.util.Map<String, Long> byIndustry = filtered.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> nullSafe(e.getCompIndustry()), java.util.stream.Collectors.counting()));
-            byIndustry.entrySet().stream().sorted((a,b)->Long.compare(b.getValue(), a.getValue())).limit(10).forEach(en -> charts.byIndustry.add(new NameValue(en.getKey(), en.getValue())));
-
-            java.util.Map<String, Long> byCompany = filtered.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> nullSafe(e.getCompName()), java.util.stream.Collectors.counting()));
-            byCompany.entrySet().stream().sorted((a,b)->Long.compare(b.getValue(), a.getValue())).limit(10).forEach(en -> charts.byCompany.add(new NameValue(en.getKey(), en.getValue())));
-
-            java.util.Map<String, Long> byExp = filtered.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> nullSafe(e.getJobExpReq()), java.util.stream.Collectors.counting()));
-            byExp.forEach((k,v) -> charts.byExperience.add(new NameValue(k,v)));
-
-            java.util.Map<String, Long> byDeg = filtered.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> nullSafe(e.getJobEduReq()), java.util.stream.Collectors.counting()));
-            byDeg.forEach((k,v) -> charts.byDegree.add(new NameValue(k,v)));
-
-            java.util.Map<String, Long> byDay = filtered.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(e -> {
-                        String t = e.getCreateTime();
-                        if (t == null || t.length() < 10) return "未知";
-                        return t.substring(0,10);
-                    }, java.util.stream.Collectors.counting()));
-            byDay.entrySet().stream().sorted(java.util.Map.Entry.comparingByKey()).forEach(en -> charts.dailyTrend.add(new NameValue(en.getKey(), en.getValue())));
-
-            // salaryBuckets 动态上限
-            long b0_10=0,b10_15=0,b15_20=0,b20_top=0,b_ge_top=0;
-            double maxMedian = 0.0;
-            for (double m : medians) { if (m > maxMedian) maxMedian = m; }
-            int topEdge = (int) Math.ceil(maxMedian / 5.0) * 5; if (topEdge <= 20) topEdge = 25;
-            for (double m : medians) {
-                if (m < 10) b0_10++;
-                else if (m < 15) b10_15++;
-                else if (m < 20) b15_20++;
-                else if (m < topEdge) b20_top++;
-                else b_ge_top++;
-            }
-            charts.salaryBuckets.add(new BucketValue("0-10K", b0_10));
-            charts.salaryBuckets.add(new BucketValue("10-15K", b10_15));
-            charts.salaryBuckets.add(new BucketValue("15-20K", b15_20));
-            charts.salaryBuckets.add(new BucketValue("20-" + topEdge + "K", b20_top));
-            charts.salaryBuckets.add(new BucketValue(">=" + topEdge + "K", b_ge_top));
-
-            resp.charts = charts;
-            return resp;
-        } catch (Exception e) {
-            resp.charts = charts;
-            return resp;
-        }
+    private static java.util.List<NameValue> toNameValues(java.util.List<JobAnalytics.Count> counts) {
+        return counts.stream().map(c -> new NameValue(c.name(), c.value())).collect(java.util.stream.Collectors.toList());
     }
 
     /** 列表查询（分页 + 筛选 + 关键词 + 薪资区间基于中位数K） */
+    @Transactional(readOnly = true)
     public PagedResult51 listJob51(
             java.util.List<String> statuses,
             String location,
@@ -675,6 +555,26 @@ public class Job51Service {
             String keyword,
             int page,
             int size
+    ) {
+        return listJob51(statuses, location, experience, degree, minK, maxK, keyword, page, size, null);
+    }
+
+    /**
+     * 列表查询：筛选与薪资区间均在 SQL 中完成；传入 cursor 时按 (create_time, job_id) 键集分页
+     * 关键词不少于 3 个字符时经全文索引检索，结果按相关度排序并按页码分页（忽略 cursor）
+     */
+    @Transactional(readOnly = true)
+    public PagedResult51 listJob51(
+            java.util.List<String> statuses,
+            String location,
+            String experience,
+            String degree,
+            Double minK,
+            Double maxK,
+            String keyword,
+            int page,
+            int size,
+            Long cursor
     ) {
         if (page <= 0) page = 1;
         if (size <= 0) size = 20;
@@ -689,32 +589,33 @@ public class Job51Service {
         if (location != null && !location.trim().isEmpty()) wrapper.eq("job_area", location.trim());
         if (experience != null && !experience.trim().isEmpty()) wrapper.eq("job_exp_req", experience.trim());
         if (degree != null && !degree.trim().isEmpty()) wrapper.eq("job_edu_req", degree.trim());
-        if (keyword != null && !keyword.trim().isEmpty()) {
+        String match = FullTextIndex.matchQuery(keyword);
+        if (match == null && keyword != null && !keyword.trim().isEmpty()) {
             String kw = keyword.trim();
             wrapper.and(w -> w.like("comp_name", kw).or().like("job_title", kw).or().like("hr_name", kw));
         }
-        wrapper.orderByDesc("update_time");
-
-        java.util.List<Job51Entity> all = job51Mapper.selectList(wrapper);
-
-        java.util.List<Job51Entity> filtered = new java.util.ArrayList<>();
-        for (Job51Entity e : all) {
-            if (minK == null && maxK == null) { filtered.add(e); }
-            else {
-                SalaryInfo info = parse51Salary(e.getJobSalaryText());
-                if (info == null || info.medianK == null) continue;
-                boolean ok = true;
-                if (minK != null) ok &= (info.medianK >= minK);
-                if (maxK != null) ok &= (info.medianK <= maxK);
-                if (ok) filtered.add(e);
+        // 薪资区间（中位数K，面议/不可解析的 median_k 为 NULL，自然被排除）
+        if (minK != null) wrapper.ge("median_k", minK);
+        if (maxK != null) wrapper.le("median_k", maxK);
+
+        Long total;
+        java.util.List<Job51Entity> pageItems;
+        if (match != null) {
+            total = job51Mapper.countByKeyword(match, wrapper);
+            wrapper.orderByAsc("fts_rank").orderByDesc("create_time").orderByDesc("job_id");
+            wrapper.last("LIMIT " + size + " OFFSET " + (long) (page - 1) * size);
+            pageItems = job51Mapper.selectByKeyword(match, wrapper);
+        } else {
+            total = job51Mapper.selectCount(wrapper);
+            if (cursor != null) {
+                wrapper.apply("(create_time < (SELECT create_time FROM job51_data WHERE job_id = {0})"
+                        + " OR (create_time = (SELECT create_time FROM job51_data WHERE job_id = {0}) AND job_id < {0}))", cursor);
             }
+            wrapper.orderByDesc("create_time").orderByDesc("job_id");
+            wrapper.last(cursor != null ? "LIMIT " + size : "LIMIT " + size + " OFFSET " + (long) (page - 1) * size);
+            pageItems = job51Mapper.selectList(wrapper);
         }
 
-        int total = filtered.size();
-        int from = Math.max(0, (page - 1) * size);
-        int to = Math.min(total, from + size);
-        java.util.List<Job51Entity> pageItems = from >= to ? java.util.Collections.emptyList() : filtered.subList(from, to);
-
         java.util.List<Job51Row> rows = new java.util.ArrayList<>();
         for (Job51Entity e : pageItems) {
             Job51Row r = new Job51Row();
@@ -737,15 +638,17 @@ public class Job51Service {
 
         PagedResult51 result = new PagedResult51();
         result.items = rows;
-        result.total = total;
+        result.total = total != null ? total : 0;
         result.page = page;
         result.size = size;
+        // 按相关度排序的结果只能按页码翻页
+        result.nextCursor = match != null || pageItems.size() < size ? null : pageItems.get(pageItems.size() - 1).getJobId();
         return result;
     }
 
     // ==================== 薪资解析 ====================
-    private static class SalaryInfo { Double medianK; }
-    private SalaryInfo parse51Salary(String salaryText) {
+    private static class SalaryInfo { Double minK; Double maxK; Double medianK; Integer months; }
+    private static SalaryInfo parse51Salary(String salaryText) {
         if (salaryText == null) return null;
         String s = salaryText.trim().toLowerCase();
         if (s.isEmpty() || s.contains("面议")) return null;
@@ -774,21 +677,33 @@ public class Job51Service {
             factorK = (1.0 / 1000.0) * 22.0;
         }
         double medianK = ((min + max) / 2.0) * factorK;
-        SalaryInfo info = new SalaryInfo(); info.medianK = medianK; return info;
+        SalaryInfo info = new SalaryInfo();
+        info.minK = min * factorK;
+        info.maxK = max * factorK;
+        info.medianK = medianK;
+        java.util.regex.Matcher mMonths = java.util.regex.Pattern.compile("(\\d{1,2})薪").matcher(s);
+        if (mMonths.find()) {
+            try { info.months = Integer.parseInt(mMonths.group(1)); } catch (Exception ignored) {}
+        }
+        return info;
     }
 
-    private String nullSafe(String s) { return (s == null || s.isEmpty()) ? "未知" : s; }
+    /** 将薪资文本换算为物化薪资列 */
+    public static SalaryColumns salaryColumns(String salaryText) {
+        SalaryInfo info = parse51Salary(salaryText);
+        return info == null ? SalaryColumns.EMPTY : SalaryColumns.of(info.minK, info.maxK, info.months);
+    }
 
-    /** 刷新 51job 数据：执行 VACUUM 并返回当前总数 */
+    /** 刷新 51job 数据：重建统计汇总、执行 VACUUM 并返回当前总数 */
     public java.util.Map<String, Object> reloadJob51Data() {
         java.util.Map<String, Object> resp = new java.util.HashMap<>();
         Connection conn = null;
         try {
+            // 先于取连接执行：重建由写线程完成，需要用到唯一的写连接
+            statsRollup.rebuild("51job").join();
             conn = dataSource.getConnection();
-            try (Statement st = conn.createStatement()) {
-                try { st.execute("PRAGMA wal_checkpoint(TRUNCATE)"); } catch (Exception ignore) {}
-                try { st.execute("VACUUM"); } catch (Exception ignore) {}
-            }
+            // VACUUM 会重新编号无整数主键别名的表的 rowid，由索引统一执行并重建
+            jobIndex.vacuum(conn);
             long total = scalarCount(conn, "SELECT COUNT(*) FROM job51_data");
             resp.put("success", true);
             resp.put("message", "刷新完成");
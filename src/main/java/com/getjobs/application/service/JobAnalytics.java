@@ -0,0 +1,453 @@
+package com.getjobs.application.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 投递分析统计引擎
+ * 四个平台的看板统计（KPI、各维度分布、薪资桶、每日趋势、HR 活跃）共用一套逻辑：
+ * 只查询统计需要的少量列（薪资直接取物化的 median_k），对结果集遍历一次完成全部累加。
+ * 各平台通过 {@link Mapping} 声明自己的表名与列名。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobAnalytics {
+
+    /**
+     * 猎聘、51job 以 delivered(1/0) 表示投递状态，统一映射为状态文本
+     */
+    public static final String DELIVERED_LABEL = "CASE WHEN delivered = 1 THEN '已投递' ELSE '未投递' END";
+
+    /**
+     * 状态筛选值（已投递/未投递）到 delivered 列值的映射，其余状态忽略
+     */
+    public static final Function<String, Object> DELIVERED_FLAG = s -> switch (s) {
+        case "已投递" -> 1;
+        case "未投递" -> 0;
+        default -> null;
+    };
+
+    private static final int TOP_N = 10;
+
+    private final DataSource dataSource;
+    private final JobIndex jobIndex;
+
+    /**
+     * 平台列映射
+     *
+     * @param platform       平台标识（汇总表中的 platform 列）
+     * @param table          表名
+     * @param statusLabel    状态文本的 SQL 表达式（已投递/未投递/已过滤/投递失败）
+     * @param statusColumn   状态筛选列
+     * @param statusValue    状态筛选值到列值的转换，返回 null 表示忽略该值
+     * @param city           城市列
+     * @param industry       行业列（无则为 null）
+     * @param company        公司列
+     * @param experience     经验列
+     * @param degree         学历列
+     * @param timeColumn     入库时间列
+     * @param hrColumn       HR 姓名列（不统计 HR 活跃时为 null）
+     * @param hrActive       计入 HR 活跃的条件（SQL 表达式）
+     * @param keywordColumns 关键词模糊匹配的列（关键词较短、无法使用全文索引时按 LIKE 匹配）
+     * @param skipBlank      维度值为空时是否跳过（否则计为“未知”）
+     * @param conditions     平台特有的附加筛选条件（SQL 表达式），内存索引为其预先建立位图
+     */
+    public record Mapping(String platform,
+                          String table,
+                          String statusLabel,
+                          String statusColumn,
+                          Function<String, Object> statusValue,
+                          String city,
+                          String industry,
+                          String company,
+                          String experience,
+                          String degree,
+                          String timeColumn,
+                          String hrColumn,
+                          String hrActive,
+                          List<String> keywordColumns,
+                          boolean skipBlank,
+                          List<String> conditions) {
+    }
+
+    /**
+     * 筛选条件（与列表查询一致，薪资区间按 median_k）
+     *
+     * @param extraCondition 平台特有的附加条件（SQL 表达式，可为 null）
+     */
+    public record Filter(List<String> statuses,
+                         String location,
+                         String experience,
+                         String degree,
+                         Double minK,
+                         Double maxK,
+                         String keyword,
+                         String extraCondition) {
+
+        public static final Filter NONE = new Filter(null, null, null, null, null, null, null, null);
+
+        /**
+         * 是否未设置任何筛选条件
+         */
+        public boolean isEmpty() {
+            return (statuses == null || statuses.isEmpty())
+                    && isBlank(location) && isBlank(experience) && isBlank(degree) && isBlank(keyword)
+                    && minK == null && maxK == null && extraCondition == null;
+        }
+
+        private static boolean isBlank(String s) {
+            return s == null || s.isBlank();
+        }
+    }
+
+    /**
+     * 名称-数量
+     */
+    public record Count(String name, long value) {
+    }
+
+    /**
+     * 统计结果
+     */
+    public record Result(long total,
+                         long delivered,
+                         long pending,
+                         long filtered,
+                         long failed,
+                         Double avgMonthlyK,
+                         List<Count> byStatus,
+                         List<Count> byCity,
+                         List<Count> byIndustry,
+                         List<Count> byCompany,
+                         List<Count> byExperience,
+                         List<Count> byDegree,
+                         List<Count> salaryBuckets,
+                         List<Count> dailyTrend,
+                         List<Count> hrActivity) {
+
+        static Result empty() {
+            List<Count> none = Collections.emptyList();
+            return new Result(0, 0, 0, 0, 0, null, none, none, none, none, none, none, none, none, none);
+        }
+    }
+
+    /**
+     * 按筛选条件统计：无筛选条件时读取汇总表（按分组数计算）；内存索引可处理的条件走位图求交；
+     * 其余（如关键词，经全文索引定位）对明细一次查询、一次遍历
+     */
+    public Result aggregate(Mapping m, Filter f) {
+        if (f.isEmpty()) {
+            return fromRollup(m);
+        }
+        Result indexed = jobIndex.aggregate(m, f);
+        if (indexed != null) {
+            return indexed;
+        }
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + projection(m) + " FROM " + m.table() + where(m, f, params);
+
+        Accumulator acc = new Accumulator(m.skipBlank());
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    double median = rs.getDouble(10);
+                    Double medianK = rs.wasNull() ? null : median;
+                    acc.add(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getString(6), rs.getString(7),
+                            rs.getInt(9) == 1 ? rs.getString(8) : null,
+                            medianK);
+                }
+            }
+            return acc.result();
+        } catch (Exception e) {
+            log.error("获取 {} 统计失败: {}", m.table(), e.getMessage(), e);
+            return Result.empty();
+        }
+    }
+
+    /**
+     * 从汇总表读取统计（见 {@link StatsRollup}）
+     */
+    private Result fromRollup(Mapping m) {
+        Accumulator acc = new Accumulator(m.skipBlank());
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT day, dimension, value, cnt, sum_k, max_k FROM "
+                     + StatsRollup.TABLE + " WHERE platform = ? AND cnt > 0")) {
+            ps.setString(1, m.platform());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    acc.addGroup(rs.getString(1), rs.getString(2), rs.getString(3),
+                            rs.getLong(4), rs.getDouble(5), rs.getDouble(6));
+                }
+            }
+            return acc.result();
+        } catch (Exception e) {
+            log.error("读取 {} 统计汇总失败: {}", m.platform(), e.getMessage(), e);
+            return Result.empty();
+        }
+    }
+
+    /**
+     * 统计用到的列：状态、城市、行业、公司、经验、学历、日期、HR、HR 是否活跃、中位数K
+     */
+    static String projection(Mapping m) {
+        return m.statusLabel() + ", "
+                + column(m.city()) + ", "
+                + column(m.industry()) + ", "
+                + column(m.company()) + ", "
+                + column(m.experience()) + ", "
+                + column(m.degree()) + ", "
+                + dayExpression(m.timeColumn()) + ", "
+                + column(m.hrColumn()) + ", "
+                + (m.hrColumn() == null ? "0" : "CASE WHEN " + m.hrActive() + " THEN 1 ELSE 0 END") + ", "
+                + "median_k";
+    }
+
+    private static String column(String name) {
+        return name == null ? "NULL" : name;
+    }
+
+    /**
+     * 入库时间取到天；兼容以文本与毫秒时间戳两种方式存储的时间
+     */
+    static String dayExpression(String col) {
+        return "CASE WHEN typeof(" + col + ") = 'integer' THEN date(" + col + " / 1000, 'unixepoch', 'localtime') "
+                + "ELSE substr(" + col + ", 1, 10) END";
+    }
+
+    private static String where(Mapping m, Filter f, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (f.statuses() != null && !f.statuses().isEmpty()) {
+            Set<Object> values = new LinkedHashSet<>();
+            for (String s : f.statuses()) {
+                if (s == null || s.isBlank()) continue;
+                Object v = m.statusValue().apply(s.trim());
+                if (v != null) values.add(v);
+            }
+            if (!values.isEmpty()) {
+                conditions.add(m.statusColumn() + " IN (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")");
+                params.addAll(values);
+            }
+        }
+        eq(conditions, params, m.city(), f.location());
+        eq(conditions, params, m.experience(), f.experience());
+        eq(conditions, params, m.degree(), f.degree());
+        FullTextIndex.Spec fts = FullTextIndex.forTable(m.table());
+        String match = FullTextIndex.matchQuery(f.keyword());
+        if (fts != null && match != null) {
+            conditions.add(fts.matchCondition());
+            params.add(match);
+        } else if (f.keyword() != null && !f.keyword().isBlank()) {
+            String like = "%" + f.keyword().trim() + "%";
+            List<String> ors = new ArrayList<>();
+            for (String col : m.keywordColumns()) {
+                ors.add(col + " LIKE ?");
+                params.add(like);
+            }
+            conditions.add("(" + String.join(" OR ", ors) + ")");
+        }
+        if (f.minK() != null) {
+            conditions.add("median_k >= ?");
+            params.add(f.minK());
+        }
+        if (f.maxK() != null) {
+            conditions.add("median_k <= ?");
+            params.add(f.maxK());
+        }
+        if (f.extraCondition() != null) {
+            conditions.add("(" + f.extraCondition() + ")");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void eq(List<String> conditions, List<Object> params, String column, String value) {
+        if (column != null && value != null && !value.isBlank()) {
+            conditions.add(column + " = ?");
+            params.add(value.trim());
+        }
+    }
+
+    /**
+     * 单次遍历的累加器
+     */
+    static class Accumulator {
+        private final boolean skipBlank;
+
+        private long total;
+        private final Map<String, Long> byStatus = new HashMap<>();
+        private final Map<String, Long> byCity = new HashMap<>();
+        private final Map<String, Long> byIndustry = new HashMap<>();
+        private final Map<String, Long> byCompany = new HashMap<>();
+        private final Map<String, Long> byExperience = new HashMap<>();
+        private final Map<String, Long> byDegree = new HashMap<>();
+        private final Map<String, Long> byDay = new TreeMap<>();
+        private final Map<String, Long> hrActivity = new HashMap<>();
+
+        private double sumMedian;
+        private long countMedian;
+        private double maxMedian;
+        private long b0_10, b10_15, b15_20;
+        // 20K 以上按 5K 分档计数（档号 = floor(m/5)），上限要等遍历结束才能确定
+        private final Map<Integer, Long> above20 = new TreeMap<>();
+
+        Accumulator(boolean skipBlank) {
+            this.skipBlank = skipBlank;
+        }
+
+        void add(String status, String city, String industry, String company, String experience,
+                 String degree, String day, String activeHr, Double median) {
+            addStatus(status, 1);
+            addCount(StatsRollup.CITY, city, 1);
+            addCount(StatsRollup.INDUSTRY, industry, 1);
+            addCount(StatsRollup.COMPANY, company, 1);
+            addCount(StatsRollup.EXPERIENCE, experience, 1);
+            addCount(StatsRollup.DEGREE, degree, 1);
+            addDay(day, 1);
+            if (activeHr != null) {
+                addCount(StatsRollup.HR, activeHr, 1);
+            }
+            if (median != null) {
+                addMedian(median);
+            }
+        }
+
+        /**
+         * 累加汇总表中的一个分组（维度见 {@link StatsRollup}）
+         */
+        void addGroup(String day, String dimension, String value, long cnt, double sumK, double maxK) {
+            switch (dimension) {
+                case StatsRollup.STATUS -> {
+                    addStatus(value, cnt);
+                    addDay(day, cnt);
+                }
+                case StatsRollup.SALARY -> {
+                    // value 为 5K 档号，与逐行累加的分档一致
+                    int bin = Integer.parseInt(value);
+                    sumMedian += sumK;
+                    countMedian += cnt;
+                    if (maxK > maxMedian) maxMedian = maxK;
+                    if (bin < 2) b0_10 += cnt;
+                    else if (bin < 3) b10_15 += cnt;
+                    else if (bin < 4) b15_20 += cnt;
+                    else above20.merge(bin, cnt, Long::sum);
+                }
+                default -> addCount(dimension, value, cnt);
+            }
+        }
+
+        /**
+         * 累加状态计数（每个岗位恰有一个状态，同时计入总数）
+         */
+        void addStatus(String status, long cnt) {
+            total += cnt;
+            count(byStatus, label(status), cnt);
+        }
+
+        /**
+         * 累加维度计数（city、industry、company、experience、degree、hr）
+         */
+        void addCount(String dimension, String value, long cnt) {
+            Map<String, Long> map = switch (dimension) {
+                case StatsRollup.CITY -> byCity;
+                case StatsRollup.INDUSTRY -> byIndustry;
+                case StatsRollup.COMPANY -> byCompany;
+                case StatsRollup.EXPERIENCE -> byExperience;
+                case StatsRollup.DEGREE -> byDegree;
+                case StatsRollup.HR -> hrActivity;
+                default -> null;
+            };
+            if (map != null) {
+                count(map, label(value), cnt);
+            }
+        }
+
+        void addDay(String day, long cnt) {
+            byDay.merge(day == null || day.isBlank() ? "未知" : day, cnt, Long::sum);
+        }
+
+        void addMedian(double v) {
+            sumMedian += v;
+            countMedian++;
+            if (v > maxMedian) maxMedian = v;
+            if (v < 10) b0_10++;
+            else if (v < 15) b10_15++;
+            else if (v < 20) b15_20++;
+            else above20.merge((int) Math.floor(v / 5.0), 1L, Long::sum);
+        }
+
+        private String label(String s) {
+            if (s == null || s.isBlank()) {
+                return skipBlank ? null : "未知";
+            }
+            return s.trim();
+        }
+
+        private static void count(Map<String, Long> map, String key, long n) {
+            if (key != null) {
+                map.merge(key, n, Long::sum);
+            }
+        }
+
+        Result result() {
+            long delivered = byStatus.getOrDefault("已投递", 0L);
+            long pending = byStatus.getOrDefault("未投递", 0L);
+            long filtered = byStatus.getOrDefault("已过滤", 0L);
+            long failed = byStatus.getOrDefault("投递失败", 0L);
+            Double avg = countMedian > 0 ? Math.round((sumMedian / countMedian) * 100.0) / 100.0 : null;
+
+            // 动态上限：向上取整到5的倍数，避免区间过窄
+            int topEdge = (int) Math.ceil(maxMedian / 5.0) * 5;
+            if (topEdge <= 20) topEdge = 25;
+            long b20Top = 0, bGeTop = 0;
+            for (Map.Entry<Integer, Long> en : above20.entrySet()) {
+                if (en.getKey() * 5 < topEdge) b20Top += en.getValue();
+                else bGeTop += en.getValue();
+            }
+            List<Count> buckets = List.of(
+                    new Count("0-10K", b0_10),
+                    new Count("10-15K", b10_15),
+                    new Count("15-20K", b15_20),
+                    new Count("20-" + topEdge + "K", b20Top),
+                    new Count(">=" + topEdge + "K", bGeTop));
+
+            return new Result(total, delivered, pending, filtered, failed, avg,
+                    sorted(byStatus, Integer.MAX_VALUE),
+                    sorted(byCity, TOP_N),
+                    sorted(byIndustry, TOP_N),
+                    sorted(byCompany, TOP_N),
+                    sorted(byExperience, Integer.MAX_VALUE),
+                    sorted(byDegree, Integer.MAX_VALUE),
+                    buckets,
+                    byDay.entrySet().stream().map(en -> new Count(en.getKey(), en.getValue())).toList(),
+                    sorted(hrActivity, Integer.MAX_VALUE));
+        }
+
+        private static List<Count> sorted(Map<String, Long> map, int limit) {
+            return map.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+                    .limit(limit)
+                    .map(en -> new Count(en.getKey(), en.getValue()))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.getjobs.application.service;
+
+import com.getjobs.application.config.SqliteChangeFeed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 岗位数据内存索引
+ * 每个平台一份：状态、城市、行业、经验、学历等低基数字段按取值建立位图，公司、日期、HR 做字典编码，
+ * 中位数K 存为 double 数组；附加条件（如 Boss 排除猎头）预先计算成位图。
+ * 任意筛选组合 = 位图求交，低基数维度的计数 = 交集基数，其余维度对命中行遍历一次计数。
+ * 启动时从 SQLite 全量构建，之后由 {@link SqliteChangeFeed} 通知的变更行在下次查询前增量重读。
+ * 关键词模糊匹配无法用位图表示，由 {@link JobAnalytics} 回退到 SQL。
+ */
+@Slf4j
+@Component
+public class JobIndex {
+
+    // 增量重读时单条 SQL 最多包含的 rowid 数
+    private static final int RELOAD_CHUNK = 500;
+
+    private final DataSource dataSource;
+
+    // 表名 -> 平台索引
+    private final Map<String, PlatformIndex> indexes = new ConcurrentHashMap<>();
+
+    public JobIndex(@Qualifier("sqliteReadDataSource") DataSource dataSource, SqliteChangeFeed changeFeed) {
+        this.dataSource = dataSource;
+        for (JobAnalytics.Mapping m : StatsRollup.MAPPINGS) {
+            indexes.put(m.table(), new PlatformIndex(m));
+        }
+        // 先订阅再构建：构建期间发生的变更会在构建完成后重读
+        changeFeed.subscribe(this::onCommit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        for (PlatformIndex idx : indexes.values()) {
+            rebuild(idx);
+        }
+    }
+
+    /**
+     * 从 SQLite 重建单个平台的索引
+     *
+     * @param platform 平台标识（boss、liepin、zhilian、51job）
+     */
+    public void rebuild(String platform) {
+        indexes.values().stream()
+                .filter(idx -> idx.mapping.platform().equals(platform))
+                .findFirst()
+                .ifPresent(this::rebuild);
+    }
+
+    /**
+     * 执行 WAL 检查点与 VACUUM，随后重建全部平台的索引
+     * 索引以 rowid 定位行，VACUUM 作用于整个数据库，会重新编号所有没有整数主键别名的表
+     * （liepin_data、job51_data 的 BIGINT 主键不是 rowid 别名），因此数据库的 VACUUM 统一经由此方法执行。
+     *
+     * @param conn 写连接
+     */
+    public void vacuum(Connection conn) {
+        try (Statement st = conn.createStatement()) {
+            try { st.execute("PRAGMA wal_checkpoint(TRUNCATE)"); } catch (SQLException ignore) {}
+            st.execute("VACUUM");
+        } catch (SQLException e) {
+            log.warn("VACUUM 执行失败: {}", e.getMessage());
+        } finally {
+            loadAll();
+        }
+    }
+
+    /**
+     * 用索引计算统计
+     *
+     * @return 统计结果；索引未就绪或条件无法用位图表示（关键词、未登记的附加条件）时返回 null
+     */
+    JobAnalytics.Result aggregate(JobAnalytics.Mapping m, JobAnalytics.Filter f) {
+        if (f.keyword() != null && !f.keyword().isBlank()) {
+            return null;
+        }
+        if (f.extraCondition() != null && !m.conditions().contains(f.extraCondition())) {
+            return null;
+        }
+        PlatformIndex idx = indexes.get(m.table());
+        if (idx == null || !idx.ready) {
+            return null;
+        }
+        try {
+            synchronized (idx) {
+                idx.sync(dataSource);
+                return idx.query(f);
+            }
+        } catch (Exception e) {
+            log.warn("{} 索引查询失败，改用 SQL 统计: {}", m.platform(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void onCommit(String table, Set<Long> rowIds) {
+        PlatformIndex idx = indexes.get(table);
+        if (idx != null) {
+            idx.dirty.addAll(rowIds);
+        }
+    }
+
+    private void rebuild(PlatformIndex idx) {
+        long start = System.currentTimeMillis();
+        try {
+            int count;
+            synchronized (idx) {
+                idx.reset();
+                try (Connection conn = dataSource.getConnection();
+                     Statement st = conn.createStatement();
+                     ResultSet rs = st.executeQuery(idx.selectSql(""))) {
+                    while (rs.next()) {
+                        idx.apply(rs);
+                    }
+                }
+                idx.ready = true;
+                count = idx.live.cardinality();
+            }
+            log.info("{} 内存索引已构建：{} 条，耗时 {}ms", idx.mapping.platform(), count,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            idx.ready = false;
+            log.error("{} 内存索引构建失败，统计将使用 SQL: {}", idx.mapping.platform(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 单个平台的索引（除 dirty 与 ready 外，字段均在 synchronized(this) 内访问）
+     */
+    private static class PlatformIndex {
+        private final JobAnalytics.Mapping mapping;
+
+        // 已提交、尚未重读的 rowid
+        private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+        private volatile boolean ready;
+
+        private Map<Long, Integer> ordinals;
+        private BitSet live;
+        private Column status, city, industry, company, experience, degree, day, hr;
+        private double[] medians;
+        private List<BitSet> conditions;
+        private int size;
+
+        PlatformIndex(JobAnalytics.Mapping mapping) {
+            this.mapping = mapping;
+            reset();
+        }
+
+        void reset() {
+            ordinals = new HashMap<>();
+            live = new BitSet();
+            status = new Column(true);
+            city = new Column(true);
+            industry = new Column(true);
+            company = new Column(false);
+            experience = new Column(true);
+            degree = new Column(true);
+            day = new Column(false);
+            hr = new Column(false);
+            medians = new double[1024];
+            conditions = new ArrayList<>();
+            for (int i = 0; i < mapping.conditions().size(); i++) {
+                conditions.add(new BitSet());
+            }
+            size = 0;
+        }
+
+        String selectSql(String where) {
+            StringBuilder sql = new StringBuilder("SELECT rowid, ").append(JobAnalytics.projection(mapping));
+            for (String condition : mapping.conditions()) {
+                sql.append(", CASE WHEN ").append(condition).append(" THEN 1 ELSE 0 END");
+            }
+            return sql.append(" FROM ").append(mapping.table()).append(where).toString();
+        }
+
+        /**
+         * 写入（或覆盖）一行：列顺序见 {@link JobAnalytics#projection}
+         */
+        void apply(ResultSet rs) throws SQLException {
+            long rowId = rs.getLong(1);
+            Integer ord = ordinals.get(rowId);
+            if (ord == null) {
+                ord = size++;
+                ordinals.put(rowId, ord);
+                if (ord >= medians.length) {
+                    medians = Arrays.copyOf(medians, medians.length * 2);
+                }
+            }
+            int i = ord;
+            live.set(i);
+            status.set(i, value(rs.getString(2)));
+            city.set(i, value(rs.getString(3)));
+            industry.set(i, value(rs.getString(4)));
+            company.set(i, value(rs.getString(5)));
+            experience.set(i, value(rs.getString(6)));
+            degree.set(i, value(rs.getString(7)));
+            day.set(i, value(rs.getString(8)));
+            hr.set(i, rs.getInt(10) == 1 ? value(rs.getString(9)) : null);
+            double median = rs.getDouble(11);
+            medians[i] = rs.wasNull() ? Double.NaN : median;
+            for (int c = 0; c < conditions.size(); c++) {
+                conditions.get(c).set(i, rs.getInt(12 + c) == 1);
+            }
+        }
+
+        void remove(long rowId) {
+            Integer ord = ordinals.remove(rowId);
+            if (ord == null) {
+                return;
+            }
+            int i = ord;
+            live.clear(i);
+            for (Column column : List.of(status, city, industry, company, experience, degree, day, hr)) {
+                column.set(i, null);
+            }
+            medians[i] = Double.NaN;
+            for (BitSet bits : conditions) {
+                bits.clear(i);
+            }
+        }
+
+        /**
+         * 重读有变更通知的行（通知在提交返回后才发出，此时读连接已能读到提交后的数据）
+         */
+        void sync(DataSource dataSource) throws SQLException {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            List<Long> rowIds = new ArrayList<>();
+            for (Long rowId : dirty) {
+                rowIds.add(rowId);
+                dirty.remove(rowId);
+            }
+            try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+                for (int from = 0; from < rowIds.size(); from += RELOAD_CHUNK) {
+                    List<Long> chunk = rowIds.subList(from, Math.min(from + RELOAD_CHUNK, rowIds.size()));
+                    Set<Long> missing = new LinkedHashSet<>(chunk);
+                    String in = chunk.stream().map(String::valueOf).collect(Collectors.joining(", "));
+                    try (ResultSet rs = st.executeQuery(selectSql(" WHERE rowid IN (" + in + ")"))) {
+                        while (rs.next()) {
+                            missing.remove(rs.getLong(1));
+                            apply(rs);
+                        }
+                    }
+                    // 查不到的行已被删除
+                    missing.forEach(this::remove);
+                }
+            } catch (SQLException e) {
+                // 重读失败的行放回脏集合，下次查询前再读
+                dirty.addAll(rowIds);
+                throw e;
+            }
+        }
+
+        JobAnalytics.Result query(JobAnalytics.Filter f) {
+            BitSet mask = (BitSet) live.clone();
+
+            if (f.statuses() != null && !f.statuses().isEmpty()) {
+                // 与 SQL 条件一致：只保留本平台可识别的状态，全部不可识别时不筛选
+                BitSet any = new BitSet();
+                boolean filtering = false;
+                for (String s : f.statuses()) {
+                    if (s == null || s.isBlank() || mapping.statusValue().apply(s.trim()) == null) continue;
+                    filtering = true;
+                    BitSet bits = status.bitsOf(s.trim());
+                    if (bits != null) any.or(bits);
+                }
+                if (filtering) mask.and(any);
+            }
+            city.filter(mask, f.location());
+            experience.filter(mask, f.experience());
+            degree.filter(mask, f.degree());
+            if (f.extraCondition() != null) {
+                mask.and(conditions.get(mapping.conditions().indexOf(f.extraCondition())));
+            }
+            if (f.minK() != null || f.maxK() != null) {
+                for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+                    double m = medians[i];
+                    if (Double.isNaN(m) || (f.minK() != null && m < f.minK()) || (f.maxK() != null && m > f.maxK())) {
+                        mask.clear(i);
+                    }
+                }
+            }
+
+            JobAnalytics.Accumulator acc = new JobAnalytics.Accumulator(mapping.skipBlank());
+            // 低基数维度：交集基数
+            long[] statusCounts = status.intersect(mask);
+            for (int c = 0; c < statusCounts.length; c++) {
+                if (statusCounts[c] > 0) acc.addStatus(status.values.get(c), statusCounts[c]);
+            }
+            city.addCounts(acc, StatsRollup.CITY, city.intersect(mask));
+            industry.addCounts(acc, StatsRollup.INDUSTRY, industry.intersect(mask));
+            experience.addCounts(acc, StatsRollup.EXPERIENCE, experience.intersect(mask));
+            degree.addCounts(acc, StatsRollup.DEGREE, degree.intersect(mask));
+
+            // 高基数维度与薪资：遍历命中行
+            long[] companyCounts = new long[company.values.size()];
+            long[] dayCounts = new long[day.values.size()];
+            long[] hrCounts = new long[hr.values.size()];
+            for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+                if (company.rows[i] >= 0) companyCounts[company.rows[i]]++;
+                if (day.rows[i] >= 0) dayCounts[day.rows[i]]++;
+                if (hr.rows[i] >= 0) hrCounts[hr.rows[i]]++;
+                if (!Double.isNaN(medians[i])) acc.addMedian(medians[i]);
+            }
+            company.addCounts(acc, StatsRollup.COMPANY, companyCounts);
+            hr.addCounts(acc, StatsRollup.HR, hrCounts);
+            for (int c = 0; c < dayCounts.length; c++) {
+                if (dayCounts[c] > 0) acc.addDay(day.values.get(c), dayCounts[c]);
+            }
+            return acc.result();
+        }
+
+        /**
+         * 统一成与汇总表相同的取值（去空白，空值记为空串）
+         */
+        private static String value(String s) {
+            return s == null ? "" : s.trim();
+        }
+    }
+
+    /**
+     * 字典编码列：每行一个取值编号（-1 表示无值），按需为每个取值维护位图
+     */
+    private static class Column {
+        private final boolean bitmaps;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<BitSet> bits = new ArrayList<>();
+        private int[] rows = new int[0];
+
+        Column(boolean bitmaps) {
+            this.bitmaps = bitmaps;
+        }
+
+        void set(int row, String value) {
+            if (row >= rows.length) {
+                int from = rows.length;
+                rows = Arrays.copyOf(rows, Math.max(1024, rows.length * 2));
+                Arrays.fill(rows, from, rows.length, -1);
+            }
+            int old = rows[row];
+            if (bitmaps && old >= 0) {
+                bits.get(old).clear(row);
+            }
+            int code = value == null ? -1 : codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                if (bitmaps) {
+                    bits.add(new BitSet());
+                }
+                return values.size() - 1;
+            });
+            rows[row] = code;
+            if (bitmaps && code >= 0) {
+                bits.get(code).set(row);
+            }
+        }
+
+        BitSet bitsOf(String value) {
+            Integer code = codes.get(value);
+            return code == null ? null : bits.get(code);
+        }
+
+        void filter(BitSet mask, String value) {
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            BitSet matched = bitsOf(value.trim());
+            if (matched == null) {
+                mask.clear();
+            } else {
+                mask.and(matched);
+            }
+        }
+
+        long[] intersect(BitSet mask) {
+            long[] counts = new long[values.size()];
+            for (int c = 0; c < counts.length; c++) {
+                BitSet b = bits.get(c);
+                if (b.intersects(mask)) {
+                    BitSet t = (BitSet) b.clone();
+                    t.and(mask);
+                    counts[c] = t.cardinality();
+                }
+            }
+            return counts;
+        }
+
+        void addCounts(JobAnalytics.Accumulator acc, String dimension, long[] counts) {
+            for (int c = 0; c < counts.length; c++) {
+                if (counts[c] > 0) acc.addCount(dimension, values.get(c), counts[c]);
+            }
+        }
+    }
+}
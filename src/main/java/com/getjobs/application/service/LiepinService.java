@@ -10,16 +10,15 @@ import com.getjobs.application.mapper.LiepinMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import jakarta.annotation.PostConstruct;
-import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.Statement;
 import java.sql.PreparedStatement;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -33,60 +32,26 @@ public class LiepinService {
 
     private final LiepinConfigMapper liepinConfigMapper;
     private final LiepinOptionMapper liepinOptionMapper;
+
+    // 选项字典快照（liepin_option）
+    private final SnapshotCache<OptionDictionary<LiepinOptionEntity>> options =
+            new SnapshotCache<>("liepin_option", this::loadOptions);
     // 记录持久化相关依赖（整合自 LiepinRecordService）
     private final LiepinMapper liepinMapper;
-    private final DataSource dataSource;
-
-    // ==================== 记录表初始化与快照保存 ====================
-
-    @PostConstruct
-    public void ensureTableExists() {
-        String createSql = "CREATE TABLE IF NOT EXISTS liepin_data (" +
-                " job_id            BIGINT PRIMARY KEY," +
-                " job_title         VARCHAR(200)," +
-                " job_link          VARCHAR(300)," +
-                " job_salary_text   VARCHAR(100)," +
-                " job_area          VARCHAR(100)," +
-                " job_edu_req       VARCHAR(50)," +
-                " job_exp_req       VARCHAR(50)," +
-                " job_publish_time  VARCHAR(50)," +
-                " comp_id           BIGINT," +
-                " comp_name         VARCHAR(200)," +
-                " comp_industry     VARCHAR(100)," +
-                " comp_scale        VARCHAR(50)," +
-                " hr_id             VARCHAR(64)," +
-                " hr_name           VARCHAR(50)," +
-                " hr_title          VARCHAR(100)," +
-                " hr_im_id          VARCHAR(64)," +
-                " delivered         INTEGER DEFAULT 0," +
-                " create_time       DATETIME," +
-                " update_time       DATETIME" +
-                ")";
-        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
-            stmt.execute(createSql);
-            // 兼容旧库：尝试添加 delivered 列（如已存在则忽略错误）
-            try {
-                stmt.execute("ALTER TABLE liepin_data ADD COLUMN delivered INTEGER DEFAULT 0");
-            } catch (Exception ignored) {}
-            // 兼容旧库：尝试移除无数据列（SQLite 3.35+ 支持；不支持则忽略错误）
-            try { stmt.execute("ALTER TABLE liepin_data DROP COLUMN job_function"); } catch (Exception ignored) {}
-            try { stmt.execute("ALTER TABLE liepin_data DROP COLUMN job_city"); } catch (Exception ignored) {}
-            try { stmt.execute("ALTER TABLE liepin_data DROP COLUMN comp_full_name"); } catch (Exception ignored) {}
-            try { stmt.execute("ALTER TABLE liepin_data DROP COLUMN comp_kind"); } catch (Exception ignored) {}
-            log.info("确保 liepin_data 表已存在");
-        } catch (Exception e) {
-            log.warn("创建 liepin_data 表失败: {}", e.getMessage());
-        }
-    }
+    private final GroupCommitWriter groupCommitWriter;
+    private final JobAnalytics jobAnalytics;
+
+    // ==================== 岗位快照保存 ====================
 
     /**
      * 保存或更新一条岗位快照（以 job_id 作为主键）
      */
-    public void saveOrUpdateSnapshot(LiepinEntity entity) {
+    public CompletableFuture<Void> saveOrUpdateSnapshot(LiepinEntity entity) {
         if (entity == null || entity.getJobId() == null) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        try {
+        applySalary(entity);
+        return groupCommitWriter.submit("liepin", "upsert:" + entity.getJobId(), conn -> {
             LiepinEntity existing = liepinMapper.selectById(entity.getJobId());
             LocalDateTime now = LocalDateTime.now();
             if (existing == null) {
@@ -101,40 +66,34 @@ public class LiepinService {
                 if (entity.getDelivered() == null) entity.setDelivered(existing.getDelivered());
                 liepinMapper.updateById(entity);
             }
-        } catch (Exception e) {
-            log.warn("保存猎聘岗位快照失败 job_id={}: {}", entity.getJobId(), e.getMessage());
-        }
+        });
     }
 
     /**
      * 仅在不存在时插入岗位快照（默认 delivered=0）；存在则跳过
      */
-    public void insertSnapshotIfNotExists(LiepinEntity entity) {
+    public CompletableFuture<Void> insertSnapshotIfNotExists(LiepinEntity entity) {
         if (entity == null || entity.getJobId() == null) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        try {
-            LiepinEntity existing = liepinMapper.selectById(entity.getJobId());
-            if (existing == null) {
+        applySalary(entity);
+        return groupCommitWriter.submit("liepin", "insert:" + entity.getJobId(), conn -> {
+            if (liepinMapper.selectById(entity.getJobId()) == null) {
                 LocalDateTime now = LocalDateTime.now();
                 entity.setCreateTime(now);
                 entity.setUpdateTime(now);
                 if (entity.getDelivered() == null) entity.setDelivered(0);
                 liepinMapper.insert(entity);
-            } else {
-                // already exists, skip
             }
-        } catch (Exception e) {
-            log.warn("插入猎聘岗位快照失败 job_id={}: {}", entity.getJobId(), e.getMessage());
-        }
+        });
     }
 
     /**
      * 标记岗位为已投递（delivered=1），如存在该记录
      */
-    public void markDelivered(Long jobId) {
-        if (jobId == null) return;
-        try {
+    public CompletableFuture<Void> markDelivered(Long jobId) {
+        if (jobId == null) return CompletableFuture.completedFuture(null);
+        return groupCommitWriter.submit("liepin", "delivered:" + jobId, conn -> {
             LiepinEntity existing = liepinMapper.selectById(jobId);
             if (existing != null) {
                 LiepinEntity update = new LiepinEntity();
@@ -144,17 +103,19 @@ public class LiepinService {
                 update.setUpdateTime(LocalDateTime.now());
                 liepinMapper.updateById(update);
             }
-        } catch (Exception e) {
-            log.warn("更新投递状态失败 job_id={}: {}", jobId, e.getMessage());
-        }
+        });
     }
 
     /**
      * 批量插入岗位快照（仅不存在时），减少单次网络响应后的数据库操作时间
      */
-    public void insertSnapshotsIfNotExistsBatch(java.util.List<LiepinEntity> entities) {
-        if (entities == null || entities.isEmpty()) return;
+    public CompletableFuture<Void> insertSnapshotsIfNotExistsBatch(java.util.List<LiepinEntity> entities) {
+        if (entities == null || entities.isEmpty()) return CompletableFuture.completedFuture(null);
+        // 存在性检查放在写线程内执行，能看到同一批中更早提交的插入
+        return groupCommitWriter.submit("liepin", null, conn -> insertSnapshotsIfNotExists(conn, entities));
+    }
 
+    private void insertSnapshotsIfNotExists(Connection conn, java.util.List<LiepinEntity> entities) throws Exception {
         // 收集待处理的 jobId
         java.util.Set<Long> ids = new java.util.HashSet<>();
         for (LiepinEntity e : entities) {
@@ -184,6 +145,7 @@ public class LiepinService {
             if (e.getCreateTime() == null) e.setCreateTime(now);
             e.setUpdateTime(now);
             if (e.getDelivered() == null) e.setDelivered(0);
+            applySalary(e);
             toInsert.add(e);
         }
         if (toInsert.isEmpty()) return;
@@ -192,10 +154,10 @@ public class LiepinService {
         String sql = "INSERT INTO liepin_data (" +
                 "job_id, job_title, job_link, job_salary_text, job_area, job_edu_req, job_exp_req, job_publish_time, " +
                 "comp_id, comp_name, comp_industry, comp_scale, " +
-                "hr_id, hr_name, hr_title, hr_im_id, delivered, create_time, update_time) " +
-                "VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
-        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            conn.setAutoCommit(false);
+                "hr_id, hr_name, hr_title, hr_im_id, delivered, create_time, update_time, " +
+                "min_k, max_k, median_k, months, annual_total) " +
+                "VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
             for (LiepinEntity e : toInsert) {
                 // 1 job_id
                 if (e.getJobId() == null) ps.setNull(1, Types.BIGINT); else ps.setLong(1, e.getJobId());
@@ -235,13 +197,16 @@ public class LiepinService {
                 if (e.getCreateTime() == null) ps.setNull(18, Types.TIMESTAMP); else ps.setTimestamp(18, Timestamp.valueOf(e.getCreateTime()));
                 // 19 update_time
                 if (e.getUpdateTime() == null) ps.setNull(19, Types.TIMESTAMP); else ps.setTimestamp(19, Timestamp.valueOf(e.getUpdateTime()));
+                // 20-24 物化薪资列
+                if (e.getMinK() == null) ps.setNull(20, Types.REAL); else ps.setDouble(20, e.getMinK());
+                if (e.getMaxK() == null) ps.setNull(21, Types.REAL); else ps.setDouble(21, e.getMaxK());
+                if (e.getMedianK() == null) ps.setNull(22, Types.REAL); else ps.setDouble(22, e.getMedianK());
+                if (e.getMonths() == null) ps.setNull(23, Types.INTEGER); else ps.setInt(23, e.getMonths());
+                if (e.getAnnualTotal() == null) ps.setNull(24, Types.BIGINT); else ps.setLong(24, e.getAnnualTotal());
 
                 ps.addBatch();
             }
             ps.executeBatch();
-            conn.commit();
-        } catch (Exception e) {
-            log.warn("批量插入猎聘岗位快照失败: {}", e.getMessage());
         }
     }
 
@@ -250,6 +215,7 @@ public class LiepinService {
     /**
      * 获取第一条配置记录（通常只有一条）
      */
+    @Transactional(readOnly = true)
     public LiepinConfigEntity getFirstConfig() {
         QueryWrapper<LiepinConfigEntity> wrapper = new QueryWrapper<>();
         wrapper.orderByAsc("id");
@@ -300,6 +266,7 @@ public class LiepinService {
     /**
      * 根据类型获取选项列表
      */
+    @Transactional(readOnly = true)
     public List<LiepinOptionEntity> getOptionsByType(String type) {
         QueryWrapper<LiepinOptionEntity> wrapper = new QueryWrapper<>();
         wrapper.eq("type", type);
@@ -307,24 +274,26 @@ public class LiepinService {
         return liepinOptionMapper.selectList(wrapper);
     }
 
+    /**
+     * 从选项表加载字典快照
+     */
+    private OptionDictionary<LiepinOptionEntity> loadOptions() {
+        return OptionDictionary.of(liepinOptionMapper.selectList(new QueryWrapper<LiepinOptionEntity>().orderByAsc("id")),
+                LiepinOptionEntity::getType, LiepinOptionEntity::getCode, LiepinOptionEntity::getName);
+    }
+
     /**
      * 根据类型和代码获取选项
      */
     public LiepinOptionEntity getOptionByTypeAndCode(String type, String code) {
-        QueryWrapper<LiepinOptionEntity> wrapper = new QueryWrapper<>();
-        wrapper.eq("type", type);
-        wrapper.eq("code", code);
-        return liepinOptionMapper.selectOne(wrapper);
+        return options.get().byCode(type, code);
     }
 
     /**
      * 根据类型和名称获取代码
      */
     public String getCodeByTypeAndName(String type, String name) {
-        QueryWrapper<LiepinOptionEntity> wrapper = new QueryWrapper<>();
-        wrapper.eq("type", type);
-        wrapper.eq("name", name);
-        LiepinOptionEntity entity = liepinOptionMapper.selectOne(wrapper);
+        LiepinOptionEntity entity = options.get().byName(type, name);
         return entity != null ? entity.getCode() : "";
     }
 
@@ -396,6 +365,22 @@ public class LiepinService {
         return info;
     }
 
+    /** 将薪资文本换算为物化薪资列 */
+    public static SalaryColumns salaryColumns(String salaryText) {
+        SalaryInfo info = parseSalary(salaryText);
+        return info == null ? SalaryColumns.EMPTY : SalaryColumns.of(info.minK, info.maxK, info.months);
+    }
+
+    /** 入库前填充物化薪资列 */
+    static void applySalary(LiepinEntity entity) {
+        SalaryColumns c = salaryColumns(entity.getJobSalaryText());
+        entity.setMinK(c.minK());
+        entity.setMaxK(c.maxK());
+        entity.setMedianK(c.medianK());
+        entity.setMonths(c.months());
+        entity.setAnnualTotal(c.annualTotal());
+    }
+
     public static class Kpi {
         public long total;
         public long delivered;
@@ -430,13 +415,21 @@ public class LiepinService {
         public long total;
         public int page;
         public int size;
+        public Long nextCursor; // 下一页游标（本页最后一条的 job_id），没有更多数据时为 null
     }
 
-    private String nullSafe(String s) { return (s == null || s.trim().isEmpty()) ? "未知" : s.trim(); }
+    /** 猎聘统计列映射 */
+    public static final JobAnalytics.Mapping STATS_MAPPING = new JobAnalytics.Mapping(
+            "liepin", "liepin_data", JobAnalytics.DELIVERED_LABEL, "delivered", JobAnalytics.DELIVERED_FLAG,
+            "job_area", "comp_industry", "comp_name", "job_exp_req", "job_edu_req", "create_time",
+            "hr_name", "hr_name IS NOT NULL AND TRIM(hr_name) <> ''",
+            List.of("comp_name", "job_title", "hr_name"), false,
+            List.of());
 
     /**
      * 获取投递分析统计与图表数据（按筛选条件）
      */
+    @Transactional(readOnly = true)
     public StatsResponse getLiepinStats(
             List<String> statuses,
             String location,
@@ -446,166 +439,40 @@ public class LiepinService {
             Double maxK,
             String keyword
     ) {
+        JobAnalytics.Result r = jobAnalytics.aggregate(STATS_MAPPING,
+                new JobAnalytics.Filter(statuses, location, experience, degree, minK, maxK, keyword, null));
+
         StatsResponse resp = new StatsResponse();
         resp.kpi = new Kpi();
-        Charts charts = new Charts();
-        charts.byStatus = new ArrayList<>();
-        charts.byCity = new ArrayList<>();
-        charts.byIndustry = new ArrayList<>();
-        charts.byCompany = new ArrayList<>();
-        charts.byExperience = new ArrayList<>();
-        charts.byDegree = new ArrayList<>();
-        charts.salaryBuckets = new ArrayList<>();
-        charts.dailyTrend = new ArrayList<>();
-        charts.hrActivity = new ArrayList<>();
-
-        try {
-            com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<LiepinEntity> wrapper = new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<>();
-
-            // 状态：已投递/未投递 -> delivered 1/0
-            if (statuses != null && !statuses.isEmpty()) {
-                Set<Integer> deliveredSet = new HashSet<>();
-                for (String s : statuses) {
-                    if (s != null) {
-                        String t = s.trim();
-                        if ("已投递".equals(t)) deliveredSet.add(1);
-                        if ("未投递".equals(t)) deliveredSet.add(0);
-                    }
-                }
-                if (!deliveredSet.isEmpty()) {
-                    wrapper.in("delivered", deliveredSet);
-                }
-            }
-            if (location != null && !location.trim().isEmpty()) wrapper.eq("job_area", location.trim());
-            if (experience != null && !experience.trim().isEmpty()) wrapper.eq("job_exp_req", experience.trim());
-            if (degree != null && !degree.trim().isEmpty()) wrapper.eq("job_edu_req", degree.trim());
-
-            if (keyword != null && !keyword.trim().isEmpty()) {
-                String kw = keyword.trim();
-                wrapper.and(w -> w.like("comp_name", kw)
-                        .or().like("job_title", kw)
-                        .or().like("hr_name", kw));
-            }
+        resp.kpi.total = r.total();
+        resp.kpi.delivered = r.delivered();
+        resp.kpi.pending = r.pending();
+        resp.kpi.filtered = 0;
+        resp.kpi.failed = 0;
+        resp.kpi.avgMonthlyK = r.avgMonthlyK();
 
-            wrapper.orderByDesc("create_time");
-            List<LiepinEntity> all = liepinMapper.selectList(wrapper);
-
-            // 薪资区间过滤（按中位数K）
-            List<LiepinEntity> filtered = new ArrayList<>();
-            double sumMedian = 0.0; long countMedian = 0;
-            for (LiepinEntity e : all) {
-                SalaryInfo info = parseSalary(e.getJobSalaryText());
-                boolean passSalary;
-                if (minK == null && maxK == null) passSalary = true;
-                else {
-                    if (info == null || info.medianK == null) passSalary = false;
-                    else {
-                        boolean ok = true;
-                        if (minK != null) ok = ok && (info.medianK >= minK);
-                        if (maxK != null) ok = ok && (info.medianK <= maxK);
-                        passSalary = ok;
-                    }
-                }
-                if (passSalary) {
-                    filtered.add(e);
-                    if (info != null && info.medianK != null) { sumMedian += info.medianK; countMedian++; }
-                }
-            }
+        Charts charts = new Charts();
+        charts.byStatus = toNameValues(r.byStatus());
+        charts.byCity = toNameValues(r.byCity());
+        charts.byIndustry = toNameValues(r.byIndustry());
+        charts.byCompany = toNameValues(r.byCompany());
+        charts.byExperience = toNameValues(r.byExperience());
+        charts.byDegree = toNameValues(r.byDegree());
+        charts.salaryBuckets = r.salaryBuckets().stream().map(c -> new BucketValue(c.name(), c.value())).collect(Collectors.toList());
+        charts.dailyTrend = toNameValues(r.dailyTrend());
+        charts.hrActivity = toNameValues(r.hrActivity());
+        resp.charts = charts;
+        return resp;
+    }
 
-            // KPI
-            resp.kpi.total = filtered.size();
-            resp.kpi.delivered = filtered.stream().filter(e -> Objects.equals(e.getDelivered(), 1)).count();
-            resp.kpi.pending = filtered.stream().filter(e -> e.getDelivered() == null || Objects.equals(e.getDelivered(), 0)).count();
-            resp.kpi.filtered = 0;
-            resp.kpi.failed = 0;
-            resp.kpi.avgMonthlyK = countMedian > 0 ? Math.round((sumMedian / countMedian) * 100.0) / 100.0 : null;
-
-            // Charts 聚合
-            Map<String, Long> byStatus = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> Objects.equals(e.getDelivered(), 1) ? "已投递" : "未投递", Collectors.counting()));
-            byStatus.forEach((k, v) -> charts.byStatus.add(new NameValue(k, v)));
-
-            Map<String, Long> byCity = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getJobArea()), Collectors.counting()));
-            byCity.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .limit(10)
-                    .forEach(en -> charts.byCity.add(new NameValue(en.getKey(), en.getValue())));
-
-            Map<String, Long> byIndustry = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getCompIndustry()), Collectors.counting()));
-            byIndustry.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .limit(10)
-                    .forEach(en -> charts.byIndustry.add(new NameValue(en.getKey(), en.getValue())));
-
-            Map<String, Long> byCompany = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getCompName()), Collectors.counting()));
-            byCompany.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .limit(10)
-                    .forEach(en -> charts.byCompany.add(new NameValue(en.getKey(), en.getValue())));
-
-            Map<String, Long> byExp = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getJobExpReq()), Collectors.counting()));
-            byExp.forEach((k, v) -> charts.byExperience.add(new NameValue(k, v)));
-
-            Map<String, Long> byDeg = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getJobEduReq()), Collectors.counting()));
-            byDeg.forEach((k, v) -> charts.byDegree.add(new NameValue(k, v)));
-
-            Map<String, Long> byDay = filtered.stream()
-                    .collect(Collectors.groupingBy(e -> {
-                        LocalDateTime t = e.getCreateTime();
-                        return t == null ? "未知" : String.format("%04d-%02d-%02d", t.getYear(), t.getMonthValue(), t.getDayOfMonth());
-                    }, Collectors.counting()));
-            byDay.entrySet().stream()
-                    .sorted(Map.Entry.comparingByKey())
-                    .forEach(en -> charts.dailyTrend.add(new NameValue(en.getKey(), en.getValue())));
-
-            Map<String, Long> hrAct = filtered.stream()
-                    .filter(e -> e.getHrName() != null && !e.getHrName().trim().isEmpty())
-                    .collect(Collectors.groupingBy(e -> nullSafe(e.getHrName()), Collectors.counting()));
-            hrAct.forEach((k, v) -> charts.hrActivity.add(new NameValue(k, v)));
-
-            // 薪资桶
-            long b0_10=0,b10_15=0,b15_20=0,b20_top=0,b_ge_top=0;
-            double maxMedian = 0.0;
-            List<Double> medians = new ArrayList<>();
-            for (LiepinEntity e : filtered) {
-                SalaryInfo info = parseSalary(e.getJobSalaryText());
-                if (info == null || info.medianK == null) continue;
-                double m = info.medianK;
-                medians.add(m);
-                if (m > maxMedian) maxMedian = m;
-            }
-            int topEdge = (int) Math.ceil(maxMedian / 5.0) * 5;
-            if (topEdge <= 20) topEdge = 25;
-            for (double m : medians) {
-                if (m < 10) b0_10++;
-                else if (m < 15) b10_15++;
-                else if (m < 20) b15_20++;
-                else if (m < topEdge) b20_top++;
-                else b_ge_top++;
-            }
-            charts.salaryBuckets.add(new BucketValue("0-10K", b0_10));
-            charts.salaryBuckets.add(new BucketValue("10-15K", b10_15));
-            charts.salaryBuckets.add(new BucketValue("15-20K", b15_20));
-            charts.salaryBuckets.add(new BucketValue("20-" + topEdge + "K", b20_top));
-            charts.salaryBuckets.add(new BucketValue(">=" + topEdge + "K", b_ge_top));
-
-            resp.charts = charts;
-            return resp;
-        } catch (Exception e) {
-            log.error("获取猎聘统计失败: {}", e.getMessage(), e);
-            resp.charts = charts;
-            return resp;
-        }
+    private static List<NameValue> toNameValues(List<JobAnalytics.Count> counts) {
+        return counts.stream().map(c -> new NameValue(c.name(), c.value())).collect(Collectors.toList());
     }
 
     /**
      * 列表查询（分页 + 筛选 + 关键词 + 薪资区间基于中位数K）
      */
+    @Transactional(readOnly = true)
     public PagedResult listLiepinJobs(
             List<String> statuses,
             String location,
@@ -616,6 +483,26 @@ public class LiepinService {
             String keyword,
             int page,
             int size
+    ) {
+        return listLiepinJobs(statuses, location, experience, degree, minK, maxK, keyword, page, size, null);
+    }
+
+    /**
+     * 列表查询：筛选与薪资区间均在 SQL 中完成；传入 cursor 时按 (create_time, job_id) 键集分页
+     * 关键词不少于 3 个字符时经全文索引检索，结果按相关度排序并按页码分页（忽略 cursor）
+     */
+    @Transactional(readOnly = true)
+    public PagedResult listLiepinJobs(
+            List<String> statuses,
+            String location,
+            String experience,
+            String degree,
+            Double minK,
+            Double maxK,
+            String keyword,
+            int page,
+            int size,
+            Long cursor
     ) {
         if (page <= 0) page = 1;
         if (size <= 0) size = 20;
@@ -637,39 +524,46 @@ public class LiepinService {
         if (experience != null && !experience.trim().isEmpty()) wrapper.eq("job_exp_req", experience.trim());
         if (degree != null && !degree.trim().isEmpty()) wrapper.eq("job_edu_req", degree.trim());
 
-        if (keyword != null && !keyword.trim().isEmpty()) {
+        String match = FullTextIndex.matchQuery(keyword);
+        if (match == null && keyword != null && !keyword.trim().isEmpty()) {
             String kw = keyword.trim();
             wrapper.and(w -> w.like("comp_name", kw)
                     .or().like("job_title", kw)
                     .or().like("hr_name", kw));
         }
 
-        wrapper.orderByDesc("create_time");
-        List<LiepinEntity> all = liepinMapper.selectList(wrapper);
-
-        List<LiepinEntity> filtered = new ArrayList<>();
-        for (LiepinEntity e : all) {
-            if (minK == null && maxK == null) {
-                filtered.add(e);
-            } else {
-                SalaryInfo info = parseSalary(e.getJobSalaryText());
-                if (info == null || info.medianK == null) continue;
-                boolean ok = true;
-                if (minK != null) ok = ok && (info.medianK >= minK);
-                if (maxK != null) ok = ok && (info.medianK <= maxK);
-                if (ok) filtered.add(e);
-            }
+        // 薪资区间（中位数K，面议/不可解析的 median_k 为 NULL，自然被排除）
+        if (minK != null) wrapper.ge("median_k", minK);
+        if (maxK != null) wrapper.le("median_k", maxK);
+
+        if (match != null) {
+            Long total = liepinMapper.countByKeyword(match, wrapper);
+            wrapper.orderByAsc("fts_rank").orderByDesc("create_time").orderByDesc("job_id");
+            wrapper.last("LIMIT " + size + " OFFSET " + (long) (page - 1) * size);
+            PagedResult pr = new PagedResult();
+            pr.items = liepinMapper.selectByKeyword(match, wrapper);
+            pr.total = total != null ? total : 0;
+            pr.page = page;
+            pr.size = size;
+            return pr;
         }
 
-        int total = filtered.size();
-        int from = Math.max(0, (page - 1) * size);
-        int to = Math.min(total, from + size);
+        Long total = liepinMapper.selectCount(wrapper);
+
+        if (cursor != null) {
+            wrapper.apply("(create_time < (SELECT create_time FROM liepin_data WHERE job_id = {0})"
+                    + " OR (create_time = (SELECT create_time FROM liepin_data WHERE job_id = {0}) AND job_id < {0}))", cursor);
+        }
+        wrapper.orderByDesc("create_time").orderByDesc("job_id");
+        wrapper.last(cursor != null ? "LIMIT " + size : "LIMIT " + size + " OFFSET " + (long) (page - 1) * size);
+        List<LiepinEntity> items = liepinMapper.selectList(wrapper);
 
         PagedResult pr = new PagedResult();
-        pr.items = filtered.subList(from, to);
-        pr.total = total;
+        pr.items = items;
+        pr.total = total != null ? total : 0;
         pr.page = page;
         pr.size = size;
+        pr.nextCursor = items.size() < size ? null : items.get(items.size() - 1).getJobId();
         return pr;
     }
 }
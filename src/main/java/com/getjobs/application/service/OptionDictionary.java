@@ -0,0 +1,62 @@
+package com.getjobs.application.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 选项字典快照（城市、薪资、经验等选项的 代码 ⇄ 名称 映射）
+ * 由选项表全量构建后不再修改，配合 {@link SnapshotCache} 使用；同一类型下代码或名称重复时取排在前面（id 较小）的记录。
+ *
+ * @param <E> 选项实体类型
+ */
+public final class OptionDictionary<E> {
+
+    private final Map<String, E> byCode;
+    private final Map<String, E> byName;
+
+    private OptionDictionary(Map<String, E> byCode, Map<String, E> byName) {
+        this.byCode = byCode;
+        this.byName = byName;
+    }
+
+    /**
+     * 由选项列表构建字典
+     *
+     * @param options 全部选项（按 id 升序）
+     */
+    public static <E> OptionDictionary<E> of(List<E> options,
+                                             Function<E, String> type,
+                                             Function<E, String> code,
+                                             Function<E, String> name) {
+        Map<String, E> byCode = new HashMap<>();
+        Map<String, E> byName = new HashMap<>();
+        for (E e : options) {
+            String t = type.apply(e);
+            String c = code.apply(e);
+            String n = name.apply(e);
+            if (c != null) byCode.putIfAbsent(key(t, c), e);
+            if (n != null) byName.putIfAbsent(key(t, n), e);
+        }
+        return new OptionDictionary<>(Map.copyOf(byCode), Map.copyOf(byName));
+    }
+
+    /**
+     * 按类型和代码查找选项，找不到返回 null
+     */
+    public E byCode(String type, String code) {
+        return code == null ? null : byCode.get(key(type, code));
+    }
+
+    /**
+     * 按类型和名称查找选项，找不到返回 null
+     */
+    public E byName(String type, String name) {
+        return name == null ? null : byName.get(key(type, name));
+    }
+
+    private static String key(String type, String value) {
+        return type + '\u0000' + value;
+    }
+}
@@ -0,0 +1,34 @@
+package com.getjobs.application.service;
+
+/**
+ * 入库时物化的薪资字段（min_k、max_k、median_k、months、annual_total）
+ * 各平台薪资文本格式不同，由各自 Service 的解析方法换算成统一的 K/月 口径后写入，
+ * 列表与统计的薪资筛选直接在 SQL 中按 median_k 过滤。
+ *
+ * @param minK        最小K（K/月）
+ * @param maxK        最大K（K/月）
+ * @param medianK     中位数K
+ * @param months      月数（默认12）
+ * @param annualTotal 年包（元）
+ */
+public record SalaryColumns(Double minK, Double maxK, Double medianK, Integer months, Long annualTotal) {
+
+    /**
+     * 面议或无法解析
+     */
+    public static final SalaryColumns EMPTY = new SalaryColumns(null, null, null, null, null);
+
+    /**
+     * 由区间与月数计算中位数与年包（与各平台 parseSalary 的口径一致）
+     */
+    public static SalaryColumns of(Number minK, Number maxK, Integer months) {
+        if (minK == null || maxK == null) {
+            return EMPTY;
+        }
+        double min = minK.doubleValue();
+        double max = maxK.doubleValue();
+        int m = months != null ? months : 12;
+        double median = (min + max) / 2.0;
+        return new SalaryColumns(min, max, median, m, Math.round(median * 1000 * m));
+    }
+}
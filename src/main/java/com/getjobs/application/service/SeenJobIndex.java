@@ -0,0 +1,173 @@
+package com.getjobs.application.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * 已处理岗位索引
+ * 每个平台两份岗位ID集合：已入库（stored）与已处理完毕（settled，已投递或已过滤，之后的运行无需再打开）。
+ * 投递前先查内存集合，命中的岗位不再点击卡片或逐条查库；重复关键词、每日重复运行时可跳过绝大部分岗位。
+ * 集合只存岗位ID的 64 位哈希（开放寻址的 long 数组），数万条岗位仅占几百 KB；
+ * 数据表是唯一持久化来源：启动时全量加载，之后由各 Service 在写入提交后登记。
+ * 加载完成前 {@link #isReady} 为 false，调用方应退回查库。
+ */
+@Slf4j
+@Component
+public class SeenJobIndex {
+
+    public static final String BOSS = "boss";
+    public static final String ZHILIAN = "zhilian";
+
+    // 平台 -> 加载 SQL（第一列岗位ID，第二列投递状态）；Boss 以列表卡片上的 encrypt_id 作为岗位ID
+    private static final Map<String, String> SOURCES = Map.of(
+            BOSS, "SELECT encrypt_id, delivery_status FROM boss_data WHERE encrypt_id IS NOT NULL",
+            ZHILIAN, "SELECT job_id, delivery_status FROM zhilian_data WHERE job_id IS NOT NULL");
+
+    private final DataSource dataSource;
+
+    private final Map<String, LongHashSet> stored = Map.of(BOSS, new LongHashSet(), ZHILIAN, new LongHashSet());
+    private final Map<String, LongHashSet> settled = Map.of(BOSS, new LongHashSet(), ZHILIAN, new LongHashSet());
+
+    private volatile boolean ready = false;
+
+    public SeenJobIndex(@Qualifier("sqliteReadDataSource") DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.currentTimeMillis();
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+            for (Map.Entry<String, String> en : SOURCES.entrySet()) {
+                String platform = en.getKey();
+                int rows = 0;
+                try (ResultSet rs = st.executeQuery(en.getValue())) {
+                    while (rs.next()) {
+                        String jobId = rs.getString(1);
+                        markStored(platform, jobId);
+                        if (isSettledStatus(rs.getString(2))) {
+                            markSettled(platform, jobId);
+                        }
+                        rows++;
+                    }
+                }
+                log.info("{} 已处理岗位索引加载完成：已入库 {} 条，已处理 {} 条", platform, rows, settled.get(platform).size());
+            }
+            ready = true;
+            log.info("已处理岗位索引加载耗时 {}ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // 加载失败时保持未就绪，调用方继续逐条查库
+            log.error("加载已处理岗位索引失败: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 岗位是否已入库
+     */
+    public boolean isStored(String platform, String jobId) {
+        return ready && jobId != null && !jobId.isEmpty() && stored.get(platform).contains(hash(jobId));
+    }
+
+    /**
+     * 岗位是否已处理完毕（已投递或已过滤），命中时无需再打开
+     */
+    public boolean isSettled(String platform, String jobId) {
+        return ready && jobId != null && !jobId.isEmpty() && settled.get(platform).contains(hash(jobId));
+    }
+
+    public void markStored(String platform, String jobId) {
+        if (jobId != null && !jobId.isEmpty()) {
+            stored.get(platform).add(hash(jobId));
+        }
+    }
+
+    public void markSettled(String platform, String jobId) {
+        if (jobId != null && !jobId.isEmpty()) {
+            stored.get(platform).add(hash(jobId));
+            settled.get(platform).add(hash(jobId));
+        }
+    }
+
+    /**
+     * 投递状态是否表示已处理完毕（投递失败、未投递的岗位下次仍需重试）
+     */
+    public static boolean isSettledStatus(String status) {
+        return "已投递".equals(status) || "已过滤".equals(status);
+    }
+
+    /**
+     * 岗位ID的 64 位哈希（FNV-1a 后再做一次混合），不同ID冲突的概率可忽略
+     */
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * long 开放寻址哈希集合（线性探测，0 作为空槽标记，负载超过一半时扩容）
+     */
+    static class LongHashSet {
+        private long[] table = new long[1024];
+        private int size;
+
+        synchronized boolean contains(long v) {
+            long key = v == 0 ? 1 : v;
+            int mask = table.length - 1;
+            for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+                if (table[i] == key) return true;
+                if (table[i] == 0) return false;
+            }
+        }
+
+        synchronized void add(long v) {
+            long key = v == 0 ? 1 : v;
+            if (insert(table, key)) {
+                size++;
+                if (size * 2 > table.length) {
+                    long[] grown = new long[table.length * 2];
+                    for (long k : table) {
+                        if (k != 0) insert(grown, k);
+                    }
+                    table = grown;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private static boolean insert(long[] t, long key) {
+            int mask = t.length - 1;
+            for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+                if (t[i] == key) return false;
+                if (t[i] == 0) {
+                    t[i] = key;
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.getjobs.application.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 不可变快照缓存
+ * 读取方只读取当前快照（一次 volatile 读，不访问数据库）；对应数据写入后由写入方调用 {@link #reload}，
+ * 重新加载完整快照并整体替换，读取方要么看到旧快照、要么看到新快照，不会看到一半。
+ * 每次替换版本号加一，可用于依赖这些配置的下游缓存判断是否过期。
+ *
+ * @param <T> 快照类型（应为不可变对象）
+ */
+@Slf4j
+public final class SnapshotCache<T> {
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final AtomicReference<T> current = new AtomicReference<>();
+    private volatile long version;
+
+    /**
+     * @param name   快照名称（日志用）
+     * @param loader 从数据库加载完整快照
+     */
+    public SnapshotCache(String name, Supplier<T> loader) {
+        this.name = name;
+        this.loader = loader;
+    }
+
+    /**
+     * 当前快照（首次访问时加载）
+     */
+    public T get() {
+        T snapshot = current.get();
+        return snapshot != null ? snapshot : reloadNow();
+    }
+
+    /**
+     * 当前快照版本号（每次重新加载加一）
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 数据已变更：处于事务中时在提交后重新加载（回滚则保持原快照），否则立即重新加载
+     */
+    public void reload() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadNow();
+                }
+            });
+        } else {
+            reloadNow();
+        }
+    }
+
+    // 串行加载：并发的多次变更中最后一次加载一定读到最新数据
+    private synchronized T reloadNow() {
+        T snapshot = loader.get();
+        current.set(snapshot);
+        version++;
+        log.debug("{} 快照已加载，版本 {}", name, version);
+        return snapshot;
+    }
+}
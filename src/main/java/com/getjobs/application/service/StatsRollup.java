@@ -0,0 +1,208 @@
+package com.getjobs.application.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 投递统计汇总表
+ * 按 (平台, 日期, 维度, 维度值) 记录岗位数，由数据表上的触发器在插入、更新（如投递状态变化）、删除时
+ * 在同一事务内增减，无筛选条件的看板直接读取汇总表，耗时与分组数成正比而与岗位数无关。
+ * 维度：status、city、industry、company、experience、degree、hr（活跃 HR）、salary（按 5K 分档，附带中位数K之和与最大值）。
+ * 最大值无法靠增减维护：扣减时若移除的值不小于该档当前最大值，则从数据表按档位区间重算。
+ * 触发器与 {@link JobAnalytics.Mapping} 使用相同的列与表达式生成；重建数据表（DROP/RENAME）的迁移需重新调用 {@link #install}。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatsRollup {
+
+    public static final String TABLE = "job_stats_rollup";
+
+    static final String STATUS = "status";
+    static final String CITY = "city";
+    static final String INDUSTRY = "industry";
+    static final String COMPANY = "company";
+    static final String EXPERIENCE = "experience";
+    static final String DEGREE = "degree";
+    static final String HR = "hr";
+    static final String SALARY = "salary";
+
+    /**
+     * 参与汇总的平台
+     */
+    public static final List<JobAnalytics.Mapping> MAPPINGS = List.of(
+            BossService.STATS_MAPPING,
+            LiepinService.STATS_MAPPING,
+            ZhilianService.STATS_MAPPING,
+            Job51Service.STATS_MAPPING);
+
+    private final GroupCommitWriter groupCommitWriter;
+
+    /**
+     * 创建汇总表与各平台触发器，并由现有数据回填（供数据库迁移调用）
+     */
+    public static void install(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                " platform  TEXT NOT NULL," +
+                " day       TEXT NOT NULL," +
+                " dimension TEXT NOT NULL," +
+                " value     TEXT NOT NULL," +
+                " cnt       INTEGER NOT NULL DEFAULT 0," +
+                " sum_k     REAL NOT NULL DEFAULT 0," +
+                " max_k     REAL," +
+                " PRIMARY KEY (platform, day, dimension, value)" +
+                ") WITHOUT ROWID");
+        for (JobAnalytics.Mapping m : MAPPINGS) {
+            createTriggers(stmt, m);
+            rebuild(stmt, m);
+        }
+    }
+
+    /**
+     * 重建单个平台的汇总数据（经组提交写入器执行，与其它写操作串行）
+     *
+     * @param platform 平台标识（boss、liepin、zhilian、51job）
+     */
+    public CompletableFuture<Void> rebuild(String platform) {
+        JobAnalytics.Mapping m = MAPPINGS.stream()
+                .filter(x -> x.platform().equals(platform))
+                .findFirst()
+                .orElse(null);
+        if (m == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("未知平台: " + platform));
+        }
+        return groupCommitWriter.submit(platform, "stats-rollup", conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                rebuild(stmt, m);
+            }
+            log.info("{} 统计汇总已重建", platform);
+        });
+    }
+
+    /**
+     * 重建全部平台的汇总数据
+     */
+    public CompletableFuture<Void> rebuildAll() {
+        return CompletableFuture.allOf(MAPPINGS.stream()
+                .map(m -> rebuild(m.platform()))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private static void rebuild(Statement stmt, JobAnalytics.Mapping m) throws SQLException {
+        stmt.executeUpdate("DELETE FROM " + TABLE + " WHERE platform = '" + m.platform() + "'");
+        stmt.executeUpdate(delta(m, m.table(), 1));
+    }
+
+    private static void createTriggers(Statement stmt, JobAnalytics.Mapping m) throws SQLException {
+        List<String> columns = referencedColumns(stmt, m);
+        String name = "trg_" + m.table() + "_rollup";
+        String changed = columns.stream().map(c -> "OLD." + c + " IS NOT NEW." + c).collect(Collectors.joining(" OR "));
+
+        stmt.execute("DROP TRIGGER IF EXISTS " + name + "_insert");
+        stmt.execute("DROP TRIGGER IF EXISTS " + name + "_update");
+        stmt.execute("DROP TRIGGER IF EXISTS " + name + "_delete");
+        stmt.execute("CREATE TRIGGER " + name + "_insert AFTER INSERT ON " + m.table() + " BEGIN "
+                + delta(m, row("NEW", columns), 1) + "; END");
+        // 只有统计相关的列真正变化时才调整汇总
+        stmt.execute("CREATE TRIGGER " + name + "_update AFTER UPDATE OF " + String.join(", ", columns)
+                + " ON " + m.table() + " WHEN " + changed + " BEGIN "
+                + delta(m, row("OLD", columns), -1) + "; "
+                + recomputeMax(m, row("OLD", columns)) + "; "
+                + delta(m, row("NEW", columns), 1) + "; END");
+        stmt.execute("CREATE TRIGGER " + name + "_delete AFTER DELETE ON " + m.table() + " BEGIN "
+                + delta(m, row("OLD", columns), -1) + "; "
+                + recomputeMax(m, row("OLD", columns)) + "; END");
+    }
+
+    /**
+     * 统计表达式中用到的列（触发器只需取这些列的 OLD/NEW 值）
+     */
+    private static List<String> referencedColumns(Statement stmt, JobAnalytics.Mapping m) throws SQLException {
+        String expressions = String.join(" ", m.statusLabel(), nonNull(m.city()), nonNull(m.industry()),
+                nonNull(m.company()), nonNull(m.experience()), nonNull(m.degree()), m.timeColumn(),
+                nonNull(m.hrColumn()), nonNull(m.hrActive()), "median_k");
+        List<String> columns = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + m.table() + ")")) {
+            while (rs.next()) {
+                String column = rs.getString("name");
+                if (Pattern.compile("\\b" + Pattern.quote(column) + "\\b").matcher(expressions).find()) {
+                    columns.add(column);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String row(String alias, List<String> columns) {
+        return "(SELECT " + columns.stream().map(c -> alias + "." + c + " AS " + c).collect(Collectors.joining(", ")) + ")";
+    }
+
+    /**
+     * 由 source（数据表或触发器中的单行）按维度分组后累加到汇总表，sign 为 -1 时扣减
+     */
+    private static String delta(JobAnalytics.Mapping m, String source, int sign) {
+        String day = "COALESCE(" + JobAnalytics.dayExpression(m.timeColumn()) + ", '')";
+        List<String> parts = new ArrayList<>();
+        parts.add("SELECT " + day + " AS day, '" + STATUS + "' AS dimension, " + label(m.statusLabel())
+                + " AS value, NULL AS k FROM " + source);
+        dimension(parts, day, CITY, m.city(), source);
+        dimension(parts, day, INDUSTRY, m.industry(), source);
+        dimension(parts, day, COMPANY, m.company(), source);
+        dimension(parts, day, EXPERIENCE, m.experience(), source);
+        dimension(parts, day, DEGREE, m.degree(), source);
+        if (m.hrColumn() != null) {
+            parts.add("SELECT " + day + ", '" + HR + "', " + label(m.hrColumn()) + ", NULL FROM " + source
+                    + " WHERE " + m.hrActive());
+        }
+        parts.add("SELECT " + day + ", '" + SALARY + "', CAST(CAST(median_k / 5 AS INTEGER) AS TEXT), median_k FROM "
+                + source + " WHERE median_k IS NOT NULL");
+
+        return "INSERT INTO " + TABLE + " (platform, day, dimension, value, cnt, sum_k, max_k) "
+                + "SELECT '" + m.platform() + "', day, dimension, value, " + sign + " * COUNT(*), "
+                + sign + " * TOTAL(k), MAX(k) FROM (" + String.join(" UNION ALL ", parts) + ") "
+                // WHERE true 用于消除 INSERT ... SELECT 与 ON CONFLICT 的语法歧义
+                + "WHERE true GROUP BY day, dimension, value "
+                + "ON CONFLICT (platform, day, dimension, value) DO UPDATE SET "
+                + "cnt = cnt + excluded.cnt, "
+                + "sum_k = sum_k + excluded.sum_k, "
+                + "max_k = MAX(COALESCE(max_k, excluded.max_k), COALESCE(excluded.max_k, max_k))";
+    }
+
+    /**
+     * 扣减 source 后重算其所在薪资档的最大值：仅当移除的中位数K不小于该档当前最大值时执行，
+     * 触发器执行时数据表已反映本次变更，按档位区间查询可走 median_k 索引
+     */
+    private static String recomputeMax(JobAnalytics.Mapping m, String source) {
+        String day = "COALESCE(" + JobAnalytics.dayExpression(m.timeColumn()) + ", '')";
+        String low = "CAST(" + TABLE + ".value AS INTEGER) * 5";
+        return "UPDATE " + TABLE + " SET max_k = (SELECT MAX(median_k) FROM " + m.table()
+                + " WHERE median_k >= " + low + " AND median_k < " + low + " + 5 AND " + day + " = " + TABLE + ".day) "
+                + "WHERE platform = '" + m.platform() + "' AND dimension = '" + SALARY + "' AND EXISTS (SELECT 1 FROM " + source
+                + " WHERE median_k IS NOT NULL AND median_k >= " + TABLE + ".max_k"
+                + " AND CAST(CAST(median_k / 5 AS INTEGER) AS TEXT) = " + TABLE + ".value AND " + day + " = " + TABLE + ".day)";
+    }
+
+    private static void dimension(List<String> parts, String day, String dimension, String column, String source) {
+        if (column != null) {
+            parts.add("SELECT " + day + ", '" + dimension + "', " + label(column) + ", NULL FROM " + source);
+        }
+    }
+
+    private static String label(String expression) {
+        return "TRIM(COALESCE(" + expression + ", ''))";
+    }
+
+    private static String nonNull(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -11,15 +11,13 @@ import com.getjobs.worker.zhilian.ZhilianConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-import jakarta.annotation.PostConstruct;
-import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.Statement;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -29,10 +27,17 @@ import java.util.stream.Collectors;
 public class ZhilianService {
     private final ZhilianConfigMapper zhilianConfigMapper;
     private final ZhilianOptionMapper zhilianOptionMapper;
+
+    // 选项字典快照（zhilian_option）
+    private final SnapshotCache<OptionDictionary<ZhilianOptionEntity>> options =
+            new SnapshotCache<>("zhilian_option", this::loadOptions);
     private final ZhilianJobDataMapper zhilianJobDataMapper;
-    private final DataSource dataSource;
+    private final GroupCommitWriter groupCommitWriter;
+    private final JobAnalytics jobAnalytics;
+    private final SeenJobIndex seenJobIndex;
 
     /** 获取第一条配置（通常只有一条） */
+    @Transactional(readOnly = true)
     public ZhilianConfigEntity getFirstConfig() {
         QueryWrapper<ZhilianConfigEntity> wrapper = new QueryWrapper<>();
         wrapper.last("LIMIT 1");
@@ -146,6 +151,7 @@ public class ZhilianService {
 
     // ========== Option 辅助 ==========
 
+    @Transactional(readOnly = true)
     public List<ZhilianOptionEntity> getOptionsByType(String type) {
         return zhilianOptionMapper.selectList(
                 new QueryWrapper<ZhilianOptionEntity>()
@@ -154,22 +160,17 @@ public class ZhilianService {
         );
     }
 
+    private OptionDictionary<ZhilianOptionEntity> loadOptions() {
+        return OptionDictionary.of(zhilianOptionMapper.selectList(new QueryWrapper<ZhilianOptionEntity>().orderByAsc("id")),
+                ZhilianOptionEntity::getType, ZhilianOptionEntity::getCode, ZhilianOptionEntity::getName);
+    }
+
     public ZhilianOptionEntity getOptionByTypeAndCode(String type, String code) {
-        return zhilianOptionMapper.selectOne(
-                new QueryWrapper<ZhilianOptionEntity>()
-                        .eq("type", type)
-                        .eq("code", code)
-                        .last("LIMIT 1")
-        );
+        return options.get().byCode(type, code);
     }
 
     public String getCodeByTypeAndName(String type, String name) {
-        ZhilianOptionEntity e = zhilianOptionMapper.selectOne(
-                new QueryWrapper<ZhilianOptionEntity>()
-                        .eq("type", type)
-                        .eq("name", name)
-                        .last("LIMIT 1")
-        );
+        ZhilianOptionEntity e = options.get().byName(type, name);
         return e == null ? null : e.getCode();
     }
 
@@ -180,30 +181,7 @@ public class ZhilianService {
 
     // ==================== 数据表初始化与数据操作 ====================
 
-    @PostConstruct
-    public void ensureZhilianDataTableExists() {
-        String createSql = "CREATE TABLE IF NOT EXISTS zhilian_data (" +
-                " id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                " job_id VARCHAR(64)," +
-                " job_title VARCHAR(200)," +
-                " job_link VARCHAR(300)," +
-                " salary VARCHAR(100)," +
-                " location VARCHAR(100)," +
-                " experience VARCHAR(100)," +
-                " degree VARCHAR(100)," +
-                " company_name VARCHAR(200)," +
-                " delivery_status VARCHAR(20) DEFAULT '未投递'," +
-                " create_time DATETIME," +
-                " update_time DATETIME" +
-                ")";
-        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
-            stmt.execute(createSql);
-            log.info("确保 zhilian_data 表已存在");
-        } catch (Exception e) {
-            log.warn("创建 zhilian_data 表失败: {}", e.getMessage());
-        }
-    }
-
+    @Transactional(readOnly = true)
     public boolean existsByJobId(String jobId) {
         if (jobId == null || jobId.trim().isEmpty()) return false;
         QueryWrapper<ZhilianJobDataEntity> w = new QueryWrapper<>();
@@ -212,6 +190,7 @@ public class ZhilianService {
         return c != null && c > 0;
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByTitleAndCompany(String jobTitle, String companyName) {
         if (jobTitle == null || companyName == null) return false;
         QueryWrapper<ZhilianJobDataEntity> w = new QueryWrapper<>();
@@ -220,35 +199,79 @@ public class ZhilianService {
         return c != null && c > 0;
     }
 
-    public void insertJob(ZhilianJobDataEntity entity) {
-        if (entity == null) return;
+    public CompletableFuture<Void> insertJob(ZhilianJobDataEntity entity) {
+        if (entity == null) return CompletableFuture.completedFuture(null);
+        LocalDateTime now = LocalDateTime.now();
+        entity.setCreateTime(now);
+        entity.setUpdateTime(now);
+        if (entity.getDeliveryStatus() == null) entity.setDeliveryStatus("未投递");
+        applySalary(entity);
+        return groupCommitWriter.submit("zhilian", null, conn -> zhilianJobDataMapper.insert(entity))
+                .thenRun(() -> {
+                    if (SeenJobIndex.isSettledStatus(entity.getDeliveryStatus())) {
+                        seenJobIndex.markSettled(SeenJobIndex.ZHILIAN, entity.getJobId());
+                    } else {
+                        seenJobIndex.markStored(SeenJobIndex.ZHILIAN, entity.getJobId());
+                    }
+                });
+    }
+
+    /**
+     * job_id 不存在时插入：去重查询在写操作内执行，与插入处于同一事务，避免排队期间重复入库
+     *
+     * @return 是否实际插入
+     */
+    public CompletableFuture<Boolean> insertJobIfAbsent(ZhilianJobDataEntity entity) {
+        if (entity == null || entity.getJobId() == null) return CompletableFuture.completedFuture(false);
         LocalDateTime now = LocalDateTime.now();
         entity.setCreateTime(now);
         entity.setUpdateTime(now);
         if (entity.getDeliveryStatus() == null) entity.setDeliveryStatus("未投递");
-        zhilianJobDataMapper.insert(entity);
+        applySalary(entity);
+        java.util.concurrent.atomic.AtomicBoolean inserted = new java.util.concurrent.atomic.AtomicBoolean();
+        return groupCommitWriter.submit("zhilian", null, conn -> {
+                    QueryWrapper<ZhilianJobDataEntity> w = new QueryWrapper<>();
+                    w.eq("job_id", entity.getJobId()).last("LIMIT 1");
+                    Long c = zhilianJobDataMapper.selectCount(w);
+                    if (c == null || c == 0) {
+                        zhilianJobDataMapper.insert(entity);
+                        inserted.set(true);
+                    }
+                })
+                .thenApply(v -> {
+                    if (inserted.get()) {
+                        if (SeenJobIndex.isSettledStatus(entity.getDeliveryStatus())) {
+                            seenJobIndex.markSettled(SeenJobIndex.ZHILIAN, entity.getJobId());
+                        } else {
+                            seenJobIndex.markStored(SeenJobIndex.ZHILIAN, entity.getJobId());
+                        }
+                    }
+                    return inserted.get();
+                });
     }
 
-    public void markDeliveredByJobId(String jobId) {
-        if (jobId == null || jobId.trim().isEmpty()) return;
+    public CompletableFuture<Void> markDeliveredByJobId(String jobId) {
+        if (jobId == null || jobId.trim().isEmpty()) return CompletableFuture.completedFuture(null);
         ZhilianJobDataEntity upd = new ZhilianJobDataEntity();
         upd.setDeliveryStatus("已投递");
         upd.setUpdateTime(LocalDateTime.now());
         com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper<ZhilianJobDataEntity> uw =
                 new com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper<>();
         uw.eq("job_id", jobId);
-        zhilianJobDataMapper.update(upd, uw);
+        return groupCommitWriter.submit("zhilian", "delivered:" + jobId, conn -> zhilianJobDataMapper.update(upd, uw))
+                .thenRun(() -> seenJobIndex.markSettled(SeenJobIndex.ZHILIAN, jobId));
     }
 
-    public void markDeliveredByTitleAndCompany(String jobTitle, String companyName) {
-        if (jobTitle == null || companyName == null) return;
+    public CompletableFuture<Void> markDeliveredByTitleAndCompany(String jobTitle, String companyName) {
+        if (jobTitle == null || companyName == null) return CompletableFuture.completedFuture(null);
         ZhilianJobDataEntity upd = new ZhilianJobDataEntity();
         upd.setDeliveryStatus("已投递");
         upd.setUpdateTime(LocalDateTime.now());
         com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper<ZhilianJobDataEntity> uw =
                 new com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper<>();
         uw.eq("job_title", jobTitle).eq("company_name", companyName);
-        zhilianJobDataMapper.update(upd, uw);
+        return groupCommitWriter.submit("zhilian", "delivered:" + jobTitle + "|" + companyName,
+                conn -> zhilianJobDataMapper.update(upd, uw));
     }
 
     // ==================== 投递分析（Dashboard）与列表 ====================
@@ -306,6 +329,22 @@ public class ZhilianService {
         return info;
     }
 
+    /** 将薪资文本换算为物化薪资列 */
+    public static SalaryColumns salaryColumns(String salary) {
+        SalaryInfo info = parseSalary(salary);
+        return info == null ? SalaryColumns.EMPTY : SalaryColumns.of(info.minK, info.maxK, info.months);
+    }
+
+    /** 入库前填充物化薪资列 */
+    static void applySalary(ZhilianJobDataEntity entity) {
+        SalaryColumns c = salaryColumns(entity.getSalary());
+        entity.setMinK(c.minK());
+        entity.setMaxK(c.maxK());
+        entity.setMedianK(c.medianK());
+        entity.setMonths(c.months());
+        entity.setAnnualTotal(c.annualTotal());
+    }
+
     /** KPI 指标 */
     public static class Kpi {
         public long total;
@@ -335,7 +374,16 @@ public class ZhilianService {
     /** 统计响应 */
     public static class StatsResponse { public Kpi kpi; public Charts charts; }
 
+    /** 智联统计列映射（无行业与 HR 字段，维度为空时不计入） */
+    public static final JobAnalytics.Mapping STATS_MAPPING = new JobAnalytics.Mapping(
+            "zhilian", "zhilian_data", "delivery_status", "delivery_status", s -> s,
+            "location", null, "company_name", "experience", "degree", "create_time",
+            null, null,
+            List.of("company_name", "job_title"), true,
+            List.of());
+
     /** 获取智联投递统计（带筛选） */
+    @Transactional(readOnly = true)
     public StatsResponse getZhilianStats(
             List<String> statuses,
             String location,
@@ -345,117 +393,25 @@ public class ZhilianService {
             Double maxK,
             String keyword
     ) {
-        QueryWrapper<ZhilianJobDataEntity> wrapper = new QueryWrapper<>();
-        if (statuses != null && !statuses.isEmpty()) {
-            wrapper.in("delivery_status", statuses.stream().filter(Objects::nonNull).map(String::trim).collect(Collectors.toSet()));
-        }
-        if (location != null && !location.trim().isEmpty()) wrapper.eq("location", location.trim());
-        if (experience != null && !experience.trim().isEmpty()) wrapper.eq("experience", experience.trim());
-        if (degree != null && !degree.trim().isEmpty()) wrapper.eq("degree", degree.trim());
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String kw = keyword.trim();
-            wrapper.and(w -> w.like("company_name", kw)
-                    .or().like("job_title", kw));
-        }
-
-        wrapper.orderByDesc("create_time");
-        List<ZhilianJobDataEntity> all = zhilianJobDataMapper.selectList(wrapper);
-
-        List<ZhilianJobDataEntity> filtered = new ArrayList<>();
-        for (ZhilianJobDataEntity e : all) {
-            if (minK == null && maxK == null) {
-                filtered.add(e);
-            } else {
-                SalaryInfo info = parseSalary(e.getSalary());
-                if (info == null || info.medianK == null) continue;
-                boolean ok = true;
-                if (minK != null) ok = ok && (info.medianK >= minK);
-                if (maxK != null) ok = ok && (info.medianK <= maxK);
-                if (ok) filtered.add(e);
-            }
-        }
+        JobAnalytics.Result r = jobAnalytics.aggregate(STATS_MAPPING,
+                new JobAnalytics.Filter(statuses, location, experience, degree, minK, maxK, keyword, null));
 
         Kpi kpi = new Kpi();
-        kpi.total = filtered.size();
-        kpi.delivered = filtered.stream().filter(e -> "已投递".equals(nullSafe(e.getDeliveryStatus()))).count();
-        kpi.pending = filtered.stream().filter(e -> "未投递".equals(nullSafe(e.getDeliveryStatus()))).count();
-        kpi.filtered = filtered.stream().filter(e -> "已过滤".equals(nullSafe(e.getDeliveryStatus()))).count();
-        kpi.failed = filtered.stream().filter(e -> "投递失败".equals(nullSafe(e.getDeliveryStatus()))).count();
-        {
-            List<Double> medians = new ArrayList<>();
-            for (ZhilianJobDataEntity e : filtered) {
-                SalaryInfo info = parseSalary(e.getSalary());
-                if (info == null || info.medianK == null) continue;
-                medians.add(info.medianK);
-            }
-            kpi.avgMonthlyK = medians.isEmpty() ? null : medians.stream().mapToDouble(d -> d).average().orElse(0.0);
-        }
+        kpi.total = r.total();
+        kpi.delivered = r.delivered();
+        kpi.pending = r.pending();
+        kpi.filtered = r.filtered();
+        kpi.failed = r.failed();
+        kpi.avgMonthlyK = r.avgMonthlyK();
 
         Charts charts = new Charts();
-        charts.byStatus = new ArrayList<>();
-        charts.byCity = new ArrayList<>();
-        charts.byCompany = new ArrayList<>();
-        charts.byExperience = new ArrayList<>();
-        charts.byDegree = new ArrayList<>();
-        charts.salaryBuckets = new ArrayList<>();
-        charts.dailyTrend = new ArrayList<>();
-
-        Map<String, Long> byStatus = filtered.stream()
-                .collect(Collectors.groupingBy(e -> nullSafe(e.getDeliveryStatus()), Collectors.counting()));
-        byStatus.forEach((k, v) -> charts.byStatus.add(new NameValue(k, v)));
-
-        Map<String, Long> byCity = filtered.stream()
-                .filter(e -> e.getLocation() != null && !e.getLocation().trim().isEmpty())
-                .collect(Collectors.groupingBy(e -> nullSafe(e.getLocation()), Collectors.counting()));
-        byCity.forEach((k, v) -> charts.byCity.add(new NameValue(k, v)));
-
-        Map<String, Long> byCompany = filtered.stream()
-                .filter(e -> e.getCompanyName() != null && !e.getCompanyName().trim().isEmpty())
-                .collect(Collectors.groupingBy(e -> nullSafe(e.getCompanyName()), Collectors.counting()));
-        byCompany.forEach((k, v) -> charts.byCompany.add(new NameValue(k, v)));
-
-        Map<String, Long> byExp = filtered.stream()
-                .filter(e -> e.getExperience() != null && !e.getExperience().trim().isEmpty())
-                .collect(Collectors.groupingBy(e -> nullSafe(e.getExperience()), Collectors.counting()));
-        byExp.forEach((k, v) -> charts.byExperience.add(new NameValue(k, v)));
-
-        Map<String, Long> byDegree = filtered.stream()
-                .filter(e -> e.getDegree() != null && !e.getDegree().trim().isEmpty())
-                .collect(Collectors.groupingBy(e -> nullSafe(e.getDegree()), Collectors.counting()));
-        byDegree.forEach((k, v) -> charts.byDegree.add(new NameValue(k, v)));
-
-        // 每日趋势（按日期聚合 create_time）
-        Map<String, Long> byDay = filtered.stream()
-                .filter(e -> e.getCreateTime() != null)
-                .collect(Collectors.groupingBy(e -> e.getCreateTime().toLocalDate().toString(), Collectors.counting()));
-        byDay.entrySet().stream().sorted(Map.Entry.comparingByKey())
-                .forEach(en -> charts.dailyTrend.add(new NameValue(en.getKey(), en.getValue())));
-
-        // 薪资桶
-        long b0_10=0,b10_15=0,b15_20=0,b20_top=0,b_ge_top=0;
-        double maxMedian = 0.0;
-        List<Double> medians = new ArrayList<>();
-        for (ZhilianJobDataEntity e : filtered) {
-            SalaryInfo info = parseSalary(e.getSalary());
-            if (info == null || info.medianK == null) continue;
-            double m = info.medianK;
-            medians.add(m);
-            if (m > maxMedian) maxMedian = m;
-        }
-        int topEdge = (int) Math.ceil(maxMedian / 5.0) * 5;
-        if (topEdge <= 20) topEdge = 25;
-        for (double m : medians) {
-            if (m < 10) b0_10++;
-            else if (m < 15) b10_15++;
-            else if (m < 20) b15_20++;
-            else if (m < topEdge) b20_top++;
-            else b_ge_top++;
-        }
-        charts.salaryBuckets.add(new BucketValue("0-10K", b0_10));
-        charts.salaryBuckets.add(new BucketValue("10-15K", b10_15));
-        charts.salaryBuckets.add(new BucketValue("15-20K", b15_20));
-        charts.salaryBuckets.add(new BucketValue("20-" + topEdge + "K", b20_top));
-        charts.salaryBuckets.add(new BucketValue(">=" + topEdge + "K", b_ge_top));
+        charts.byStatus = toNameValues(r.byStatus());
+        charts.byCity = toNameValues(r.byCity());
+        charts.byCompany = toNameValues(r.byCompany());
+        charts.byExperience = toNameValues(r.byExperience());
+        charts.byDegree = toNameValues(r.byDegree());
+        charts.salaryBuckets = r.salaryBuckets().stream().map(c -> new BucketValue(c.name(), c.value())).collect(Collectors.toList());
+        charts.dailyTrend = toNameValues(r.dailyTrend());
 
         StatsResponse resp = new StatsResponse();
         resp.kpi = kpi;
@@ -463,7 +419,12 @@ public class ZhilianService {
         return resp;
     }
 
+    private static List<NameValue> toNameValues(List<JobAnalytics.Count> counts) {
+        return counts.stream().map(c -> new NameValue(c.name(), c.value())).collect(Collectors.toList());
+    }
+
     /** 列表查询（分页 + 筛选 + 关键词 + 薪资区间基于中位数K） */
+    @Transactional(readOnly = true)
     public PagedResult listZhilianJobs(
             List<String> statuses,
             String location,
@@ -474,6 +435,26 @@ public class ZhilianService {
             String keyword,
             int page,
             int size
+    ) {
+        return listZhilianJobs(statuses, location, experience, degree, minK, maxK, keyword, page, size, null);
+    }
+
+    /**
+     * 列表查询：筛选与薪资区间均在 SQL 中完成；传入 cursor 时按 (create_time, id) 键集分页
+     * 关键词不少于 3 个字符时经全文索引检索，结果按相关度排序并按页码分页（忽略 cursor）
+     */
+    @Transactional(readOnly = true)
+    public PagedResult listZhilianJobs(
+            List<String> statuses,
+            String location,
+            String experience,
+            String degree,
+            Double minK,
+            Double maxK,
+            String keyword,
+            int page,
+            int size,
+            Long cursor
     ) {
         if (page <= 0) page = 1;
         if (size <= 0) size = 20;
@@ -486,38 +467,45 @@ public class ZhilianService {
         if (experience != null && !experience.trim().isEmpty()) wrapper.eq("experience", experience.trim());
         if (degree != null && !degree.trim().isEmpty()) wrapper.eq("degree", degree.trim());
 
-        if (keyword != null && !keyword.trim().isEmpty()) {
+        String match = FullTextIndex.matchQuery(keyword);
+        if (match == null && keyword != null && !keyword.trim().isEmpty()) {
             String kw = keyword.trim();
             wrapper.and(w -> w.like("company_name", kw)
                     .or().like("job_title", kw));
         }
 
-        wrapper.orderByDesc("create_time");
-        List<ZhilianJobDataEntity> all = zhilianJobDataMapper.selectList(wrapper);
-
-        List<ZhilianJobDataEntity> filtered = new ArrayList<>();
-        for (ZhilianJobDataEntity e : all) {
-            if (minK == null && maxK == null) {
-                filtered.add(e);
-            } else {
-                SalaryInfo info = parseSalary(e.getSalary());
-                if (info == null || info.medianK == null) continue;
-                boolean ok = true;
-                if (minK != null) ok = ok && (info.medianK >= minK);
-                if (maxK != null) ok = ok && (info.medianK <= maxK);
-                if (ok) filtered.add(e);
-            }
+        // 薪资区间（中位数K，面议/不可解析的 median_k 为 NULL，自然被排除）
+        if (minK != null) wrapper.ge("median_k", minK);
+        if (maxK != null) wrapper.le("median_k", maxK);
+
+        if (match != null) {
+            Long total = zhilianJobDataMapper.countByKeyword(match, wrapper);
+            wrapper.orderByAsc("fts_rank").orderByDesc("create_time").orderByDesc("id");
+            wrapper.last("LIMIT " + size + " OFFSET " + (long) (page - 1) * size);
+            PagedResult pr = new PagedResult();
+            pr.items = zhilianJobDataMapper.selectByKeyword(match, wrapper);
+            pr.total = total != null ? total : 0;
+            pr.page = page;
+            pr.size = size;
+            return pr;
         }
 
-        int total = filtered.size();
-        int from = Math.max(0, (page - 1) * size);
-        int to = Math.min(total, from + size);
+        Long total = zhilianJobDataMapper.selectCount(wrapper);
+
+        if (cursor != null) {
+            wrapper.apply("(create_time < (SELECT create_time FROM zhilian_data WHERE id = {0})"
+                    + " OR (create_time = (SELECT create_time FROM zhilian_data WHERE id = {0}) AND id < {0}))", cursor);
+        }
+        wrapper.orderByDesc("create_time").orderByDesc("id");
+        wrapper.last(cursor != null ? "LIMIT " + size : "LIMIT " + size + " OFFSET " + (long) (page - 1) * size);
+        List<ZhilianJobDataEntity> items = zhilianJobDataMapper.selectList(wrapper);
 
         PagedResult pr = new PagedResult();
-        pr.items = filtered.subList(from, to);
-        pr.total = total;
+        pr.items = items;
+        pr.total = total != null ? total : 0;
         pr.page = page;
         pr.size = size;
+        pr.nextCursor = items.size() < size ? null : items.get(items.size() - 1).getId();
         return pr;
     }
 
@@ -526,7 +514,6 @@ public class ZhilianService {
         public long total;
         public int page;
         public int size;
+        public Long nextCursor; // 下一页游标（本页最后一条的 id），没有更多数据时为 null
     }
-
-    private static String nullSafe(String s) { return s == null ? "" : s.trim(); }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.getjobs.worker.boss;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Boss AI 打招呼语预生成
+ * 岗位详情解析完成并通过过滤后立即在后台线程生成打招呼语，与打开详情页、点击“立即沟通”、等待聊天框并行；
+ * 聊天框就绪时通常已生成完毕，直接取用。
+ * 每次投递运行一个实例：线程数与排队数有界，排满时不预生成，到时再同步生成；
+ * 岗位后续被跳过时取消对应任务，运行结束时取消全部未取用的任务。
+ */
+@Slf4j
+public class AiGreetingPrefetcher implements AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+
+    // 岗位 -> 预生成任务
+    private final Map<String, Future<String>> pending = new ConcurrentHashMap<>();
+
+    private int submitted = 0;
+    private int readyOnTake = 0;
+    private int cancelled = 0;
+
+    public AiGreetingPrefetcher(int threads, int queueCapacity) {
+        int n = Math.max(1, threads);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+            Thread t = new Thread(r, "boss-ai-greeting-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 开始为岗位生成打招呼语（同一岗位已有任务时不重复提交）
+     */
+    public void submit(String jobKey, Supplier<String> generator) {
+        if (jobKey == null || pending.containsKey(jobKey)) {
+            return;
+        }
+        try {
+            pending.put(jobKey, executor.submit(generator::get));
+            submitted++;
+        } catch (RejectedExecutionException e) {
+            log.debug("AI 打招呼语预生成已排满，岗位 {} 将在聊天框就绪后同步生成", jobKey);
+        }
+    }
+
+    /**
+     * 取出岗位的打招呼语：有预生成任务时等待其完成，否则同步生成
+     */
+    public String take(String jobKey, Supplier<String> generator) {
+        Future<String> future = jobKey != null ? pending.remove(jobKey) : null;
+        if (future == null) {
+            return generator.get();
+        }
+        if (future.isDone()) {
+            readyOnTake++;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("AI 打招呼语预生成失败: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 岗位不再投递：取消尚未取用的任务
+     */
+    public void cancel(String jobKey) {
+        Future<String> future = jobKey != null ? pending.remove(jobKey) : null;
+        if (future != null && future.cancel(true)) {
+            cancelled++;
+        }
+    }
+
+    /**
+     * 取消全部未取用的任务并关闭线程池
+     */
+    @Override
+    public void close() {
+        pending.keySet().forEach(this::cancel);
+        executor.shutdownNow();
+        if (submitted > 0) {
+            log.info("AI 打招呼语预生成：提交 {} 个，取用时已完成 {} 个，取消 {} 个", submitted, readyOnTake, cancelled);
+        }
+    }
+}
@@ -3,17 +3,20 @@ package com.getjobs.worker.boss;
 import com.getjobs.application.entity.AiEntity;
 import com.getjobs.application.service.AiService;
 import com.getjobs.application.service.BossService;
+import com.getjobs.application.service.SeenJobIndex;
 import com.getjobs.worker.utils.Job;
 import com.getjobs.worker.utils.JobUtils;
 import com.getjobs.worker.utils.PlaywrightUtil;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.WaitForSelectorState;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
@@ -48,6 +51,7 @@ public class Boss {
     private BossConfig config;
     private final BossService bossService;
     private final AiService aiService;
+    private final SeenJobIndex seenJobIndex;
     private Set<String> blackCompanies;
     private Set<String> blackRecruiters;
     private Set<String> blackJobs;
@@ -60,6 +64,40 @@ public class Boss {
 
     private final List<Job> resultList = new ArrayList<>();
 
+    // 详情标签池大小
+    @Value("${playwright.boss.detail-tabs:2}")
+    private int detailTabs;
+
+    // 单个详情标签最大复用次数，达到后重建（<=0 不限制）
+    @Value("${playwright.boss.detail-tab-max-uses:50}")
+    private int detailTabMaxUses;
+
+    // 本次投递使用的详情标签池
+    private DetailTabPool detailTabPool;
+
+    // AI 打招呼语预生成线程数
+    @Value("${ai.prefetch.threads:2}")
+    private int aiPrefetchThreads;
+
+    // AI 打招呼语预生成最多排队的岗位数
+    @Value("${ai.prefetch.queue-capacity:4}")
+    private int aiPrefetchQueueCapacity;
+
+    // 本次投递的 AI 打招呼语预生成
+    private AiGreetingPrefetcher aiGreetings;
+
+    // 搜索列表接口
+    private static final String JOB_LIST_API = "/wapi/zpgeek/search/joblist.json";
+
+    // 当前关键词从列表接口收集到的岗位（encryptJobId -> 岗位，保持接口返回顺序）
+    private final Map<String, BossSearchJob> harvestedJobs = new LinkedHashMap<>();
+
+    // 列表接口最近一页是否声明还有下一页
+    private boolean listHasMore = false;
+
+    // 列表接口响应监听（页面本身发起的请求，解析后收集岗位）
+    private final java.util.function.Consumer<Response> jobListListener = this::onJobListResponse;
+
     /**
      * 进度回调接口
      */
@@ -71,8 +109,6 @@ public class Boss {
     // 通过 Lombok @RequiredArgsConstructor 使用构造器注入 bossService 与 aiService
 
     public void prepare() {
-        // 调整 boss_data 表结构：将 encrypt_id、encrypt_user_id 前置
-        try { bossService.ensureBossDataColumnOrder(); } catch (Throwable ignore) {}
         // 从数据库加载黑名单
         this.blackCompanies = bossService.getBlackCompanies();
         this.blackRecruiters = bossService.getBlackRecruiters();
@@ -89,16 +125,27 @@ public class Boss {
      * 执行投递
      */
     public int execute() {
-        for (String cityCode : config.getCityCode()) {
-            if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
-                progressCallback.accept("用户取消投递", 0, 0);
-                break;
-            }
-            postJobByCity(cityCode);
-            if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
-                progressCallback.accept("用户取消投递", 0, 0);
-                break;
+        detailTabPool = new DetailTabPool(page.context(), detailTabs, detailTabMaxUses);
+        aiGreetings = new AiGreetingPrefetcher(aiPrefetchThreads, aiPrefetchQueueCapacity);
+        page.onResponse(jobListListener);
+        try {
+            for (String cityCode : config.getCityCode()) {
+                if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
+                    progressCallback.accept("用户取消投递", 0, 0);
+                    break;
+                }
+                postJobByCity(cityCode);
+                if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
+                    progressCallback.accept("用户取消投递", 0, 0);
+                    break;
+                }
             }
+        } finally {
+            try { page.offResponse(jobListListener); } catch (Exception ignore) {}
+            detailTabPool.close();
+            detailTabPool = null;
+            aiGreetings.close();
+            aiGreetings = null;
         }
         return resultList.size();
     }
@@ -115,7 +162,7 @@ public class Boss {
      */
     public Map<String, Set<String>> updateBlacklistFromChats() {
         page.navigate("https://www.zhipin.com/web/geek/chat");
-        PlaywrightUtil.sleep(3);
+        PlaywrightUtil.waitForSelector(page, CHAT_LIST_ITEM, 3000);
 
         int newBlacklistCount = 0;
         boolean shouldBreak = false;
@@ -156,7 +203,7 @@ public class Boss {
                                 break;
                             }
                             log.info("页面元素已变更，正在重试第{}次获取元素文本...", retryCount);
-                            PlaywrightUtil.sleep(1);
+                            PlaywrightUtil.waitForDomStable(page, 200, 1000);
                         }
                     }
 
@@ -165,7 +212,7 @@ public class Boss {
                                 || message.contains("遗憾") || message.contains("需要本") || message.contains("对不");
                         boolean nomatch = message.contains("不是") || message.contains("不生");
                         if (match && !nomatch) {
-                            if (blackCompanies.stream().anyMatch(companyName::contains)) {
+                            if (bossService.getBlacklistMatcher("company").matches(companyName)) {
                                 continue;
                             }
                             companyName = companyName.replaceAll("\\.{3}", "");
@@ -218,56 +265,37 @@ public class Boss {
             String encodedKeyword = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
 
             String url = searchUrl + (searchUrl.contains("?") ? "&" : "?") + "query=" + encodedKeyword;
-            page.navigate(url, new Page.NavigateOptions()
+            // 导航时同步等待搜索列表接口首屏返回，岗位数据直接取自接口JSON
+            harvestedJobs.clear();
+            listHasMore = false;
+            PlaywrightUtil.waitForResponse(page, JOB_LIST_API, () -> page.navigate(url, new Page.NavigateOptions()
                     .setWaitUntil(com.microsoft.playwright.options.WaitUntilState.DOMCONTENTLOADED)
-                    .setTimeout(15_000));
+                    .setTimeout(15_000)), 15_000, 0);
             // 等待列表容器出现，确保页面完成首屏渲染
             page.waitForSelector("//ul[contains(@class, 'rec-job-list')]", new Page.WaitForSelectorOptions().setTimeout(60_000));
 
-            // 1. 基于 footer 出现滚动到底，确保加载全部岗位
-            int lastCount = -1;
-            int stableTries = 0;
-            for (int i = 0; i < 5000; i++) { // 最多尝试约120次，避免死循环
-                // 停止检查：滚动加载过程中也要及时响应
-                if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
-                    progressCallback.accept("用户取消投递", 0, 0);
-                    return;
-                }
-                Locator footer = page.locator("div#footer, #footer");
-                if (footer.count() > 0 && footer.first().isVisible()) {
-                    break; // 到达页面底部
-                }
-                // 按视口高度的90%渐进滚动，触发懒加载
-                page.evaluate("() => window.scrollBy(0, Math.floor(window.innerHeight * 1.5))");
-
-                // 获取卡片数量变化，判断是否需要强制触底
-                Locator cardsProbe = page.locator("//ul[contains(@class, 'rec-job-list')]//li[contains(@class, 'job-card-box')]");
-                int currentCount = cardsProbe.count();
-                if (currentCount == lastCount) {
-                    stableTries++;
-                } else {
-                    stableTries = 0;
-                }
-                lastCount = currentCount;
-
-                if (stableTries >= 3) { // 连续多次无新增，则强制触底一次
-                    page.evaluate("() => window.scrollTo(0, document.body.scrollHeight)");
-                    // 触底不再等待，继续检测 footer 出现
-                }
+            // 1. 加载全部岗位：接口声明还有下一页时才滚动触底触发翻页；未捕获到接口数据时退回滚动到footer
+            boolean loaded = harvestedJobs.isEmpty() ? scrollUntilFooter() : loadRemainingListPages();
+            if (!loaded) {
+                progressCallback.accept("用户取消投递", 0, 0);
+                return;
             }
             // 统计最终岗位数量
             Locator cardsFinal = page.locator("//ul[contains(@class, 'rec-job-list')]//li[contains(@class, 'job-card-box')]");
             int loadedCount = cardsFinal.count();
-            log.info("【{}】岗位已全部加载，总数:{}", keyword, loadedCount);
+            log.info("【{}】岗位已全部加载，总数:{}（列表接口{}条）", keyword, loadedCount, harvestedJobs.size());
             progressCallback.accept("岗位加载完成：" + keyword, 0, loadedCount);
 
             // 2. 回到页面顶部
             page.evaluate("window.scrollTo(0, 0);");
-            PlaywrightUtil.sleep(1);
+            PlaywrightUtil.waitForDomStable(page, 200, 1000);
 
             // 3. 逐个遍历所有岗位
             Locator cards = page.locator("//ul[contains(@class, 'rec-job-list')]//li[contains(@class, 'job-card-box')]");
             int count = cards.count();
+            // 一次性读取所有卡片对应的岗位ID，用于关联列表接口数据
+            List<String> cardJobIds = readCardJobIds();
+            int skipped = 0;
             for (int i = 0; i < count; i++) {
                 // 检查是否需要停止
                 if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
@@ -275,6 +303,30 @@ public class Boss {
                     return;
                 }
 
+                // 此前运行（或本次其它关键词）中已投递、已过滤的岗位无需再点击
+                String cardJobId = i < cardJobIds.size() ? cardJobIds.get(i) : null;
+                if (seenJobIndex.isSettled(SeenJobIndex.BOSS, cardJobId)) {
+                    skipped++;
+                    continue;
+                }
+
+                // 列表接口已提供公司、岗位与招聘者信息：命中黑名单的岗位无需点击卡片请求详情
+                BossSearchJob listed = cardJobId != null ? harvestedJobs.get(cardJobId) : null;
+                if (listed != null && isFilteredByList(listed)) {
+                    insertListJob(listed, "已过滤");
+                    continue;
+                }
+
+                // 列表字段已满足过滤与投递所需：直接以列表数据入库并打开详情页投递，不再点击卡片请求详情
+                if (!needsDetail(listed)) {
+                    Job job = jobFromList(listed);
+                    insertListJob(listed, "未投递");
+                    progressCallback.accept("正在投递：" + job.getJobName(), i + 1, count);
+                    resumeSubmission(keyword, job, listed.getEncryptJobId(), listDetailUrl(listed));
+                    postCount++;
+                    continue;
+                }
+
                 // 重新获取卡片，避免元素过期
                 cards = page.locator("//ul[contains(@class, 'rec-job-list')]//li[contains(@class, 'job-card-box')]");
                 // 在点击卡片时同步等待岗位详情接口返回，随后解析并入库
@@ -283,27 +335,17 @@ public class Boss {
                     if (i == 0 && count > 1) {
                         // 第一个卡片默认展开不会触发请求：先切到第二个，再切回第一个，并在返回第一个时监听响应
                         final Locator secondCard = cards.nth(1);
-                        secondCard.click();
-                        PlaywrightUtil.sleep(1);
+                        PlaywrightUtil.waitForResponse(page, this::isJobDetailResponse, secondCard::click, 3000, 1000);
                         final Locator firstCard = cards.nth(0);
-                        detailResp = page.waitForResponse(r -> {
-                            try {
-                                return r.url() != null && r.url().contains("/wapi/zpgeek/job/detail.json")
-                                        && "GET".equalsIgnoreCase(r.request().method());
-                            } catch (Throwable ignore) { return false; }
-                        }, firstCard::click);
+                        detailResp = PlaywrightUtil.waitForResponse(page, this::isJobDetailResponse, firstCard::click, 30_000, 0);
                     } else {
                         final Locator cardToClick = cards.nth(i);
-                        detailResp = page.waitForResponse(r -> {
-                            try {
-                                return r.url() != null && r.url().contains("/wapi/zpgeek/job/detail.json")
-                                        && "GET".equalsIgnoreCase(r.request().method());
-                            } catch (Throwable ignore) { return false; }
-                        }, cardToClick::click);
+                        detailResp = PlaywrightUtil.waitForResponse(page, this::isJobDetailResponse, cardToClick::click, 30_000, 0);
                     }
                 } catch (Throwable ignore) {
                 }
-                PlaywrightUtil.sleep(1);
+                // 等待右侧详情面板渲染出"查看更多信息"入口
+                PlaywrightUtil.waitForSelector(page, "a.more-job-btn", WaitForSelectorState.ATTACHED, 1000);
 
                 // 统一从请求返回的 JSON 中获取数据并做过滤
                 String jobName = null;
@@ -314,6 +356,7 @@ public class Boss {
                 String bossActive = null;
                 String bossCompany = null;
                 String bossJobTitle = null;
+                String encryptId = null;
 
                 if (detailResp != null) {
                     try {
@@ -340,6 +383,7 @@ public class Boss {
                             if (!exp.isEmpty()) tags.add(exp);
                             if (!deg.isEmpty()) tags.add(deg);
                             jobDesc = jobInfo.optString("postDescription", "");
+                            encryptId = jobInfo.optString("encryptId", null);
                         }
 
                         if (boss != null) {
@@ -357,9 +401,9 @@ public class Boss {
                 }
 
                 // 过滤（全部基于 JSON 字段），并输出过滤原因
-                if (jobName != null && blackJobs != null && blackJobs.stream().anyMatch(jobName::contains)) {
-                    String term = findMatchedTerm(blackJobs, jobName);
-                    log.info("被过滤：职位黑名单命中 | 公司：{} | 岗位：{} | 关键词：{}", bossCompany != null ? bossCompany : "", jobName, term != null ? term : "");
+                String term = bossService.getBlacklistMatcher("job").find(jobName);
+                if (term != null) {
+                    log.info("被过滤：职位黑名单命中 | 公司：{} | 岗位：{} | 关键词：{}", bossCompany != null ? bossCompany : "", jobName, term);
                     continue;
                 }
                 // HR活跃状态过滤：当开启过滤开关且活跃描述包含“年”时，视为不活跃
@@ -368,14 +412,14 @@ public class Boss {
                     log.info("被过滤：HR活跃状态包含‘年’ | 公司：{} | 岗位：{} | 活跃：{}", bossCompany != null ? bossCompany : "", jobName != null ? jobName : "", bossActive);
                     continue;
                 }
-                if (bossCompany != null && blackCompanies != null && blackCompanies.stream().anyMatch(bossCompany::contains)) {
-                    String term = findMatchedTerm(blackCompanies, bossCompany);
-                    log.info("被过滤：公司黑名单命中 | 公司：{} | 岗位：{} | 关键词：{}", bossCompany, jobName != null ? jobName : "", term != null ? term : "");
+                term = bossService.getBlacklistMatcher("company").find(bossCompany);
+                if (term != null) {
+                    log.info("被过滤：公司黑名单命中 | 公司：{} | 岗位：{} | 关键词：{}", bossCompany, jobName != null ? jobName : "", term);
                     continue;
                 }
-                if (bossJobTitle != null && blackRecruiters != null && blackRecruiters.stream().anyMatch(bossJobTitle::contains)) {
-                    String term = findMatchedTerm(blackRecruiters, bossJobTitle);
-                    log.info("被过滤：招聘者黑名单命中 | 公司：{} | 岗位：{} | 招聘者：{} | 关键词：{}", bossCompany != null ? bossCompany : "", jobName != null ? jobName : "", bossJobTitle, term != null ? term : "");
+                term = bossService.getBlacklistMatcher("recruiter").find(bossJobTitle);
+                if (term != null) {
+                    log.info("被过滤：招聘者黑名单命中 | 公司：{} | 岗位：{} | 招聘者：{} | 关键词：{}", bossCompany != null ? bossCompany : "", jobName != null ? jobName : "", bossJobTitle, term);
                     continue;
                 }
 
@@ -388,20 +432,27 @@ public class Boss {
                 job.setRecruiter(bossName != null ? bossName : "");
                 job.setJobInfo(jobDesc != null ? jobDesc : "");
 
+                // 通过过滤后立即在后台生成 AI 打招呼语，与打开详情页、等待聊天框并行
+                String jobKey = encryptId != null ? encryptId : cardJobId;
+                if (Boolean.TRUE.equals(config.getEnableAI()) && !Boolean.TRUE.equals(config.getDebugger())
+                        && isValidString(job.getJobInfo())) {
+                    aiGreetings.submit(jobKey, () -> generateAiMessage(keyword, job.getJobName(), job.getJobInfo()));
+                }
+
                 // 输出
                 progressCallback.accept("正在投递：" + jobName, i + 1, count);
-                resumeSubmission(keyword, job);
+                resumeSubmission(keyword, job, jobKey, null);
                 postCount++;
 
                 // 为避免点击下面的卡片触发页面刷新：在点击5个卡片之后，每次点击后适度下滑
                 try {
                     if (i >= 5) {
                         page.evaluate("window.scrollBy(0, 140);");
-                        PlaywrightUtil.sleep(1);
+                        PlaywrightUtil.waitForDomStable(page, 150, 1000);
                     }
                 } catch (Throwable ignore) {}
             }
-            log.info("【{}】岗位已投递完毕！已投递岗位数量:{}", keyword, postCount);
+            log.info("【{}】岗位已投递完毕！已投递岗位数量:{}，跳过已处理岗位:{}", keyword, postCount, skipped);
         }
     }
 
@@ -465,11 +516,11 @@ public class Boss {
             String companyName = entity.getCompanyName() != null ? entity.getCompanyName() : "";
             String positionName = entity.getJobName() != null ? entity.getJobName() : "";
             String hrPosition = entity.getHrPosition() != null ? entity.getHrPosition() : "";
-            try {
-                if (blackCompanies != null && blackCompanies.stream().anyMatch(companyName::contains)) filtered = true;
-                if (!filtered && blackJobs != null && blackJobs.stream().anyMatch(positionName::contains)) filtered = true;
-                if (!filtered && blackRecruiters != null && blackRecruiters.stream().anyMatch(hrPosition::contains)) filtered = true;
-            } catch (Throwable ignore) {}
+            if (bossService.getBlacklistMatcher("company").matches(companyName)
+                    || bossService.getBlacklistMatcher("job").matches(positionName)
+                    || bossService.getBlacklistMatcher("recruiter").matches(hrPosition)) {
+                filtered = true;
+            }
 
             // HR活跃状态过滤：开启过滤且活跃描述包含“年”，则标记为已过滤，但仍入库
             if (!filtered && Boolean.TRUE.equals(config.getFilterDeadHR())) {
@@ -483,20 +534,13 @@ public class Boss {
 
             // 入库（若不存在），优先以 encrypt_id + encrypt_user_id 去重；若 userId 缺失，则以 encrypt_id 去重
             if (encryptId != null) {
-                try {
-                    boolean exists = false;
-                    if (encryptUserId != null) {
-        exists = bossService.existsBossJob(encryptId, encryptUserId);
-                    } else {
-        exists = bossService.existsBossJobByEncryptId(encryptId);
-                    }
-                    if (!exists) {
-        bossService.insertBossJob(entity);
+                bossService.insertBossJobIfAbsent(entity).whenComplete((inserted, e) -> {
+                    if (e != null) {
+                        log.warn("岗位入库失败：{}", e.getMessage());
+                    } else if (inserted) {
                         log.debug("岗位入库：{} | 公司：{} | HR：{} | 状态：{}", entity.getJobName(), entity.getCompanyName(), entity.getHrName(), entity.getDeliveryStatus());
                     }
-                } catch (Exception e) {
-                    log.warn("岗位入库失败：{}", e.getMessage());
-                }
+                });
             }
         } catch (Throwable e) {
             log.debug("解析岗位详情 JSON 失败：{}", e.getMessage());
@@ -560,20 +604,6 @@ public class Boss {
         return new String[]{company, job};
     }
 
-    // 匹配命中词条（用于日志输出过滤原因）
-    private String findMatchedTerm(java.util.Collection<String> patterns, String text) {
-        if (patterns == null || text == null) return null;
-        try {
-            for (String p : patterns) {
-                if (p != null && !p.isEmpty() && text.contains(p)) {
-                    return p;
-                }
-            }
-        } catch (Exception ignore) {
-        }
-        return null;
-    }
-
     public static String buildSearchUrl(BossConfig config, String cityCode) {
         String baseUrl = "https://www.zhipin.com/web/geek/jobs";
         if (config == null) {
@@ -608,8 +638,20 @@ public class Boss {
     /**
      * 备注：目前Boss无法通过新标签页打开立即沟通按钮，所以只能点击更多详情，然后从更多详情里打开聊天按钮
      */
+    private void resumeSubmission(String keyword, Job job, String jobKey, String detailUrl) {
+        try {
+            deliver(keyword, job, jobKey, detailUrl);
+        } finally {
+            // 未走到发送（停止、找不到按钮等）时取消预生成的打招呼语；已取用时为空操作
+            aiGreetings.cancel(jobKey);
+        }
+    }
+
+    /**
+     * @param detailUrl 岗位详情页地址；为 null 时从右侧详情面板的"查看更多信息"入口读取
+     */
     @SneakyThrows
-    private void resumeSubmission(String keyword, Job job) {
+    private void deliver(String keyword, Job job, String jobKey, String detailUrl) {
         // 若收到停止指令，直接短路返回
         if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
             log.info("停止指令已触发，跳过投递 | 公司：{} | 岗位：{}", job.getCompanyName(), job.getJobName());
@@ -621,73 +663,55 @@ public class Boss {
             return;
         }
 
-        // 1. 查找"查看更多信息"按钮（必须存在且新开页）
-        Locator moreInfoBtn = page.locator("a.more-job-btn");
-        if (moreInfoBtn.count() == 0) {
-            log.warn("未找到\"查看更多信息\"按钮，跳过...");
-            return;
-        }
-        // 强制用js新开tab
-        String href = moreInfoBtn.first().getAttribute("href");
-        if (href == null || !href.startsWith("/job_detail/")) {
-            log.warn("未获取到岗位详情链接，跳过...");
-            return;
+        // 1. 未给出详情页地址时查找"查看更多信息"按钮（必须存在且新开页）
+        if (detailUrl == null) {
+            Locator moreInfoBtn = page.locator("a.more-job-btn");
+            if (moreInfoBtn.count() == 0) {
+                log.warn("未找到\"查看更多信息\"按钮，跳过...");
+                return;
+            }
+            // 强制用js新开tab
+            String href = moreInfoBtn.first().getAttribute("href");
+            if (href == null || !href.startsWith("/job_detail/")) {
+                log.warn("未获取到岗位详情链接，跳过...");
+                return;
+            }
+            detailUrl = "https://www.zhipin.com" + href;
         }
-        String detailUrl = "https://www.zhipin.com" + href;
-        // 2. 在新窗口打开详情页
-        Page detailPage = page.context().newPage();
+        // 2. 从标签池取出详情标签打开详情页（池中标签复用，不再每个岗位新建）
+        Page detailPage = detailTabPool != null ? detailTabPool.acquire() : page.context().newPage();
         detailPage.navigate(detailUrl);
-        PlaywrightUtil.sleep(1);
 
-        // 3. 查找"立即沟通"按钮
+        // 3. 查找"立即沟通"按钮（出现即继续，最多等待6秒）
         Locator chatBtn = detailPage.locator("a.btn-startchat, a.op-btn-chat");
-        boolean foundChatBtn = false;
-        for (int i = 0; i < 5; i++) {
-            if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
-                log.info("停止指令已触发，结束查找聊天按钮 | 公司：{} | 岗位：{}", job.getCompanyName(), job.getJobName());
-                try { detailPage.close(); } catch (Exception ignore) {}
-                return;
-            }
-            if (chatBtn.count() > 0 && (chatBtn.first().textContent().contains("立即沟通"))) {
-                foundChatBtn = true;
-                break;
-            }
-            PlaywrightUtil.sleep(1);
+        boolean foundChatBtn = PlaywrightUtil.waitUntil(() -> isStopRequested()
+                || (chatBtn.count() > 0 && chatBtn.first().textContent().contains("立即沟通")), 6000, 1000);
+        if (isStopRequested()) {
+            log.info("停止指令已触发，结束查找聊天按钮 | 公司：{} | 岗位：{}", job.getCompanyName(), job.getJobName());
+            releaseDetailPage(detailPage);
+            return;
         }
         if (!foundChatBtn) {
             log.warn("未找到立即沟通按钮，跳过岗位: {}", job.getJobName());
-            // 关闭详情页
-            try {
-                detailPage.close();
-            } catch (Exception ignore) {
-            }
+            // 归还详情页
+            releaseDetailPage(detailPage);
             return;
         }
         chatBtn.first().click();
-        PlaywrightUtil.sleep(1);
 
-        // 4. 等待聊天输入框
+        // 4. 等待聊天输入框（出现即继续，最多等待11秒）
         Locator inputLocator = detailPage.locator("div#chat-input.chat-input[contenteditable='true'], textarea.input-area");
-        boolean inputReady = false;
-        for (int i = 0; i < 10; i++) {
-            if (shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get())) {
-                log.info("停止指令已触发，结束等待聊天输入框 | 公司：{} | 岗位：{}", job.getCompanyName(), job.getJobName());
-                try { detailPage.close(); } catch (Exception ignore) {}
-                return;
-            }
-            if (inputLocator.count() > 0 && inputLocator.first().isVisible()) {
-                inputReady = true;
-                break;
-            }
-            PlaywrightUtil.sleep(1);
+        boolean inputReady = PlaywrightUtil.waitUntil(() -> isStopRequested()
+                || (inputLocator.count() > 0 && inputLocator.first().isVisible()), 11_000, 1000);
+        if (isStopRequested()) {
+            log.info("停止指令已触发，结束等待聊天输入框 | 公司：{} | 岗位：{}", job.getCompanyName(), job.getJobName());
+            releaseDetailPage(detailPage);
+            return;
         }
         if (!inputReady) {
             log.warn("聊天输入框未出现，跳过: {}", job.getJobName());
-            // 关闭详情页
-            try {
-                detailPage.close();
-            } catch (Exception ignore) {
-            }
+            // 归还详情页
+            releaseDetailPage(detailPage);
             return;
         }
 
@@ -696,7 +720,7 @@ public class Boss {
         if (config.getEnableAI()) {
             String jd = job.getJobInfo();
             if (jd != null && !jd.isEmpty()) {
-                aiMessage = generateAiMessage(keyword, job.getJobName(), jd);
+                aiMessage = aiGreetings.take(jobKey, () -> generateAiMessage(keyword, job.getJobName(), jd));
             }
         }
         String message = isValidString(aiMessage) ? aiMessage : config.getSayHi();
@@ -717,7 +741,8 @@ public class Boss {
         boolean sendSuccess = false;
         if (sendText.count() > 0) {
             sendText.first().click();
-            PlaywrightUtil.sleep(1);
+            // 等待发送后的小窗口渲染完成
+            PlaywrightUtil.waitForSelector(detailPage, "i.icon-close", 1000);
             sendSuccess = true;
             try {
                 detailPage.locator("i.icon-close").first().click();
@@ -736,12 +761,8 @@ public class Boss {
 
         log.info("投递完成 | 公司：{} | 岗位：{} | 薪资：{} | 招呼语：{} | 图片简历：{}", job.getCompanyName(), job.getJobName(), job.getSalary(), message, imgResume ? "已发送" : "未发送");
 
-        // 9. 关闭新打开的详情页
-        try {
-            detailPage.close();
-        } catch (Exception ignore) {
-        }
-        PlaywrightUtil.sleep(1);
+        // 9. 归还详情页（重置后留待下一个岗位复用）
+        releaseDetailPage(detailPage);
 
         // 10. 更新数据库投递状态 & 成功投递加入结果
         if (sendSuccess) {
@@ -749,12 +770,14 @@ public class Boss {
             String encryptId = extractEncryptId(detailUrl);
             String encryptUserId = encryptId != null ? encryptIdToUserId.get(encryptId) : null;
             if (encryptId != null && encryptUserId != null) {
-                try {
-        bossService.updateDeliveryStatus(encryptId, encryptUserId, "已投递");
-                    log.info("投递成功 | 公司：{} | 岗位：{} | encryptId：{} | encryptUserId：{}", job.getCompanyName(), job.getJobName(), encryptId, encryptUserId);
-                } catch (Exception e) {
-                    log.warn("更新投递状态为已投递失败：{}", e.getMessage());
-                }
+                // 状态由写线程异步保存，保存完成后再记录结果
+                bossService.updateDeliveryStatus(encryptId, encryptUserId, "已投递").whenComplete((v, e) -> {
+                    if (e != null) {
+                        log.warn("更新投递状态为已投递失败：{} | 岗位：{} | encryptId：{}", e.getMessage(), job.getJobName(), encryptId);
+                    } else {
+                        log.info("投递成功 | 公司：{} | 岗位：{} | encryptId：{} | encryptUserId：{}", job.getCompanyName(), job.getJobName(), encryptId, encryptUserId);
+                    }
+                });
             } else {
                 log.debug("未能找到 encryptId/encryptUserId 用于更新投递状态，detailUrl: {}", detailUrl);
             }
@@ -764,17 +787,241 @@ public class Boss {
             String encryptId = extractEncryptId(detailUrl);
             String encryptUserId = encryptId != null ? encryptIdToUserId.get(encryptId) : null;
             if (encryptId != null && encryptUserId != null) {
-                try {
-        bossService.updateDeliveryStatus(encryptId, encryptUserId, "投递失败");
-                    log.warn("投递失败 | 公司：{} | 岗位：{} | encryptId：{} | encryptUserId：{}", job.getCompanyName(), job.getJobName(), encryptId, encryptUserId);
-                } catch (Exception e) {
-                    log.warn("更新投递状态为投递失败异常：{}", e.getMessage());
+                bossService.updateDeliveryStatus(encryptId, encryptUserId, "投递失败").whenComplete((v, e) -> {
+                    if (e != null) {
+                        log.warn("更新投递状态为投递失败异常：{} | 岗位：{} | encryptId：{}", e.getMessage(), job.getJobName(), encryptId);
+                    } else {
+                        log.warn("投递失败 | 公司：{} | 岗位：{} | encryptId：{} | encryptUserId：{}", job.getCompanyName(), job.getJobName(), encryptId, encryptUserId);
+                    }
+                });
+            }
+        }
+    }
+
+
+    /**
+     * 收集搜索列表接口返回的岗位，并记录 encryptId -> encryptUserId 映射
+     */
+    private void onJobListResponse(Response resp) {
+        try {
+            String url = resp.url();
+            if (url == null || !url.contains(JOB_LIST_API)) return;
+            String body = resp.text();
+            List<BossSearchJob> jobs = BossSearchJob.parseList(body);
+            for (BossSearchJob job : jobs) {
+                harvestedJobs.putIfAbsent(job.getEncryptJobId(), job);
+                if (job.getEncryptBossId() != null && !job.getEncryptBossId().isEmpty()) {
+                    encryptIdToUserId.putIfAbsent(job.getEncryptJobId(), job.getEncryptBossId());
+                }
+            }
+            listHasMore = BossSearchJob.hasMore(body);
+            log.debug("列表接口返回 {} 个岗位，累计 {} 个，还有下一页：{}", jobs.size(), harvestedJobs.size(), listHasMore);
+        } catch (Throwable e) {
+            log.debug("解析岗位列表 JSON 失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按列表接口分页加载剩余岗位：仅在还有下一页时滚动触底，等到下一页接口返回即继续
+     *
+     * @return 是否正常完成（用户取消返回false）
+     */
+    private boolean loadRemainingListPages() {
+        int misses = 0;
+        while (listHasMore && misses < 3) {
+            if (isStopRequested()) {
+                return false;
+            }
+            Response next = PlaywrightUtil.waitForResponse(page, JOB_LIST_API,
+                    () -> page.evaluate("() => window.scrollTo(0, document.body.scrollHeight)"), 5000, 0);
+            if (next == null) {
+                // 未触发翻页请求（可能已到底或被节流），再尝试几次
+                misses++;
+            } else {
+                misses = 0;
+            }
+        }
+        // 等待最后一页卡片渲染
+        PlaywrightUtil.waitForDomStable(page, 200, 1000);
+        return true;
+    }
+
+    /**
+     * 旧的加载方式：渐进滚动直到页面footer出现（列表接口未捕获到时兜底）
+     *
+     * @return 是否正常完成（用户取消返回false）
+     */
+    private boolean scrollUntilFooter() {
+        int lastCount = -1;
+        int stableTries = 0;
+        for (int i = 0; i < 5000; i++) {
+            if (isStopRequested()) {
+                return false;
+            }
+            Locator footer = page.locator("div#footer, #footer");
+            if (footer.count() > 0 && footer.first().isVisible()) {
+                break; // 到达页面底部
+            }
+            page.evaluate("() => window.scrollBy(0, Math.floor(window.innerHeight * 1.5))");
+            int currentCount = page.locator("//ul[contains(@class, 'rec-job-list')]//li[contains(@class, 'job-card-box')]").count();
+            stableTries = currentCount == lastCount ? stableTries + 1 : 0;
+            lastCount = currentCount;
+            if (stableTries >= 3) { // 连续多次无新增，则强制触底一次
+                page.evaluate("() => window.scrollTo(0, document.body.scrollHeight)");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 一次性读取列表中所有卡片的岗位ID（按卡片顺序，未取到的位置为空串）
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> readCardJobIds() {
+        try {
+            Object result = page.evaluate("() => Array.from(document.querySelectorAll('ul.rec-job-list li.job-card-box'))"
+                    + ".map(li => { const a = li.querySelector(\"a[href*='/job_detail/']\"); return a ? a.getAttribute('href') : ''; })");
+            List<String> ids = new ArrayList<>();
+            if (result instanceof List<?> hrefs) {
+                for (Object href : hrefs) {
+                    String id = extractEncryptId(href != null ? href.toString() : null);
+                    ids.add(id != null ? id : "");
                 }
             }
+            return ids;
+        } catch (Exception e) {
+            log.debug("读取卡片岗位ID失败：{}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 基于列表接口数据做黑名单过滤（命中时输出过滤原因）
+     */
+    private boolean isFilteredByList(BossSearchJob job) {
+        String jobName = job.getJobName();
+        String company = job.getBrandName();
+        String bossTitle = job.getBossTitle();
+        String term = bossService.getBlacklistMatcher("job").find(jobName);
+        if (term != null) {
+            log.info("被过滤：职位黑名单命中 | 公司：{} | 岗位：{} | 关键词：{}", company, jobName, term);
+            return true;
         }
+        term = bossService.getBlacklistMatcher("company").find(company);
+        if (term != null) {
+            log.info("被过滤：公司黑名单命中 | 公司：{} | 岗位：{} | 关键词：{}", company, jobName, term);
+            return true;
+        }
+        term = bossService.getBlacklistMatcher("recruiter").find(bossTitle);
+        if (term != null) {
+            log.info("被过滤：招聘者黑名单命中 | 公司：{} | 岗位：{} | 招聘者：{} | 关键词：{}", company, jobName, bossTitle, term);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 是否需要点击卡片请求岗位详情
+     * 列表接口不含HR活跃状态与岗位描述：开启HR活跃过滤或AI打招呼时仍需详情；
+     * 岗位名称、公司或招聘者ID缺失时也需详情补全
+     */
+    private boolean needsDetail(BossSearchJob listed) {
+        if (listed == null) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(config.getFilterDeadHR())
+                || (Boolean.TRUE.equals(config.getEnableAI()) && !Boolean.TRUE.equals(config.getDebugger()))) {
+            return true;
+        }
+        return !isValidString(listed.getJobName()) || !isValidString(listed.getBrandName())
+                || !isValidString(listed.getEncryptBossId());
+    }
+
+    /**
+     * 以列表接口字段构建投递用的岗位
+     */
+    private Job jobFromList(BossSearchJob listed) {
+        List<String> tags = new ArrayList<>();
+        for (String tag : new String[]{listed.getCityName(), listed.getExperience(), listed.getDegree()}) {
+            if (isValidString(tag)) tags.add(tag);
+        }
+        Job job = new Job();
+        job.setJobName(listed.getJobName());
+        job.setSalary(listed.getSalaryDesc() != null ? listed.getSalaryDesc() : "");
+        job.setJobArea(String.join(", ", tags));
+        job.setCompanyName(listed.getBrandName());
+        job.setRecruiter(listed.getBossName() != null ? listed.getBossName() : "");
+        job.setJobInfo("");
+        return job;
+    }
+
+    /**
+     * 列表岗位的详情页地址（与卡片链接一致，带上 securityId）
+     */
+    private String listDetailUrl(BossSearchJob listed) {
+        String url = "https://www.zhipin.com/job_detail/" + listed.getEncryptJobId() + ".html";
+        return isValidString(listed.getSecurityId())
+                ? url + "?securityId=" + URLEncoder.encode(listed.getSecurityId(), StandardCharsets.UTF_8)
+                : url;
+    }
+
+    /**
+     * 不请求详情的岗位直接以列表字段入库（被列表数据过滤的岗位标记为已过滤）
+     */
+    private void insertListJob(BossSearchJob job, String deliveryStatus) {
+        String encryptId = job.getEncryptJobId();
+        String encryptUserId = job.getEncryptBossId();
+        try {
+            com.getjobs.application.entity.BossJobDataEntity entity = new com.getjobs.application.entity.BossJobDataEntity();
+            entity.setEncryptId(encryptId);
+            entity.setEncryptUserId(encryptUserId);
+            entity.setJobName(job.getJobName());
+            entity.setSalary(job.getSalaryDesc());
+            entity.setLocation(job.getCityName());
+            entity.setExperience(job.getExperience());
+            entity.setDegree(job.getDegree());
+            entity.setCompanyName(job.getBrandName());
+            entity.setIndustry(job.getBrandIndustry());
+            entity.setCompanyScale(job.getBrandScale());
+            entity.setFinancingStage(job.getBrandStage());
+            entity.setHrName(job.getBossName());
+            entity.setHrPosition(job.getBossTitle());
+            entity.setJobUrl("https://www.zhipin.com/job_detail/" + encryptId + ".html");
+            entity.setDeliveryStatus(deliveryStatus);
+            bossService.insertBossJobIfAbsent(entity).exceptionally(e -> {
+                log.warn("岗位入库失败：{}", e.getMessage());
+                return false;
+            });
+        } catch (Exception e) {
+            log.warn("岗位入库失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 是否为Boss岗位详情接口（GET）响应
+     */
+    private boolean isJobDetailResponse(Response r) {
+        return r.url() != null && r.url().contains("/wapi/zpgeek/job/detail.json")
+                && "GET".equalsIgnoreCase(r.request().method());
+    }
+
+    private boolean isStopRequested() {
+        return shouldStopCallback != null && Boolean.TRUE.equals(shouldStopCallback.get());
     }
 
-    
+    /**
+     * 归还详情页到标签池；未启用标签池时直接关闭
+     */
+    private void releaseDetailPage(Page detailPage) {
+        if (detailTabPool != null) {
+            detailTabPool.release(detailPage);
+            return;
+        }
+        try {
+            detailPage.close();
+        } catch (Exception ignore) {
+        }
+    }
 
     /**
      * 注册页面响应监听：拦截 /wapi/zpgeek/job/detail.json 请求并解析写库
@@ -898,7 +1145,6 @@ public class Boss {
                         // 未弹出系统文件选择器，继续常规流程
                     }
                     if (!chooserHandled) {
-                        PlaywrightUtil.sleep(1);
                         imageInput = imgContainer.locator("input[type='file'][accept*='image']").first();
                     }
                 }
@@ -907,7 +1153,8 @@ public class Boss {
 
             // 上传图片
             imageInput.setInputFiles(imagePath);
-            PlaywrightUtil.sleep(1);
+            // 等待上传触发的DOM更新收尾
+            PlaywrightUtil.waitForDomStable(page, 300, 1000);
             return true;
         } catch (Throwable e) {
             log.error("发送图片简历失败：{}", e.getMessage(), e);
@@ -1081,7 +1328,9 @@ public class Boss {
                 : buildDefaultPrompt(introduce, keyword, jobName, jd);
 
         try {
-            String result = aiService.sendRequest(requestMessage);
+            // 同一 JD 在不同城市、关键词下重复出现时直接复用已生成的回复
+            String result = aiService.sendCachedRequest(requestMessage,
+                    introduce, prompt, keyword, jobName, jd, config.getSayHi());
             if (result == null) {
                 return config.getSayHi();
             }
@@ -1126,7 +1375,7 @@ public class Boss {
                 } catch (Exception e) {
                     log.error("等待滑块验证输入异常: {}", e.getMessage());
                 }
-                PlaywrightUtil.sleep(1);
+                PlaywrightUtil.waitUntil(() -> page.url() == null || !page.url().startsWith(SLIDER_URL), 1000);
                 // 验证通过后页面url会变，循环再检测一次
                 continue;
             }
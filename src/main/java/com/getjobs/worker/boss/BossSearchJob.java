@@ -0,0 +1,113 @@
+package com.getjobs.worker.boss;
+
+import lombok.Data;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boss搜索列表接口（/wapi/zpgeek/search/joblist.json）中的单个岗位
+ * 列表接口已包含岗位、公司与招聘者的主要信息，可在点击卡片前完成黑名单过滤
+ */
+@Data
+public class BossSearchJob {
+
+    /**
+     * 岗位加密ID（与详情接口的 encryptId 一致）
+     */
+    private String encryptJobId;
+
+    /**
+     * 安全ID（详情接口与沟通接口使用）
+     */
+    private String securityId;
+
+    /**
+     * 招聘者加密ID（与详情接口的 encryptUserId 一致）
+     */
+    private String encryptBossId;
+
+    private String jobName;
+
+    private String salaryDesc;
+
+    private String cityName;
+
+    private String experience;
+
+    private String degree;
+
+    private String brandName;
+
+    private String brandIndustry;
+
+    private String brandScale;
+
+    private String brandStage;
+
+    private String bossName;
+
+    private String bossTitle;
+
+    private List<String> skills = new ArrayList<>();
+
+    /**
+     * 解析列表接口响应
+     *
+     * @param body 接口响应JSON
+     * @return 岗位列表（无法解析时返回空列表）
+     */
+    public static List<BossSearchJob> parseList(String body) {
+        List<BossSearchJob> jobs = new ArrayList<>();
+        if (body == null || body.isEmpty()) {
+            return jobs;
+        }
+        JSONObject zpData = new JSONObject(body).optJSONObject("zpData");
+        JSONArray jobList = zpData != null ? zpData.optJSONArray("jobList") : null;
+        if (jobList == null) {
+            return jobs;
+        }
+        for (int i = 0; i < jobList.length(); i++) {
+            JSONObject item = jobList.optJSONObject(i);
+            if (item == null || item.optString("encryptJobId", "").isEmpty()) {
+                continue;
+            }
+            BossSearchJob job = new BossSearchJob();
+            job.setEncryptJobId(item.optString("encryptJobId"));
+            job.setSecurityId(item.optString("securityId", null));
+            job.setEncryptBossId(item.optString("encryptBossId", null));
+            job.setJobName(item.optString("jobName", ""));
+            job.setSalaryDesc(item.optString("salaryDesc", ""));
+            job.setCityName(item.optString("cityName", ""));
+            job.setExperience(item.optString("jobExperience", ""));
+            job.setDegree(item.optString("jobDegree", ""));
+            job.setBrandName(item.optString("brandName", ""));
+            job.setBrandIndustry(item.optString("brandIndustry", ""));
+            job.setBrandScale(item.optString("brandScaleName", ""));
+            job.setBrandStage(item.optString("brandStageName", ""));
+            job.setBossName(item.optString("bossName", ""));
+            job.setBossTitle(item.optString("bossTitle", ""));
+            JSONArray skills = item.optJSONArray("skills");
+            if (skills != null) {
+                for (int j = 0; j < skills.length(); j++) {
+                    job.getSkills().add(skills.optString(j));
+                }
+            }
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    /**
+     * 列表接口是否还有下一页
+     */
+    public static boolean hasMore(String body) {
+        if (body == null || body.isEmpty()) {
+            return false;
+        }
+        JSONObject zpData = new JSONObject(body).optJSONObject("zpData");
+        return zpData != null && zpData.optBoolean("hasMore", false);
+    }
+}
@@ -0,0 +1,127 @@
+package com.getjobs.worker.boss;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Boss岗位详情页标签池
+ * 投递时复用少量常驻标签页（导航 -> 操作 -> 重置），避免每个岗位都新建并销毁一个渲染进程标签。
+ * 取出前做健康检查，失效或复用次数达到上限的标签会被关闭并重新创建。
+ * 注意：与Page一样非线程安全，只能在Boss平台调度线程上使用。
+ */
+@Slf4j
+public class DetailTabPool implements AutoCloseable {
+
+    private static final String BLANK_URL = "about:blank";
+
+    private final BrowserContext context;
+
+    // 池中最多保留的标签数
+    private final int size;
+
+    // 单个标签最大复用次数，达到后重建以释放页面累积的内存（<=0 表示不限制）
+    private final int maxUses;
+
+    // 空闲标签
+    private final Deque<Page> idle = new ArrayDeque<>();
+
+    // 标签 -> 已使用次数（包含借出中的标签）
+    private final Map<Page, Integer> uses = new IdentityHashMap<>();
+
+    private int created = 0;
+    private int reused = 0;
+
+    public DetailTabPool(BrowserContext context, int size, int maxUses) {
+        this.context = context;
+        this.size = Math.max(1, size);
+        this.maxUses = maxUses;
+    }
+
+    /**
+     * 取出一个可用的详情标签（无可用空闲标签时新建）
+     */
+    public Page acquire() {
+        while (!idle.isEmpty()) {
+            Page tab = idle.pollFirst();
+            if (isHealthy(tab)) {
+                uses.merge(tab, 1, Integer::sum);
+                reused++;
+                return tab;
+            }
+            discard(tab);
+        }
+        Page tab = context.newPage();
+        uses.put(tab, 1);
+        created++;
+        return tab;
+    }
+
+    /**
+     * 归还标签：重置到空白页后放回池中；池已满、复用次数已达上限或重置失败时直接关闭
+     */
+    public void release(Page tab) {
+        if (tab == null) {
+            return;
+        }
+        int used = uses.getOrDefault(tab, 0);
+        if (idle.size() >= size || (maxUses > 0 && used >= maxUses) || !reset(tab)) {
+            discard(tab);
+            return;
+        }
+        idle.offerLast(tab);
+    }
+
+    /**
+     * 关闭池中所有标签
+     */
+    @Override
+    public void close() {
+        for (Page tab : uses.keySet().toArray(new Page[0])) {
+            discard(tab);
+        }
+        idle.clear();
+        if (created > 0) {
+            log.info("详情标签池已关闭：新建 {} 个标签，复用 {} 次", created, reused);
+        }
+    }
+
+    private boolean reset(Page tab) {
+        try {
+            if (tab.isClosed()) {
+                return false;
+            }
+            // 跳到空白页：卸载详情页脚本与聊天弹窗，释放页面内存，下一次导航从干净状态开始
+            tab.navigate(BLANK_URL);
+            return true;
+        } catch (Exception e) {
+            log.debug("重置详情标签失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isHealthy(Page tab) {
+        try {
+            return !tab.isClosed() && Boolean.TRUE.equals(tab.evaluate("() => document.readyState !== undefined"));
+        } catch (Exception e) {
+            log.debug("详情标签健康检查失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(Page tab) {
+        uses.remove(tab);
+        idle.remove(tab);
+        try {
+            if (!tab.isClosed()) {
+                tab.close();
+            }
+        } catch (Exception ignore) {
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.getjobs.worker.job51;
 
+import com.getjobs.application.service.BossService;
 import com.getjobs.application.service.Job51Service;
+import com.getjobs.worker.manager.IngestQueue;
 import com.getjobs.worker.utils.JobUtils;
 import com.getjobs.worker.utils.PlaywrightUtil;
 import com.microsoft.playwright.Locator;
@@ -43,6 +45,8 @@ public class Job51 {
 
     private final List<String> resultList = new ArrayList<>();
     private final Job51Service job51Service;
+    private final IngestQueue ingestQueue;
+    private final BossService bossService;
     private boolean networkHooked = false;
     private boolean reachedDailyLimit = false;
     private final java.util.Set<String> processedRequestIds = new java.util.HashSet<>();
@@ -50,9 +54,15 @@ public class Job51 {
     private int currentPageNum = 0;
     // 当前页从JSON拦截到的jobId列表
     private final java.util.List<Long> currentPageJobIds = new java.util.ArrayList<>();
+    // 当前页命中黑名单、不会勾选的jobId（按JSON中的岗位名称与公司判定，标记投递状态时排除；与 currentPageJobIds 同锁）
+    private final java.util.Set<Long> blacklistedJobIds = new java.util.HashSet<>();
 
     private static final int DEFAULT_MAX_PAGE = 50;
     private static final String BASE_URL = "https://we.51job.com/pc/search?";
+    // 搜索接口
+    private static final String SEARCH_API = "/api/job/search-pc";
+    // 入库队列来源标识
+    private static final String INGEST_SOURCE = "51job";
 
     /**
      * 进度回调接口
@@ -121,13 +131,14 @@ public class Job51 {
         try {
             // 收敛日志：不输出关键词级日志，仅保留页级摘要
 
-            // 在跳转前监听 51job 搜索接口，抓取 JSON 并保存到数据库 + 打印诊断日志
+            // 在跳转前监听 51job 搜索接口，抓取 JSON 交给入库队列保存到数据库
+            ingestQueue.register(INGEST_SOURCE, this::ingestJob51Batch);
             if (!networkHooked) {
                 try {
                     page.onResponse(r -> {
                         try {
                             String url = r.url();
-                            if (url != null && url.contains("/api/job/search-pc") && "GET".equalsIgnoreCase(r.request().method())) {
+                            if (url != null && url.contains(SEARCH_API) && "GET".equalsIgnoreCase(r.request().method())) {
                                 int status = 0;
                                 try { status = r.status(); } catch (Throwable ignored) {}
                                 String text = null;
@@ -162,16 +173,8 @@ public class Job51 {
                                         }
                                     } catch (Throwable ignored) {}
                                     if (isJson) {
-                                        // 解析并保存到数据库
-                                        job51Service.parseAndPersistJob51SearchJson(text);
-                                        // 📋 提取当前页的jobId列表并缓存
-                                        List<Long> jobIds = extractJobIdsFromJson(text);
-                                        if (jobIds != null && !jobIds.isEmpty()) {
-                                            synchronized (currentPageJobIds) {
-                                                currentPageJobIds.clear();
-                                                currentPageJobIds.addAll(jobIds);
-                                            }
-                                        }
+                                        // 仅移交原始响应体，解析、写库与jobId缓存在入库队列中进行
+                                        ingestQueue.offer(INGEST_SOURCE, text);
                                         if (requestId != null && !requestId.isBlank()) processedRequestIds.add(requestId);
                                     } // 非JSON静默跳过
                                 }
@@ -196,7 +199,7 @@ public class Job51 {
                 page.setExtraHTTPHeaders(headers);
             } catch (Throwable ignored) {}
             page.navigate(searchUrl);
-            PlaywrightUtil.sleep(1);
+            PlaywrightUtil.waitForDomStable(page, 300, 1000);
 
             // 检查是否需要登录
             if (checkNeedLogin()) {
@@ -208,8 +211,8 @@ public class Job51 {
             try {
                 Locator sortOptions = page.locator("div.ss");
                 if (sortOptions.count() > 0) {
-                    sortOptions.first().click();
-                    PlaywrightUtil.sleep(1);
+                    // 切换排序会重新请求搜索接口，等到接口返回即可
+                    PlaywrightUtil.waitForResponse(page, SEARCH_API, () -> sortOptions.first().click(), 3000, 1000);
                 }
             } catch (Exception e) { /* 静默 */ }
 
@@ -228,7 +231,8 @@ public class Job51 {
                     break;
                 }
 
-                PlaywrightUtil.sleep(2);
+                // 等待职位列表渲染
+                PlaywrightUtil.waitForSelector(page, "div.ick", WaitForSelectorState.ATTACHED, 2000);
 
                 // 检查是否出现访问验证
                 if (checkAccessVerification()) {
@@ -248,7 +252,8 @@ public class Job51 {
                 deliverCurrentPage();
                 if (reachedDailyLimit) break;
 
-                PlaywrightUtil.sleep(3);
+                // 等待投递后的弹窗与列表更新收尾
+                PlaywrightUtil.waitForDomStable(page, 500, 3000);
             }
 
             // 关键词完成不输出日志
@@ -260,47 +265,58 @@ public class Job51 {
      */
     private void deliverCurrentPage() {
         try {
-            PlaywrightUtil.sleep(1);
-
             // 查找所有职位的checkbox
             Locator checkboxes = page.locator("div.ick");
             if (checkboxes.count() == 0) { return; }
 
-            // 查找职位名称和公司名称
-            Locator titles = page.locator("[class*='jname text-cut']");
-            Locator companies = page.locator("[class*='cname text-cut']");
+            // 查找职位名称和公司名称（各一次页面脚本执行批量取回）
+            List<String> titles = extractTexts("[class*='jname text-cut']");
+            List<String> companies = extractTexts("[class*='cname text-cut']");
 
             int jobCount = checkboxes.count();
+            int skipped = 0;
 
-            // 选中所有职位
+            // 选中所有职位（命中黑名单的不勾选）
             for (int i = 0; i < jobCount; i++) {
                 if (shouldStop()) {
                     return;
                 }
 
                 try {
+                    String title = i < titles.size() ? titles.get(i) : "未知职位";
+                    String company = i < companies.size() ? companies.get(i) : "未知公司";
+                    String hit = bossService.findBlacklistHit(company, title, null);
+                    if (hit != null) {
+                        skipped++;
+                        log.info("被过滤：{} | 公司：{} | 岗位：{}", hit, company, title);
+                        continue;
+                    }
+
                     Locator checkbox = checkboxes.nth(i);
                     // 使用JavaScript点击，避免元素被遮挡
                     checkbox.evaluate("el => el.click()");
 
-                    String title = i < titles.count() ? titles.nth(i).textContent() : "未知职位";
-                    String company = i < companies.count() ? companies.nth(i).textContent() : "未知公司";
                     String jobInfo = company + " | " + title;
                     resultList.add(jobInfo);
 //                    log.info("选中: {}", jobInfo);
                 } catch (Exception e) { /* 静默 */ }
             }
 
-            PlaywrightUtil.sleep(1);
+            if (skipped >= jobCount) {
+                return;
+            }
+
+            PlaywrightUtil.waitForDomStable(page, 200, 1000);
 
             // 滚动到页面顶部
             page.evaluate("window.scrollTo(0, 0)");
-            PlaywrightUtil.sleep(1);
+            PlaywrightUtil.waitForDomStable(page, 200, 1000);
 
             // 点击批量投递按钮
             clickBatchDeliverButton();
 
-            PlaywrightUtil.sleep(3);
+            // 等待投递结果弹窗出现
+            PlaywrightUtil.waitForSelector(page, ".el-dialog__body, div.successContent", 3000);
 
             // 处理投递成功弹窗
             handleDeliverySuccessDialog();
@@ -331,27 +347,23 @@ public class Job51 {
                 Locator buttons = parent.locator("button.p_but");
 
                 if (buttons.count() > 1) {
-                    PlaywrightUtil.sleep(1);
                     buttons.nth(1).click();
-                    
-                    // 🚨 点击后立即检测“日投递上限”提示（短暂出现，需快速多次检测）
-                    for (int i = 0; i < 10; i++) {
-                        try { Thread.sleep(200); } catch (InterruptedException ignored) {} // 每200ms检测一次
-                        if (detectDailyLimitToast51job()) {
-                            reachedDailyLimit = true;
-                            log.warn("点击投递按钮后，检测到 51job 日投递上限提示，停止投递");
-                            sendProgress("检测到日投递上限，任务已停止", null, null);
-                            return;
-                        }
+
+                    // 🚨 点击后立即检测“日投递上限”提示（短暂出现，持续检测2秒）
+                    if (PlaywrightUtil.waitUntil(this::detectDailyLimitToast51job, 2000)) {
+                        reachedDailyLimit = true;
+                        log.warn("点击投递按钮后，检测到 51job 日投递上限提示，停止投递");
+                        sendProgress("检测到日投递上限，任务已停止", null, null);
+                        return;
                     }
-                    
+
                     success = true;
                 } else {
                     break;
                 }
             } catch (Exception e) {
                 retryCount++;
-                PlaywrightUtil.sleep(1);
+                PlaywrightUtil.waitForDomStable(page, 200, 1000);
             }
         }
     }
@@ -361,7 +373,8 @@ public class Job51 {
      */
     private void handleDeliverySuccessDialog() {
         try {
-            PlaywrightUtil.sleep(2);
+            // 等待弹窗内容渲染完成
+            PlaywrightUtil.waitForDomStable(page, 300, 2000);
 
             Locator successContent = page.locator("//div[@class='successContent']");
             if (successContent.count() > 0) {
@@ -396,16 +409,29 @@ public class Job51 {
                     // ✅ 投递成功后，标记数据库中的岗位为已投递
                     if (successNum != null && successNum > 0) {
                         try {
+                            // 等待入库队列处理完本页接口数据，确保 jobId 缓存已刷新
+                            PlaywrightUtil.waitUntil(() -> ingestQueue.isIdle(INGEST_SOURCE), 2000, 0);
                             List<Long> deliveredIds = new ArrayList<>();
+                            // 按 jobId 排除命中黑名单的岗位（页面卡片顺序与接口JSON顺序不一定一致，不能按序号对应）
                             synchronized (currentPageJobIds) {
-                                deliveredIds.addAll(currentPageJobIds);
+                                for (Long id : currentPageJobIds) {
+                                    if (!blacklistedJobIds.contains(id)) {
+                                        deliveredIds.add(id);
+                                    }
+                                }
                             }
                             if (!deliveredIds.isEmpty()) {
                                 // 只标记成功投递的数量（取成功数和缓存数的较小值）
                                 int markCount = Math.min(successNum, deliveredIds.size());
                                 List<Long> toMark = deliveredIds.subList(0, markCount);
-                                job51Service.markDeliveredBatch(toMark);
-                                log.info("[51job] 标记已投递 {} 个职位", toMark.size());
+                                int marked = toMark.size();
+                                job51Service.markDeliveredBatch(toMark).whenComplete((v, e) -> {
+                                    if (e != null) {
+                                        log.warn("[51job] 标记投递状态失败: {}", e.getMessage());
+                                    } else {
+                                        log.info("[51job] 标记已投递 {} 个职位", marked);
+                                    }
+                                });
                             } else {
                                 log.warn("[51job] 当前页没有缓存的jobId，无法标记投递状态");
                             }
@@ -454,7 +480,7 @@ public class Job51 {
                                 page.keyboard().press("Escape");
                             }
                         }
-                        PlaywrightUtil.sleep(1);
+                        PlaywrightUtil.waitForSelector(page, ".el-dialog__wrapper", WaitForSelectorState.HIDDEN, 1000);
                     } catch (Exception ignored) {}
                 }
             }
@@ -515,33 +541,32 @@ public class Job51 {
                     return false;
                 }
 
-                PlaywrightUtil.sleep(1);
                 pageInput.click();
                 pageInput.fill("");
                 pageInput.fill(String.valueOf(pageNum));
 
-                // 点击跳转按钮
+                // 点击跳转按钮，等待新一页的搜索接口返回
                 Locator jumpButton = page.locator("#app > div > div.post > div > div > div.j_result > div > div:nth-child(2) > div > div.bottom-page > div > div > span.jumpPage");
                 if (jumpButton.count() > 0) {
-                    jumpButton.click();
+                    PlaywrightUtil.waitForResponse(page, SEARCH_API, jumpButton::click, 5000, 1000);
                 }
 
                 // 滚动到页面顶部
                 page.evaluate("window.scrollTo(0, 0)");
-                PlaywrightUtil.sleep(2);
+                PlaywrightUtil.waitForDomStable(page, 300, 2000);
 
                 log.info("成功跳转到第{}页", pageNum);
                 return true;
             } catch (Exception e) {
                 log.warn("跳转到第{}页失败，重试第{}次: {}", pageNum, retry + 1, e.getMessage());
-                PlaywrightUtil.sleep(1);
+                PlaywrightUtil.waitForDomStable(page, 300, 1000);
 
                 // 检查是否出现异常，如果出现则刷新页面
                 if (checkAccessVerification()) {
                     return false;
                 }
                 page.reload();
-                PlaywrightUtil.sleep(2);
+                PlaywrightUtil.waitForNetworkIdle(page, 2000);
             }
         }
         return false;
@@ -588,7 +613,7 @@ public class Job51 {
                 }
                 if (!closedThisRound) break;
                 closedOnce = true;
-                PlaywrightUtil.sleep(1);
+                PlaywrightUtil.waitForDomStable(page, 200, 1000);
             }
             if (closedOnce) {
                 // 等待弹层移除
@@ -719,40 +744,27 @@ public class Job51 {
     private List<Long> collectJobIdsOnPage() {
         List<Long> ids = new ArrayList<>();
         try {
-            // 1) 解析常见 jobdetail 链接形态
-            Locator anchors = page.locator(
-                    "a[href*='/pc/jobdetail?jobId='], " +
-                    "a[href*='/pc/jobdetail'], " +
-                    "a[href*='jobs.51job.com/'], " +
-                    "a.jname[href]"
-            );
-            int count = anchors.count();
-            for (int i = 0; i < count; i++) {
-                try {
-                    String href = anchors.nth(i).getAttribute("href");
-                    Long id = parseJobIdFromHref(href);
-                    if (id != null) ids.add(id);
-                } catch (Exception ignored) {}
+            // 1) 解析常见 jobdetail 链接形态（一次页面脚本执行取回全部链接）
+            List<java.util.Map<String, String>> anchors = PlaywrightUtil.extractRows(page,
+                    "a[href*='/pc/jobdetail?jobId='], a[href*='/pc/jobdetail'], a[href*='jobs.51job.com/'], a.jname[href]",
+                    java.util.Map.of("href", PlaywrightUtil.Field.attr("", "href")));
+            for (java.util.Map<String, String> row : anchors) {
+                Long id = parseJobIdFromHref(row.get("href"));
+                if (id != null) ids.add(id);
             }
 
             // 2) 解析卡片上的数据属性（部分页面存在）
             try {
-                Locator cards = page.locator("[data-jobid], [data-analysis-jobid], [data-job-id]");
-                int c = cards.count();
-                for (int i = 0; i < c; i++) {
-                    try {
-                        String v = null;
-                        Locator card = cards.nth(i);
-                        v = v == null ? card.getAttribute("data-jobid") : v;
-                        v = v == null ? card.getAttribute("data-analysis-jobid") : v;
-                        v = v == null ? card.getAttribute("data-job-id") : v;
-                        if (v != null) {
-                            try {
-                                Long id = Long.parseLong(v.replaceAll("[^0-9]", ""));
-                                if (id != null) ids.add(id);
-                            } catch (Exception ignored) {}
-                        }
-                    } catch (Exception ignored) {}
+                List<java.util.Map<String, String>> cards = PlaywrightUtil.extractRows(page,
+                        "[data-jobid], [data-analysis-jobid], [data-job-id]",
+                        java.util.Map.of("jobId", PlaywrightUtil.Field.attr("", "data-jobid", "data-analysis-jobid", "data-job-id")));
+                for (java.util.Map<String, String> row : cards) {
+                    String v = row.get("jobId");
+                    if (v != null) {
+                        try {
+                            ids.add(Long.parseLong(v.replaceAll("[^0-9]", "")));
+                        } catch (Exception ignored) {}
+                    }
                 }
             } catch (Exception ignored) {}
 
@@ -780,6 +792,38 @@ public class Job51 {
         return ids;
     }
 
+    /**
+     * 入库队列批量处理：解析并保存搜索接口数据，缓存最近一页的jobId列表
+     */
+    private void ingestJob51Batch(List<String> bodies) {
+        for (String text : bodies) {
+            job51Service.parseAndPersistJob51SearchJson(text);
+            // 📋 提取当前页的jobId列表并缓存
+            java.util.Set<Long> blacklisted = new java.util.HashSet<>();
+            List<Long> jobIds = extractJobIdsFromJson(text, blacklisted);
+            if (jobIds != null && !jobIds.isEmpty()) {
+                synchronized (currentPageJobIds) {
+                    currentPageJobIds.clear();
+                    currentPageJobIds.addAll(jobIds);
+                    blacklistedJobIds.clear();
+                    blacklistedJobIds.addAll(blacklisted);
+                }
+            }
+        }
+    }
+
+    /**
+     * 批量读取所有匹配元素的文本
+     */
+    private List<String> extractTexts(String selector) {
+        List<String> texts = new ArrayList<>();
+        for (java.util.Map<String, String> row : PlaywrightUtil.extractRows(page, selector,
+                java.util.Map.of("text", PlaywrightUtil.Field.text("")))) {
+            texts.add(row.get("text") != null ? row.get("text") : "");
+        }
+        return texts;
+    }
+
     private Long parseJobIdFromHref(String href) {
         if (href == null || href.isEmpty()) return null;
         try {
@@ -835,8 +879,10 @@ public class Job51 {
 
     /**
      * 从JSON文本中提取jobId列表
+     *
+     * @param blacklisted 输出：岗位名称或公司（简称、全称）命中黑名单的jobId
      */
-    private List<Long> extractJobIdsFromJson(String json) {
+    private List<Long> extractJobIdsFromJson(String json, java.util.Set<Long> blacklisted) {
         List<Long> jobIds = new ArrayList<>();
         if (json == null || json.trim().isEmpty()) {
             return jobIds;
@@ -867,6 +913,11 @@ public class Job51 {
                         Long jobId = jobIdNode.asLong();
                         if (jobId != null && jobId > 0) {
                             jobIds.add(jobId);
+                            String title = item.path("jobName").asText("");
+                            if (bossService.findBlacklistHit(item.path("companyName").asText(""), title, null) != null
+                                    || bossService.findBlacklistHit(item.path("fullCompanyName").asText(""), title, null) != null) {
+                                blacklisted.add(jobId);
+                            }
                         }
                     } catch (Exception e) {
                         // 忽略单个解析失败
@@ -1,6 +1,8 @@
 package com.getjobs.worker.liepin;
 
+import com.getjobs.worker.manager.IngestQueue;
 import com.getjobs.worker.utils.PlaywrightUtil;
+import com.getjobs.application.service.BossService;
 import com.getjobs.application.service.LiepinService;
 import com.getjobs.application.entity.LiepinEntity;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -20,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import static com.getjobs.worker.liepin.Locators.*;
@@ -38,9 +41,18 @@ public class Liepin {
         System.setProperty("log.name", "liepin");
     }
 
+    // 卡片埋点属性（data-tlg-ext / data-tlg-scm 中携带 jobId）
+    private static final Map<String, PlaywrightUtil.Field> CARD_ID_FIELDS = Map.of(
+            "ext", PlaywrightUtil.Field.attr("", "data-tlg-ext"),
+            "scm", PlaywrightUtil.Field.attr("", "data-tlg-scm"));
+
+    // 入库队列来源标识
+    private static final String INGEST_SOURCE = "liepin";
+
     private int maxPage = 50;
     private final List<String> resultList = new ArrayList<>();
-    private final List<LiepinEntity> lastApiEntities = new ArrayList<>();
+    // 最近一页搜索接口返回的岗位（由入库队列消费线程更新，整体替换）
+    private volatile List<LiepinEntity> lastApiEntities = List.of();
     private boolean monitoringRegistered = false;
     @Setter
     private LiepinConfig config;
@@ -50,6 +62,10 @@ public class Liepin {
     private Page page;
     @Autowired
     private LiepinService liepinService;
+    @Autowired
+    private IngestQueue ingestQueue;
+    @Autowired
+    private BossService bossService;
 
     public interface ProgressCallback {
         void onProgress(String message, Integer current, Integer total);
@@ -64,6 +80,9 @@ public class Liepin {
         this.startDate = new Date();
         this.resultList.clear();
 
+        // 搜索接口响应交给入库队列，由消费线程解析并批量写库
+        ingestQueue.register(INGEST_SOURCE, this::ingestLiepinBatch);
+
         // 监控猎聘接口请求与返回，输出被拦截的URL（精确匹配PC搜索相关接口）
         if (page != null && !monitoringRegistered) {
             // 请求拦截日志（仅搜索岗位接口）
@@ -88,8 +107,8 @@ public class Liepin {
                         if (contentType == null || contentType.contains("application/json")) {
                             String text = response.text();
                             if (text != null && !text.isEmpty()) {
-                                // 尝试解析，若结构不符合则在方法内直接返回
-                                parseAndPersistLiepinData(text);
+                                // 仅移交原始响应体，解析与写库在入库队列中进行
+                                ingestQueue.offer(INGEST_SOURCE, text);
                             }
                         }
                     }
@@ -129,7 +148,36 @@ public class Liepin {
     }
 
     // ========== 解析接口JSON并保存到数据库 ==========
-    private void parseAndPersistLiepinData(String json) {
+    /**
+     * 入库队列批量处理：逐条解析，最近一页用于投递展示，整批一次写库
+     */
+    private void ingestLiepinBatch(List<String> bodies) {
+        List<LiepinEntity> all = new ArrayList<>();
+        for (String body : bodies) {
+            List<LiepinEntity> entities = parseLiepinData(body);
+            if (entities != null) {
+                lastApiEntities = entities;
+                all.addAll(entities);
+            }
+        }
+        if (all.isEmpty()) {
+            return;
+        }
+        // 批量持久化：仅不存在时插入，默认 delivered=0
+        try {
+            // 等待组提交完成，入库队列空闲即代表数据已落库
+            liepinService.insertSnapshotsIfNotExistsBatch(all).join();
+        } catch (Exception e) {
+            log.warn("批量保存猎聘岗位数据失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 解析猎聘搜索接口JSON
+     *
+     * @return 岗位列表，结构不符合时返回null
+     */
+    private List<LiepinEntity> parseLiepinData(String json) {
         try {
             ObjectMapper mapper = new ObjectMapper();
             JsonNode root = mapper.readTree(json);
@@ -139,9 +187,9 @@ public class Liepin {
                 cardList = root.path("data").path("jobCardList");
             }
             if (!cardList.isArray()) {
-                return;
+                return null;
             }
-            lastApiEntities.clear();
+            List<LiepinEntity> entities = new ArrayList<>();
             for (JsonNode item : cardList) {
                 JsonNode job = item.path("job");
                 JsonNode comp = item.path("comp");
@@ -173,16 +221,12 @@ public class Liepin {
                 entity.setHrImId(readText(recruiter.path("imId")));
 
                 // 缓存到内存供页面投递显示使用（避免从页面读取文本）
-                lastApiEntities.add(entity);
-            }
-            // 批量持久化：仅不存在时插入，默认 delivered=0
-            try {
-                liepinService.insertSnapshotsIfNotExistsBatch(lastApiEntities);
-            } catch (Exception e) {
-                log.warn("批量保存猎聘岗位数据失败: {}", e.getMessage());
+                entities.add(entity);
             }
+            return entities;
         } catch (Exception e) {
             log.warn("解析猎聘JSON失败: {}", e.getMessage());
+            return null;
         }
     }
 
@@ -267,6 +311,8 @@ public class Liepin {
                     } catch (Exception ignored) { return false; }
                 }, () -> {});
             } catch (Exception ignored) {}
+            // 等待入库队列处理完本页接口数据，确保 lastApiEntities 已刷新
+            PlaywrightUtil.waitUntil(() -> ingestQueue.isIdle(INGEST_SOURCE), 3000, 0);
             info(String.format("正在投递【%s】第【%d】页...", cleanKeyword, i + 1));
             submitJob();
             info(String.format("已投递第【%d】页所有的岗位...", i + 1));
@@ -327,6 +373,10 @@ public class Liepin {
         // 获取hr数量
         Locator jobCards = page.locator(JOB_CARDS);
         int count = jobCards.count();
+        // 一次页面脚本执行取回所有卡片的埋点属性，用于接口数据缺失时解析 jobId
+        List<Map<String, String>> cardAttrs = PlaywrightUtil.extractRows(page, JOB_CARDS, CARD_ID_FIELDS);
+        // 固定本页使用的接口数据快照，避免遍历过程中被下一页数据替换
+        List<LiepinEntity> apiEntities = lastApiEntities;
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < count; i++) {
             if (shouldStop()) {
@@ -340,12 +390,18 @@ public class Liepin {
             String companyName = null;
             String salary = null;
             String recruiterName = null;
-            if (i < lastApiEntities.size()) {
-                LiepinEntity apiEntity = lastApiEntities.get(i);
+            if (i < apiEntities.size()) {
+                LiepinEntity apiEntity = apiEntities.get(i);
                 jobName = safeText(apiEntity.getJobTitle());
                 companyName = safeText(apiEntity.getCompName());
                 salary = safeText(apiEntity.getJobSalaryText());
                 recruiterName = safeText(apiEntity.getHrName());
+                // 与 Boss 共用黑名单：命中的岗位不打招呼
+                String hit = bossService.findBlacklistHit(companyName, jobName, apiEntity.getHrTitle());
+                if (hit != null) {
+                    log.info("被过滤：{} | 公司：{} | 岗位：{}", hit, companyName, jobName);
+                    continue;
+                }
             }
             if (recruiterName == null) recruiterName = "HR";
             if (jobName == null) jobName = "岗位";
@@ -416,7 +472,7 @@ public class Liepin {
                             // 重试前重新滚动确保元素可见
                             try {
                                 page.evaluate("(element) => element.scrollIntoView({behavior: 'instant', block: 'center'})", currentJobCard.elementHandle());
-                                Thread.sleep(500); // 等待滚动完成
+                                PlaywrightUtil.waitForDomStable(page, 150, 500); // 等待滚动完成
                             } catch (Exception e) {
                                 log.warn("重试前滚动失败: {}", e.getMessage());
                             }
@@ -499,11 +555,11 @@ public class Liepin {
             
             // 提取 jobId（用于更新投递状态）
             Long jobIdForUpdate = null;
-            if (i < lastApiEntities.size()) {
-                jobIdForUpdate = lastApiEntities.get(i).getJobId();
+            if (i < apiEntities.size()) {
+                jobIdForUpdate = apiEntities.get(i).getJobId();
             }
-            if (jobIdForUpdate == null) {
-                jobIdForUpdate = extractJobIdFromCard(currentJobCard);
+            if (jobIdForUpdate == null && i < cardAttrs.size()) {
+                jobIdForUpdate = extractJobIdFromCard(cardAttrs.get(i).get("ext"), cardAttrs.get(i).get("scm"));
             }
 
             // 检查按钮文本并点击
@@ -518,19 +574,19 @@ public class Liepin {
                             
                             // 先移动到按钮中心
                             page.mouse().move(centerX, centerY);
-                            Thread.sleep(50);
+                            PlaywrightUtil.sleepMillis(50);
                             
                             // 向右移动2像素
                             page.mouse().move(centerX + 2, centerY);
-                            Thread.sleep(50);
+                            PlaywrightUtil.sleepMillis(50);
                             
                             // 向左移动2像素（回到中心再向左2像素）
                             page.mouse().move(centerX - 2, centerY);
-                            Thread.sleep(50);
+                            PlaywrightUtil.sleepMillis(50);
                             
                             // 回到中心位置
                             page.mouse().move(centerX, centerY);
-                            Thread.sleep(50);
+                            PlaywrightUtil.sleepMillis(50);
                             
                             log.debug("完成鼠标微调，准备点击按钮");
                         }
@@ -549,7 +605,7 @@ public class Liepin {
                         // 直接关闭聊天窗口
                         Locator close = page.locator(CHAT_CLOSE);
                         if (close.count() > 0) {
-                            PlaywrightUtil.sleep(1);
+                            PlaywrightUtil.waitForSelector(page, CHAT_CLOSE, 1000);
                             close.click();
                         }
                         
@@ -557,7 +613,7 @@ public class Liepin {
                         sb.setLength(0);
                         // 点击成功后标记为已投递
                         if (jobIdForUpdate != null) {
-                            liepinService.markDelivered(jobIdForUpdate);
+                            markDelivered(jobIdForUpdate);
                         }
                         
                     } catch (Exception e) {
@@ -566,7 +622,7 @@ public class Liepin {
                         resultList.add(sb.append("【").append(companyName).append(" ").append(jobName).append(" ").append(salary).append(" ").append(recruiterName).append(" ").append("】").toString());
                         sb.setLength(0);
                         if (jobIdForUpdate != null) {
-                            liepinService.markDelivered(jobIdForUpdate);
+                            markDelivered(jobIdForUpdate);
                         }
                     }
                     
@@ -576,7 +632,7 @@ public class Liepin {
             } else {
                 // 如果按钮是“继续聊”，视为已投递
                 if (button != null && buttonText.contains("继续聊") && jobIdForUpdate != null) {
-                    liepinService.markDelivered(jobIdForUpdate);
+                    markDelivered(jobIdForUpdate);
                 }
                 if (button != null) {
                     log.debug("跳过岗位（按钮文本不匹配）: 【{}】的【{}·{}】岗位，按钮文本: '{}'", companyName, jobName, salary, buttonText);
@@ -587,10 +643,18 @@ public class Liepin {
         }
     }
 
+    // 标记已投递：由写线程异步保存，保存失败时记录日志
+    private void markDelivered(Long jobId) {
+        liepinService.markDelivered(jobId).whenComplete((v, e) -> {
+            if (e != null) {
+                log.warn("更新投递状态失败：jobId={}，{}", jobId, e.getMessage());
+            }
+        });
+    }
+
     // 从岗位卡片的 data 属性中提取 jobId（兼容 lastApiEntities 缺失场景）
-    private Long extractJobIdFromCard(Locator card) {
+    private Long extractJobIdFromCard(String ext, String scm) {
         try {
-            String ext = card.getAttribute("data-tlg-ext");
             if (ext != null && !ext.isEmpty()) {
                 try {
                     String decoded = java.net.URLDecoder.decode(ext, java.nio.charset.StandardCharsets.UTF_8);
@@ -606,7 +670,6 @@ public class Liepin {
                     }
                 }
             }
-            String scm = card.getAttribute("data-tlg-scm");
             if (scm != null) {
                 java.util.regex.Matcher m = java.util.regex.Pattern.compile("jobId=(\\d+)").matcher(scm);
                 if (m.find()) {
@@ -0,0 +1,237 @@
+package com.getjobs.worker.manager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 接口数据入库队列
+ * Playwright 的 onResponse 回调只负责把原始响应体交给队列，由专用消费线程批量解析与写库，
+ * 避免 SQLite 写入阻塞浏览器事件分发（进而拖慢点击、翻页）。
+ * 队列有界：满时短暂等待（背压），超时则丢弃并计数。
+ */
+@Slf4j
+@Component
+public class IngestQueue {
+
+    /**
+     * 批量处理器：同一来源的一批响应体
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+        void handle(List<String> bodies) throws Exception;
+    }
+
+    private record Item(String source, String body, long enqueuedAt) {
+    }
+
+    // 队列容量
+    @Value("${ingest.capacity:256}")
+    private int capacity;
+
+    // 单批最多处理的响应数
+    @Value("${ingest.batch-size:16}")
+    private int batchSize;
+
+    // 队列满时生产方最多等待的毫秒数（超时丢弃）
+    @Value("${ingest.offer-timeout-ms:200}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<Item> queue;
+
+    // 来源 -> 处理器
+    private final Map<String, BatchHandler> handlers = new ConcurrentHashMap<>();
+
+    // 来源 -> 统计
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    private Thread consumer;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        running = true;
+        consumer = new Thread(this::loop, "ingest-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+        log.info("接口数据入库队列已启动 - 容量: {}, 批大小: {}", capacity, batchSize);
+    }
+
+    /**
+     * 注册（或替换）来源的批量处理器
+     *
+     * @param source  来源标识（如 liepin、51job）
+     * @param handler 处理器
+     */
+    public void register(String source, BatchHandler handler) {
+        handlers.put(source, handler);
+    }
+
+    /**
+     * 提交一条原始响应体
+     * 队列满时最多等待 offerTimeoutMs，仍无空位则丢弃
+     *
+     * @param source 来源标识
+     * @param body   响应体
+     * @return 是否入队成功
+     */
+    public boolean offer(String source, String body) {
+        Stats s = stats.computeIfAbsent(source, k -> new Stats());
+        if (!running || body == null || body.isEmpty()) {
+            return false;
+        }
+        s.pending.incrementAndGet();
+        boolean accepted;
+        try {
+            accepted = queue.offer(new Item(source, body, System.nanoTime()), offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (accepted) {
+            s.enqueued.increment();
+        } else {
+            s.pending.decrementAndGet();
+            s.dropped.increment();
+            log.warn("{} 入库队列已满，丢弃一条接口数据（累计丢弃 {}）", source, s.dropped.sum());
+        }
+        return accepted;
+    }
+
+    /**
+     * 指定来源的数据是否已全部处理完成（无排队、无处理中的批次），不受其他来源影响
+     *
+     * @param source 来源标识
+     */
+    public boolean isIdle(String source) {
+        Stats s = stats.get(source);
+        return s == null || s.pending.get() == 0;
+    }
+
+    /**
+     * 获取队列统计
+     *
+     * @return depth、pending 与各来源的 pending/enqueued/processed/dropped/failed/lastLagMillis/maxLagMillis
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("depth", queue != null ? queue.size() : 0);
+        result.put("pending", stats.values().stream().mapToInt(s -> s.pending.get()).sum());
+        Map<String, Object> sources = new LinkedHashMap<>();
+        stats.forEach((source, s) -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("pending", s.pending.get());
+            item.put("enqueued", s.enqueued.sum());
+            item.put("processed", s.processed.sum());
+            item.put("dropped", s.dropped.sum());
+            item.put("failed", s.failed.sum());
+            item.put("lastLagMillis", s.lastLagMillis.get());
+            item.put("maxLagMillis", s.maxLagMillis.get());
+            sources.put(source, item);
+        });
+        result.put("sources", sources);
+        return result;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            consumer.interrupt();
+            try {
+                consumer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 关闭前把剩余数据处理完，避免丢失已抓取的岗位
+        List<Item> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            process(rest);
+        }
+    }
+
+    private void loop() {
+        List<Item> batch = new ArrayList<>();
+        while (running) {
+            try {
+                Item first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, Math.max(0, batchSize - 1));
+                process(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 按来源分组后交给各自的处理器（同一来源保持入队顺序）
+     */
+    private void process(List<Item> batch) {
+        Map<String, List<Item>> bySource = new LinkedHashMap<>();
+        for (Item item : batch) {
+            bySource.computeIfAbsent(item.source(), k -> new ArrayList<>()).add(item);
+        }
+        bySource.forEach((source, items) -> {
+            Stats s = stats.computeIfAbsent(source, k -> new Stats());
+            long now = System.nanoTime();
+            long lag = TimeUnit.NANOSECONDS.toMillis(now - items.get(0).enqueuedAt());
+            s.lastLagMillis.set(lag);
+            s.maxLagMillis.accumulateAndGet(lag, Math::max);
+            BatchHandler handler = handlers.get(source);
+            try {
+                if (handler == null) {
+                    log.warn("{} 未注册入库处理器，丢弃 {} 条接口数据", source, items.size());
+                    s.dropped.add(items.size());
+                } else {
+                    handler.handle(items.stream().map(Item::body).toList());
+                    s.processed.add(items.size());
+                }
+            } catch (Exception e) {
+                s.failed.add(items.size());
+                log.warn("{} 接口数据入库失败: {}", source, e.getMessage());
+            } finally {
+                s.pending.addAndGet(-items.size());
+            }
+        });
+    }
+
+    /**
+     * 单个来源的统计
+     */
+    private static class Stats {
+        // 已入队但尚未处理完成的响应数（含正在处理的批次）
+        private final AtomicInteger pending = new AtomicInteger();
+        private final LongAdder enqueued = new LongAdder();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicLong lastLagMillis = new AtomicLong();
+        private final AtomicLong maxLagMillis = new AtomicLong();
+    }
+}
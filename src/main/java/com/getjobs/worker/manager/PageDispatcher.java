@@ -0,0 +1,220 @@
+package com.getjobs.worker.manager;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 平台页面调度器（Actor模型）
+ * 每个平台一个专属线程，独占该平台的Playwright实例；所有对Page/Context的访问都以命令形式进入队列，
+ * 由该线程串行执行并通过Future返回结果。
+ * <p>
+ * 长任务（如投递）本身也运行在调度线程上：当任务调用 {@link #idle(long)}（PlaywrightUtil.sleep 会自动调用）时，
+ * 调度线程会利用等待时间执行队列中的登录检测、Cookie保存等命令，从而安全地交错执行，而不必整体暂停监控；
+ * PlaywrightUtil 的条件等待分段进行，段与段之间通过 {@link #runPending()} 执行已排队的命令。
+ */
+@Slf4j
+public class PageDispatcher {
+
+    // 当前线程所属的调度器（仅调度线程有值）
+    private static final ThreadLocal<PageDispatcher> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    private final String platform;
+
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+
+    // 可合并命令的去重键（同一键在队列中最多只保留一条）
+    private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    // 是否正在空闲等待中穿插执行命令（防止被穿插的命令内部再次 idle 造成嵌套执行）
+    private boolean draining = false;
+
+    public PageDispatcher(String platform) {
+        this.platform = platform;
+        this.thread = new Thread(this::loop, "playwright-" + platform);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 获取当前线程所属的调度器
+     *
+     * @return 调度器，非调度线程返回null
+     */
+    public static PageDispatcher current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 当前线程是否为该调度器的线程
+     */
+    public boolean isDispatchThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * 提交命令，返回结果Future
+     * 若在调度线程内调用则直接执行（可重入），避免自身等待自身造成死锁
+     *
+     * @param task 命令
+     * @return 结果Future
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (isDispatchThread()) {
+            complete(future, task);
+            return future;
+        }
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException(platform + " 调度器已关闭"));
+            return future;
+        }
+        queue.offer(() -> complete(future, task));
+        return future;
+    }
+
+    /**
+     * 提交无返回值命令
+     */
+    public CompletableFuture<Void> submit(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 投递可合并的异步命令：同一key的命令尚未执行时，后续投递会被忽略
+     * 适用于登录检测这类只关心最新状态的命令
+     *
+     * @param key  合并键
+     * @param task 命令
+     */
+    public void post(String key, Runnable task) {
+        if (!running || !pendingKeys.add(key)) {
+            return;
+        }
+        queue.offer(() -> {
+            pendingKeys.remove(key);
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.debug("{} 调度命令[{}]执行异常: {}", platform, key, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 在调度线程上空闲等待指定时间，期间执行队列中的其他命令
+     * 非调度线程调用时退化为普通sleep
+     *
+     * @param millis 等待毫秒数
+     */
+    public void idle(long millis) throws InterruptedException {
+        if (!isDispatchThread() || draining) {
+            Thread.sleep(millis);
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            Runnable next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next != null) {
+                draining = true;
+                try {
+                    runCommand(next);
+                } finally {
+                    draining = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * 在调度线程上执行队列中已有的命令后立即返回（不等待新命令）
+     * 供分段进行的条件等待在两段之间让出调度线程
+     */
+    public void runPending() {
+        if (!isDispatchThread() || draining) {
+            return;
+        }
+        draining = true;
+        try {
+            for (int n = queue.size(); n > 0; n--) {
+                Runnable next = queue.poll();
+                if (next == null) {
+                    break;
+                }
+                runCommand(next);
+            }
+        } finally {
+            draining = false;
+        }
+    }
+
+    /**
+     * 队列中等待执行的命令数
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 关闭调度器：先执行完关闭命令再停止线程
+     *
+     * @param finalTask 最后执行的命令（如关闭浏览器），可为null
+     */
+    public void shutdown(Runnable finalTask) {
+        CompletableFuture<Void> done = finalTask != null ? submit(finalTask) : CompletableFuture.completedFuture(null);
+        try {
+            done.get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.debug("{} 调度器关闭命令执行失败: {}", platform, e.getMessage());
+        }
+        running = false;
+        thread.interrupt();
+    }
+
+    private void loop() {
+        CURRENT.set(this);
+        while (running) {
+            try {
+                runCommand(queue.take());
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            }
+        }
+        queue.clear();
+        CURRENT.remove();
+    }
+
+    private void runCommand(Runnable command) {
+        try {
+            command.run();
+        } catch (Throwable e) {
+            log.warn("{} 调度命令执行异常: {}", platform, e.getMessage());
+        }
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, Callable<T> task) {
+        try {
+            future.complete(task.call());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.getjobs.worker.manager;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.WaitUntilState;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单个平台的浏览器会话
+ * 每个平台独占一个Playwright驱动连接、一个浏览器进程、一个BrowserContext（独立Cookie存储）和一个主Page，
+ * 不同平台之间互不争用驱动线程，可以真正并行投递
+ */
+@Slf4j
+@Getter
+public class PlatformSession {
+
+    // 平台标识（boss/liepin/51job/zhilian）
+    private final String platform;
+
+    // 该平台浏览器使用的CDP调试端口
+    private final int cdpPort;
+
+    // Playwright实例（独立的驱动进程与连接）
+    private Playwright playwright;
+
+    // 浏览器实例（平台独占）
+    private Browser browser;
+
+    // 浏览器上下文（平台独占，Cookie互不干扰）
+    private BrowserContext context;
+
+    // 平台主页面
+    private Page page;
+
+    // 当前运行模式
+    private RunProfile profile;
+
+    private String userAgent;
+
+    private int defaultTimeout;
+
+    public PlatformSession(String platform, int cdpPort) {
+        this.platform = platform;
+        this.cdpPort = cdpPort;
+    }
+
+    /**
+     * 启动该平台的Playwright、浏览器与上下文，并创建主页面
+     * 注意：Playwright对象非线程安全，应在该平台专属线程中调用
+     *
+     * @param profile        运行模式
+     * @param userAgent      浏览器UA
+     * @param defaultTimeout 页面默认超时时间（毫秒）
+     */
+    public void open(RunProfile profile, String userAgent, int defaultTimeout) {
+        this.userAgent = userAgent;
+        this.defaultTimeout = defaultTimeout;
+        playwright = Playwright.create();
+        launch(profile, null);
+        log.info("✓ {} 浏览器会话已创建 (模式: {}, 调试端口: {})", platform, profile, cdpPort);
+    }
+
+    /**
+     * 切换运行模式：保存当前上下文的登录态（Cookie + localStorage），以新模式重启浏览器后恢复并回到原页面
+     * Playwright驱动连接保持不变，无需重启JVM
+     *
+     * @param target 目标运行模式
+     * @return 是否发生了切换（模式相同则不切换）
+     */
+    public boolean switchProfile(RunProfile target) {
+        if (target == null || target == profile) {
+            return false;
+        }
+        String storageState = context.storageState();
+        String currentUrl = null;
+        try {
+            currentUrl = page.url();
+        } catch (Exception ignored) {
+        }
+
+        closeBrowser();
+        launch(target, storageState);
+
+        if (currentUrl != null && currentUrl.startsWith("http")) {
+            try {
+                page.navigate(currentUrl, new Page.NavigateOptions()
+                        .setTimeout(60000)
+                        .setWaitUntil(WaitUntilState.DOMCONTENTLOADED));
+            } catch (Exception e) {
+                log.warn("{} 切换模式后恢复页面失败: {}", platform, e.getMessage());
+            }
+        }
+        log.info("{} 浏览器已切换为 {} 模式", platform, target);
+        return true;
+    }
+
+    private void launch(RunProfile target, String storageState) {
+        browser = playwright.chromium().launch(target.launchOptions(cdpPort));
+        Browser.NewContextOptions options = target.contextOptions(userAgent);
+        if (storageState != null) {
+            options.setStorageState(storageState);
+        }
+        context = browser.newContext(options);
+        page = context.newPage();
+        page.setDefaultTimeout(defaultTimeout);
+        profile = target;
+    }
+
+    private void closeBrowser() {
+        try {
+            if (context != null) {
+                context.close();
+            }
+        } catch (Exception e) {
+            log.debug("关闭{}上下文失败: {}", platform, e.getMessage());
+        }
+        try {
+            if (browser != null) {
+                browser.close();
+            }
+        } catch (Exception e) {
+            log.debug("关闭{}浏览器失败: {}", platform, e.getMessage());
+        }
+        page = null;
+        context = null;
+        browser = null;
+    }
+
+    /**
+     * 是否已完成初始化
+     */
+    public boolean isOpen() {
+        return playwright != null && browser != null && context != null && page != null;
+    }
+
+    /**
+     * 关闭该平台的页面、上下文、浏览器与Playwright实例
+     */
+    public void close() {
+        try {
+            if (page != null) {
+                page.close();
+            }
+        } catch (Exception e) {
+            log.debug("关闭{}页面失败: {}", platform, e.getMessage());
+        }
+        closeBrowser();
+        try {
+            if (playwright != null) {
+                playwright.close();
+            }
+        } catch (Exception e) {
+            log.debug("关闭{} Playwright实例失败: {}", platform, e.getMessage());
+        }
+        playwright = null;
+        log.info("{} 浏览器会话已关闭", platform);
+    }
+}
@@ -11,24 +11,30 @@ import jakarta.annotation.PreDestroy;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.scheduling.annotation.Scheduled;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 
 /**
  * Playwright管理器
  * Spring管理的单例Bean，在应用启动时自动初始化Playwright实例
- * 支持4个求职平台的共享BrowserContext和登录状态监控
- * 所有平台在同一个浏览器窗口的不同标签页中运行
+ * 4个求职平台各自拥有独立的Playwright驱动、浏览器、BrowserContext（Cookie互相隔离）和专属线程，
+ * 可以同时全速投递而互不争用
+ * 每个平台的Playwright对象只由该平台的 {@link PageDispatcher} 线程访问，监控、Cookie保存与投递任务都以命令形式串行执行
  */
 @Slf4j
 @Getter
@@ -36,26 +42,23 @@ import java.util.function.Consumer;
 @Lazy
 public class PlaywrightManager {
 
-    // Playwright实例
-    private Playwright playwright;
+    // 各平台独立的浏览器会话（平台 -> 会话）
+    private final Map<String, PlatformSession> sessions = new ConcurrentHashMap<>();
 
-    // 浏览器实例（所有平台共享）
-    private Browser browser;
-
-    // 浏览器上下文（所有平台共享，在同一个窗口中打开多个标签页）
-    private BrowserContext context;
+    // 各平台专属的页面调度器（平台 -> 调度器），Playwright对象只在调度线程中创建和访问
+    private final Map<String, PageDispatcher> dispatchers = new ConcurrentHashMap<>();
 
     // Boss直聘页面
-    private Page bossPage;
+    private volatile Page bossPage;
 
     // 猎聘页面
-    private Page liepinPage;
+    private volatile Page liepinPage;
 
     // 51job页面（预留）
-    private Page job51Page;
+    private volatile Page job51Page;
 
     // 智联招聘页面（预留）
-    private Page zhilianPage;
+    private volatile Page zhilianPage;
 
     // 登录状态追踪（平台 -> 是否已登录）
     private final Map<String, Boolean> loginStatus = new ConcurrentHashMap<>();
@@ -63,16 +66,8 @@ public class PlaywrightManager {
     // 登录状态监听器
     private final List<Consumer<LoginStatusChange>> loginStatusListeners = new CopyOnWriteArrayList<>();
 
-    // 控制是否暂停对bossPage的后台监控，避免与任务执行并发访问同一页面
-    private volatile boolean bossMonitoringPaused = false;
-    // 控制是否暂停对liepinPage的后台监控
-    private volatile boolean liepinMonitoringPaused = false;
-
-    // 控制是否暂停对51jobPage的后台监控
-  private volatile boolean job51MonitoringPaused = false;
-
-    // 控制是否暂停对zhilianPage的后台监控
-    private volatile boolean zhilianMonitoringPaused = false;
+    // 正在执行投递任务的平台（投递期间登录检测只观察状态，不做导航引导，避免打断投递流程）
+    private final Set<String> deliveringPlatforms = ConcurrentHashMap.newKeySet();
 
     // 记录智联招聘是否已处理过未登录引导（仅初始化时执行一次）
     private volatile boolean zhilianLoginGuided = false;
@@ -80,9 +75,36 @@ public class PlaywrightManager {
     // 默认超时时间（毫秒）
   private static final int DEFAULT_TIMEOUT = 30000;
 
-    // Playwright调试端口
+    // 登录检测命令的合并键
+    private static final String LOGIN_CHECK_KEY = "login-check";
+
+    // 登录态存活检测命令的合并键
+    private static final String SESSION_CHECK_KEY = "session-check";
+
+    // 各平台登录后才会下发的鉴权Cookie（存在且未过期即判定已登录，无需DOM探测）
+    private static final Map<String, List<String>> LOGIN_COOKIES = Map.of(
+            "boss", List.of("wt2", "zp_at"),
+            "liepin", List.of("lt_auth"),
+            "51job", List.of(),
+            "zhilian", List.of("at", "rt"));
+
+    // 各平台与登录态相关的接口（扫码轮询、登录、用户信息），收到响应即触发一次登录检测
+    private static final Map<String, List<String>> LOGIN_SIGNAL_URLS = Map.of(
+            "boss", List.of("/wapi/zppassport/", "/wapi/zpuser/wap/getUserInfo.json"),
+            "liepin", List.of("passport.liepin.com", "/api/com.liepin.usercx", "/api/com.liepin.passport"),
+            "51job", List.of("login.51job.com", "/pc/my/"),
+            "zhilian", List.of("passport.zhaopin.com", "i.zhaopin.com", "/c/i/user"));
+
+    // Playwright调试端口（Boss使用基础端口，其余平台依次递增）
     private static final int CDP_PORT = 7866;
 
+    // 浏览器UA
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/135.0.0.0 Safari/537.36";
+
+    // 平台标识（按CDP端口偏移顺序排列）
+    private static final List<String> PLATFORMS = List.of("boss", "liepin", "51job", "zhilian");
+
     // 平台URL常量
     private static final String BOSS_URL = "https://www.zhipin.com";
     private static final String LIEPIN_URL = "https://www.liepin.com";
@@ -100,6 +122,17 @@ public class PlaywrightManager {
     @Autowired
     private CookieService cookieService;
 
+    @Autowired
+    private ResourceBlocker resourceBlocker;
+
+    // 启动时的浏览器运行模式（interactive/headless）
+    @Value("${playwright.profile:interactive}")
+    private String startupProfile;
+
+    // 投递任务使用的运行模式，为空表示沿用当前模式；任务结束后恢复原模式
+    @Value("${playwright.delivery-profile:}")
+    private String deliveryProfile;
+
     /**
      * 初始化Playwright实例（延迟初始化）
      */
@@ -112,56 +145,29 @@ public class PlaywrightManager {
         log.info("========================================");
 
         try {
-            // 启动Playwright
-            playwright = Playwright.create();
-            log.info("✓ Playwright引擎已启动");
-
-            // 创建浏览器实例，使用固定CDP端口7866，最大化启动
-            browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
-                    .setHeadless(false) // 非无头模式，可视化调试
-                    .setSlowMo(50) // 放慢操作速度，便于调试
-                    .setArgs(List.of(
-                            "--remote-debugging-port=" + CDP_PORT, // 使用固定CDP端口
-                            "--start-maximized" // 最大化启动窗口
-                    )));
-            log.info("✓ Chrome浏览器已启动 (调试端口: {})", CDP_PORT);
-
-            // 创建共享的BrowserContext（所有平台在同一个窗口的不同标签页中）
-            context = browser.newContext(new Browser.NewContextOptions()
-                    .setViewportSize(null) // 不设置固定视口，使用浏览器窗口实际大小
-                    .setUserAgent(
-                            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/135.0.0.0 Safari/537.36"));
-            log.info("✓ BrowserContext已创建（所有平台共享）");
-
-            // 顺序创建所有Page（避免并发创建Page导致的竞态条件）
-            log.info("开始创建所有平台的Page...");
-            bossPage = context.newPage();
-            bossPage.setDefaultTimeout(DEFAULT_TIMEOUT);
-            log.info("✓ Boss Page已创建");
-
-            liepinPage = context.newPage();
-            liepinPage.setDefaultTimeout(DEFAULT_TIMEOUT);
-            log.info("✓ 猎聘 Page已创建");
-
-            job51Page = context.newPage();
-            job51Page.setDefaultTimeout(DEFAULT_TIMEOUT);
-            log.info("✓ 51job Page已创建");
-
-            zhilianPage = context.newPage();
-            zhilianPage.setDefaultTimeout(DEFAULT_TIMEOUT);
-            log.info("✓ 智联招聘 Page已创建");
-
-            // 并发执行各平台的初始化逻辑（导航、Cookie加载等）
+            // 每个平台在自己的线程中创建独立的Playwright、浏览器和上下文，随后完成导航、Cookie加载等初始化
             log.info("开始并发初始化所有平台...");
-            CompletableFuture<Void> bossFuture = CompletableFuture.runAsync(this::setupBossPlatform);
-            CompletableFuture<Void> liepinFuture = CompletableFuture.runAsync(this::setupLiepinPlatform);
-            CompletableFuture<Void> job51Future = CompletableFuture.runAsync(this::setup51jobPlatform);
-            CompletableFuture<Void> zhilianFuture = CompletableFuture.runAsync(this::setupZhilianPlatform);
+            CompletableFuture<Void> bossFuture = runOnPlatformThread("boss", () -> {
+                bossPage = openSession("boss").getPage();
+                setupBossPlatform();
+            });
+            CompletableFuture<Void> liepinFuture = runOnPlatformThread("liepin", () -> {
+                liepinPage = openSession("liepin").getPage();
+                setupLiepinPlatform();
+            });
+            CompletableFuture<Void> job51Future = runOnPlatformThread("51job", () -> {
+                job51Page = openSession("51job").getPage();
+                setup51jobPlatform();
+            });
+            CompletableFuture<Void> zhilianFuture = runOnPlatformThread("zhilian", () -> {
+                zhilianPage = openSession("zhilian").getPage();
+                setupZhilianPlatform();
+            });
 
             // 等待所有平台初始化完成
             CompletableFuture.allOf(bossFuture, liepinFuture, job51Future, zhilianFuture).join();
 
-            log.info("✓ 浏览器自动化引擎初始化完成（所有平台已并发启动）");
+            log.info("✓ 浏览器自动化引擎初始化完成（所有平台已独立启动）");
             log.info("========================================");
         } catch (Exception e) {
             log.error("✗ 浏览器自动化引擎初始化失败", e);
@@ -169,6 +175,174 @@ public class PlaywrightManager {
         }
     }
 
+    /**
+     * 在平台专属线程中执行任务
+     *
+     * @param platform 平台标识
+     * @param task     任务
+     */
+    private CompletableFuture<Void> runOnPlatformThread(String platform, Runnable task) {
+        return getDispatcher(platform).submit(task);
+    }
+
+    /**
+     * 获取平台的页面调度器（不存在时创建）
+     *
+     * @param platform 平台标识（boss/liepin/51job/zhilian）
+     * @return 调度器
+     */
+    public PageDispatcher getDispatcher(String platform) {
+        return dispatchers.computeIfAbsent(platform, PageDispatcher::new);
+    }
+
+    /**
+     * 在平台调度线程上同步执行命令并返回结果
+     * 任何线程访问平台的Page/Context都应通过该方法，由调度线程串行执行
+     *
+     * @param platform 平台标识
+     * @param task     命令
+     * @return 命令结果
+     */
+    public <T> T callOnPlatform(String platform, Callable<T> task) {
+        try {
+            return getDispatcher(platform).submit(task).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 创建并启动平台独立的浏览器会话
+     *
+     * @param platform 平台标识
+     * @return 已启动的会话
+     */
+    private PlatformSession openSession(String platform) {
+        PlatformSession session = new PlatformSession(platform, CDP_PORT + PLATFORMS.indexOf(platform));
+        session.open(RunProfile.of(startupProfile, RunProfile.INTERACTIVE), USER_AGENT, DEFAULT_TIMEOUT);
+        sessions.put(platform, session);
+        return session;
+    }
+
+    /**
+     * 在平台调度线程上执行投递任务
+     * 任务执行期间该平台的登录检测仍会在等待间隙中穿插执行，但不会触发登录页跳转
+     *
+     * @param platform 平台标识
+     * @param task     投递任务
+     * @return 任务结果
+     */
+    public <T> T runDelivery(String platform, Callable<T> task) {
+        deliveringPlatforms.add(platform);
+        try {
+            return callOnPlatform(platform, () -> {
+                // 按配置切换到投递模式（如无头高吞吐），任务结束后恢复原模式，登录态保持不变
+                PlatformSession session = sessions.get(platform);
+                RunProfile previous = session != null ? session.getProfile() : null;
+                RunProfile target = RunProfile.of(deliveryProfile, previous);
+                boolean switched = previous != null && doSwitchProfile(platform, target);
+                // 投递期间拦截图片、字体、音视频与埋点请求（登录流程不受影响）
+                resourceBlocker.install(platform, contextOf(platform));
+                try {
+                    return task.call();
+                } finally {
+                    resourceBlocker.uninstall(platform, contextOf(platform));
+                    if (switched) {
+                        doSwitchProfile(platform, previous);
+                    }
+                }
+            });
+        } finally {
+            deliveringPlatforms.remove(platform);
+        }
+    }
+
+    /**
+     * 运行时切换平台浏览器的运行模式（保留登录态，无需重启JVM）
+     *
+     * @param platform 平台标识
+     * @param profile  目标模式
+     * @return 是否发生了切换
+     */
+    public boolean switchProfile(String platform, RunProfile profile) {
+        if (deliveringPlatforms.contains(platform)) {
+            throw new IllegalStateException(platform + " 正在执行投递任务，无法切换运行模式");
+        }
+        return callOnPlatform(platform, () -> doSwitchProfile(platform, profile));
+    }
+
+    /**
+     * 获取各平台当前的运行模式
+     *
+     * @return 平台 -> 模式
+     */
+    public Map<String, RunProfile> getProfiles() {
+        Map<String, RunProfile> profiles = new LinkedHashMap<>();
+        for (String platform : PLATFORMS) {
+            PlatformSession session = sessions.get(platform);
+            if (session != null) {
+                profiles.put(platform, session.getProfile());
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * 切换模式并重新绑定主页面与登录监控（需在平台调度线程上执行）
+     */
+    private boolean doSwitchProfile(String platform, RunProfile profile) {
+        PlatformSession session = sessions.get(platform);
+        if (session == null || !session.switchProfile(profile)) {
+            return false;
+        }
+        Page page = session.getPage();
+        switch (platform) {
+            case "boss" -> {
+                bossPage = page;
+                setupLoginMonitoring(page);
+            }
+            case "liepin" -> {
+                liepinPage = page;
+                setupLiepinLoginMonitoring(page);
+            }
+            case "51job" -> {
+                job51Page = page;
+                setup51jobLoginMonitoring(page);
+            }
+            case "zhilian" -> {
+                zhilianPage = page;
+                setupZhilianLoginMonitoring(page);
+            }
+            default -> throw new IllegalArgumentException("Unsupported platform: " + platform);
+        }
+        return true;
+    }
+
+    /**
+     * 获取平台的浏览器会话
+     *
+     * @param platform 平台标识（boss/liepin/51job/zhilian）
+     * @return 会话，未初始化时返回null
+     */
+    public PlatformSession getSession(String platform) {
+        return sessions.get(platform);
+    }
+
+    /**
+     * 获取平台独立的BrowserContext
+     */
+    private BrowserContext contextOf(String platform) {
+        PlatformSession session = sessions.get(platform);
+        if (session == null || session.getContext() == null) {
+            throw new IllegalStateException(platform + " 浏览器上下文尚未初始化");
+        }
+        return session.getContext();
+    }
+
     /**
      * 设置Boss直聘平台（加载Cookie、导航、监控）
      */
@@ -182,7 +356,7 @@ public class PlaywrightManager {
                 List<Cookie> cookies = filterCookiesByDomain(parseCookiesFromString(cookieStr), BOSS_DOMAIN);
 
                 if (!cookies.isEmpty()) {
-                    context.addCookies(cookies);
+                    contextOf("boss").addCookies(cookies);
                     log.info("已从数据库加载Boss Cookie并注入浏览器上下文，共 {} 条", cookies.size());
                 } else {
                     log.warn("解析Cookie失败，未能加载任何Cookie");
@@ -295,13 +469,13 @@ public class PlaywrightManager {
         // 监听页面导航事件，检测URL变化
         page.onFrameNavigated(frame -> {
             if (frame == page.mainFrame()) {
-                // 事件触发的检查在Playwright内部线程执行，仍需遵守暂停标志
-                if (!bossMonitoringPaused) {
-                    checkLoginStatus(page, "boss");
-                }
+                postLoginCheck("boss");
             }
         });
 
+        // 监听登录相关接口响应（扫码、登录、用户信息），事件驱动地触发检测
+        watchLoginSignals("boss", page);
+
         log.info("{}平台登录状态监控已启用", "boss");
     }
 
@@ -319,7 +493,7 @@ public class PlaywrightManager {
                 List<Cookie> cookies = filterCookiesByDomain(parseCookiesFromString(cookieStr), LIEPIN_DOMAIN);
 
                 if (!cookies.isEmpty()) {
-                    context.addCookies(cookies);
+                    contextOf("liepin").addCookies(cookies);
                     log.info("已从数据库加载猎聘 Cookie并注入浏览器上下文，共 {} 条", cookies.size());
                 } else {
                     log.warn("解析猎聘Cookie失败，未能加载任何Cookie");
@@ -394,6 +568,9 @@ public class PlaywrightManager {
                 Locator loginEntry = liepinPage.locator(
                     "#header-quick-menu-login, a[href*='login'], a[data-key='login'], button[data-key='login'], text=/登录|注册/").first();
                 if (loginEntry.isVisible()) {
+                    if (deliveringPlatforms.contains("liepin")) {
+                        return false;
+                    }
                     log.info("检测到未登录猎聘，保持在登录页或首页等待扫码登录");
                     // 若不在登录页，则导航到登录页并尝试切换二维码
                     String currentUrl = null;
@@ -475,12 +652,13 @@ public class PlaywrightManager {
         // 监听页面导航事件，检测URL变化
         page.onFrameNavigated(frame -> {
             if (frame == page.mainFrame()) {
-                if (!liepinMonitoringPaused) {
-                    checkLiepinLoginStatus(page);
-                }
+                postLoginCheck("liepin");
             }
         });
 
+        // 监听登录相关接口响应（扫码、登录、用户信息），事件驱动地触发检测
+        watchLoginSignals("liepin", page);
+
         log.info("猎聘平台登录状态监控已启用");
     }
 
@@ -498,7 +676,7 @@ public class PlaywrightManager {
                 List<Cookie> cookies = filterCookiesByDomain(parseCookiesFromString(cookieStr), JOB51_DOMAIN);
 
                 if (!cookies.isEmpty()) {
-                    context.addCookies(cookies);
+                    contextOf("51job").addCookies(cookies);
                     log.info("已从数据库加载51job Cookie并注入浏览器上下文，共 {} 条", cookies.size());
                 } else {
                     log.warn("解析51job Cookie失败，未能加载任何Cookie");
@@ -631,12 +809,13 @@ public class PlaywrightManager {
         // 监听页面导航事件，检测URL变化
         page.onFrameNavigated(frame -> {
             if (frame == page.mainFrame()) {
-                if (!job51MonitoringPaused) {
-                    check51jobLoginStatus(page);
-                }
+                postLoginCheck("51job");
             }
         });
 
+        // 监听登录相关接口响应（扫码、登录、用户信息），事件驱动地触发检测
+        watchLoginSignals("51job", page);
+
         log.info("51job平台登录状态监控已启用");
     }
 
@@ -647,7 +826,7 @@ public class PlaywrightManager {
      */
     private void check51jobLoginStatus(Page page) {
         try {
-            boolean isLoggedIn = checkIf51jobLoggedIn();
+            boolean isLoggedIn = hasLoginCookie("51job") || checkIf51jobLoggedIn();
             // 如果登录状态发生变化（从未登录变为已登录）
             Boolean previousStatus = loginStatus.get("51job");
             if (isLoggedIn && (previousStatus == null || !previousStatus)) {
@@ -674,7 +853,7 @@ public class PlaywrightManager {
 
     /**
      * 在后台异步等待 51job 登录成功。
-     * 说明：不阻塞初始化主流程，独立线程每秒轮询一次登录状态，最长等待5分钟。
+     * 说明：不阻塞初始化主流程，独立线程每秒向51job调度器提交一次登录检测，最长等待5分钟。
      */
     private void asyncWaitFor51jobLogin() {
         Thread waitThread = new Thread(() -> {
@@ -683,13 +862,18 @@ public class PlaywrightManager {
                 for (int i = 0; i < maxSeconds; i++) {
                     boolean loggedIn = false;
                     try {
-                        loggedIn = checkIf51jobLoggedIn();
+                        // 检测与登录成功回调（包含状态更新与保存 Cookie）都在调度线程上执行
+                        loggedIn = callOnPlatform("51job", () -> {
+                            if (!checkIf51jobLoggedIn()) {
+                                return false;
+                            }
+                            on51jobLoginSuccess();
+                            return true;
+                        });
                     } catch (Exception ignored) {
                     }
 
                     if (loggedIn) {
-                        // 交由统一回调处理登录成功逻辑（包含状态更新与保存 Cookie）
-                        on51jobLoginSuccess();
                         log.info("后台等待检测到 51job 登录成功，用时约 {} 秒", i);
                         return;
                     }
@@ -719,7 +903,7 @@ public class PlaywrightManager {
      */
   private void save51jobCookiesToDatabase(String remark) {
       try {
-          List<com.microsoft.playwright.options.Cookie> cookies = filterCookiesByDomain(context.cookies(), JOB51_DOMAIN);
+          List<com.microsoft.playwright.options.Cookie> cookies = filterCookiesByDomain(contextOf("51job").cookies(), JOB51_DOMAIN);
           // 使用ObjectMapper序列化为JSON字符串
           String cookieJson = new ObjectMapper().writeValueAsString(cookies);
           boolean result = cookieService.saveOrUpdateCookie("51job", cookieJson, remark);
@@ -747,52 +931,30 @@ public class PlaywrightManager {
      * 主动保存51job Cookie到数据库（用于调试/验证）
      */
     public void save51jobCookiesToDb(String remark) {
-        save51jobCookiesToDatabase(remark);
+        runOnPlatformThread("51job", () -> save51jobCookiesToDatabase(remark)).join();
     }
 
     /**
      * 清理51job上下文中的Cookie
      */
     public void clear51jobCookies() {
-        try {
-            if (context != null) {
-                context.clearCookies();
-                log.info("已清理共享上下文中的所有Cookie");
-            } else {
-                log.warn("共享上下文不存在，无法清理Cookie");
-            }
-        } catch (Exception e) {
-            log.error("清理共享上下文Cookie失败: {}", e.getMessage(), e);
-            throw new RuntimeException("清理共享上下文Cookie失败", e);
-        }
-    }
-
-    /**
-     * 暂停51job页面的后台登录监控（避免与业务流程并发操作页面）
-     */
-    public void pause51jobMonitoring() {
-        job51MonitoringPaused = true;
-        log.debug("51job登录监控已暂停");
-    }
-
-    /**
-     * 恢复51job页面的后台登录监控
-     */
-    public void resume51jobMonitoring() {
-        job51MonitoringPaused = false;
-        log.debug("51job登录监控已恢复");
+        clearPlatformCookies("51job", "51job");
     }
 
     /**
      * 触发 51job 登录流程：打开登录页并点击“微信扫码登录”按钮
      */
     public void trigger51jobLogin() {
+        callOnPlatform("51job", () -> {
+            doTrigger51jobLogin();
+            return null;
+        });
+    }
+
+    private void doTrigger51jobLogin() {
         try {
             if (job51Page == null) {
-                if (context == null) {
-                    throw new IllegalStateException("浏览器上下文尚未初始化");
-                }
-                job51Page = context.newPage();
+                job51Page = contextOf("51job").newPage();
             }
 
             // 如果已登录则直接返回
@@ -855,7 +1017,7 @@ public class PlaywrightManager {
                 List<Cookie> cookies = filterCookiesByDomain(parseCookiesFromString(cookieStr), ZHILIAN_DOMAIN);
 
                 if (!cookies.isEmpty()) {
-                    context.addCookies(cookies);
+                    contextOf("zhilian").addCookies(cookies);
                     log.info("已从数据库加载智联招聘 Cookie并注入浏览器上下文，共 {} 条", cookies.size());
                 } else {
                     log.warn("解析智联招聘Cookie失败，未能加载任何Cookie");
@@ -953,8 +1115,8 @@ public class PlaywrightManager {
 
             // 如果存在登录按钮，说明未登录
             if (loginButtonExists) {
-                // 只在首次检测到未登录时执行引导操作
-                if (!zhilianLoginGuided) {
+                // 只在首次检测到未登录时执行引导操作（投递进行中不引导）
+                if (!zhilianLoginGuided && !deliveringPlatforms.contains("zhilian")) {
                     log.info("检测到未登录智联招聘，重定向到登录页面");
                     zhilianLoginGuided = true;
 
@@ -1054,12 +1216,13 @@ public class PlaywrightManager {
         // 监听页面导航事件，检测URL变化
         page.onFrameNavigated(frame -> {
             if (frame == page.mainFrame()) {
-                if (!zhilianMonitoringPaused) {
-                    checkZhilianLoginStatus(page);
-                }
+                postLoginCheck("zhilian");
             }
         });
 
+        // 监听登录相关接口响应（扫码、登录、用户信息），事件驱动地触发检测
+        watchLoginSignals("zhilian", page);
+
         log.info("智联招聘平台登录状态监控已启用");
     }
 
@@ -1070,7 +1233,7 @@ public class PlaywrightManager {
      */
     private void checkZhilianLoginStatus(Page page) {
         try {
-            boolean isLoggedIn = checkIfZhilianLoggedIn();
+            boolean isLoggedIn = hasLoginCookie("zhilian") || checkIfZhilianLoggedIn();
             // 如果登录状态发生变化（从未登录变为已登录）
             Boolean previousStatus = loginStatus.get("zhilian");
             if (isLoggedIn && (previousStatus == null || !previousStatus)) {
@@ -1086,6 +1249,13 @@ public class PlaywrightManager {
      * 主动触发智联招聘登录：点击二维码入口并等待登录成功跳转
      */
     public void triggerZhilianLogin() {
+        callOnPlatform("zhilian", () -> {
+            doTriggerZhilianLogin();
+            return null;
+        });
+    }
+
+    private void doTriggerZhilianLogin() {
         try {
             if (zhilianPage == null) {
                 throw new IllegalStateException("智联招聘页面未初始化");
@@ -1149,7 +1319,7 @@ public class PlaywrightManager {
      */
     private void saveZhilianCookiesToDatabase(String remark) {
         try {
-            List<com.microsoft.playwright.options.Cookie> cookies = filterCookiesByDomain(context.cookies(), ZHILIAN_DOMAIN);
+            List<com.microsoft.playwright.options.Cookie> cookies = filterCookiesByDomain(contextOf("zhilian").cookies(), ZHILIAN_DOMAIN);
             // 使用ObjectMapper序列化为JSON字符串
             String cookieJson = new ObjectMapper().writeValueAsString(cookies);
             boolean result = cookieService.saveOrUpdateCookie("zhilian", cookieJson, remark);
@@ -1165,7 +1335,7 @@ public class PlaywrightManager {
      * 主动保存智联招聘Cookie到数据库（用于调试/验证）
      */
     public void saveZhilianCookiesToDb(String remark) {
-        saveZhilianCookiesToDatabase(remark);
+        runOnPlatformThread("zhilian", () -> saveZhilianCookiesToDatabase(remark)).join();
     }
 
     /**
@@ -1176,10 +1346,10 @@ public class PlaywrightManager {
      */
     public void saveCookiesToDb(String platform, String remark) {
         switch (platform) {
-            case "boss" -> saveBossCookiesToDatabase(remark);
-            case "liepin" -> saveLiepinCookiesToDatabase(remark);
-            case "51job" -> save51jobCookiesToDatabase(remark);
-            case "zhilian" -> saveZhilianCookiesToDatabase(remark);
+            case "boss" -> saveBossCookiesToDb(remark);
+            case "liepin" -> saveLiepinCookiesToDb(remark);
+            case "51job" -> save51jobCookiesToDb(remark);
+            case "zhilian" -> saveZhilianCookiesToDb(remark);
             default -> throw new IllegalArgumentException("Unsupported platform: " + platform);
         }
     }
@@ -1188,33 +1358,7 @@ public class PlaywrightManager {
      * 清理智联招聘上下文中的Cookie
      */
     public void clearZhilianCookies() {
-        try {
-            if (context != null) {
-                context.clearCookies();
-                log.info("已清理共享上下文中的所有Cookie");
-            } else {
-                log.warn("共享上下文不存在，无法清理Cookie");
-            }
-        } catch (Exception e) {
-            log.error("清理共享上下文Cookie失败: {}", e.getMessage(), e);
-            throw new RuntimeException("清理共享上下文Cookie失败", e);
-        }
-    }
-
-    /**
-     * 暂停智联招聘页面的后台登录监控（避免与业务流程并发操作页面）
-     */
-    public void pauseZhilianMonitoring() {
-        zhilianMonitoringPaused = true;
-        log.debug("智联招聘登录监控已暂停");
-    }
-
-    /**
-     * 恢复智联招聘页面的后台登录监控
-     */
-    public void resumeZhilianMonitoring() {
-        zhilianMonitoringPaused = false;
-        log.debug("智联招聘登录监控已恢复");
+        clearPlatformCookies("zhilian", "智联招聘");
     }
 
     /**
@@ -1224,7 +1368,7 @@ public class PlaywrightManager {
      */
     private void checkLiepinLoginStatus(Page page) {
         try {
-            boolean isLoggedIn = checkIfLiepinLoggedIn();
+            boolean isLoggedIn = hasLoginCookie("liepin") || checkIfLiepinLoggedIn();
             // 如果登录状态发生变化（从未登录变为已登录）
             Boolean previousStatus = loginStatus.get("liepin");
             if (isLoggedIn && (previousStatus == null || !previousStatus)) {
@@ -1256,7 +1400,7 @@ public class PlaywrightManager {
      */
     private void saveLiepinCookiesToDatabase(String remark) {
         try {
-            List<com.microsoft.playwright.options.Cookie> cookies = filterCookiesByDomain(context.cookies(), LIEPIN_DOMAIN);
+            List<com.microsoft.playwright.options.Cookie> cookies = filterCookiesByDomain(contextOf("liepin").cookies(), LIEPIN_DOMAIN);
             // 使用ObjectMapper序列化为JSON字符串
             String cookieJson = new ObjectMapper().writeValueAsString(cookies);
             boolean result = cookieService.saveOrUpdateCookie("liepin", cookieJson, remark);
@@ -1272,40 +1416,14 @@ public class PlaywrightManager {
      * 主动保存猎聘Cookie到数据库（用于调试/验证）
      */
     public void saveLiepinCookiesToDb(String remark) {
-        saveLiepinCookiesToDatabase(remark);
+        runOnPlatformThread("liepin", () -> saveLiepinCookiesToDatabase(remark)).join();
     }
 
     /**
      * 清理猎聘上下文中的Cookie
      */
     public void clearLiepinCookies() {
-        try {
-            if (context != null) {
-                context.clearCookies();
-                log.info("已清理共享上下文中的所有Cookie");
-            } else {
-                log.warn("共享上下文不存在，无法清理Cookie");
-            }
-        } catch (Exception e) {
-            log.error("清理共享上下文Cookie失败: {}", e.getMessage(), e);
-            throw new RuntimeException("清理共享上下文Cookie失败", e);
-        }
-    }
-
-    /**
-     * 暂停猎聘页面的后台登录监控（避免与业务流程并发操作页面）
-     */
-    public void pauseLiepinMonitoring() {
-        liepinMonitoringPaused = true;
-        log.debug("猎聘登录监控已暂停");
-    }
-
-    /**
-     * 恢复猎聘页面的后台登录监控
-     */
-    public void resumeLiepinMonitoring() {
-        liepinMonitoringPaused = false;
-        log.debug("猎聘登录监控已恢复");
+        clearPlatformCookies("liepin", "猎聘");
     }
 
     /**
@@ -1318,8 +1436,8 @@ public class PlaywrightManager {
         try {
             boolean isLoggedIn = false;
             if (platform.equals("boss")) {
-                // 统一复用更稳健的Boss登录判断逻辑
-                isLoggedIn = checkIfLoggedIn();
+                // 优先使用鉴权Cookie判断，缺失时再复用更稳健的Boss DOM登录判断逻辑
+                isLoggedIn = hasLoginCookie(platform) || checkIfLoggedIn();
             }
             // 如果登录状态发生变化（从未登录变为已登录）
             Boolean previousStatus = loginStatus.get(platform);
@@ -1356,7 +1474,7 @@ public class PlaywrightManager {
      */
     private void saveBossCookiesToDatabase(String remark) {
         try {
-            List<com.microsoft.playwright.options.Cookie> cookies = filterCookiesByDomain(context.cookies(), BOSS_DOMAIN);
+            List<com.microsoft.playwright.options.Cookie> cookies = filterCookiesByDomain(contextOf("boss").cookies(), BOSS_DOMAIN);
             // 使用ObjectMapper序列化为JSON字符串
             String cookieJson = new ObjectMapper().writeValueAsString(cookies);
             boolean result = cookieService.saveOrUpdateCookie("boss", cookieJson, remark);
@@ -1372,7 +1490,7 @@ public class PlaywrightManager {
      * 主动保存 Boss Cookie 到数据库（用于调试/验证）
      */
     public void saveBossCookiesToDb(String remark) {
-        saveBossCookiesToDatabase(remark);
+        runOnPlatformThread("boss", () -> saveBossCookiesToDatabase(remark)).join();
     }
 
     /**
@@ -1380,38 +1498,125 @@ public class PlaywrightManager {
      * 用于退出登录时清除浏览器上下文中的所有Cookie
      */
     public void clearBossCookies() {
+        clearPlatformCookies("boss", "Boss");
+    }
+
+    /**
+     * 清理指定平台独立上下文中的Cookie（不影响其他平台）
+     *
+     * @param platform 平台标识
+     * @param name     平台名称（用于日志）
+     */
+    private void clearPlatformCookies(String platform, String name) {
+        PlatformSession session = sessions.get(platform);
         try {
-            if (context != null) {
-                context.clearCookies();
-                log.info("已清理共享上下文中的所有Cookie");
+            if (session != null && session.getContext() != null) {
+                runOnPlatformThread(platform, () -> session.getContext().clearCookies()).join();
+                log.info("已清理{}上下文中的所有Cookie", name);
             } else {
-                log.warn("共享上下文不存在，无法清理Cookie");
+                log.warn("{}上下文不存在，无法清理Cookie", name);
             }
         } catch (Exception e) {
-            log.error("清理共享上下文Cookie失败: {}", e.getMessage(), e);
-            throw new RuntimeException("清理共享上下文Cookie失败", e);
+            log.error("清理{}上下文Cookie失败: {}", name, e.getMessage(), e);
+            throw new RuntimeException("清理" + name + "上下文Cookie失败", e);
         }
     }
 
     /**
-     * 定时检查登录状态（每3秒）
-     * 用于捕获通过DOM元素判断登录状态的场景（无导航也可触发）
+     * 投递一次登录检测（同一平台未执行的检测会被合并）
+     * 事件回调中不直接操作页面，由调度线程在安全点执行
+     *
+     * @param platform 平台标识
      */
-    @Scheduled(fixedDelay = 3000)
-    public void scheduledLoginCheck() {
-        try {
-            if (liepinPage != null && !liepinMonitoringPaused) {
-                checkLiepinLoginStatus(liepinPage);
+    private void postLoginCheck(String platform) {
+        switch (platform) {
+            case "boss" -> {
+                if (bossPage != null) {
+                    getDispatcher(platform).post(LOGIN_CHECK_KEY, () -> checkLoginStatus(bossPage, "boss"));
+                }
             }
-            // 其他平台如需也可启用（保留，但不强制）
-            if (bossPage != null && !bossMonitoringPaused) {
-                checkLoginStatus(bossPage, "boss");
+            case "liepin" -> {
+                if (liepinPage != null) {
+                    getDispatcher(platform).post(LOGIN_CHECK_KEY, () -> checkLiepinLoginStatus(liepinPage));
+                }
             }
-            if (job51Page != null && !job51MonitoringPaused) {
-                check51jobLoginStatus(job51Page);
+            case "51job" -> {
+                if (job51Page != null) {
+                    getDispatcher(platform).post(LOGIN_CHECK_KEY, () -> check51jobLoginStatus(job51Page));
+                }
             }
-            if (zhilianPage != null && !zhilianMonitoringPaused) {
-                checkZhilianLoginStatus(zhilianPage);
+            case "zhilian" -> {
+                if (zhilianPage != null) {
+                    getDispatcher(platform).post(LOGIN_CHECK_KEY, () -> checkZhilianLoginStatus(zhilianPage));
+                }
+            }
+            default -> log.debug("未知平台的登录检测请求: {}", platform);
+        }
+    }
+
+    /**
+     * 监听登录相关接口的响应，命中即触发登录检测
+     * 仅比较URL字符串，不产生额外的协议往返
+     *
+     * @param platform 平台标识
+     * @param page     页面实例
+     */
+    private void watchLoginSignals(String platform, Page page) {
+        List<String> signals = LOGIN_SIGNAL_URLS.getOrDefault(platform, List.of());
+        if (signals.isEmpty()) {
+            return;
+        }
+        page.onResponse(response -> {
+            // 已登录时只需关注从未登录到已登录的变化，无需再检测
+            if (isLoggedIn(platform)) {
+                return;
+            }
+            String url = response.url();
+            if (url != null && signals.stream().anyMatch(url::contains)) {
+                postLoginCheck(platform);
+            }
+        });
+    }
+
+    /**
+     * 根据鉴权Cookie判断是否已登录（一次协议往返，替代多次DOM可见性探测）
+     * 返回false只表示Cookie无法确认，调用方应继续使用DOM判断兜底
+     *
+     * @param platform 平台标识
+     */
+    private boolean hasLoginCookie(String platform) {
+        List<String> names = LOGIN_COOKIES.getOrDefault(platform, List.of());
+        PlatformSession session = sessions.get(platform);
+        if (names.isEmpty() || session == null || session.getContext() == null) {
+            return false;
+        }
+        double nowSeconds = System.currentTimeMillis() / 1000.0;
+        try {
+            for (Cookie cookie : session.getContext().cookies()) {
+                if (cookie != null && names.contains(cookie.name)
+                        && cookie.value != null && !cookie.value.isBlank()
+                        && (cookie.expires == null || cookie.expires <= 0 || cookie.expires > nowSeconds)) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            log.debug("读取{}鉴权Cookie失败: {}", platform, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * 低频兜底检测登录状态（每30秒）
+     * 登录状态主要由导航事件与登录接口响应驱动，这里只兜底捕获无事件的场景（如纯DOM变化），
+     * 已登录的平台由 {@link #scheduledSessionCheck()} 检测登录是否失效
+     */
+    @Scheduled(fixedDelay = 30000)
+    public void scheduledLoginCheck() {
+        try {
+            for (String platform : PLATFORMS) {
+                if (!isLoggedIn(platform)) {
+                    postLoginCheck(platform);
+                }
             }
         } catch (Exception e) {
             log.debug("定时登录检测异常: {}", e.getMessage());
@@ -1419,19 +1624,58 @@ public class PlaywrightManager {
     }
 
     /**
-     * 暂停Boss页面的后台登录监控（避免与业务流程并发操作页面）
+     * 低频检测已登录平台的登录态是否仍然有效（默认每5分钟）
+     * 登录失效（服务端过期、在其他设备退出）时页面不一定发生导航，仅靠导航事件无法及时发现；
+     * 鉴权Cookie仍有效时直接跳过，Cookie缺失时再用DOM判断确认，两者都不成立才置为未登录
      */
-    public void pauseBossMonitoring() {
-        bossMonitoringPaused = true;
-        log.debug("Boss登录监控已暂停");
+    @Scheduled(fixedDelayString = "${playwright.session-check-ms:300000}",
+            initialDelayString = "${playwright.session-check-ms:300000}")
+    public void scheduledSessionCheck() {
+        try {
+            for (String platform : PLATFORMS) {
+                if (isLoggedIn(platform) && pageOf(platform) != null) {
+                    getDispatcher(platform).post(SESSION_CHECK_KEY, () -> checkSessionAlive(platform));
+                }
+            }
+        } catch (Exception e) {
+            log.debug("定时登录态检测异常: {}", e.getMessage());
+        }
     }
 
     /**
-     * 恢复Boss页面的后台登录监控
+     * 确认已登录平台的登录态是否仍然有效，失效时更新登录状态（需在平台调度线程上执行）
+     *
+     * @param platform 平台标识
      */
-    public void resumeBossMonitoring() {
-        bossMonitoringPaused = false;
-        log.debug("Boss登录监控已恢复");
+    private void checkSessionAlive(String platform) {
+        try {
+            if (!isLoggedIn(platform) || pageOf(platform) == null || hasLoginCookie(platform)) {
+                return;
+            }
+            boolean alive = switch (platform) {
+                case "boss" -> checkIfLoggedIn();
+                case "liepin" -> checkIfLiepinLoggedIn();
+                case "51job" -> checkIf51jobLoggedIn();
+                case "zhilian" -> checkIfZhilianLoggedIn();
+                default -> true;
+            };
+            if (!alive) {
+                log.info("{}平台登录已失效", platform);
+                setLoginStatus(platform, false);
+            }
+        } catch (Exception e) {
+            log.debug("检测{}平台登录态时发生异常: {}", platform, e.getMessage());
+        }
+    }
+
+    private Page pageOf(String platform) {
+        return switch (platform) {
+            case "boss" -> bossPage;
+            case "liepin" -> liepinPage;
+            case "51job" -> job51Page;
+            case "zhilian" -> zhilianPage;
+            default -> null;
+        };
     }
 
     /**
@@ -1443,39 +1687,13 @@ public class PlaywrightManager {
         log.info("开始关闭Playwright管理器...");
 
         try {
-            // 关闭所有页面
-            if (bossPage != null) {
-                bossPage.close();
-                log.info("Boss直聘页面已关闭");
-            }
-            if (liepinPage != null) {
-                liepinPage.close();
-                log.info("猎聘页面已关闭");
-            }
-            if (job51Page != null) {
-                job51Page.close();
-                log.info("51job页面已关闭");
-            }
-            if (zhilianPage != null) {
-                zhilianPage.close();
-                log.info("智联招聘页面已关闭");
-            }
-
-            // 关闭共享的BrowserContext
-            if (context != null) {
-                context.close();
-                log.info("共享BrowserContext已关闭");
-            }
-
-            // 关闭浏览器
-            if (browser != null) {
-                browser.close();
-                log.info("浏览器已关闭");
-            }
-            if (playwright != null) {
-                playwright.close();
-                log.info("Playwright实例已关闭");
-            }
+            // 逐个关闭各平台的页面、上下文、浏览器与Playwright实例（在各自调度线程中执行后停止线程）
+            dispatchers.forEach((platform, dispatcher) -> {
+                PlatformSession session = sessions.get(platform);
+                dispatcher.shutdown(session != null ? session::close : null);
+            });
+            sessions.clear();
+            dispatchers.clear();
 
             log.info("Playwright管理器关闭完成！");
         } catch (Exception e) {
@@ -1487,16 +1705,31 @@ public class PlaywrightManager {
      * 检查Playwright是否已初始化
      */
     public boolean isInitialized() {
-        return playwright != null && browser != null && bossPage != null;
+        return sessions.size() == PLATFORMS.size()
+                && sessions.values().stream().allMatch(PlatformSession::isOpen)
+                && bossPage != null;
     }
 
     /**
-     * 获取CDP端口号
+     * 获取CDP端口号（Boss浏览器）
      */
     public int getCdpPort() {
         return CDP_PORT;
     }
 
+    /**
+     * 获取各平台浏览器的CDP端口号
+     *
+     * @return 平台 -> 端口
+     */
+    public Map<String, Integer> getCdpPorts() {
+        Map<String, Integer> ports = new LinkedHashMap<>();
+        for (String platform : PLATFORMS) {
+            ports.put(platform, CDP_PORT + PLATFORMS.indexOf(platform));
+        }
+        return ports;
+    }
+
     /**
      * 注册登录状态监听器
      *
@@ -1538,48 +1771,9 @@ public class PlaywrightManager {
         if (previousStatus == null || previousStatus != isLoggedIn) {
             loginStatus.put(platform, isLoggedIn);
 
-            // Boss平台：在设置未登录状态时，顺带引导到登录页并切换二维码扫码
+            // Boss平台：在设置未登录状态时，顺带引导到登录页并切换二维码扫码（在Boss调度线程上执行）
             if ("boss".equals(platform) && !isLoggedIn) {
-                try {
-                    if (bossPage != null) {
-                        String currentUrl = null;
-                        try { currentUrl = bossPage.url(); } catch (Exception ignored) {}
-
-                        // 避免重复导航：若当前已在登录页则不再二次跳转
-                        if (currentUrl == null || !currentUrl.contains("/web/user/")) {
-                            bossPage.navigate(BOSS_URL + "/web/user/?ka=header-login");
-                            try { Thread.sleep(800); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
-                        }
-
-                        // 尝试切换到二维码登录（点击“APP扫码登录”按钮），优先使用新版选择器
-                        try {
-                            Locator qrSwitch = bossPage.locator(".btn-sign-switch.ewm-switch").first();
-                            if (qrSwitch.isVisible()) {
-                                qrSwitch.click();
-                            } else {
-                                // 兜底：按文本匹配内部提示
-                                Locator tip = bossPage.getByText("APP扫码登录").first();
-                                if (tip.isVisible()) {
-                                    tip.click();
-                                    log.info("已点击包含文本的二维码登录切换提示（APP扫码登录）");
-                                } else {
-                                    // 兼容旧版选择器
-                                    Locator legacy = bossPage.locator("li.sign-switch-tip").first();
-                                    if (legacy.isVisible()) {
-                                        legacy.click();
-                                        log.info("已通过旧版选择器切换二维码登录（li.sign-switch-tip）");
-                                    } else {
-                                        log.info("未找到二维码登录切换按钮，保持当前登录页");
-                                    }
-                                }
-                            }
-                        } catch (Exception e) {
-                            log.debug("切换二维码登录失败: {}", e.getMessage());
-                        }
-                    }
-                } catch (Exception e) {
-                    log.debug("设置Boss未登录状态时执行登录引导失败: {}", e.getMessage());
-                }
+                getDispatcher("boss").post("login-guide", this::guideBossLogin);
             }
 
             // 通知所有监听器（触发SSE推送）
@@ -1596,6 +1790,52 @@ public class PlaywrightManager {
         }
     }
 
+    /**
+     * Boss未登录时引导到登录页并切换二维码扫码（需在Boss调度线程上执行）
+     */
+    private void guideBossLogin() {
+        try {
+            if (bossPage != null) {
+                String currentUrl = null;
+                try { currentUrl = bossPage.url(); } catch (Exception ignored) {}
+
+                // 避免重复导航：若当前已在登录页则不再二次跳转
+                if (currentUrl == null || !currentUrl.contains("/web/user/")) {
+                    bossPage.navigate(BOSS_URL + "/web/user/?ka=header-login");
+                    try { Thread.sleep(800); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
+                }
+
+                // 尝试切换到二维码登录（点击“APP扫码登录”按钮），优先使用新版选择器
+                try {
+                    Locator qrSwitch = bossPage.locator(".btn-sign-switch.ewm-switch").first();
+                    if (qrSwitch.isVisible()) {
+                        qrSwitch.click();
+                    } else {
+                        // 兜底：按文本匹配内部提示
+                        Locator tip = bossPage.getByText("APP扫码登录").first();
+                        if (tip.isVisible()) {
+                            tip.click();
+                            log.info("已点击包含文本的二维码登录切换提示（APP扫码登录）");
+                        } else {
+                            // 兼容旧版选择器
+                            Locator legacy = bossPage.locator("li.sign-switch-tip").first();
+                            if (legacy.isVisible()) {
+                                legacy.click();
+                                log.info("已通过旧版选择器切换二维码登录（li.sign-switch-tip）");
+                            } else {
+                                log.info("未找到二维码登录切换按钮，保持当前登录页");
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    log.debug("切换二维码登录失败: {}", e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.debug("设置Boss未登录状态时执行登录引导失败: {}", e.getMessage());
+        }
+    }
+
     /**
      * 从JSON字符串解析Cookie列表
      *
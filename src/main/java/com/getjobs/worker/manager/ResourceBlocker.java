@@ -0,0 +1,247 @@
+package com.getjobs.worker.manager;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.Route;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 网络资源拦截层
+ * 通过 context.route 在投递期间拦截图片、字体、音视频等重资源与统计埋点请求，
+ * 业务依赖的JSON接口（如Boss岗位详情、猎聘/智联搜索接口）以及登录二维码、验证码始终放行。
+ * 路由只注册一个正则（按文件扩展名与埋点域名匹配，放行关键字用负向前瞻排除），由浏览器侧完成匹配：
+ * 只有要拦截的请求才回调Java，其余请求不经过路由，不会因调度线程处于纯Java等待而被挂起。
+ * 按平台统计拦截的请求数（按原因分类）与放行响应的 content-length 之和；
+ * 被拦截的请求没有发出，无从得知其大小，因此不统计节省的字节数。
+ */
+@Slf4j
+@Component
+public class ResourceBlocker {
+
+    // 资源类型 -> 文件扩展名
+    private static final Map<String, List<String>> TYPE_EXTENSIONS = Map.of(
+            "image", List.of("png", "jpg", "jpeg", "gif", "webp", "svg", "ico", "bmp", "avif"),
+            "font", List.of("woff", "woff2", "ttf", "otf", "eot"),
+            "media", List.of("mp4", "webm", "ogg", "mp3", "wav", "m4a", "flv"));
+
+    // 是否启用拦截
+    @Value("${playwright.block.enabled:true}")
+    private boolean enabled;
+
+    // 拦截的资源类型（image、font、media，按文件扩展名匹配）
+    @Value("${playwright.block.resource-types:image,font,media}")
+    private List<String> resourceTypes;
+
+    // 拦截的埋点/统计域名关键字
+    @Value("${playwright.block.tracker-hosts:hm.baidu.com,google-analytics.com,googletagmanager.com,cnzz.com,growingio.com,sensorsdata,zhugeio.com,mmstat.com,doubleclick.net}")
+    private List<String> trackerHosts;
+
+    // 始终放行的URL关键字（业务接口、登录二维码与验证码）
+    @Value("${playwright.block.allow-urls:/wapi/zpgeek/job/detail.json,/wapi/zpgeek/search/joblist.json,com.liepin.searchfront4c.pc-search-job,/api/job/search-pc,qrcode,captcha,verify}")
+    private List<String> allowUrls;
+
+    // 平台 -> 已安装的路由
+    private final Map<String, InstalledRoute> routes = new ConcurrentHashMap<>();
+
+    // 平台 -> 已安装的响应统计监听
+    private final Map<String, Consumer<Response>> responseListeners = new ConcurrentHashMap<>();
+
+    // 平台 -> 统计
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * 在平台上下文上安装拦截路由（需在平台调度线程上调用）
+     *
+     * @param platform 平台标识
+     * @param context  平台上下文
+     */
+    public void install(String platform, BrowserContext context) {
+        if (!enabled || context == null || routes.containsKey(platform)) {
+            return;
+        }
+        Set<String> types = normalize(resourceTypes);
+        Set<String> hosts = normalize(trackerHosts);
+        List<String> allows = allowUrls == null ? List.of() : allowUrls.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        Map<String, Pattern> reasons = reasonPatterns(types, hosts);
+        if (reasons.isEmpty()) {
+            return;
+        }
+        Pattern pattern = routePattern(reasons.values(), allows);
+        Stats s = stats.computeIfAbsent(platform, p -> new Stats());
+
+        // 浏览器侧已按 pattern 匹配，进入回调的请求都需要拦截，这里只归类统计原因
+        Consumer<Route> handler = route -> {
+            String reason = blockReason(route.request().url(), reasons);
+            s.blockedRequests.increment();
+            s.blockedByType.computeIfAbsent(reason, k -> new LongAdder()).increment();
+            route.abort("blockedbyclient");
+        };
+        Consumer<Response> responseListener = response -> {
+            s.passedRequests.increment();
+            // headers() 为本地数据，不产生额外的协议往返
+            String length = response.headers().get("content-length");
+            if (length != null) {
+                try {
+                    s.passedResponseBytes.add(Long.parseLong(length.trim()));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        };
+        context.route(pattern, handler);
+        context.onResponse(responseListener);
+        routes.put(platform, new InstalledRoute(pattern, handler));
+        responseListeners.put(platform, responseListener);
+        log.info("{} 网络资源拦截已启用：类型={}，埋点域名={}个", platform, types, hosts.size());
+    }
+
+    /**
+     * 移除平台上下文上的拦截路由（需在平台调度线程上调用）
+     *
+     * @param platform 平台标识
+     * @param context  平台上下文
+     */
+    public void uninstall(String platform, BrowserContext context) {
+        InstalledRoute installed = routes.remove(platform);
+        Consumer<Response> responseListener = responseListeners.remove(platform);
+        if (context == null) {
+            return;
+        }
+        try {
+            if (installed != null) {
+                context.unroute(installed.pattern(), installed.handler());
+            }
+            if (responseListener != null) {
+                context.offResponse(responseListener);
+            }
+        } catch (Exception e) {
+            log.debug("{} 移除网络拦截失败: {}", platform, e.getMessage());
+        }
+        Stats s = stats.get(platform);
+        if (s != null && installed != null) {
+            log.info("{} 网络资源拦截已关闭：累计拦截 {} 个请求，放行 {} 个请求（响应 {} KB）",
+                    platform, s.blockedRequests.sum(), s.passedRequests.sum(), s.passedResponseBytes.sum() / 1024);
+        }
+    }
+
+    /**
+     * 获取各平台拦截统计
+     * passedResponseBytes 为放行响应的 content-length 之和，不是拦截节省的字节数
+     *
+     * @return 平台 -> 统计信息
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        stats.forEach((platform, s) -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("active", routes.containsKey(platform));
+            item.put("blockedRequests", s.blockedRequests.sum());
+            item.put("blockedByType", s.blockedByType.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum())));
+            item.put("passedRequests", s.passedRequests.sum());
+            item.put("passedResponseBytes", s.passedResponseBytes.sum());
+            result.put(platform, item);
+        });
+        return result;
+    }
+
+    /**
+     * 各拦截原因对应的URL正则：tracker 匹配域名部分，资源类型匹配路径的文件扩展名
+     * 正则会原样交给浏览器（JavaScript RegExp）执行，只使用两边语义一致的语法
+     *
+     * @return 原因 -> 正则（保持 tracker 优先）
+     */
+    static Map<String, Pattern> reasonPatterns(Set<String> types, Set<String> hosts) {
+        Map<String, Pattern> reasons = new LinkedHashMap<>();
+        if (!hosts.isEmpty()) {
+            reasons.put("tracker", Pattern.compile("^[a-z]+://[^/?#]*(?:" + alternation(hosts) + ")",
+                    Pattern.CASE_INSENSITIVE));
+        }
+        for (String type : types) {
+            List<String> extensions = TYPE_EXTENSIONS.get(type);
+            if (extensions == null) {
+                log.warn("不支持拦截的资源类型：{}（可选 {}）", type, TYPE_EXTENSIONS.keySet());
+                continue;
+            }
+            reasons.put(type, Pattern.compile("^[^?#]*\\.(?:" + alternation(extensions) + ")(?:[?#]|$)",
+                    Pattern.CASE_INSENSITIVE));
+        }
+        return reasons;
+    }
+
+    /**
+     * 合并为单个路由正则：命中任一原因且不包含放行关键字
+     */
+    static Pattern routePattern(Collection<Pattern> reasons, List<String> allows) {
+        String any = reasons.stream().map(p -> "(?:" + p.pattern().substring(1) + ")").collect(Collectors.joining("|"));
+        String exclude = allows.isEmpty() ? "" : "(?!.*(?:" + alternation(allows) + "))";
+        return Pattern.compile("^" + exclude + "(?:" + any + ")", Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * 被拦截请求的原因（资源类型或 tracker）
+     */
+    static String blockReason(String url, Map<String, Pattern> reasons) {
+        if (url != null) {
+            for (Map.Entry<String, Pattern> e : reasons.entrySet()) {
+                if (e.getValue().matcher(url).find()) {
+                    return e.getKey();
+                }
+            }
+        }
+        return "other";
+    }
+
+    // 关键字按字面量拼接为 a|b|c（转义正则元字符）
+    private static String alternation(Collection<String> values) {
+        return values.stream().map(ResourceBlocker::escape).collect(Collectors.joining("|"));
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static Set<String> normalize(List<String> values) {
+        if (values == null) {
+            return Set.of();
+        }
+        return values.stream()
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .map(v -> v.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 单个平台的拦截统计
+     */
+    private static class Stats {
+        private final LongAdder blockedRequests = new LongAdder();
+        private final Map<String, LongAdder> blockedByType = new ConcurrentHashMap<>();
+        private final LongAdder passedRequests = new LongAdder();
+        private final LongAdder passedResponseBytes = new LongAdder();
+    }
+
+    private record InstalledRoute(Pattern pattern, Consumer<Route> handler) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.getjobs.worker.manager;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 浏览器运行模式
+ * INTERACTIVE：可视化窗口 + slowMo，便于扫码登录与调试
+ * HEADLESS：无头、无slowMo、固定视口，用于高吞吐投递
+ */
+public enum RunProfile {
+
+    INTERACTIVE(false, 50, 0, 0),
+    HEADLESS(true, 0, 1920, 1080);
+
+    private final boolean headless;
+    private final double slowMo;
+    private final int viewportWidth;
+    private final int viewportHeight;
+
+    RunProfile(boolean headless, double slowMo, int viewportWidth, int viewportHeight) {
+        this.headless = headless;
+        this.slowMo = slowMo;
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+    }
+
+    /**
+     * 构建浏览器启动参数
+     *
+     * @param cdpPort CDP调试端口
+     */
+    public BrowserType.LaunchOptions launchOptions(int cdpPort) {
+        List<String> args = new ArrayList<>();
+        args.add("--remote-debugging-port=" + cdpPort);
+        if (!headless) {
+            args.add("--start-maximized"); // 最大化启动窗口
+        }
+        return new BrowserType.LaunchOptions()
+                .setHeadless(headless)
+                .setSlowMo(slowMo)
+                .setArgs(args);
+    }
+
+    /**
+     * 构建上下文参数（可视化模式使用窗口实际大小，无头模式使用固定视口）
+     *
+     * @param userAgent 浏览器UA
+     */
+    public Browser.NewContextOptions contextOptions(String userAgent) {
+        Browser.NewContextOptions options = new Browser.NewContextOptions().setUserAgent(userAgent);
+        if (headless) {
+            options.setViewportSize(viewportWidth, viewportHeight);
+        } else {
+            options.setViewportSize(null);
+        }
+        return options;
+    }
+
+    /**
+     * 按名称解析运行模式（忽略大小写），无法识别时返回默认值
+     */
+    public static RunProfile of(String name, RunProfile defaultProfile) {
+        if (name == null || name.isBlank()) {
+            return defaultProfile;
+        }
+        try {
+            return RunProfile.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultProfile;
+        }
+    }
+}
@@ -59,9 +59,6 @@ public class BossJobService implements JobPlatformService {
             isRunning = true;
             shouldStop = false;
 
-            // 暂停后台登录监控，避免与投递流程并发访问同一Page
-            playwrightManager.pauseBossMonitoring();
-
             // 加载配置（统一从 boss_config 专表读取）
             BossConfig config = configService.getBossConfig();
             progressCallback.accept(JobProgressMessage.info(PLATFORM, "配置加载成功"));
@@ -78,13 +75,16 @@ public class BossJobService implements JobPlatformService {
             };
 
             Boss boss = bossProvider.getObject();
-            boss.setPage(page);
             boss.setConfig(config);
             boss.setProgressCallback(bossCallback);
             boss.setShouldStopCallback(this::shouldStop);
-            boss.prepare();
-
-            int deliveredCount = boss.execute();
+            // 在Boss调度线程上执行投递，等待间隙中登录检测与Cookie保存可安全穿插执行
+            int deliveredCount = playwrightManager.runDelivery(PLATFORM, () -> {
+                // 运行模式切换后主页面会重建，因此在调度线程上获取最新页面
+                boss.setPage(playwrightManager.getBossPage());
+                boss.prepare();
+                return boss.execute();
+            });
 
             progressCallback.accept(JobProgressMessage.success(PLATFORM,
                 String.format("投递任务完成，共发起%d个聊天", deliveredCount)));
@@ -94,10 +94,6 @@ public class BossJobService implements JobPlatformService {
         } finally {
             isRunning = false;
             shouldStop = false;
-            // 恢复后台登录监控
-            try {
-                playwrightManager.resumeBossMonitoring();
-            } catch (Exception ignored) {}
         }
     }
 
@@ -59,9 +59,6 @@ public class Job51JobService implements JobPlatformService {
             isRunning = true;
             shouldStop = false;
 
-            // 暂停后台登录监控，避免与投递流程并发访问同一Page
-            playwrightManager.pause51jobMonitoring();
-
             // 加载配置（统一从 job51_config 专表读取）
             Job51Config config = configService.getJob51Config();
             progressCallback.accept(JobProgressMessage.info(PLATFORM, "配置加载成功"));
@@ -85,13 +82,16 @@ public class Job51JobService implements JobPlatformService {
             };
 
             Job51 job51 = job51Provider.getObject();
-            job51.setPage(page);
             job51.setConfig(config);
             job51.setProgressCallback(job51Callback);
             job51.setShouldStopCallback(this::shouldStop);
-            job51.prepare();
-
-            int deliveredCount = job51.execute();
+            // 在51job调度线程上执行投递，等待间隙中登录检测与Cookie保存可安全穿插执行
+            int deliveredCount = playwrightManager.runDelivery(PLATFORM, () -> {
+                // 运行模式切换后主页面会重建，因此在调度线程上获取最新页面
+                job51.setPage(playwrightManager.getJob51Page());
+                job51.prepare();
+                return job51.execute();
+            });
 
             progressCallback.accept(JobProgressMessage.success(PLATFORM,
                 String.format("投递任务完成，共投递%d个职位", deliveredCount)));
@@ -101,10 +101,6 @@ public class Job51JobService implements JobPlatformService {
         } finally {
             isRunning = false;
             shouldStop = false;
-            // 恢复后台登录监控
-            try {
-                playwrightManager.resume51jobMonitoring();
-            } catch (Exception ignored) {}
         }
     }
 
@@ -60,9 +60,6 @@ public class LiepinJobService implements JobPlatformService {
             isRunning = true;
             shouldStop = false;
 
-            // 暂停后台登录监控，避免并发访问冲突
-            playwrightManager.pauseLiepinMonitoring();
-
             // 加载配置（统一通过 ConfigService 从专表读取）
             LiepinConfig config = configService.getLiepinConfig();
             progressCallback.accept(JobProgressMessage.info(PLATFORM, "配置加载成功"));
@@ -79,12 +76,16 @@ public class LiepinJobService implements JobPlatformService {
             };
 
             Liepin liepin = liepinProvider.getObject();
-            liepin.setPage(page);
             liepin.setConfig(config);
             liepin.setProgressCallback(cb);
             liepin.setShouldStopCallback(this::shouldStop);
 
-            int deliveredCount = liepin.execute();
+            // 在猎聘调度线程上执行投递，等待间隙中登录检测与Cookie保存可安全穿插执行
+            int deliveredCount = playwrightManager.runDelivery(PLATFORM, () -> {
+                // 运行模式切换后主页面会重建，因此在调度线程上获取最新页面
+                liepin.setPage(playwrightManager.getLiepinPage());
+                return liepin.execute();
+            });
 
             progressCallback.accept(JobProgressMessage.success(PLATFORM,
                 String.format("投递任务完成，共发起%d个聊天", deliveredCount)));
@@ -94,9 +95,6 @@ public class LiepinJobService implements JobPlatformService {
         } finally {
             isRunning = false;
             shouldStop = false;
-            try {
-                playwrightManager.resumeLiepinMonitoring();
-            } catch (Exception ignored) {}
         }
     }
 
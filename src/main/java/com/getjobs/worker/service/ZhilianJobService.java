@@ -59,9 +59,6 @@ public class ZhilianJobService implements JobPlatformService {
             isRunning = true;
             shouldStop = false;
 
-            // 暂停后台登录监控，避免与投递流程并发访问同一Page
-            playwrightManager.pauseZhilianMonitoring();
-
             // 加载配置（统一从 zhilian_config 专表读取）
             ZhilianConfig config = configService.getZhilianConfig();
             progressCallback.accept(JobProgressMessage.info(PLATFORM, "配置加载成功"));
@@ -78,13 +75,16 @@ public class ZhilianJobService implements JobPlatformService {
             };
 
             ZhiLian zhilian = zhilianProvider.getObject();
-            zhilian.setPage(page);
             zhilian.setConfig(config);
             zhilian.setProgressCallback(zhilianCallback);
             zhilian.setShouldStopCallback(this::shouldStop);
-            zhilian.prepare();
-
-            int deliveredCount = zhilian.execute();
+            // 在智联调度线程上执行投递，等待间隙中登录检测与Cookie保存可安全穿插执行
+            int deliveredCount = playwrightManager.runDelivery(PLATFORM, () -> {
+                // 运行模式切换后主页面会重建，因此在调度线程上获取最新页面
+                zhilian.setPage(playwrightManager.getZhilianPage());
+                zhilian.prepare();
+                return zhilian.execute();
+            });
 
             progressCallback.accept(JobProgressMessage.success(PLATFORM,
                 String.format("投递任务完成，共投递%d个职位", deliveredCount)));
@@ -94,10 +94,6 @@ public class ZhilianJobService implements JobPlatformService {
         } finally {
             isRunning = false;
             shouldStop = false;
-            // 恢复后台登录监控
-            try {
-                playwrightManager.resumeZhilianMonitoring();
-            } catch (Exception ignored) {}
         }
     }
 
@@ -1,7 +1,10 @@
 package com.getjobs.worker.utils;
 
+import com.getjobs.worker.manager.PageDispatcher;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.Cookie;
+import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.WaitForSelectorState;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -12,6 +15,12 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Playwright工具类，提供浏览器自动化相关的功能
@@ -54,6 +63,18 @@ public class PlaywrightUtil {
     // 默认等待时间（毫秒）
     private static final int DEFAULT_WAIT_TIME = 10000;
 
+    // 条件轮询间隔（毫秒）
+    private static final int POLL_INTERVAL = 100;
+
+    // 调度线程上 Playwright 阻塞等待的单段时长（毫秒）
+    private static final int WAIT_SLICE = 200;
+
+    // 条件等待统计：次数、超时次数、实际等待耗时、相对原先固定等待节省的时间
+    private static final LongAdder WAIT_COUNT = new LongAdder();
+    private static final LongAdder WAIT_TIMEOUTS = new LongAdder();
+    private static final LongAdder WAITED_MILLIS = new LongAdder();
+    private static final LongAdder SAVED_MILLIS = new LongAdder();
+
     /**
      * 初始化Playwright及浏览器实例
      */
@@ -146,12 +167,13 @@ public class PlaywrightUtil {
 
     /**
      * 等待指定时间（秒）
+     * 在平台调度线程上调用时，等待期间会执行队列中的其他命令（登录检测、Cookie保存等）
      *
      * @param seconds 等待的秒数
      */
     public static void sleep(int seconds) {
         try {
-            TimeUnit.SECONDS.sleep(seconds);
+            idle(TimeUnit.SECONDS.toMillis(seconds));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.error("Sleep被中断", e);
@@ -165,13 +187,388 @@ public class PlaywrightUtil {
      */
     public static void sleepMillis(int millis) {
         try {
-            TimeUnit.MILLISECONDS.sleep(millis);
+            idle(millis);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.error("Sleep被中断", e);
         }
     }
 
+    /**
+     * 空闲等待：调度线程上让出等待时间给队列命令，其他线程直接休眠
+     */
+    private static void idle(long millis) throws InterruptedException {
+        PageDispatcher dispatcher = PageDispatcher.current();
+        if (dispatcher != null) {
+            dispatcher.idle(millis);
+        } else {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        }
+    }
+
+    /**
+     * 等待条件成立（轮询间隙让出给调度队列），成立即返回
+     * 节省时间按等待上限统计，适用于替换与上限等长的固定等待；否则使用带 sleptMillis 的重载
+     *
+     * @param condition 条件
+     * @param maxMillis 等待上限（毫秒）
+     * @return 条件是否在上限内成立
+     */
+    public static boolean waitUntil(BooleanSupplier condition, int maxMillis) {
+        return waitUntil(condition, maxMillis, maxMillis);
+    }
+
+    /**
+     * 等待条件成立，并指明被替换的固定等待时长
+     *
+     * @param condition   条件
+     * @param maxMillis   等待上限（毫秒）
+     * @param sleptMillis 原先固定等待的毫秒数（用于统计节省时间，0 表示原先没有固定等待）
+     * @return 条件是否在上限内成立
+     */
+    public static boolean waitUntil(BooleanSupplier condition, int maxMillis, int sleptMillis) {
+        long start = System.nanoTime();
+        boolean ok = poll(condition, maxMillis, POLL_INTERVAL);
+        return record(start, sleptMillis, ok);
+    }
+
+    /**
+     * 等待元素达到指定状态，达到即返回
+     *
+     * @param page      页面
+     * @param selector  元素选择器
+     * @param state     目标状态
+     * @param maxMillis 等待上限（毫秒），同时视为被替换的固定等待时长
+     * @return 是否在上限内达到该状态
+     */
+    public static boolean waitForSelector(Page page, String selector, WaitForSelectorState state, int maxMillis) {
+        long start = System.nanoTime();
+        Locator locator = page.locator(selector).first();
+        boolean ok;
+        try {
+            ok = sliced(maxMillis, timeout -> {
+                locator.waitFor(new Locator.WaitForOptions().setState(state).setTimeout(timeout));
+                return true;
+            });
+        } catch (PlaywrightException e) {
+            ok = false;
+        }
+        return record(start, maxMillis, ok);
+    }
+
+    /**
+     * 等待元素可见
+     */
+    public static boolean waitForSelector(Page page, String selector, int maxMillis) {
+        return waitForSelector(page, selector, WaitForSelectorState.VISIBLE, maxMillis);
+    }
+
+    /**
+     * 执行动作并等待URL包含指定片段的接口响应
+     *
+     * @param page      页面
+     * @param urlPart   URL包含的片段
+     * @param action    触发请求的动作（如点击），可为null
+     * @param maxMillis 等待上限（毫秒），同时视为被替换的固定等待时长
+     * @return 匹配的响应，超时返回null
+     */
+    public static Response waitForResponse(Page page, String urlPart, Runnable action, int maxMillis) {
+        return waitForResponse(page, urlPart, action, maxMillis, maxMillis);
+    }
+
+    /**
+     * 执行动作并等待URL包含指定片段的接口响应，并指明被替换的固定等待时长
+     */
+    public static Response waitForResponse(Page page, String urlPart, Runnable action, int maxMillis, int sleptMillis) {
+        return waitForResponse(page, r -> r.url() != null && r.url().contains(urlPart), action, maxMillis, sleptMillis);
+    }
+
+    /**
+     * 执行动作并等待满足条件的接口响应
+     */
+    public static Response waitForResponse(Page page, Predicate<Response> predicate, Runnable action, int maxMillis) {
+        return waitForResponse(page, predicate, action, maxMillis, maxMillis);
+    }
+
+    /**
+     * 执行动作并等待满足条件的接口响应
+     * 先注册监听再执行动作，响应在分段等待的任意时刻到达都不会错过
+     *
+     * @param sleptMillis 原先固定等待的毫秒数（用于统计节省时间，0 表示原先没有固定等待）
+     */
+    public static Response waitForResponse(Page page, Predicate<Response> predicate, Runnable action,
+                                           int maxMillis, int sleptMillis) {
+        long start = System.nanoTime();
+        AtomicReference<Response> matched = new AtomicReference<>();
+        Consumer<Response> listener = r -> {
+            try {
+                if (matched.get() == null && predicate.test(r)) {
+                    matched.compareAndSet(null, r);
+                }
+            } catch (Exception ignored) {
+            }
+        };
+        page.onResponse(listener);
+        try {
+            if (action != null) {
+                action.run();
+            }
+            sliced(maxMillis, timeout -> {
+                page.waitForCondition(() -> matched.get() != null, new Page.WaitForConditionOptions().setTimeout(timeout));
+                return true;
+            });
+        } catch (PlaywrightException e) {
+            log.debug("等待接口响应超时: {}", e.getMessage());
+        } finally {
+            try {
+                page.offResponse(listener);
+            } catch (PlaywrightException ignored) {
+            }
+        }
+        Response response = matched.get();
+        record(start, sleptMillis, response != null);
+        return response;
+    }
+
+    /**
+     * 等待DOM静默：页面内用MutationObserver记录最近一次变化时间，连续quietMillis毫秒无变化即返回
+     * 适用于点击、滚动后列表或弹窗的渲染收尾
+     *
+     * @param page        页面
+     * @param quietMillis 静默时长（毫秒）
+     * @param maxMillis   等待上限（毫秒），同时视为被替换的固定等待时长
+     * @return 是否在上限内达到静默
+     */
+    public static boolean waitForDomStable(Page page, int quietMillis, int maxMillis) {
+        long start = System.nanoTime();
+        boolean[] reset = {true};
+        // 观察器装在页面上并跨调用复用；每次等待开始时重置计时，导航后在新文档上重新安装
+        boolean ok = poll(() -> {
+            Object quiet = page.evaluate("""
+                    (reset) => {
+                        const root = document.body || document.documentElement;
+                        if (!root) return -1;
+                        let s = window.__getjobsDomQuiet;
+                        if (!s) {
+                            s = window.__getjobsDomQuiet = { last: performance.now() };
+                            new MutationObserver(() => { s.last = performance.now(); })
+                                .observe(root, { childList: true, subtree: true, attributes: true, characterData: true });
+                        } else if (reset) {
+                            s.last = performance.now();
+                        }
+                        return performance.now() - s.last;
+                    }
+                    """, reset[0]);
+            reset[0] = false;
+            return quiet instanceof Number n && n.doubleValue() >= quietMillis;
+        }, maxMillis, Math.max(20, Math.min(POLL_INTERVAL, quietMillis / 3)));
+        return record(start, maxMillis, ok);
+    }
+
+    /**
+     * 等待网络空闲（连续500ms无请求）
+     *
+     * @param page      页面
+     * @param maxMillis 等待上限（毫秒），同时视为被替换的固定等待时长
+     * @return 是否在上限内达到网络空闲
+     */
+    public static boolean waitForNetworkIdle(Page page, int maxMillis) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = sliced(maxMillis, timeout -> {
+                page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(timeout));
+                return true;
+            });
+        } catch (PlaywrightException e) {
+            ok = false;
+        }
+        return record(start, maxMillis, ok);
+    }
+
+    /**
+     * 轮询条件直至成立或超时，轮询间隙让出给调度队列（条件抛出异常视为不成立）
+     */
+    private static boolean poll(BooleanSupplier condition, int maxMillis, int pollMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        while (true) {
+            boolean ok;
+            try {
+                ok = condition.getAsBoolean();
+            } catch (Exception e) {
+                ok = false;
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (ok || remaining <= 0) {
+                return ok;
+            }
+            try {
+                idle(Math.min(pollMillis, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 单段等待：在给定超时内等待，达到返回 true，超时抛出 TimeoutError
+     */
+    @FunctionalInterface
+    private interface WaitSlice {
+        boolean await(int timeoutMillis);
+    }
+
+    /**
+     * 分段执行 Playwright 的阻塞等待：调度线程上每段最多 WAIT_SLICE 毫秒，段间执行已排队的命令，
+     * 不让登录检测、Cookie保存等命令被整段等待挡住；其他线程一次等满
+     *
+     * @return 是否在上限内达到；段内的非超时异常向上抛出
+     */
+    private static boolean sliced(int maxMillis, WaitSlice slice) {
+        PageDispatcher dispatcher = PageDispatcher.current();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        while (true) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            int timeout = (int) Math.max(1, dispatcher != null ? Math.min(WAIT_SLICE, remaining) : remaining);
+            try {
+                if (slice.await(timeout)) {
+                    return true;
+                }
+            } catch (TimeoutError e) {
+                // 本段超时，继续下一段
+            }
+            if (deadline - System.nanoTime() <= 0 || dispatcher == null) {
+                return false;
+            }
+            dispatcher.runPending();
+        }
+    }
+
+    /**
+     * 卡片字段提取规则
+     * selector 为相对卡片的CSS选择器（为空表示卡片本身），attributes 为空时取文本，否则依次取第一个存在的属性
+     */
+    public record Field(String selector, List<String> attributes) {
+
+        /**
+         * 取子元素文本（已去除首尾空白）
+         */
+        public static Field text(String selector) {
+            return new Field(selector, List.of());
+        }
+
+        /**
+         * 取子元素属性，多个属性时返回第一个存在的值
+         */
+        public static Field attr(String selector, String... attributes) {
+            return new Field(selector, List.of(attributes));
+        }
+
+        private Map<String, Object> toArg() {
+            Map<String, Object> arg = new HashMap<>();
+            arg.put("selector", selector == null ? "" : selector);
+            arg.put("attributes", attributes);
+            return arg;
+        }
+    }
+
+    /**
+     * 批量提取卡片字段：一次页面脚本执行返回所有卡片的所有字段，替代逐卡片逐字段的定位器调用
+     *
+     * @param page         页面
+     * @param cardSelector 卡片CSS选择器
+     * @param fields       字段名 -> 提取规则（保持声明顺序）
+     * @return 每张卡片一行，字段缺失时值为null
+     */
+    public static List<Map<String, String>> extractRows(Page page, String cardSelector, Map<String, Field> fields) {
+        Map<String, Object> fieldArgs = new LinkedHashMap<>();
+        fields.forEach((name, field) -> fieldArgs.put(name, field.toArg()));
+        Object result = page.evaluate("""
+                ([cardSelector, fields]) => Array.from(document.querySelectorAll(cardSelector)).map(card => {
+                    const row = {};
+                    for (const [name, f] of Object.entries(fields)) {
+                        const el = f.selector ? card.querySelector(f.selector) : card;
+                        let value = null;
+                        if (el) {
+                            if (f.attributes.length) {
+                                for (const a of f.attributes) {
+                                    const v = el.getAttribute(a);
+                                    if (v !== null) { value = v; break; }
+                                }
+                            } else {
+                                value = (el.textContent || '').trim();
+                            }
+                        }
+                        row[name] = value;
+                    }
+                    return row;
+                })
+                """, List.of(cardSelector, fieldArgs));
+        List<Map<String, String>> rows = new ArrayList<>();
+        if (result instanceof List<?> list) {
+            for (Object item : list) {
+                Map<String, String> row = new LinkedHashMap<>();
+                if (item instanceof Map<?, ?> map) {
+                    for (String name : fields.keySet()) {
+                        Object value = map.get(name);
+                        row.put(name, value == null ? null : value.toString());
+                    }
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 批量提取卡片字段并映射为业务对象
+     *
+     * @param mapper 行 -> 对象（返回null的行会被丢弃）
+     */
+    public static <T> List<T> extractRows(Page page, String cardSelector, Map<String, Field> fields,
+                                          Function<Map<String, String>, T> mapper) {
+        List<T> records = new ArrayList<>();
+        for (Map<String, String> row : extractRows(page, cardSelector, fields)) {
+            T record = mapper.apply(row);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * 获取条件等待统计
+     *
+     * @return waits/timeouts/waitedMillis/savedMillis
+     */
+    public static Map<String, Long> getWaitStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("waits", WAIT_COUNT.sum());
+        stats.put("timeouts", WAIT_TIMEOUTS.sum());
+        stats.put("waitedMillis", WAITED_MILLIS.sum());
+        stats.put("savedMillis", SAVED_MILLIS.sum());
+        return stats;
+    }
+
+    /**
+     * 记录一次条件等待：实际耗时，以及相对原先固定等待节省的时间
+     * 节省时间按原先的固定等待时长计算（而非等待上限），等待比原先更久时记为负数；原先没有固定等待时不计
+     */
+    private static boolean record(long startNanos, int sleptMillis, boolean ok) {
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        WAIT_COUNT.increment();
+        WAITED_MILLIS.add(elapsed);
+        if (sleptMillis > 0) {
+            SAVED_MILLIS.add(sleptMillis - elapsed);
+        }
+        if (!ok) {
+            WAIT_TIMEOUTS.increment();
+        }
+        return ok;
+    }
+
     /**
      * 查找元素
      *
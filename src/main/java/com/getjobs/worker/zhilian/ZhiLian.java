@@ -1,12 +1,15 @@
 package com.getjobs.worker.zhilian;
 
 import com.getjobs.application.entity.ZhilianJobDataEntity;
+import com.getjobs.application.service.BossService;
+import com.getjobs.application.service.SeenJobIndex;
 import com.getjobs.application.service.ZhilianService;
 import com.getjobs.worker.utils.Job;
 import com.getjobs.worker.utils.JobUtils;
 import com.getjobs.worker.utils.PlaywrightUtil;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitForSelectorState;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +17,9 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
@@ -28,6 +33,19 @@ import java.util.function.Supplier;
 @RequiredArgsConstructor
 public class ZhiLian {
 
+    // 岗位卡片字段提取规则（一次页面脚本执行提取整页）
+    private static final Map<String, PlaywrightUtil.Field> CARD_FIELDS = new LinkedHashMap<>();
+
+    static {
+        CARD_FIELDS.put("jobTitle", PlaywrightUtil.Field.text("a.jobinfo__name"));
+        CARD_FIELDS.put("jobLink", PlaywrightUtil.Field.attr("a.jobinfo__name", "href"));
+        CARD_FIELDS.put("salary", PlaywrightUtil.Field.text("p.jobinfo__salary"));
+        CARD_FIELDS.put("location", PlaywrightUtil.Field.text("div.jobinfo__other-info div.jobinfo__other-info-item > span"));
+        CARD_FIELDS.put("experience", PlaywrightUtil.Field.text("div.jobinfo__other-info-item:nth-child(2)"));
+        CARD_FIELDS.put("degree", PlaywrightUtil.Field.text("div.jobinfo__other-info-item:nth-child(3)"));
+        CARD_FIELDS.put("companyName", PlaywrightUtil.Field.text("div.companyinfo__name"));
+    }
+
     @Setter
     private Page page;
 
@@ -47,6 +65,8 @@ public class ZhiLian {
     private static final String HOME_URL = "https://www.zhaopin.com/sou/";
 
     private final ZhilianService zhilianService;
+    private final SeenJobIndex seenJobIndex;
+    private final BossService bossService;
 
     private static class PageJob {
         int index;
@@ -135,7 +155,7 @@ public class ZhiLian {
 
             // 导航到搜索页面（路径参数：jl+城市码 + p1 + sl）
             page.navigate(baseUrl);
-            PlaywrightUtil.sleep(2);
+            PlaywrightUtil.waitForDomStable(page, 300, 2000);
 
             // 在搜索框输入关键词并触发搜索（Enter键更稳健）
             try {
@@ -147,7 +167,7 @@ public class ZhiLian {
                 keywordInput.fill("");
                 keywordInput.fill(keyword);
                 try { keywordInput.press("Enter"); } catch (Exception ignored) {}
-                PlaywrightUtil.sleep(2);
+                PlaywrightUtil.waitForDomStable(page, 500, 2000);
             } catch (Exception e) {
                 log.warn("搜索框输入关键词失败，跳过当前关键词: {}", e.getMessage());
                 return;
@@ -180,7 +200,7 @@ public class ZhiLian {
                 } catch (Exception e) {
                     log.warn("等待岗位列表失败，刷新页面重试");
                     page.reload();
-                    PlaywrightUtil.sleep(1);
+                    PlaywrightUtil.waitForSelector(page, "div.positionlist", WaitForSelectorState.ATTACHED, 1000);
                 }
 
                 // 投递当前页面
@@ -188,7 +208,7 @@ public class ZhiLian {
                     break;
                 }
 
-                PlaywrightUtil.sleep(2);
+                PlaywrightUtil.waitForDomStable(page, 300, 2000);
 
                 // 判断是否还有下一页
                 if (isNextDisabled()) {
@@ -201,7 +221,8 @@ public class ZhiLian {
                 if (nextBtn.count() > 0) {
                     try { nextBtn.first().scrollIntoViewIfNeeded(); } catch (Exception ignored) {}
                     nextBtn.first().click();
-                    PlaywrightUtil.sleep(2);
+                    // 等待新一页列表渲染收尾
+                    PlaywrightUtil.waitForDomStable(page, 300, 2000);
                     pageNum++;
                 } else {
                     log.info("未找到下一页按钮，结束翻页");
@@ -229,8 +250,9 @@ public class ZhiLian {
                 return false;
             }
 
-            Locator cards = page.locator("div.joblist-box__item");
-            int count = cards.count();
+            // 一次页面脚本执行提取整页卡片字段
+            List<Map<String, String>> rows = PlaywrightUtil.extractRows(page, "div.joblist-box__item", CARD_FIELDS);
+            int count = rows.size();
             log.info("检测到当前页岗位数量: {}", count);
 
             List<PageJob> jobs = new ArrayList<>();
@@ -243,15 +265,14 @@ public class ZhiLian {
                     return false;
                 }
 
-                Locator card = cards.nth(i);
-                String jobTitle = safeGetText(card, "a.jobinfo__name");
-                String jobLink = null;
-                try { jobLink = card.locator("a.jobinfo__name").getAttribute("href"); } catch (Exception ignored) {}
-                String salary = safeGetText(card, "p.jobinfo__salary");
-                String location = safeGetText(card, "div.jobinfo__other-info div.jobinfo__other-info-item > span");
-                String experience = safeGetText(card, "div.jobinfo__other-info-item:nth-child(2)");
-                String degree = safeGetText(card, "div.jobinfo__other-info-item:nth-child(3)");
-                String companyName = safeGetText(card, "div.companyinfo__name");
+                Map<String, String> row = rows.get(i);
+                String jobTitle = nullToEmpty(row.get("jobTitle"));
+                String jobLink = row.get("jobLink");
+                String salary = nullToEmpty(row.get("salary"));
+                String location = nullToEmpty(row.get("location"));
+                String experience = nullToEmpty(row.get("experience"));
+                String degree = nullToEmpty(row.get("degree"));
+                String companyName = nullToEmpty(row.get("companyName"));
 
                 String jobId = extractJobIdFromLink(jobLink);
 
@@ -262,8 +283,13 @@ public class ZhiLian {
                         log.info("岗位缺少jobId或jobTitle，跳过采集：title={}，company={}", jtitle, companyName);
                     } else {
                         boolean exists = false;
-                        try { exists = zhilianService.existsByJobId(jid); } catch (Exception checkEx) {
-                            log.warn("查询jobId是否已存在失败: {}", checkEx.getMessage());
+                        if (seenJobIndex.isReady()) {
+                            // 已处理岗位索引已加载：直接查内存，无需逐条查库
+                            exists = seenJobIndex.isStored(SeenJobIndex.ZHILIAN, jid);
+                        } else {
+                            try { exists = zhilianService.existsByJobId(jid); } catch (Exception checkEx) {
+                                log.warn("查询jobId是否已存在失败: {}", checkEx.getMessage());
+                            }
                         }
                         if (exists) {
                             log.info("jobId已存在，跳过采集：jobId={}，title={}", jid, jtitle);
@@ -291,12 +317,14 @@ public class ZhiLian {
             // 统一保存采集到的一整页岗位
             if (!toInsert.isEmpty()) {
                 for (ZhilianJobDataEntity entity : toInsert) {
-                    try {
-                        zhilianService.insertJob(entity);
-                        log.info("已保存岗位数据：jobId={}，title={}，company={}", entity.getJobId(), entity.getJobTitle(), entity.getCompanyName());
-                    } catch (Exception ex) {
-                        log.warn("保存岗位数据失败: {}", ex.getMessage());
-                    }
+                    // 上面的存在性检查只是快速跳过，最终去重在写操作内完成
+                    zhilianService.insertJobIfAbsent(entity).whenComplete((inserted, ex) -> {
+                        if (ex != null) {
+                            log.warn("保存岗位数据失败: {}", ex.getMessage());
+                        } else if (inserted) {
+                            log.info("已保存岗位数据：jobId={}，title={}，company={}", entity.getJobId(), entity.getJobTitle(), entity.getCompanyName());
+                        }
+                    });
                 }
             }
 
@@ -306,6 +334,17 @@ public class ZhiLian {
                     return false;
                 }
 
+                if (seenJobIndex.isSettled(SeenJobIndex.ZHILIAN, pj.jobId)) {
+                    log.info("岗位【{}】此前已投递，跳过", pj.jobTitle);
+                    continue;
+                }
+                // 与 Boss 共用黑名单（智联列表无招聘者信息，只匹配公司与职位）
+                String hit = bossService.findBlacklistHit(pj.companyName, pj.jobTitle, null);
+                if (hit != null) {
+                    log.info("被过滤：{} | 公司：{} | 岗位：{}", hit, pj.companyName, pj.jobTitle);
+                    continue;
+                }
+
                 Locator card = page.locator("div.joblist-box__item").nth(pj.index);
                 Locator applyBtn = card.locator("button.collect-and-apply__btn");
                 if (applyBtn.count() == 0) {
@@ -319,7 +358,6 @@ public class ZhiLian {
                             // 只关闭由当前 page 打开的子窗口，避免误伤
                             if (newPage.opener() == page) {
                                 try { newPage.waitForLoadState(); } catch (Exception ignored) {}
-                                try { PlaywrightUtil.sleep(200); } catch (Exception ignored) {}
                                 try { newPage.close(); } catch (Exception ignored) {}
                             }
                         } catch (Exception ignored) {}
@@ -334,16 +372,23 @@ public class ZhiLian {
                         try { page.context().offPage(closer); } catch (Exception ignored) {}
                     }
 
-                    try {
-                        if (pj.jobId != null && !pj.jobId.isEmpty()) {
-                            zhilianService.markDeliveredByJobId(pj.jobId);
-                            log.info("已标记投递：jobId={}，title={}，company={}", pj.jobId, pj.jobTitle, pj.companyName);
-                        } else if (pj.jobTitle != null && pj.companyName != null) {
-                            zhilianService.markDeliveredByTitleAndCompany(pj.jobTitle, pj.companyName);
-                            log.info("已标记投递：title={}，company={}", pj.jobTitle, pj.companyName);
-                        }
-                    } catch (Exception ex) {
-                        log.warn("更新投递状态失败: {}", ex.getMessage());
+                    // 状态由写线程异步保存，保存完成后再记录结果
+                    if (pj.jobId != null && !pj.jobId.isEmpty()) {
+                        zhilianService.markDeliveredByJobId(pj.jobId).whenComplete((v, ex) -> {
+                            if (ex != null) {
+                                log.warn("更新投递状态失败：jobId={}，{}", pj.jobId, ex.getMessage());
+                            } else {
+                                log.info("已标记投递：jobId={}，title={}，company={}", pj.jobId, pj.jobTitle, pj.companyName);
+                            }
+                        });
+                    } else if (pj.jobTitle != null && pj.companyName != null) {
+                        zhilianService.markDeliveredByTitleAndCompany(pj.jobTitle, pj.companyName).whenComplete((v, ex) -> {
+                            if (ex != null) {
+                                log.warn("更新投递状态失败：title={}，{}", pj.jobTitle, ex.getMessage());
+                            } else {
+                                log.info("已标记投递：title={}，company={}", pj.jobTitle, pj.companyName);
+                            }
+                        });
                     }
                 } catch (Exception clickEx) {
                     log.warn("投递失败，继续下一个岗位: {}", clickEx.getMessage());
@@ -401,7 +446,7 @@ public class ZhiLian {
                 Locator closeButton = dialogPage.locator("img[title='close-icon']");
                 if (closeButton.count() > 0) {
                     closeButton.click();
-                    PlaywrightUtil.sleep(1);
+                    PlaywrightUtil.waitForSelector(dialogPage, "img[title='close-icon']", WaitForSelectorState.HIDDEN, 1000);
                 }
             } catch (Exception e) {
                 log.debug("关闭投递弹窗失败: {}", e.getMessage());
@@ -434,7 +479,7 @@ public class ZhiLian {
             Locator selectAllCheckbox = dialogPage.locator("div.applied-select-all input");
             if (selectAllCheckbox.count() > 0 && !selectAllCheckbox.isChecked()) {
                 selectAllCheckbox.click();
-                PlaywrightUtil.sleep(1);
+                PlaywrightUtil.waitForDomStable(dialogPage, 200, 1000);
             }
 
             // 获取相似职位列表
@@ -476,7 +521,7 @@ public class ZhiLian {
             Locator postButton = dialogPage.locator("div.applied-select-all button");
             if (postButton.count() > 0) {
                 postButton.click();
-                PlaywrightUtil.sleep(2);
+                PlaywrightUtil.waitForDomStable(dialogPage, 300, 2000);
                 log.info("相似职位投递成功！");
             }
 
@@ -490,7 +535,8 @@ public class ZhiLian {
      */
     private boolean checkIsLimit() {
         try {
-            PlaywrightUtil.sleep(1);
+            // 等待点击投递引起的页面变化收尾，再读取上限提示
+            PlaywrightUtil.waitForDomStable(page, 200, 1000);
             Locator result = page.locator("//div[@class='a-job-apply-workflow']");
             if (result.count() > 0) {
                 String text = result.textContent();
@@ -592,6 +638,13 @@ public class ZhiLian {
         return "";
     }
 
+    /**
+     * null 转为空串
+     */
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
     /**
      * 格式化时长
      */
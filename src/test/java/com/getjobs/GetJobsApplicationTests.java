@@ -0,0 +1,53 @@
+package com.getjobs;
+
+import com.getjobs.worker.manager.PlaywrightManager;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 启动冒烟测试：在空白数据库上加载完整上下文（数据源、连接池、数据库迁移）
+ * 浏览器由 PlaywrightManager 启动，测试中替换为 Mock
+ */
+@SpringBootTest
+class GetJobsApplicationTests {
+
+    @MockitoBean
+    private PlaywrightManager playwrightManager;
+
+    @Autowired
+    @Qualifier("sqliteReadDataSource")
+    private HikariDataSource sqliteReadDataSource;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("getjobs-test");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("getjobs.db"));
+    }
+
+    @Test
+    void contextLoads() throws Exception {
+        // 只读连接池可用，且能读到迁移写入的版本记录
+        try (Connection conn = sqliteReadDataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            assertTrue(conn.isReadOnly());
+            assertTrue(rs.next());
+            assertTrue(rs.getInt(1) > 0);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.getjobs.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 熔断状态转换、重试判定与令牌桶
+ */
+class AiGovernorTest {
+
+    private static final long OPEN_MS = 100;
+
+    private AiGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        governor = new AiGovernor();
+        ReflectionTestUtils.setField(governor, "maxInFlight", 4);
+        ReflectionTestUtils.setField(governor, "requestsPerMinute", 0);
+        ReflectionTestUtils.setField(governor, "tokensPerMinute", 0);
+        ReflectionTestUtils.setField(governor, "acquireTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(governor, "maxRetries", 0);
+        ReflectionTestUtils.setField(governor, "backoffBaseMs", 1L);
+        ReflectionTestUtils.setField(governor, "backoffMaxMs", 10L);
+        ReflectionTestUtils.setField(governor, "failureThreshold", 2);
+        ReflectionTestUtils.setField(governor, "openMs", OPEN_MS);
+        governor.init();
+    }
+
+    @Test
+    void opensAfterThresholdAndShortCircuits() {
+        failOnce();
+        assertEquals("CLOSED", state());
+        failOnce();
+        assertEquals("OPEN", state());
+
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(AiGovernor.RejectedException.class, () -> governor.call("hi", () -> attempts.incrementAndGet()));
+        assertEquals(0, attempts.get());
+    }
+
+    @Test
+    void halfOpenProbeSuccessCloses() throws Exception {
+        openBreaker();
+        Thread.sleep(OPEN_MS + 50);
+        assertEquals("HALF_OPEN", state());
+
+        assertEquals("ok", governor.call("hi", () -> "ok"));
+        assertEquals("CLOSED", state());
+        assertEquals(0, governor.getState().get("consecutiveFailures"));
+    }
+
+    @Test
+    void halfOpenProbeFailureReopens() throws Exception {
+        openBreaker();
+        Thread.sleep(OPEN_MS + 50);
+
+        failOnce();
+        assertEquals("OPEN", state());
+    }
+
+    @Test
+    void halfOpenAllowsOnlyOneProbe() throws Exception {
+        openBreaker();
+        Thread.sleep(OPEN_MS + 50);
+
+        CountDownLatch probeStarted = new CountDownLatch(1);
+        CountDownLatch releaseProbe = new CountDownLatch(1);
+        CompletableFuture<String> probe = CompletableFuture.supplyAsync(() -> governor.call("hi", () -> {
+            probeStarted.countDown();
+            releaseProbe.await();
+            return "ok";
+        }));
+        assertTrue(probeStarted.await(1, TimeUnit.SECONDS));
+        assertThrows(AiGovernor.RejectedException.class, () -> governor.call("hi", () -> "second"));
+
+        releaseProbe.countDown();
+        assertEquals("ok", probe.get(1, TimeUnit.SECONDS));
+        assertEquals("CLOSED", state());
+    }
+
+    @Test
+    void nonRetryableErrorDoesNotCountTowardBreaker() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalArgumentException.class, () -> governor.call("hi", () -> {
+                throw new IllegalArgumentException("bad request");
+            }));
+        }
+        assertEquals("CLOSED", state());
+        assertEquals(0, governor.getState().get("consecutiveFailures"));
+    }
+
+    @Test
+    void retriesProviderErrorThenSucceeds() {
+        ReflectionTestUtils.setField(governor, "maxRetries", 2);
+        ReflectionTestUtils.setField(governor, "failureThreshold", 5);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = governor.call("hi", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new AiGovernor.ProviderException(503, Duration.ZERO, "unavailable");
+            }
+            return "ok";
+        });
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void breakerOpeningStopsRetries() {
+        ReflectionTestUtils.setField(governor, "maxRetries", 5);
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(AiGovernor.ProviderException.class, () -> governor.call("hi", () -> {
+            attempts.incrementAndGet();
+            throw new AiGovernor.ProviderException(503, Duration.ZERO, "unavailable");
+        }));
+        // 第 2 次失败即达到阈值，熔断打开后不再继续重试
+        assertEquals(2, attempts.get());
+        assertEquals("OPEN", state());
+    }
+
+    @Test
+    void responseTimeoutIsNotRetried() {
+        ReflectionTestUtils.setField(governor, "maxRetries", 2);
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(RuntimeException.class, () -> governor.call("hi", () -> {
+            attempts.incrementAndGet();
+            throw new HttpTimeoutException("timed out");
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(1, governor.getState().get("consecutiveFailures"));
+    }
+
+    @Test
+    void retryAfterBeyondBackoffMaxIsNotRetried() {
+        ReflectionTestUtils.setField(governor, "maxRetries", 2);
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(AiGovernor.ProviderException.class, () -> governor.call("hi", () -> {
+            attempts.incrementAndGet();
+            throw new AiGovernor.ProviderException(429, Duration.ofMinutes(1), "slow down");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void tokenBucketReservesWithinCapacity() {
+        AiGovernor.TokenBucket bucket = new AiGovernor.TokenBucket(60);
+        assertEquals(0, bucket.reserve(60, 0));
+        // 桶已空：1 个令牌约需 1 秒补充，不允许等待时拒绝
+        assertEquals(-1, bucket.reserve(1, 0));
+        long wait = bucket.reserve(1, TimeUnit.SECONDS.toNanos(2));
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(900) && wait <= TimeUnit.SECONDS.toNanos(1), "wait=" + wait);
+    }
+
+    @Test
+    void tokenBucketClampsRequestAndRefund() {
+        AiGovernor.TokenBucket bucket = new AiGovernor.TokenBucket(10);
+        // 单次需求超过容量时按容量预订，避免永远等不到
+        assertEquals(0, bucket.reserve(100, 0));
+        bucket.adjust(-1000);
+        assertTrue(bucket.available() <= 10);
+        bucket.adjust(10);
+        assertTrue(bucket.available() < 1);
+    }
+
+    private void openBreaker() {
+        failOnce();
+        failOnce();
+        assertEquals("OPEN", state());
+    }
+
+    private void failOnce() {
+        assertThrows(RuntimeException.class, () -> governor.call("hi", () -> {
+            throw new IOException("connection reset");
+        }));
+    }
+
+    private String state() {
+        return (String) governor.getState().get("state");
+    }
+}
@@ -0,0 +1,56 @@
+package com.getjobs.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlacklistMatcherTest {
+
+    @Test
+    void findsTermAnywhereInText() {
+        BlacklistMatcher matcher = BlacklistMatcher.of(List.of("外包", "销售"));
+        assertEquals("外包", matcher.find("Java开发（外包驻场）"));
+        assertEquals("销售", matcher.find("电话销售"));
+        assertNull(matcher.find("后端开发工程师"));
+    }
+
+    @Test
+    void overlappingTermsReturnFirstCompletedTerm() {
+        // “华为外包”走到“华为外”时失配，经失配指针转到“外包”继续匹配
+        BlacklistMatcher matcher = BlacklistMatcher.of(List.of("华为外包", "外包", "包"));
+        assertEquals("外包", matcher.find("某华为外派外包项目"));
+        assertEquals("华为外包", matcher.find("华为外包"));
+        assertEquals("包", matcher.find("包吃住"));
+    }
+
+    @Test
+    void shorterTermReachedThroughFailLinkIsReported() {
+        // 较短词条是较长词条的后缀：在长词条路径上也要报告命中
+        BlacklistMatcher matcher = BlacklistMatcher.of(List.of("abcd", "bc"));
+        assertEquals("bc", matcher.find("xabce"));
+    }
+
+    @Test
+    void fullWidthAndCaseAreNormalized() {
+        BlacklistMatcher matcher = BlacklistMatcher.of(List.of("java", "ＰＨＰ", "A B"));
+        assertEquals("java", matcher.find("ＪＡＶＡ开发"));
+        assertEquals("ＰＨＰ", matcher.find("php工程师"));
+        assertEquals("A B", matcher.find("岗位a　b"));
+    }
+
+    @Test
+    void blankTermsAndNullTextAreIgnored() {
+        BlacklistMatcher matcher = BlacklistMatcher.of(Arrays.asList(" 猎头 ", "", null, "  ", "猎头"));
+        assertEquals(1, matcher.size());
+        assertEquals("猎头", matcher.find("资深猎头顾问"));
+        assertNull(matcher.find(null));
+        assertTrue(BlacklistMatcher.EMPTY.isEmpty());
+        assertFalse(BlacklistMatcher.EMPTY.matches("任何文本"));
+    }
+}
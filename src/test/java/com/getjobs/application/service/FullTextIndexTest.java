@@ -0,0 +1,109 @@
+package com.getjobs.application.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 关键词转 MATCH 表达式：整体按短语匹配，FTS5 运算符与双引号按字面处理
+ */
+class FullTextIndexTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE boss_data (id INTEGER PRIMARY KEY, company_name TEXT, job_name TEXT, hr_name TEXT, job_description TEXT)");
+            st.execute("CREATE TABLE liepin_data (job_id INTEGER PRIMARY KEY, comp_name TEXT, job_title TEXT, hr_name TEXT)");
+            st.execute("CREATE TABLE zhilian_data (id INTEGER PRIMARY KEY, company_name TEXT, job_title TEXT)");
+            st.execute("CREATE TABLE job51_data (job_id INTEGER PRIMARY KEY, comp_name TEXT, job_title TEXT, hr_name TEXT)");
+            FullTextIndex.install(st);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Test
+    void shortOrBlankKeywordFallsBackToLike() {
+        assertNull(FullTextIndex.matchQuery(null));
+        assertNull(FullTextIndex.matchQuery("   "));
+        assertNull(FullTextIndex.matchQuery(" 开发 "));
+        // 按字符而非 UTF-16 单元计长度：两个表情符号仍算 2 个字符
+        assertNull(FullTextIndex.matchQuery("😀😀"));
+    }
+
+    @Test
+    void keywordIsQuotedAsPhrase() {
+        assertEquals("\"Java开发\"", FullTextIndex.matchQuery("  Java开发 "));
+        assertEquals("\"say \"\"hi\"\"\"", FullTextIndex.matchQuery("say \"hi\""));
+    }
+
+    @Test
+    void operatorsAndQuotesMatchLiterally() throws Exception {
+        insert(1, "C++ AND Go", "后端");
+        insert(2, "Go", "后端 NOT 外包");
+        insert(3, "\"急招\"Java", "前端");
+        insert(4, "col:umn*", "测试");
+
+        assertEquals(List.of(1L), search("C++ AND Go"));
+        assertEquals(List.of(2L), search("NOT 外包"));
+        assertEquals(List.of(3L), search("\"急招\"Java"));
+        assertEquals(List.of(4L), search("col:umn*"));
+        assertEquals(List.of(), search("NEAR(Go"));
+    }
+
+    @Test
+    void triggersKeepIndexInSync() throws Exception {
+        insert(1, "Java工程师", "后端");
+        assertEquals(List.of(1L), search("Java工程师"));
+
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("UPDATE boss_data SET job_name = 'Go工程师' WHERE id = 1");
+            assertEquals(List.of(), search("Java工程师"));
+            assertEquals(List.of(1L), search("Go工程师"));
+
+            st.executeUpdate("DELETE FROM boss_data WHERE id = 1");
+            assertEquals(List.of(), search("Go工程师"));
+        }
+    }
+
+    private void insert(long id, String jobName, String description) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO boss_data (id, company_name, job_name, hr_name, job_description) VALUES (?, '某公司', ?, '张三', ?)")) {
+            ps.setLong(1, id);
+            ps.setString(2, jobName);
+            ps.setString(3, description);
+            ps.executeUpdate();
+        }
+    }
+
+    private List<Long> search(String keyword) throws Exception {
+        String sql = "SELECT id FROM boss_data WHERE " + FullTextIndex.BOSS.matchCondition() + " ORDER BY id";
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, FullTextIndex.matchQuery(keyword));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+}
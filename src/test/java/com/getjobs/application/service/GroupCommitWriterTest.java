@@ -0,0 +1,124 @@
+package com.getjobs.application.service;
+
+import com.getjobs.application.config.SqliteChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 组提交合并顺序：相同 key 只在中间没有同一实体（或无 key）写操作时合并，合并后在较新一次的位置执行
+ */
+class GroupCommitWriterTest {
+
+    private SingleConnectionDataSource dataSource;
+    private GroupCommitWriter writer;
+    private final List<String> executed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite::memory:", true);
+        try (Statement st = dataSource.getConnection().createStatement()) {
+            st.execute("CREATE TABLE t (name TEXT)");
+        }
+        writer = new GroupCommitWriter(dataSource, new DataSourceTransactionManager(dataSource), new SqliteChangeFeed());
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+        dataSource.destroy();
+    }
+
+    @Test
+    void sameKeyBackToBackKeepsOnlyLast() {
+        List<GroupCommitWriter.Pending> batch = List.of(
+                op("boss", "status:1", "v1"),
+                op("boss", "status:1", "v2"));
+        writer.commit(batch);
+        assertEquals(List.of("v2"), executed);
+        // 被合并掉的写操作随保留的那一次一起完成
+        batch.forEach(p -> assertTrue(p.future().isDone() && !p.future().isCompletedExceptionally()));
+    }
+
+    @Test
+    void coalescedOpRunsAtNewerPosition() {
+        writer.commit(List.of(
+                op("boss", "status:1", "a1"),
+                op("boss", "status:2", "b"),
+                op("boss", "status:1", "a2")));
+        assertEquals(List.of("b", "a2"), executed);
+    }
+
+    @Test
+    void otherOpOnSameEntityPreventsCoalescing() {
+        writer.commit(List.of(
+                op("boss", "status:1", "a1"),
+                op("boss", "insert:1", "i"),
+                op("boss", "status:1", "a2")));
+        assertEquals(List.of("a1", "i", "a2"), executed);
+    }
+
+    @Test
+    void keylessOpPreventsCoalescing() {
+        writer.commit(List.of(
+                op("boss", "status:1", "a1"),
+                op("boss", null, "x"),
+                op("boss", "status:1", "a2")));
+        assertEquals(List.of("a1", "x", "a2"), executed);
+    }
+
+    @Test
+    void sameKeyFromDifferentSourcesIsNotCoalesced() {
+        writer.commit(List.of(
+                op("boss", "status:1", "boss"),
+                op("liepin", "status:1", "liepin")));
+        assertEquals(List.of("boss", "liepin"), executed);
+    }
+
+    @Test
+    void failedOpRollsBackOnlyItself() throws Exception {
+        GroupCommitWriter.Pending failing = new GroupCommitWriter.Pending("boss", "status:2", conn -> {
+            insert(conn, "bad");
+            throw new IllegalStateException("boom");
+        }, new CompletableFuture<>());
+        writer.commit(List.of(op("boss", "status:1", "a"), failing, op("boss", "status:3", "c")));
+
+        assertTrue(failing.future().isCompletedExceptionally());
+        List<String> rows = new ArrayList<>();
+        try (Statement st = dataSource.getConnection().createStatement();
+             ResultSet rs = st.executeQuery("SELECT name FROM t ORDER BY rowid")) {
+            while (rs.next()) {
+                rows.add(rs.getString(1));
+            }
+        }
+        assertEquals(List.of("a", "c"), rows);
+    }
+
+    private GroupCommitWriter.Pending op(String source, String key, String name) {
+        return new GroupCommitWriter.Pending(source, key, conn -> {
+            executed.add(name);
+            insert(conn, name);
+        }, new CompletableFuture<>());
+    }
+
+    private static void insert(Connection conn, String name) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO t (name) VALUES (?)")) {
+            ps.setString(1, name);
+            ps.executeUpdate();
+        }
+    }
+}
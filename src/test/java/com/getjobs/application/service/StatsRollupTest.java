@@ -0,0 +1,187 @@
+package com.getjobs.application.service;
+
+import com.getjobs.application.init.SchemaMigrator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 汇总触发器在插入、更新、删除时的增减，以及扣减后薪资档最大值的重算
+ */
+class StatsRollupTest {
+
+    private static final String DAY = "2025-03-01";
+
+    private SingleConnectionDataSource dataSource;
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite::memory:", true);
+        new SchemaMigrator(dataSource).migrate();
+        conn = dataSource.getConnection();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void insertAddsEveryDimension() throws Exception {
+        insert(1, "未投递", "上海", 12.0);
+        insert(2, "未投递", "上海", 14.0);
+
+        assertEquals(2, cnt("status", "未投递"));
+        assertEquals(2, cnt("city", "上海"));
+        assertEquals(2, cnt("hr", "李HR"));
+        assertEquals(2, cnt("salary", "2"));
+        assertEquals(26.0, sumK("2"), 1e-9);
+        assertEquals(14.0, maxK("2"), 1e-9);
+    }
+
+    @Test
+    void statusUpdateMovesCountBetweenValues() throws Exception {
+        insert(1, "未投递", "上海", 12.0);
+        insert(2, "未投递", "上海", 14.0);
+
+        exec("UPDATE boss_data SET delivery_status = '已投递' WHERE id = 1");
+
+        assertEquals(1, cnt("status", "未投递"));
+        assertEquals(1, cnt("status", "已投递"));
+        // 未变化的维度扣减后再加回，净值不变
+        assertEquals(2, cnt("city", "上海"));
+        assertEquals(2, cnt("salary", "2"));
+        assertEquals(14.0, maxK("2"), 1e-9);
+    }
+
+    @Test
+    void unrelatedColumnUpdateLeavesRollupUntouched() throws Exception {
+        insert(1, "未投递", "上海", 12.0);
+        List<String> before = snapshot();
+
+        exec("UPDATE boss_data SET job_url = 'https://example.com/1', updated_at = '2025-03-02' WHERE id = 1");
+
+        assertEquals(before, snapshot());
+    }
+
+    @Test
+    void deleteSubtractsAndRecomputesBucketMax() throws Exception {
+        insert(1, "未投递", "上海", 12.0);
+        insert(2, "未投递", "北京", 14.0);
+
+        exec("DELETE FROM boss_data WHERE id = 2");
+
+        assertEquals(1, cnt("status", "未投递"));
+        assertEquals(0, cnt("city", "北京"));
+        assertEquals(1, cnt("salary", "2"));
+        assertEquals(12.0, sumK("2"), 1e-9);
+        // 删除的是该档最大值，需从数据表重算
+        assertEquals(12.0, maxK("2"), 1e-9);
+
+        exec("DELETE FROM boss_data WHERE id = 1");
+        assertEquals(0, cnt("salary", "2"));
+        assertNull(maxK("2"));
+    }
+
+    @Test
+    void salaryUpdateMovesBetweenBuckets() throws Exception {
+        insert(1, "未投递", "上海", 12.0);
+        insert(2, "未投递", "上海", 14.0);
+
+        exec("UPDATE boss_data SET median_k = 21.0 WHERE id = 2");
+
+        assertEquals(1, cnt("salary", "2"));
+        assertEquals(12.0, maxK("2"), 1e-9);
+        assertEquals(1, cnt("salary", "4"));
+        assertEquals(21.0, maxK("4"), 1e-9);
+    }
+
+    @Test
+    void triggerMaintainedRollupMatchesRebuild() throws Exception {
+        insert(1, "未投递", "上海", 12.0);
+        insert(2, "未投递", "北京", 14.0);
+        insert(3, "已投递", "上海", null);
+        exec("UPDATE boss_data SET delivery_status = '已投递', location = '杭州' WHERE id = 1");
+        exec("UPDATE boss_data SET median_k = 8.0 WHERE id = 2");
+        exec("DELETE FROM boss_data WHERE id = 3");
+        List<String> incremental = snapshot();
+
+        try (Statement st = conn.createStatement()) {
+            StatsRollup.install(st);
+        }
+        assertEquals(snapshot(), incremental);
+    }
+
+    private void insert(long id, String status, String city, Double medianK) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO boss_data (id, company_name, job_name, location, "
+                + "industry, experience, degree, hr_name, hr_active_status, delivery_status, median_k, created_at) "
+                + "VALUES (?, '某公司', 'Java开发', ?, '互联网', '3-5年', '本科', '李HR', '刚刚活跃', ?, ?, ?)")) {
+            ps.setLong(1, id);
+            ps.setString(2, city);
+            ps.setString(3, status);
+            ps.setObject(4, medianK);
+            ps.setString(5, DAY + " 10:00:00");
+            ps.executeUpdate();
+        }
+    }
+
+    private void exec(String sql) throws Exception {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate(sql);
+        }
+    }
+
+    private int cnt(String dimension, String value) throws Exception {
+        Object v = column("cnt", dimension, value);
+        return v == null ? 0 : ((Number) v).intValue();
+    }
+
+    private double sumK(String bucket) throws Exception {
+        return ((Number) column("sum_k", "salary", bucket)).doubleValue();
+    }
+
+    private Double maxK(String bucket) throws Exception {
+        Object v = column("max_k", "salary", bucket);
+        return v == null ? null : ((Number) v).doubleValue();
+    }
+
+    private Object column(String column, String dimension, String value) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT " + column + " FROM " + StatsRollup.TABLE
+                + " WHERE platform = 'boss' AND day = ? AND dimension = ? AND value = ?")) {
+            ps.setString(1, DAY);
+            ps.setString(2, dimension);
+            ps.setString(3, value);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getObject(1) : null;
+            }
+        }
+    }
+
+    /**
+     * 非零分组（触发器扣减到 0 的分组保留在表中，重建时不会生成）
+     */
+    private List<String> snapshot() throws Exception {
+        List<String> rows = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT day, dimension, value, cnt, sum_k, max_k FROM " + StatsRollup.TABLE
+                     + " WHERE platform = 'boss' AND cnt <> 0 ORDER BY day, dimension, value")) {
+            while (rs.next()) {
+                rows.add(rs.getString(1) + "|" + rs.getString(2) + "|" + rs.getString(3) + "|" + rs.getInt(4)
+                        + "|" + rs.getDouble(5) + "|" + rs.getObject(6));
+            }
+        }
+        return rows;
+    }
+}